@@ -1,10 +1,12 @@
 package com.dfbs.app.application.account;
 
 import com.dfbs.app.application.perm.PermAccountOverrideService;
+import com.dfbs.app.application.perm.PermCacheEvictEvent;
 import com.dfbs.app.modules.orgstructure.OrgPersonEntity;
 import com.dfbs.app.modules.orgstructure.OrgPersonRepo;
 import com.dfbs.app.modules.user.UserEntity;
 import com.dfbs.app.modules.user.UserRepo;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -26,19 +28,22 @@ public class AdminAccountService {
     private final PasswordEncoder passwordEncoder;
     private final DefaultPasswordService defaultPasswordService;
     private final PermAccountOverrideService accountOverrideService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AdminAccountService(UserRepo userRepo,
                               AccountBindingValidationService bindingValidation,
                               OrgPersonRepo orgPersonRepo,
                               PasswordEncoder passwordEncoder,
                               DefaultPasswordService defaultPasswordService,
-                              PermAccountOverrideService accountOverrideService) {
+                              PermAccountOverrideService accountOverrideService,
+                              ApplicationEventPublisher eventPublisher) {
         this.userRepo = userRepo;
         this.bindingValidation = bindingValidation;
         this.orgPersonRepo = orgPersonRepo;
         this.passwordEncoder = passwordEncoder;
         this.defaultPasswordService = defaultPasswordService;
         this.accountOverrideService = accountOverrideService;
+        this.eventPublisher = eventPublisher;
     }
 
     /** Create account bound to org person; username globally unique; optional roleTemplateId applied via override; optional primaryBusinessRole. */
@@ -121,6 +126,7 @@ public class AdminAccountService {
         UserEntity u = userRepo.findById(userId).orElseThrow(() -> new UserNotFoundException("用户不存在: id=" + userId));
         u.setEnabled(enabled);
         userRepo.save(u);
+        eventPublisher.publishEvent(PermCacheEvictEvent.forUser(userId));
     }
 
     @Transactional
@@ -73,6 +73,7 @@ public class BomService {
 
         Long versionId = versionEntity.getId();
         Set<String> seenIndexNos = new HashSet<>();
+        List<BomItemEntity> items = new ArrayList<>(rows.size());
         for (int i = 0; i < rows.size(); i++) {
             BomImportExcelRow row = rows.get(i);
             int excelRow = i + 2;
@@ -113,8 +114,9 @@ public class BomService {
             item.setQuantity(quantity);
             item.setIsOptional(isOptional);
             item.setRemark(remark);
-            bomItemRepo.save(item);
+            items.add(item);
         }
+        bomItemRepo.saveAll(items);
 
         return versionEntity;
     }
@@ -0,0 +1,4 @@
+package com.dfbs.app.application.carrier;
+
+/** Recommended carrier (id, name) and the rule whose keyword matched. */
+public record CarrierRecommendation(Long id, String name, Long ruleId, String matchKeyword) {}
@@ -0,0 +1,10 @@
+package com.dfbs.app.application.carrier;
+
+import com.dfbs.app.modules.carrier.CarrierRuleEntity;
+
+public record CarrierRuleDto(Long id, Long carrierId, String matchKeyword, Integer priority) {
+
+    public static CarrierRuleDto from(CarrierRuleEntity e) {
+        return new CarrierRuleDto(e.getId(), e.getCarrier().getId(), e.getMatchKeyword(), e.getPriority());
+    }
+}
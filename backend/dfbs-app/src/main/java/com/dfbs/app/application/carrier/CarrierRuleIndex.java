@@ -0,0 +1,160 @@
+package com.dfbs.app.application.carrier;
+
+import com.dfbs.app.config.TransactionMarkers;
+import com.dfbs.app.modules.carrier.CarrierRuleEntity;
+import com.dfbs.app.modules.carrier.CarrierRuleRepo;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carrier rules of active carriers compiled into one Aho–Corasick automaton over the trimmed match keywords:
+ * one pass over an address finds every contained keyword, and the rule ranked first (priority DESC, as loaded)
+ * wins, same as the former contains-check per rule. Compiled on first use; dropped after commit via
+ * {@link CarrierRulesChangedEvent}. A build that raced with a change is not stored (generation check and store are
+ * one step under the index's lock, as is the drop), and a transaction that changed carriers or rules matches against
+ * a fresh build until it completes.
+ */
+@Component
+public class CarrierRuleIndex {
+
+    private static final Object TX_CHANGED_KEY = new Object();
+
+    private final CarrierRuleRepo ruleRepo;
+
+    private volatile Matcher matcher;
+    /** Guarded by this, as are stores into matcher. */
+    private long generation;
+
+    public CarrierRuleIndex(CarrierRuleRepo ruleRepo) {
+        this.ruleRepo = ruleRepo;
+    }
+
+    /** Best rule whose keyword is contained in address, or null. */
+    public CarrierRecommendation match(String address) {
+        return matcher().match(address);
+    }
+
+    private Matcher matcher() {
+        if (TransactionMarkers.isMarked(TX_CHANGED_KEY)) {
+            return Matcher.compile(ruleRepo.findAllWithCarrierOrderByPriorityDesc());
+        }
+        Matcher current = matcher;
+        if (current != null) return current;
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+        Matcher built = Matcher.compile(ruleRepo.findAllWithCarrierOrderByPriorityDesc());
+        synchronized (this) {
+            if (generation == startGeneration) {
+                matcher = built;
+            }
+        }
+        return built;
+    }
+
+    /** Marks the publishing transaction so its own matches bypass the shared matcher until it completes. */
+    @EventListener
+    public void onChanged(CarrierRulesChangedEvent event) {
+        TransactionMarkers.mark(TX_CHANGED_KEY);
+    }
+
+    /** Runs after commit (or immediately when no transaction is active). */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRulesChanged(CarrierRulesChangedEvent event) {
+        generation++;
+        matcher = null;
+    }
+
+    /**
+     * Trie with failure links, flattened to arrays. best[state] is the lowest rule rank ending at that state or at
+     * any suffix state (folded in along failure links at build time), so matching keeps a running minimum.
+     */
+    static final class Matcher {
+
+        private static final int NONE = Integer.MAX_VALUE;
+
+        private final List<Map<Character, Integer>> next;
+        private final int[] fail;
+        private final int[] best;
+        private final CarrierRecommendation[] byRank;
+
+        private Matcher(List<Map<Character, Integer>> next, int[] fail, int[] best, CarrierRecommendation[] byRank) {
+            this.next = next;
+            this.fail = fail;
+            this.best = best;
+            this.byRank = byRank;
+        }
+
+        /** rules must be in rank order (highest priority first). A blank keyword matches every address. */
+        static Matcher compile(List<CarrierRuleEntity> rules) {
+            List<Map<Character, Integer>> next = new ArrayList<>();
+            List<Integer> bestList = new ArrayList<>();
+            next.add(new HashMap<>());
+            bestList.add(NONE);
+            CarrierRecommendation[] byRank = new CarrierRecommendation[rules.size()];
+            for (int rank = 0; rank < rules.size(); rank++) {
+                CarrierRuleEntity rule = rules.get(rank);
+                if (rule.getMatchKeyword() == null) continue;
+                String keyword = rule.getMatchKeyword().trim();
+                byRank[rank] = new CarrierRecommendation(rule.getCarrier().getId(), rule.getCarrier().getName(),
+                        rule.getId(), keyword);
+                int state = 0;
+                for (int i = 0; i < keyword.length(); i++) {
+                    Integer to = next.get(state).get(keyword.charAt(i));
+                    if (to == null) {
+                        to = next.size();
+                        next.add(new HashMap<>());
+                        bestList.add(NONE);
+                        next.get(state).put(keyword.charAt(i), to);
+                    }
+                    state = to;
+                }
+                if (rank < bestList.get(state)) bestList.set(state, rank);
+            }
+
+            int[] fail = new int[next.size()];
+            int[] best = bestList.stream().mapToInt(Integer::intValue).toArray();
+            ArrayDeque<Integer> queue = new ArrayDeque<>(next.get(0).values());
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                best[state] = Math.min(best[state], best[fail[state]]);
+                for (Map.Entry<Character, Integer> edge : next.get(state).entrySet()) {
+                    int child = edge.getValue();
+                    fail[child] = step(next, fail, fail[state], edge.getKey(), child);
+                    queue.add(child);
+                }
+            }
+            return new Matcher(next, fail, best, byRank);
+        }
+
+        /** Goto from state on c following failure links; self is the child being linked (never its own target). */
+        private static int step(List<Map<Character, Integer>> next, int[] fail, int state, char c, int self) {
+            while (true) {
+                Integer to = next.get(state).get(c);
+                if (to != null && to != self) return to;
+                if (state == 0) return 0;
+                state = fail[state];
+            }
+        }
+
+        CarrierRecommendation match(String address) {
+            if (address == null || address.isBlank()) return null;
+            String normalized = address.trim();
+            int found = best[0];
+            int state = 0;
+            for (int i = 0; i < normalized.length() && found > 0; i++) {
+                state = step(next, fail, state, normalized.charAt(i), -1);
+                found = Math.min(found, best[state]);
+            }
+            return found != NONE ? byRank[found] : null;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.dfbs.app.application.carrier;
+
+/**
+ * Published when carriers or carrier rules change. Handled after commit by {@link CarrierRuleIndex}, which
+ * drops its compiled matcher.
+ */
+public record CarrierRulesChangedEvent() {}
@@ -4,9 +4,12 @@ import com.dfbs.app.modules.carrier.CarrierEntity;
 import com.dfbs.app.modules.carrier.CarrierRepo;
 import com.dfbs.app.modules.carrier.CarrierRuleEntity;
 import com.dfbs.app.modules.carrier.CarrierRuleRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -14,10 +17,18 @@ public class CarrierService {
 
     private final CarrierRepo carrierRepo;
     private final CarrierRuleRepo ruleRepo;
+    private final CarrierRuleIndex ruleIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int recommendBatchMax;
 
-    public CarrierService(CarrierRepo carrierRepo, CarrierRuleRepo ruleRepo) {
+    public CarrierService(CarrierRepo carrierRepo, CarrierRuleRepo ruleRepo, CarrierRuleIndex ruleIndex,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${dfbs.carrier.recommend-batch-max:1000}") int recommendBatchMax) {
         this.carrierRepo = carrierRepo;
         this.ruleRepo = ruleRepo;
+        this.ruleIndex = ruleIndex;
+        this.eventPublisher = eventPublisher;
+        this.recommendBatchMax = recommendBatchMax;
     }
 
     @Transactional(readOnly = true)
@@ -37,7 +48,9 @@ public class CarrierService {
         CarrierEntity e = new CarrierEntity();
         e.setName(name.trim());
         e.setIsActive(isActive != null ? isActive : true);
-        return carrierRepo.save(e);
+        CarrierEntity saved = carrierRepo.save(e);
+        eventPublisher.publishEvent(new CarrierRulesChangedEvent());
+        return saved;
     }
 
     @Transactional
@@ -45,28 +58,60 @@ public class CarrierService {
         CarrierEntity e = getById(id);
         if (name != null && !name.isBlank()) e.setName(name.trim());
         if (isActive != null) e.setIsActive(isActive);
-        return carrierRepo.save(e);
+        CarrierEntity saved = carrierRepo.save(e);
+        eventPublisher.publishEvent(new CarrierRulesChangedEvent());
+        return saved;
     }
 
     @Transactional
     public void delete(Long id) {
         if (!carrierRepo.existsById(id)) throw new IllegalStateException("Carrier not found: id=" + id);
         carrierRepo.deleteById(id);
+        eventPublisher.publishEvent(new CarrierRulesChangedEvent());
+    }
+
+    @Transactional(readOnly = true)
+    public List<CarrierRuleDto> listRules(Long carrierId) {
+        return ruleRepo.findByCarrierIdOrderByPriorityDesc(carrierId).stream().map(CarrierRuleDto::from).toList();
+    }
+
+    @Transactional
+    public CarrierRuleDto addRule(Long carrierId, String matchKeyword, Integer priority) {
+        if (matchKeyword == null || matchKeyword.isBlank()) throw new IllegalStateException("Match keyword cannot be blank");
+        CarrierRuleEntity rule = new CarrierRuleEntity();
+        rule.setCarrier(getById(carrierId));
+        rule.setMatchKeyword(matchKeyword.trim());
+        rule.setPriority(priority != null ? priority : 0);
+        CarrierRuleDto saved = CarrierRuleDto.from(ruleRepo.save(rule));
+        eventPublisher.publishEvent(new CarrierRulesChangedEvent());
+        return saved;
+    }
+
+    @Transactional
+    public void deleteRule(Long ruleId) {
+        if (!ruleRepo.existsById(ruleId)) throw new IllegalStateException("Carrier rule not found: id=" + ruleId);
+        ruleRepo.deleteById(ruleId);
+        eventPublisher.publishEvent(new CarrierRulesChangedEvent());
     }
 
     /**
-     * Recommend carrier by address: first rule whose match_keyword is contained in address (rules sorted by priority DESC).
+     * Recommend carrier by address: the highest-priority rule of an active carrier whose match_keyword is contained
+     * in address. Served from {@link CarrierRuleIndex} (one pass over the address, no query).
      */
-    @Transactional(readOnly = true)
-    public CarrierEntity recommendCarrier(String address) {
-        if (address == null || address.isBlank()) return null;
-        String normalized = address.trim();
-        List<CarrierRuleEntity> rules = ruleRepo.findAllWithCarrierOrderByPriorityDesc();
-        for (CarrierRuleEntity rule : rules) {
-            if (rule.getMatchKeyword() != null && normalized.contains(rule.getMatchKeyword().trim())) {
-                return rule.getCarrier();
-            }
+    public CarrierRecommendation recommendCarrier(String address) {
+        return ruleIndex.match(address);
+    }
+
+    /** recommendCarrier for each address, in order (null entries where nothing matched). */
+    public List<CarrierRecommendation> recommendCarriers(List<String> addresses) {
+        if (addresses == null || addresses.isEmpty()) return List.of();
+        if (addresses.size() > recommendBatchMax) {
+            throw new IllegalArgumentException("一次最多推荐 " + recommendBatchMax + " 个地址");
+        }
+        List<CarrierRecommendation> result = new ArrayList<>(addresses.size());
+        for (String address : addresses) {
+            result.add(ruleIndex.match(address));
         }
-        return null;
+        return result;
     }
 }
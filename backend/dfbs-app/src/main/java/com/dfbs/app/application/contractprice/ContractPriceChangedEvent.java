@@ -0,0 +1,7 @@
+package com.dfbs.app.application.contractprice;
+
+/**
+ * Published when a customer's contract prices are created, updated or deactivated. {@link ContractPriceIndex}
+ * reads the customer uncached for the rest of the publishing transaction and drops its index after commit.
+ */
+public record ContractPriceChangedEvent(Long customerId) {}
@@ -0,0 +1,181 @@
+package com.dfbs.app.application.contractprice;
+
+import com.dfbs.app.config.TransactionMarkers;
+import com.dfbs.app.modules.contractprice.ContractPriceHeaderEntity;
+import com.dfbs.app.modules.contractprice.ContractPriceHeaderRepo;
+import com.dfbs.app.modules.contractprice.ContractPriceItemEntity;
+import com.dfbs.app.modules.contractprice.ContractStatus;
+import com.dfbs.app.modules.quote.enums.Currency;
+import com.dfbs.app.modules.quote.enums.QuoteExpenseType;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-customer contract price index over ACTIVE contracts: for each expense type, the dates at which the winning
+ * price changes and the winner from each date on (PLATFORM: LOWEST_PRICE, others: PRIORITY), so a suggestion is
+ * a binary search on docDate. Built with one query on first lookup; dropped after commit via
+ * {@link ContractPriceChangedEvent}. A build that raced with an eviction is not stored (generation check), and a
+ * transaction that changed contract prices always reads fresh (its changes are not visible to anyone else yet).
+ */
+@Component
+public class ContractPriceIndex {
+
+    static final String STRATEGY_LOWEST_PRICE = "LOWEST_PRICE";
+    static final String STRATEGY_PRIORITY = "PRIORITY";
+
+    /** Winning contract line; unitPrice/currency already defaulted (0, CNY). */
+    public record Price(Long contractId, BigDecimal unitPrice, Currency currency, String strategy) {
+        public PriceSuggestionDto toSuggestion() {
+            return PriceSuggestionDto.of(unitPrice, currency,
+                    "{\"contractId\":" + contractId + ",\"strategy\":\"" + strategy + "\"}");
+        }
+    }
+
+    /** starts[i] is the first date winners[i] applies to (until starts[i + 1]); a null winner means no contract. */
+    record Timeline(LocalDate[] starts, Price[] winners) {
+        Price at(LocalDate docDate) {
+            int i = Arrays.binarySearch(starts, docDate);
+            if (i < 0) i = -i - 2;
+            return i >= 0 ? winners[i] : null;
+        }
+    }
+
+    public record CustomerIndex(Long customerId, Map<QuoteExpenseType, Timeline> byType) {
+        public Price lookup(QuoteExpenseType itemType, LocalDate docDate) {
+            if (itemType == null || docDate == null) return null;
+            Timeline timeline = byType.get(itemType);
+            return timeline != null ? timeline.at(docDate) : null;
+        }
+    }
+
+    private static final Object TX_CHANGED_KEY = new Object();
+
+    private static final Comparator<ContractPriceItemEntity> PRIORITY_ORDER = Comparator
+            .comparing((ContractPriceItemEntity i) -> i.getHeader().getPriority(), Comparator.reverseOrder())
+            .thenComparing(i -> effectiveFrom(i.getHeader()), Comparator.reverseOrder());
+
+    private static final Comparator<ContractPriceItemEntity> LOWEST_PRICE_ORDER = Comparator
+            .comparing(ContractPriceItemEntity::getUnitPrice)
+            .thenComparing(PRIORITY_ORDER);
+
+    private final ContractPriceHeaderRepo headerRepo;
+
+    private final Map<Long, CustomerIndex> byCustomer = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ContractPriceIndex(ContractPriceHeaderRepo headerRepo) {
+        this.headerRepo = headerRepo;
+    }
+
+    /** Index for customerId; builds on miss. */
+    public CustomerIndex get(Long customerId) {
+        if (TransactionMarkers.isMarked(TX_CHANGED_KEY)) {
+            return build(customerId);
+        }
+        CustomerIndex cached = byCustomer.get(customerId);
+        if (cached != null) return cached;
+        long startGeneration = generation.get();
+        CustomerIndex built = build(customerId);
+        if (generation.get() == startGeneration) {
+            byCustomer.putIfAbsent(customerId, built);
+        }
+        return built;
+    }
+
+    private CustomerIndex build(Long customerId) {
+        List<ContractPriceHeaderEntity> headers = headerRepo.findByCustomerIdAndStatusWithItems(customerId, ContractStatus.ACTIVE);
+        Map<QuoteExpenseType, List<ContractPriceItemEntity>> candidates = new EnumMap<>(QuoteExpenseType.class);
+        for (ContractPriceHeaderEntity h : headers) {
+            for (ContractPriceItemEntity item : h.getItems()) {
+                if (item.getItemType() == null) continue;
+                candidates.computeIfAbsent(item.getItemType(), t -> new ArrayList<>()).add(item);
+            }
+        }
+        Map<QuoteExpenseType, Timeline> byType = new EnumMap<>(QuoteExpenseType.class);
+        candidates.forEach((type, items) -> byType.put(type, timeline(type, items)));
+        return new CustomerIndex(customerId, byType);
+    }
+
+    /**
+     * The active set only changes at an effective date or the day after an expiration date, so one winner per
+     * such boundary covers every docDate. Ties keep query order, as the former sort-and-take-first did.
+     */
+    private static Timeline timeline(QuoteExpenseType type, List<ContractPriceItemEntity> items) {
+        boolean lowestPrice = type == QuoteExpenseType.PLATFORM;
+        Comparator<ContractPriceItemEntity> order = lowestPrice ? LOWEST_PRICE_ORDER : PRIORITY_ORDER;
+        String strategy = lowestPrice ? STRATEGY_LOWEST_PRICE : STRATEGY_PRIORITY;
+
+        TreeSet<LocalDate> boundaries = new TreeSet<>();
+        boundaries.add(LocalDate.MIN);
+        for (ContractPriceItemEntity item : items) {
+            ContractPriceHeaderEntity h = item.getHeader();
+            if (h.getEffectiveDate() != null) boundaries.add(h.getEffectiveDate());
+            if (h.getExpirationDate() != null && h.getExpirationDate().isBefore(LocalDate.MAX)) {
+                boundaries.add(h.getExpirationDate().plusDays(1));
+            }
+        }
+
+        List<LocalDate> starts = new ArrayList<>();
+        List<Price> winners = new ArrayList<>();
+        ContractPriceItemEntity previous = null;
+        for (LocalDate start : boundaries) {
+            ContractPriceItemEntity best = null;
+            for (ContractPriceItemEntity item : items) {
+                if (covers(item.getHeader(), start) && (best == null || order.compare(item, best) < 0)) {
+                    best = item;
+                }
+            }
+            if (!starts.isEmpty() && best == previous) continue;
+            starts.add(start);
+            winners.add(best != null ? price(best, strategy) : null);
+            previous = best;
+        }
+        return new Timeline(starts.toArray(new LocalDate[0]), winners.toArray(new Price[0]));
+    }
+
+    private static boolean covers(ContractPriceHeaderEntity h, LocalDate date) {
+        if (h.getEffectiveDate() != null && date.isBefore(h.getEffectiveDate())) return false;
+        return h.getExpirationDate() == null || !date.isAfter(h.getExpirationDate());
+    }
+
+    private static LocalDate effectiveFrom(ContractPriceHeaderEntity h) {
+        return h.getEffectiveDate() != null ? h.getEffectiveDate() : LocalDate.MIN;
+    }
+
+    private static Price price(ContractPriceItemEntity item, String strategy) {
+        return new Price(item.getHeader().getId(),
+                item.getUnitPrice() != null ? item.getUnitPrice() : BigDecimal.ZERO,
+                item.getCurrency() != null ? item.getCurrency() : Currency.CNY,
+                strategy);
+    }
+
+    /** Marks the publishing transaction so its own lookups bypass the shared index until it completes. */
+    @EventListener
+    public void onChanged(ContractPriceChangedEvent event) {
+        TransactionMarkers.mark(TX_CHANGED_KEY);
+    }
+
+    /** Runs after commit (or immediately when no transaction is active). */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvict(ContractPriceChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.customerId() == null) {
+            byCustomer.clear();
+        } else {
+            byCustomer.remove(event.customerId());
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.dfbs.app.modules.contractprice.ContractPriceItemEntity;
 import com.dfbs.app.modules.contractprice.ContractStatus;
 import com.dfbs.app.modules.quote.enums.Currency;
 import com.dfbs.app.modules.quote.enums.QuoteExpenseType;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,73 +15,52 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ContractPriceService {
 
-    private static final String STRATEGY_LOWEST_PRICE = "LOWEST_PRICE";
-    private static final String STRATEGY_PRIORITY = "PRIORITY";
-
     private final ContractPriceHeaderRepo headerRepo;
     private final CurrentUserIdResolver userIdResolver;
+    private final ContractPriceIndex priceIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ContractPriceService(ContractPriceHeaderRepo headerRepo, CurrentUserIdResolver userIdResolver) {
+    public ContractPriceService(ContractPriceHeaderRepo headerRepo, CurrentUserIdResolver userIdResolver,
+                                ContractPriceIndex priceIndex, ApplicationEventPublisher eventPublisher) {
         this.headerRepo = headerRepo;
         this.userIdResolver = userIdResolver;
+        this.priceIndex = priceIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Calculate suggested price from active contract prices for customer on docDate and itemType.
      * PLATFORM: lowest price first; others (DATA_PLAN, REPAIR, SHIPPING, etc.): highest priority first.
+     * Served from {@link ContractPriceIndex}.
      */
-    @Transactional(readOnly = true)
     public PriceSuggestionDto calculateSuggestedPrice(Long customerId, LocalDate docDate, QuoteExpenseType itemType) {
-        List<ContractPriceHeaderEntity> headers = headerRepo.findByCustomerIdAndStatusWithItems(customerId, ContractStatus.ACTIVE);
-        List<ContractPriceItemEntity> candidates = new ArrayList<>();
-        for (ContractPriceHeaderEntity h : headers) {
-            if (!inDateRange(h, docDate)) continue;
-            for (ContractPriceItemEntity item : h.getItems()) {
-                if (item.getItemType() == itemType) {
-                    candidates.add(item);
-                }
-            }
-        }
-        if (candidates.isEmpty()) return null;
-
-        Comparator<ContractPriceItemEntity> comparator;
-        String strategy;
-        if (itemType == QuoteExpenseType.PLATFORM) {
-            comparator = Comparator
-                    .comparing(ContractPriceItemEntity::getUnitPrice)
-                    .thenComparing(i -> i.getHeader().getPriority(), Comparator.reverseOrder())
-                    .thenComparing(i -> i.getHeader().getEffectiveDate() != null ? i.getHeader().getEffectiveDate() : LocalDate.MIN, Comparator.reverseOrder());
-            strategy = STRATEGY_LOWEST_PRICE;
-        } else {
-            comparator = Comparator
-                    .comparing((ContractPriceItemEntity i) -> i.getHeader().getPriority(), Comparator.reverseOrder())
-                    .thenComparing(i -> i.getHeader().getEffectiveDate() != null ? i.getHeader().getEffectiveDate() : LocalDate.MIN, Comparator.reverseOrder());
-            strategy = STRATEGY_PRIORITY;
-        }
-
-        ContractPriceItemEntity top = candidates.stream().sorted(comparator).findFirst().orElse(null);
-        if (top == null) return null;
-
-        BigDecimal price = top.getUnitPrice() != null ? top.getUnitPrice() : BigDecimal.ZERO;
-        Currency currency = top.getCurrency() != null ? top.getCurrency() : Currency.CNY;
-        String sourceInfo = buildSourceInfo(top.getHeader().getId(), strategy);
-        return PriceSuggestionDto.of(price, currency, sourceInfo);
+        ContractPriceIndex.Price top = priceIndex.get(customerId).lookup(itemType, docDate);
+        return top != null ? top.toSuggestion() : null;
     }
 
-    private boolean inDateRange(ContractPriceHeaderEntity h, LocalDate docDate) {
-        if (h.getEffectiveDate() != null && docDate.isBefore(h.getEffectiveDate())) return false;
-        if (h.getExpirationDate() != null && docDate.isAfter(h.getExpirationDate())) return false;
-        return true;
-    }
-
-    private String buildSourceInfo(Long contractId, String strategy) {
-        return "{\"contractId\":" + contractId + ",\"strategy\":\"" + strategy + "\"}";
+    /**
+     * Suggested price per item type for one customer and docDate (one index lookup for all lines of a quote).
+     * Types without a matching contract are absent from the result.
+     */
+    public Map<QuoteExpenseType, PriceSuggestionDto> calculateSuggestedPrices(Long customerId, LocalDate docDate,
+                                                                              Collection<QuoteExpenseType> itemTypes) {
+        Map<QuoteExpenseType, PriceSuggestionDto> result = new EnumMap<>(QuoteExpenseType.class);
+        if (customerId == null || itemTypes == null || itemTypes.isEmpty()) return result;
+        ContractPriceIndex.CustomerIndex index = priceIndex.get(customerId);
+        for (QuoteExpenseType type : itemTypes) {
+            if (type == null || result.containsKey(type)) continue;
+            ContractPriceIndex.Price top = index.lookup(type, docDate);
+            if (top != null) result.put(type, top.toSuggestion());
+        }
+        return result;
     }
 
     @Transactional
@@ -102,7 +82,9 @@ public class ContractPriceService {
             item.setCurrency(e.getCurrency() != null ? e.getCurrency() : Currency.CNY);
             header.getItems().add(item);
         }
-        return headerRepo.save(header);
+        ContractPriceHeaderEntity saved = headerRepo.save(header);
+        eventPublisher.publishEvent(new ContractPriceChangedEvent(saved.getCustomerId()));
+        return saved;
     }
 
     @Transactional
@@ -126,7 +108,9 @@ public class ContractPriceService {
                 header.getItems().add(item);
             }
         }
-        return headerRepo.save(header);
+        ContractPriceHeaderEntity saved = headerRepo.save(header);
+        eventPublisher.publishEvent(new ContractPriceChangedEvent(saved.getCustomerId()));
+        return saved;
     }
 
     @Transactional
@@ -134,7 +118,9 @@ public class ContractPriceService {
         ContractPriceHeaderEntity header = headerRepo.findById(id)
                 .orElseThrow(() -> new IllegalStateException("Contract not found: id=" + id));
         header.setStatus(ContractStatus.INACTIVE);
-        return headerRepo.save(header);
+        ContractPriceHeaderEntity saved = headerRepo.save(header);
+        eventPublisher.publishEvent(new ContractPriceChangedEvent(saved.getCustomerId()));
+        return saved;
     }
 
     public static final class CreateContractCommand {
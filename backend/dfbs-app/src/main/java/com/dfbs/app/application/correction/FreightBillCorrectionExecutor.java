@@ -1,5 +1,7 @@
 package com.dfbs.app.application.correction;
 
+import com.dfbs.app.application.docnumber.DocumentNumberService;
+import com.dfbs.app.application.docnumber.DocumentType;
 import com.dfbs.app.application.freightbill.FreightBillService;
 import com.dfbs.app.modules.freightbill.FreightBillEntity;
 import com.dfbs.app.modules.freightbill.FreightBillItemEntity;
@@ -21,15 +23,18 @@ public class FreightBillCorrectionExecutor implements CorrectionExecutor {
     private final FreightBillRepo freightBillRepo;
     private final FreightBillItemRepo freightBillItemRepo;
     private final ShipmentRepo shipmentRepo;
+    private final DocumentNumberService documentNumberService;
 
     public FreightBillCorrectionExecutor(FreightBillService freightBillService,
                                           FreightBillRepo freightBillRepo,
                                           FreightBillItemRepo freightBillItemRepo,
-                                          ShipmentRepo shipmentRepo) {
+                                          ShipmentRepo shipmentRepo,
+                                          DocumentNumberService documentNumberService) {
         this.freightBillService = freightBillService;
         this.freightBillRepo = freightBillRepo;
         this.freightBillItemRepo = freightBillItemRepo;
         this.shipmentRepo = shipmentRepo;
+        this.documentNumberService = documentNumberService;
     }
 
     @Override
@@ -45,8 +50,7 @@ public class FreightBillCorrectionExecutor implements CorrectionExecutor {
                 .orElseThrow(() -> new IllegalStateException("Freight bill not found: id=" + oldId));
         List<FreightBillItemEntity> oldItems = freightBillItemRepo.findByBillIdOrderByIdAsc(oldId);
 
-        String newBillNo = "FB-" + System.currentTimeMillis();
-        while (freightBillRepo.existsByBillNo(newBillNo)) newBillNo = "FB-" + System.currentTimeMillis();
+        String newBillNo = documentNumberService.next(DocumentType.FREIGHT_BILL);
 
         FreightBillEntity neu = new FreightBillEntity();
         neu.setBillNo(newBillNo);
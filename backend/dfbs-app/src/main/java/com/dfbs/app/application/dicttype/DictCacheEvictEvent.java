@@ -0,0 +1,16 @@
+package com.dfbs.app.application.dicttype;
+
+/**
+ * Published when a dictionary type, its items or its transitions change. Handled after commit by
+ * {@link DictionaryCache}: drops the type's snapshot (typeId null = every type) and the type list.
+ */
+public record DictCacheEvictEvent(Long typeId) {
+
+    public static DictCacheEvictEvent forType(Long typeId) {
+        return new DictCacheEvictEvent(typeId);
+    }
+
+    public static DictCacheEvictEvent all() {
+        return new DictCacheEvictEvent(null);
+    }
+}
@@ -4,6 +4,7 @@ import com.dfbs.app.modules.dicttype.DictItemEntity;
 import com.dfbs.app.modules.dicttype.DictItemRepo;
 import com.dfbs.app.modules.dicttype.DictTypeRepo;
 import jakarta.persistence.criteria.Predicate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -32,10 +33,12 @@ public class DictItemService {
 
     private final DictItemRepo itemRepo;
     private final DictTypeRepo typeRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DictItemService(DictItemRepo itemRepo, DictTypeRepo typeRepo) {
+    public DictItemService(DictItemRepo itemRepo, DictTypeRepo typeRepo, ApplicationEventPublisher eventPublisher) {
         this.itemRepo = itemRepo;
         this.typeRepo = typeRepo;
+        this.eventPublisher = eventPublisher;
     }
 
     public record ListResult(List<DictItemEntity> items, long total) {}
@@ -137,6 +140,7 @@ public class DictItemService {
         e.setParentId(parentId);
         e.setCreatedAt(Instant.now());
         e.setUpdatedAt(Instant.now());
+        eventPublisher.publishEvent(DictCacheEvictEvent.forType(typeId));
         return itemRepo.save(e);
     }
 
@@ -167,6 +171,7 @@ public class DictItemService {
             e.setParentId(null);
         }
         e.setUpdatedAt(Instant.now());
+        eventPublisher.publishEvent(DictCacheEvictEvent.forType(e.getTypeId()));
         return itemRepo.save(e);
     }
 
@@ -175,6 +180,7 @@ public class DictItemService {
         DictItemEntity e = itemRepo.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "字典项不存在"));
         e.setEnabled(enabled);
         e.setUpdatedAt(Instant.now());
+        eventPublisher.publishEvent(DictCacheEvictEvent.forType(e.getTypeId()));
         return itemRepo.save(e);
     }
 
@@ -192,6 +198,7 @@ public class DictItemService {
             throw new DictItemDeleteNotAllowedHasChildrenException();
         }
         itemRepo.delete(e);
+        eventPublisher.publishEvent(DictCacheEvictEvent.forType(e.getTypeId()));
     }
 
     @Transactional
@@ -218,6 +225,7 @@ public class DictItemService {
             e.setSortOrder(order++);
             e.setUpdatedAt(Instant.now());
         }
+        eventPublisher.publishEvent(DictCacheEvictEvent.forType(typeId));
         return itemRepo.saveAll(entities);
     }
 
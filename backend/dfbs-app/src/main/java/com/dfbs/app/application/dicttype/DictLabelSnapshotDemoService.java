@@ -1,6 +1,5 @@
 package com.dfbs.app.application.dicttype;
 
-import com.dfbs.app.interfaces.dicttype.dto.DictionaryItemsResponse;
 import com.dfbs.app.modules.dicttype.DictLabelSnapshotDemoEntity;
 import com.dfbs.app.modules.dicttype.DictLabelSnapshotDemoRepo;
 import org.springframework.data.domain.Page;
@@ -26,16 +25,7 @@ public class DictLabelSnapshotDemoService {
      * If type or item not found, use itemValue as fallback snapshot.
      */
     private String resolveLabelSnapshot(String typeCode, String itemValue) {
-        try {
-            DictionaryItemsResponse response = dictionaryReadService.getItemsByTypeCode(typeCode, true, null, null);
-            return response.items().stream()
-                    .filter(o -> itemValue.equals(o.value()))
-                    .findFirst()
-                    .map(o -> o.label())
-                    .orElse(itemValue);
-        } catch (DictTypeNotFoundException e) {
-            return itemValue;
-        }
+        return dictionaryReadService.resolveLabel(typeCode, itemValue);
     }
 
     @Transactional
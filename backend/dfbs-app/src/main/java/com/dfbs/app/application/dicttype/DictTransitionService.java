@@ -10,6 +10,7 @@ import com.dfbs.app.modules.dicttype.DictTransitionEntity;
 import com.dfbs.app.modules.dicttype.DictTransitionRepo;
 import com.dfbs.app.modules.dicttype.DictItemRepo;
 import com.dfbs.app.modules.dicttype.DictTypeRepo;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,11 +32,16 @@ public class DictTransitionService {
     private final DictTransitionRepo transitionRepo;
     private final DictItemRepo itemRepo;
     private final DictTypeRepo typeRepo;
+    private final DictionaryCache cache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DictTransitionService(DictTransitionRepo transitionRepo, DictItemRepo itemRepo, DictTypeRepo typeRepo) {
+    public DictTransitionService(DictTransitionRepo transitionRepo, DictItemRepo itemRepo, DictTypeRepo typeRepo,
+                                 DictionaryCache cache, ApplicationEventPublisher eventPublisher) {
         this.transitionRepo = transitionRepo;
         this.itemRepo = itemRepo;
         this.typeRepo = typeRepo;
+        this.cache = cache;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -109,38 +115,19 @@ public class DictTransitionService {
                             }
                     );
         }
+        eventPublisher.publishEvent(DictCacheEvictEvent.forType(typeId));
         return list(typeId);
     }
 
-    /** Business read: list allowed transitions by typeCode; 404 if type not found. */
-    @Transactional(readOnly = true)
+    /** Business read: list allowed transitions by typeCode (from {@link DictionaryCache}); 404 if type not found. */
     public TransitionsReadResponse listForRead(String typeCode, boolean includeDisabled) {
-        Long typeId = typeRepo.findByTypeCode(typeCode)
-                .orElseThrow(() -> new DictTypeNotFoundException("字典类型不存在"))
-                .getId();
-        List<DictTransitionEntity> list = includeDisabled
-                ? transitionRepo.findByTypeIdOrderById(typeId)
-                : transitionRepo.findByTypeIdAndEnabledOrderById(typeId, true);
-        if (list.isEmpty()) {
-            return new TransitionsReadResponse(typeCode, List.of());
+        DictionaryCache.TypeSnapshot type = cache.get(typeCode);
+        if (type == null) {
+            throw new DictTypeNotFoundException("字典类型不存在");
         }
-        List<Long> allIds = list.stream()
-                .flatMap(t -> java.util.stream.Stream.of(t.getFromItemId(), t.getToItemId()))
-                .distinct()
-                .toList();
-        Map<Long, DictItemEntity> itemMap = itemRepo.findAllById(allIds).stream().collect(Collectors.toMap(DictItemEntity::getId, e -> e));
-        List<TransitionEdgeReadDto> edges = list.stream()
-                .map(t -> {
-                    DictItemEntity from = itemMap.get(t.getFromItemId());
-                    DictItemEntity to = itemMap.get(t.getToItemId());
-                    return new TransitionEdgeReadDto(
-                            from != null ? from.getItemValue() : null,
-                            to != null ? to.getItemValue() : null,
-                            t.getEnabled(),
-                            from != null ? from.getItemLabel() : null,
-                            to != null ? to.getItemLabel() : null
-                    );
-                })
+        List<TransitionEdgeReadDto> edges = type.transitions().stream()
+                .filter(t -> includeDisabled || t.enabled())
+                .map(t -> new TransitionEdgeReadDto(t.fromValue(), t.toValue(), t.enabled(), t.fromLabel(), t.toLabel()))
                 .toList();
         return new TransitionsReadResponse(typeCode, edges);
     }
@@ -4,6 +4,7 @@ import com.dfbs.app.modules.dicttype.DictItemRepo;
 import com.dfbs.app.modules.dicttype.DictTypeEntity;
 import com.dfbs.app.modules.dicttype.DictTypeRepo;
 import jakarta.persistence.criteria.Predicate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -31,10 +32,12 @@ public class DictTypeService {
 
     private final DictTypeRepo repo;
     private final DictItemRepo itemRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DictTypeService(DictTypeRepo repo, DictItemRepo itemRepo) {
+    public DictTypeService(DictTypeRepo repo, DictItemRepo itemRepo, ApplicationEventPublisher eventPublisher) {
         this.repo = repo;
         this.itemRepo = itemRepo;
+        this.eventPublisher = eventPublisher;
     }
 
     public record ListResult(List<DictTypeEntity> items, long total) {}
@@ -109,7 +112,9 @@ public class DictTypeService {
         e.setEnabled(enabled != null ? enabled : true);
         e.setCreatedAt(Instant.now());
         e.setUpdatedAt(Instant.now());
-        return repo.save(e);
+        DictTypeEntity saved = repo.save(e);
+        eventPublisher.publishEvent(DictCacheEvictEvent.forType(saved.getId()));
+        return saved;
     }
 
     @Transactional
@@ -130,6 +135,7 @@ public class DictTypeService {
             e.setEnabled(enabled);
         }
         e.setUpdatedAt(Instant.now());
+        eventPublisher.publishEvent(DictCacheEvictEvent.forType(id));
         return repo.save(e);
     }
 
@@ -138,6 +144,7 @@ public class DictTypeService {
         DictTypeEntity e = repo.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "字典类型不存在"));
         e.setEnabled(enabled);
         e.setUpdatedAt(Instant.now());
+        eventPublisher.publishEvent(DictCacheEvictEvent.forType(id));
         return repo.save(e);
     }
 
@@ -151,6 +158,7 @@ public class DictTypeService {
             throw new DictTypeDeleteNotAllowedUsedException();
         }
         repo.delete(e);
+        eventPublisher.publishEvent(DictCacheEvictEvent.forType(id));
     }
 
     /** Thrown when create is called with duplicate type_code; controller maps to 400 + DICT_TYPE_CODE_EXISTS */
@@ -0,0 +1,178 @@
+package com.dfbs.app.application.dicttype;
+
+import com.dfbs.app.config.TransactionMarkers;
+import com.dfbs.app.modules.dicttype.DictItemEntity;
+import com.dfbs.app.modules.dicttype.DictItemRepo;
+import com.dfbs.app.modules.dicttype.DictTransitionEntity;
+import com.dfbs.app.modules.dicttype.DictTransitionRepo;
+import com.dfbs.app.modules.dicttype.DictTypeEntity;
+import com.dfbs.app.modules.dicttype.DictTypeRepo;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable per-type dictionary snapshots (items in display order, value -&gt; item, parent value -&gt; children,
+ * transitions) keyed by typeCode, plus the type list. Loaded on first read with one query per table;
+ * replaced as a whole after commit via {@link DictCacheEvictEvent}. A load that raced with an eviction is not
+ * stored (generation check and store are one step under the cache's lock, as is an eviction), and a transaction
+ * that published an eviction reads from the database until it completes. Unknown type codes are never cached.
+ */
+@Component
+public class DictionaryCache {
+
+    /** One item; parentValue is resolved, searchText is "value\u0000label" lower-cased for keyword filters. */
+    public record Item(Long id, String value, String label, int sortOrder, boolean enabled, String parentValue,
+                       String note, String searchText) {
+        public boolean matches(String lowerTerm) {
+            return searchText.contains(lowerTerm);
+        }
+    }
+
+    public record Transition(String fromValue, String fromLabel, String toValue, String toLabel, boolean enabled) {}
+
+    public record TypeSnapshot(Long typeId, String typeCode, List<Item> items, Map<String, Item> byValue,
+                               Map<String, List<Item>> childrenByParentValue, List<Transition> transitions) {
+        public Item item(String value) {
+            return value != null ? byValue.get(value) : null;
+        }
+
+        public List<Item> children(String parentValue) {
+            return childrenByParentValue.getOrDefault(parentValue, List.of());
+        }
+    }
+
+    public record TypeRow(Long id, String typeCode, String typeName, boolean enabled, String searchText) {}
+
+    private static final Comparator<DictItemEntity> DISPLAY_ORDER = Comparator
+            .comparing((DictItemEntity e) -> e.getSortOrder() != null ? e.getSortOrder() : 0)
+            .thenComparing(DictItemEntity::getId);
+
+    private static final Object TX_CHANGED_KEY = new Object();
+
+    private final DictTypeRepo typeRepo;
+    private final DictItemRepo itemRepo;
+    private final DictTransitionRepo transitionRepo;
+
+    private final Map<String, TypeSnapshot> byTypeCode = new ConcurrentHashMap<>();
+    private volatile List<TypeRow> types;
+    /** Guarded by this, as are stores into byTypeCode / types and evictions. */
+    private long generation;
+
+    public DictionaryCache(DictTypeRepo typeRepo, DictItemRepo itemRepo, DictTransitionRepo transitionRepo) {
+        this.typeRepo = typeRepo;
+        this.itemRepo = itemRepo;
+        this.transitionRepo = transitionRepo;
+    }
+
+    /** Snapshot for typeCode (loads on miss), or null if no such type. */
+    public TypeSnapshot get(String typeCode) {
+        if (typeCode == null) return null;
+        boolean changedInTx = TransactionMarkers.isMarked(TX_CHANGED_KEY);
+        TypeSnapshot cached = changedInTx ? null : byTypeCode.get(typeCode);
+        if (cached != null) return cached;
+        long startGeneration = currentGeneration();
+        DictTypeEntity type = typeRepo.findByTypeCode(typeCode).orElse(null);
+        if (type == null) return null;
+        TypeSnapshot loaded = load(type);
+        if (changedInTx) return loaded;
+        synchronized (this) {
+            if (generation == startGeneration) {
+                TypeSnapshot raced = byTypeCode.putIfAbsent(typeCode, loaded);
+                if (raced != null) return raced;
+            }
+        }
+        return loaded;
+    }
+
+    /** All types ordered by id. */
+    public List<TypeRow> types() {
+        boolean changedInTx = TransactionMarkers.isMarked(TX_CHANGED_KEY);
+        List<TypeRow> cached = changedInTx ? null : types;
+        if (cached != null) return cached;
+        long startGeneration = currentGeneration();
+        List<TypeRow> loaded = typeRepo.findAll(Sort.by("id").ascending()).stream()
+                .map(t -> new TypeRow(t.getId(), t.getTypeCode(), t.getTypeName(), Boolean.TRUE.equals(t.getEnabled()),
+                        searchText(t.getTypeCode(), t.getTypeName())))
+                .toList();
+        if (changedInTx) return loaded;
+        synchronized (this) {
+            if (generation == startGeneration) {
+                types = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private TypeSnapshot load(DictTypeEntity type) {
+        List<DictItemEntity> entities = new ArrayList<>(itemRepo.findByTypeId(type.getId()));
+        entities.sort(DISPLAY_ORDER);
+        Map<Long, String> valueById = entities.stream()
+                .collect(Collectors.toMap(DictItemEntity::getId, DictItemEntity::getItemValue));
+        List<Item> items = entities.stream()
+                .map(e -> new Item(e.getId(), e.getItemValue(), e.getItemLabel(),
+                        e.getSortOrder() != null ? e.getSortOrder() : 0, Boolean.TRUE.equals(e.getEnabled()),
+                        e.getParentId() != null ? valueById.get(e.getParentId()) : null, e.getNote(),
+                        searchText(e.getItemValue(), e.getItemLabel())))
+                .toList();
+        Map<String, Item> byValue = items.stream()
+                .collect(Collectors.toUnmodifiableMap(Item::value, Function.identity(), (a, b) -> a));
+        Map<String, List<Item>> children = items.stream()
+                .filter(i -> i.parentValue() != null)
+                .collect(Collectors.groupingBy(Item::parentValue, LinkedHashMap::new, Collectors.toList()));
+        children.replaceAll((k, v) -> List.copyOf(v));
+
+        Map<Long, Item> byId = items.stream().collect(Collectors.toMap(Item::id, Function.identity()));
+        List<Transition> transitions = transitionRepo.findByTypeIdOrderById(type.getId()).stream()
+                .map(t -> toTransition(t, byId))
+                .toList();
+        return new TypeSnapshot(type.getId(), type.getTypeCode(), items, byValue, Map.copyOf(children), transitions);
+    }
+
+    private static Transition toTransition(DictTransitionEntity t, Map<Long, Item> byId) {
+        Item from = byId.get(t.getFromItemId());
+        Item to = byId.get(t.getToItemId());
+        return new Transition(
+                from != null ? from.value() : null,
+                from != null ? from.label() : null,
+                to != null ? to.value() : null,
+                to != null ? to.label() : null,
+                Boolean.TRUE.equals(t.getEnabled()));
+    }
+
+    private static String searchText(String code, String label) {
+        return (code != null ? code.toLowerCase() : "") + '\u0000' + (label != null ? label.toLowerCase() : "");
+    }
+
+    /** Marks the publishing transaction so its own reads bypass the cache until it completes. */
+    @EventListener
+    public void onChanged(DictCacheEvictEvent event) {
+        TransactionMarkers.mark(TX_CHANGED_KEY);
+    }
+
+    /** Runs after commit (or immediately when no transaction is active). */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEvict(DictCacheEvictEvent event) {
+        generation++;
+        types = null;
+        if (event.typeId() == null) {
+            byTypeCode.clear();
+        } else {
+            byTypeCode.values().removeIf(s -> event.typeId().equals(s.typeId()));
+        }
+    }
+}
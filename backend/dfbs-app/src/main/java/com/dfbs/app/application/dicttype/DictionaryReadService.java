@@ -4,31 +4,22 @@ import com.dfbs.app.interfaces.dicttype.dto.DictionaryItemOptionDto;
 import com.dfbs.app.interfaces.dicttype.dto.DictionaryItemsResponse;
 import com.dfbs.app.interfaces.dicttype.dto.DictionaryTypeOptionDto;
 import com.dfbs.app.interfaces.dicttype.dto.DictionaryTypesResponse;
-import com.dfbs.app.modules.dicttype.DictItemEntity;
-import com.dfbs.app.modules.dicttype.DictItemRepo;
-import com.dfbs.app.modules.dicttype.DictTypeEntity;
-import com.dfbs.app.modules.dicttype.DictTypeRepo;
-import jakarta.persistence.criteria.Predicate;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/** Business reads of dictionaries, served from {@link DictionaryCache}. */
 @Service
 public class DictionaryReadService {
 
-    private final DictTypeRepo typeRepo;
-    private final DictItemRepo itemRepo;
+    private final DictionaryCache cache;
 
-    public DictionaryReadService(DictTypeRepo typeRepo, DictItemRepo itemRepo) {
-        this.typeRepo = typeRepo;
-        this.itemRepo = itemRepo;
+    public DictionaryReadService(DictionaryCache cache) {
+        this.cache = cache;
     }
 
     /**
@@ -36,88 +27,44 @@ public class DictionaryReadService {
      * Type A/C baseline: includeDisabled=false (default) excludes disabled for selection; includeDisabled=true includes disabled for history/snapshot (each item has enabled flag).
      * Type D cascades (1-level): when parentValue is set, returns only direct children of that parent; when parentValue is omitted or blank, returns all items (roots + children). Ordering: sortOrder asc, id asc.
      */
-    @Transactional(readOnly = true)
     public DictionaryItemsResponse getItemsByTypeCode(String typeCode, boolean includeDisabled,
                                                       String parentValue, String q) {
-        DictTypeEntity type = typeRepo.findByTypeCode(typeCode)
-                .orElseThrow(() -> new DictTypeNotFoundException("字典类型不存在"));
-        Long typeId = type.getId();
+        DictionaryCache.TypeSnapshot type = cache.get(typeCode);
+        if (type == null) {
+            throw new DictTypeNotFoundException("字典类型不存在");
+        }
 
-        Long filterByParentId = null;
+        Stream<DictionaryCache.Item> items;
         if (parentValue != null && !parentValue.isBlank()) {
-            var parentOpt = itemRepo.findByTypeIdAndItemValue(typeId, parentValue.trim());
-            if (parentOpt.isEmpty()) {
+            String pv = parentValue.trim();
+            if (type.item(pv) == null) {
                 return new DictionaryItemsResponse(typeCode, List.of());
             }
-            filterByParentId = parentOpt.get().getId();
+            items = type.children(pv).stream();
+        } else {
+            items = type.items().stream();
         }
-        final Long parentIdFilter = filterByParentId;
-        final String searchQ = q;
-
-        Specification<DictItemEntity> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            predicates.add(cb.equal(root.get("typeId"), typeId));
-            if (!includeDisabled) {
-                predicates.add(cb.equal(root.get("enabled"), true));
-            }
-            if (searchQ != null && !searchQ.isBlank()) {
-                String term = "%" + searchQ.trim().toLowerCase() + "%";
-                predicates.add(cb.or(
-                        cb.like(cb.lower(root.get("itemValue")), term),
-                        cb.like(cb.lower(root.get("itemLabel")), term)
-                ));
-            }
-            if (parentIdFilter != null) {
-                predicates.add(cb.equal(root.get("parentId"), parentIdFilter));
-            }
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
-
-        List<DictItemEntity> items = itemRepo.findAll(spec, Sort.by("sortOrder").ascending().and(Sort.by("id").ascending()));
-
-        Set<Long> parentIds = items.stream().map(DictItemEntity::getParentId).filter(java.util.Objects::nonNull).collect(Collectors.toSet());
-        Map<Long, String> parentIdToValue = Map.of();
-        if (!parentIds.isEmpty()) {
-            parentIdToValue = itemRepo.findAllById(parentIds).stream()
-                    .collect(Collectors.toMap(DictItemEntity::getId, DictItemEntity::getItemValue, (a, b) -> a));
+        if (!includeDisabled) {
+            items = items.filter(DictionaryCache.Item::enabled);
+        }
+        if (q != null && !q.isBlank()) {
+            String term = q.trim().toLowerCase();
+            items = items.filter(i -> i.matches(term));
         }
 
-        Map<Long, String> finalParentIdToValue = parentIdToValue;
-        List<DictionaryItemOptionDto> options = items.stream()
-                .map(e -> {
-                    String pv = e.getParentId() == null ? null : finalParentIdToValue.get(e.getParentId());
-                    return new DictionaryItemOptionDto(
-                            e.getItemValue(),
-                            e.getItemLabel(),
-                            e.getSortOrder() != null ? e.getSortOrder() : 0,
-                            Boolean.TRUE.equals(e.getEnabled()),
-                            pv,
-                            e.getNote()
-                    );
-                })
+        List<DictionaryItemOptionDto> options = items
+                .map(i -> new DictionaryItemOptionDto(i.value(), i.label(), i.sortOrder(), i.enabled(),
+                        i.parentValue(), i.note()))
                 .toList();
         return new DictionaryItemsResponse(typeCode, options);
     }
 
-    @Transactional(readOnly = true)
     public DictionaryTypesResponse getTypes(boolean includeDisabled, String q) {
-        Specification<DictTypeEntity> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            if (!includeDisabled) {
-                predicates.add(cb.equal(root.get("enabled"), true));
-            }
-            if (q != null && !q.isBlank()) {
-                String term = "%" + q.trim().toLowerCase() + "%";
-                predicates.add(cb.or(
-                        cb.like(cb.lower(root.get("typeCode")), term),
-                        cb.like(cb.lower(root.get("typeName")), term)
-                ));
-            }
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
-        List<DictTypeEntity> types = typeRepo.findAll(spec, Sort.by("id").ascending());
-        List<DictionaryTypeOptionDto> options = types.stream()
-                .map(t -> new DictionaryTypeOptionDto(t.getTypeCode(), t.getTypeName(), Boolean.TRUE.equals(t.getEnabled())))
+        String term = q != null && !q.isBlank() ? q.trim().toLowerCase() : null;
+        List<DictionaryTypeOptionDto> options = cache.types().stream()
+                .filter(t -> includeDisabled || t.enabled())
+                .filter(t -> term == null || t.searchText().contains(term))
+                .map(t -> new DictionaryTypeOptionDto(t.typeCode(), t.typeName(), t.enabled()))
                 .toList();
         return new DictionaryTypesResponse(options);
     }
@@ -125,20 +72,35 @@ public class DictionaryReadService {
     /**
      * Resolve label for a single value (includeDisabled=true). Does not throw; returns itemValue if type or item not found.
      */
-    @Transactional(readOnly = true)
     public String resolveLabel(String typeCode, String itemValue) {
         if (typeCode == null || typeCode.isBlank() || itemValue == null || itemValue.isBlank()) {
             return itemValue != null ? itemValue : "";
         }
-        try {
-            DictionaryItemsResponse response = getItemsByTypeCode(typeCode, true, null, null);
-            return response.items().stream()
-                    .filter(o -> itemValue.equals(o.value()))
-                    .findFirst()
-                    .map(DictionaryItemOptionDto::label)
-                    .orElse(itemValue);
-        } catch (DictTypeNotFoundException e) {
-            return itemValue;
+        DictionaryCache.TypeSnapshot type = cache.get(typeCode);
+        DictionaryCache.Item item = type != null ? type.item(itemValue) : null;
+        return item != null ? item.label() : itemValue;
+    }
+
+    /**
+     * Bulk {@link #resolveLabel}: value -&gt; label for every non-null value, from one snapshot (no per-value lookups).
+     * Unknown type or value maps to the value itself.
+     */
+    public Map<String, String> resolveLabels(String typeCode, Collection<String> itemValues) {
+        DictionaryCache.TypeSnapshot type = typeCode != null && !typeCode.isBlank() ? cache.get(typeCode) : null;
+        Map<String, String> labels = new LinkedHashMap<>();
+        for (String value : itemValues) {
+            if (value == null || labels.containsKey(value)) continue;
+            DictionaryCache.Item item = type != null && !value.isBlank() ? type.item(value) : null;
+            labels.put(value, item != null ? item.label() : value);
         }
+        return labels;
+    }
+
+    /** {@link #resolveLabels(String, Collection)} for several types: typeCode -&gt; (value -&gt; label). */
+    public Map<String, Map<String, String>> resolveLabels(Map<String, ? extends Collection<String>> valuesByType) {
+        Map<String, Map<String, String>> result = new LinkedHashMap<>();
+        valuesByType.forEach((typeCode, values) ->
+                result.put(typeCode, resolveLabels(typeCode, values != null ? values : List.of())));
+        return result;
     }
 }
@@ -0,0 +1,50 @@
+package com.dfbs.app.application.docnumber;
+
+import com.dfbs.app.modules.docnumber.DocumentNumberCounterRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Issues document numbers from document_number_counter: one upsert per call instead of count/max scans.
+ * Runs in the caller's transaction, so a number is only consumed if the document is committed (gap-free),
+ * and concurrent callers for the same type/period serialize on the counter row (race-free across nodes).
+ */
+@Service
+public class DocumentNumberService {
+
+    private final DocumentNumberCounterRepo counterRepo;
+    private final Clock clock;
+
+    public DocumentNumberService(DocumentNumberCounterRepo counterRepo, Clock clock) {
+        this.counterRepo = counterRepo;
+        this.clock = clock;
+    }
+
+    /** Next number for type in the current period. */
+    @Transactional
+    public String next(DocumentType type) {
+        String period = type.period(LocalDate.now(clock));
+        long seq = counterRepo.allocate(type.name(), period, 1);
+        return type.format(period, seq);
+    }
+
+    /** count consecutive numbers for type in the current period, reserved with a single upsert. */
+    @Transactional
+    public List<String> nextBlock(DocumentType type, int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+        String period = type.period(LocalDate.now(clock));
+        long last = counterRepo.allocate(type.name(), period, count);
+        List<String> numbers = new ArrayList<>(count);
+        for (long seq = last - count + 1; seq <= last; seq++) {
+            numbers.add(type.format(period, seq));
+        }
+        return numbers;
+    }
+}
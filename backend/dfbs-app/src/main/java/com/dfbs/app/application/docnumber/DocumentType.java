@@ -0,0 +1,47 @@
+package com.dfbs.app.application.docnumber;
+
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * Human-readable document number formats: prefix + period (date part) + "-" + zero-padded sequence.
+ * The sequence restarts per period; a null date pattern means one running counter.
+ * Add a constant here to give another module numbers from {@link DocumentNumberService}.
+ */
+public enum DocumentType {
+    STATEMENT("ST-", "yyyyMMdd", 3),
+    PART("PT-", "yyyyMMdd", 3),
+    WORK_ORDER("WO-", "yyyyMMdd", 4),
+    FREIGHT_BILL("FB-", "yyyyMMdd", 4),
+    INVOICE_APPLICATION("INV-", "yyyyMMdd", 4),
+    PLATFORM_ACCOUNT_APPLICATION("APP-", "yyyyMMdd", 3);
+
+    private final String prefix;
+    private final DateTimeFormatter periodFormat;
+    private final int padding;
+
+    DocumentType(String prefix, String datePattern, int padding) {
+        this.prefix = prefix;
+        this.periodFormat = datePattern != null ? DateTimeFormatter.ofPattern(datePattern) : null;
+        this.padding = padding;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public int getPadding() {
+        return padding;
+    }
+
+    /** Counter period for the given date ("" when the type has no date part). */
+    public String period(TemporalAccessor date) {
+        return periodFormat != null ? periodFormat.format(date) : "";
+    }
+
+    /** E.g. ST-20260129-001; sequences wider than the padding are kept in full. */
+    public String format(String period, long seq) {
+        String padded = String.format("%0" + padding + "d", seq);
+        return period.isEmpty() ? prefix + padded : prefix + period + "-" + padded;
+    }
+}
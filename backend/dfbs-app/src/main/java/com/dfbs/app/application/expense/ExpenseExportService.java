@@ -3,7 +3,10 @@ package com.dfbs.app.application.expense;
 import com.alibaba.excel.EasyExcel;
 import com.alibaba.excel.ExcelWriter;
 import com.alibaba.excel.write.metadata.WriteSheet;
-import com.dfbs.app.application.expense.dto.ExpenseDto;
+import com.dfbs.app.modules.expense.ExpenseExportLine;
+import com.dfbs.app.modules.expense.ExpenseRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import jakarta.servlet.http.HttpServletResponse;
@@ -11,26 +14,30 @@ import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class ExpenseExportService {
 
     private final ExpenseStatsService expenseStatsService;
+    private final ExpenseRepo expenseRepo;
+    private final int pageSize;
 
-    public ExpenseExportService(ExpenseStatsService expenseStatsService) {
+    public ExpenseExportService(ExpenseStatsService expenseStatsService, ExpenseRepo expenseRepo,
+                                @Value("${dfbs.expense.export-page-size:1000}") int pageSize) {
         this.expenseStatsService = expenseStatsService;
+        this.expenseRepo = expenseRepo;
+        this.pageSize = Math.max(1, pageSize);
     }
 
     /**
-     * Export stats and details to Excel: Sheet "Summary" (ExpenseStatsItemDto rows), Sheet "Details" (ExpenseDto rows).
+     * Export stats and details to Excel: Sheet "Summary" (ExpenseStatsItemDto rows), Sheet "Details" (one row per expense).
+     * Summary comes from the rollup aggregates; details are read once in keyset pages and written page by page,
+     * so memory does not grow with the number of expenses.
      */
     public void exportStats(ExpenseStatsRequest request, HttpServletResponse response) throws IOException {
-        List<ExpenseStatsItemDto> stats = expenseStatsService.getStats(request);
-        List<ExpenseDto> details = expenseStatsService.getDetailExpenses(request);
-
-        List<ExpenseStatsSummaryRow> summaryRows = stats.stream().map(ExpenseStatsSummaryRow::from).collect(Collectors.toList());
-        List<ExpenseStatsDetailRow> detailRows = details.stream().map(ExpenseStatsDetailRow::from).collect(Collectors.toList());
+        List<ExpenseStatsSummaryRow> summaryRows = expenseStatsService.getStats(request).stream()
+                .map(ExpenseStatsSummaryRow::from)
+                .toList();
 
         String filename = "expense-stats-" + System.currentTimeMillis() + ".xlsx";
         response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
@@ -48,7 +55,14 @@ public class ExpenseExportService {
         WriteSheet detailsSheet = EasyExcel.writerSheet(1, "Details")
                 .head(ExpenseStatsDetailRow.class)
                 .build();
-        excelWriter.write(detailRows, detailsSheet);
+        long afterId = 0;
+        while (true) {
+            List<ExpenseExportLine> page = expenseRepo.findExportPage(afterId, request.getStartDate(), request.getEndDate(),
+                    request.getExpenseType(), request.getCurrency(), Limit.of(pageSize));
+            excelWriter.write(page.stream().map(ExpenseStatsDetailRow::from).toList(), detailsSheet);
+            if (page.size() < pageSize) break;
+            afterId = page.get(page.size() - 1).id();
+        }
 
         excelWriter.finish();
     }
@@ -1,13 +1,13 @@
 package com.dfbs.app.application.expense;
 
 import com.alibaba.excel.annotation.ExcelProperty;
-import com.dfbs.app.application.expense.dto.ExpenseDto;
+import com.dfbs.app.modules.expense.ExpenseExportLine;
 
 import java.math.BigDecimal;
 import java.time.format.DateTimeFormatter;
 
 /**
- * Excel row for Expense Stats Details sheet (from ExpenseDto).
+ * Excel row for Expense Stats Details sheet (from an export page line).
  */
 public class ExpenseStatsDetailRow {
 
@@ -50,21 +50,21 @@ public class ExpenseStatsDetailRow {
     @ExcelProperty("Claim ID")
     private Long claimId;
 
-    public static ExpenseStatsDetailRow from(ExpenseDto dto) {
+    public static ExpenseStatsDetailRow from(ExpenseExportLine line) {
         ExpenseStatsDetailRow row = new ExpenseStatsDetailRow();
-        row.setId(dto.id());
-        row.setCreatedAt(dto.createdAt() != null ? dto.createdAt().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME) : null);
-        row.setCreatedBy(dto.createdBy());
-        row.setExpenseDate(dto.expenseDate() != null ? dto.expenseDate().toString() : null);
-        row.setAmount(dto.amount());
-        row.setCurrency(dto.currency() != null ? dto.currency().name() : null);
-        row.setExpenseType(dto.expenseType() != null ? dto.expenseType().name() : null);
-        row.setDescription(dto.description());
-        row.setStatus(dto.status() != null ? dto.status().name() : null);
-        row.setQuoteId(dto.quoteId());
-        row.setWorkOrderId(dto.workOrderId());
-        row.setTripRequestId(dto.tripRequestId());
-        row.setClaimId(dto.claimId());
+        row.setId(line.id());
+        row.setCreatedAt(line.createdAt() != null ? line.createdAt().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME) : null);
+        row.setCreatedBy(line.createdBy());
+        row.setExpenseDate(line.expenseDate() != null ? line.expenseDate().toString() : null);
+        row.setAmount(line.amount());
+        row.setCurrency(line.currency() != null ? line.currency().name() : null);
+        row.setExpenseType(line.expenseType() != null ? line.expenseType().name() : null);
+        row.setDescription(line.description());
+        row.setStatus(line.status() != null ? line.status().name() : null);
+        row.setQuoteId(line.quoteId());
+        row.setWorkOrderId(line.workOrderId());
+        row.setTripRequestId(line.tripRequestId());
+        row.setClaimId(line.claimId());
         return row;
     }
 
@@ -6,12 +6,14 @@ import com.alibaba.excel.write.metadata.WriteSheet;
 import com.dfbs.app.application.attachment.AttachmentPoint;
 import com.dfbs.app.application.attachment.AttachmentRuleService;
 import com.dfbs.app.application.attachment.AttachmentTargetType;
+import com.dfbs.app.application.docnumber.DocumentNumberService;
+import com.dfbs.app.application.docnumber.DocumentType;
 import com.dfbs.app.modules.carrier.CarrierEntity;
 import com.dfbs.app.modules.carrier.CarrierRepo;
 import com.dfbs.app.modules.freightbill.*;
 import com.dfbs.app.modules.shipment.ShipmentEntity;
-import com.dfbs.app.modules.shipment.ShipmentMachineEntity;
 import com.dfbs.app.modules.shipment.ShipmentMachineRepo;
+import com.dfbs.app.modules.shipment.ShipmentModelCount;
 import com.dfbs.app.modules.shipment.ShipmentRepo;
 import com.dfbs.app.modules.shipment.ShipmentStatus;
 import com.dfbs.app.modules.shipment.ShipmentType;
@@ -22,7 +24,6 @@ import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,6 +31,8 @@ import java.util.stream.Collectors;
 public class FreightBillService {
 
     private static final List<ShipmentStatus> ELIGIBLE_STATUSES = List.of(ShipmentStatus.SHIPPED, ShipmentStatus.COMPLETED);
+    /** Ids per IN list when building a bill (keeps bind parameters far below the driver limit). */
+    private static final int IN_CHUNK = 1000;
 
     private final FreightBillRepo freightBillRepo;
     private final FreightBillItemRepo freightBillItemRepo;
@@ -37,19 +40,22 @@ public class FreightBillService {
     private final ShipmentMachineRepo shipmentMachineRepo;
     private final CarrierRepo carrierRepo;
     private final AttachmentRuleService ruleService;
+    private final DocumentNumberService documentNumberService;
 
     public FreightBillService(FreightBillRepo freightBillRepo,
                               FreightBillItemRepo freightBillItemRepo,
                               ShipmentRepo shipmentRepo,
                               ShipmentMachineRepo shipmentMachineRepo,
                               CarrierRepo carrierRepo,
-                              AttachmentRuleService ruleService) {
+                              AttachmentRuleService ruleService,
+                              DocumentNumberService documentNumberService) {
         this.freightBillRepo = freightBillRepo;
         this.freightBillItemRepo = freightBillItemRepo;
         this.shipmentRepo = shipmentRepo;
         this.shipmentMachineRepo = shipmentMachineRepo;
         this.carrierRepo = carrierRepo;
         this.ruleService = ruleService;
+        this.documentNumberService = documentNumberService;
     }
 
     /**
@@ -90,35 +96,7 @@ public class FreightBillService {
         bill.setCreatorId(operatorId);
         bill = freightBillRepo.save(bill);
 
-        for (ShipmentEntity shipment : shipments) {
-            List<ShipmentMachineEntity> machines = shipmentMachineRepo.findByShipmentIdOrderByIdAsc(shipment.getId());
-            Map<String, Long> modelToCount = machines.stream()
-                    .filter(m -> m.getModel() != null && !m.getModel().isBlank())
-                    .collect(Collectors.groupingBy(ShipmentMachineEntity::getModel, Collectors.counting()));
-            if (modelToCount.isEmpty()) {
-                modelToCount.put(shipment.getModel() != null ? shipment.getModel() : "未分类", (long) Math.max(1, machines.size()));
-            }
-            FinancialCategory category = mapToCategory(shipment);
-            String shipmentNo = "S" + shipment.getId();
-
-            for (Map.Entry<String, Long> e : modelToCount.entrySet()) {
-                FreightBillItemEntity item = new FreightBillItemEntity();
-                item.setBillId(bill.getId());
-                item.setShipmentId(shipment.getId());
-                item.setShipmentNo(shipmentNo);
-                item.setFinancialCategory(category);
-                item.setMachineModel(e.getKey());
-                item.setQuantity(e.getValue().intValue());
-                item.setUnitPrice(null);
-                item.setLineTotal(BigDecimal.ZERO);
-                freightBillItemRepo.save(item);
-            }
-
-            shipment.setFreightBillId(bill.getId());
-            shipmentRepo.save(shipment);
-        }
-
-        recalcBillTotal(bill.getId());
+        addShipments(bill, shipments);
         return freightBillRepo.findById(bill.getId()).orElseThrow();
     }
 
@@ -215,7 +193,7 @@ public class FreightBillService {
     }
 
     /**
-     * Create freight bill from selected shipments. Groups machines by model per shipment, creates items, locks shipments.
+     * Create freight bill from selected shipments (loaded together). Groups machines by model per shipment, creates items, locks shipments.
      */
     @Transactional
     public FreightBillEntity create(String carrier, List<Long> shipmentIds, Long operatorId) {
@@ -223,10 +201,15 @@ public class FreightBillService {
         requireNotNull(shipmentIds, "shipmentIds不能为空");
         if (shipmentIds.isEmpty()) throw new IllegalStateException("至少选择一个发货单");
 
+        Set<Long> requestedIds = new LinkedHashSet<>(shipmentIds);
+        Map<Long, ShipmentEntity> byId = new HashMap<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(requestedIds))) {
+            for (ShipmentEntity s : shipmentRepo.findByIdIn(chunk)) byId.put(s.getId(), s);
+        }
         List<ShipmentEntity> shipments = new ArrayList<>();
-        for (Long sid : shipmentIds) {
-            ShipmentEntity s = shipmentRepo.findById(sid)
-                    .orElseThrow(() -> new IllegalStateException("Shipment not found: id=" + sid));
+        for (Long sid : requestedIds) {
+            ShipmentEntity s = byId.get(sid);
+            if (s == null) throw new IllegalStateException("Shipment not found: id=" + sid);
             if (!carrier.equals(s.getCarrier())) {
                 throw new IllegalStateException("发货单承运方与运单承运方不一致: shipmentId=" + sid);
             }
@@ -249,35 +232,7 @@ public class FreightBillService {
         bill.setCreatorId(operatorId);
         bill = freightBillRepo.save(bill);
 
-        for (ShipmentEntity shipment : shipments) {
-            List<ShipmentMachineEntity> machines = shipmentMachineRepo.findByShipmentIdOrderByIdAsc(shipment.getId());
-            Map<String, Long> modelToCount = machines.stream()
-                    .filter(m -> m.getModel() != null && !m.getModel().isBlank())
-                    .collect(Collectors.groupingBy(ShipmentMachineEntity::getModel, Collectors.counting()));
-            if (modelToCount.isEmpty()) {
-                modelToCount.put(shipment.getModel() != null ? shipment.getModel() : "未分类", (long) Math.max(1, machines.size()));
-            }
-            FinancialCategory category = mapToCategory(shipment);
-            String shipmentNo = "S" + shipment.getId();
-
-            for (Map.Entry<String, Long> e : modelToCount.entrySet()) {
-                FreightBillItemEntity item = new FreightBillItemEntity();
-                item.setBillId(bill.getId());
-                item.setShipmentId(shipment.getId());
-                item.setShipmentNo(shipmentNo);
-                item.setFinancialCategory(category);
-                item.setMachineModel(e.getKey());
-                item.setQuantity(e.getValue().intValue());
-                item.setUnitPrice(null);
-                item.setLineTotal(BigDecimal.ZERO);
-                freightBillItemRepo.save(item);
-            }
-
-            shipment.setFreightBillId(bill.getId());
-            shipmentRepo.save(shipment);
-        }
-
-        recalcBillTotal(bill.getId());
+        addShipments(bill, shipments);
         return freightBillRepo.findById(bill.getId()).orElseThrow();
     }
 
@@ -425,6 +380,64 @@ public class FreightBillService {
 
     public record ExportResult(byte[] bytes, String filename) {}
 
+    /**
+     * Adds one item per (shipment, machine model) and locks the shipments to the bill. Per IN_CHUNK shipments, machine
+     * counts are one grouped query and the lock is one UPDATE; items are batch-inserted. New items are unpriced, so
+     * the bill total stays zero. The bulk UPDATE clears the persistence context.
+     */
+    private void addShipments(FreightBillEntity bill, List<ShipmentEntity> shipments) {
+        List<Long> ids = shipments.stream().map(ShipmentEntity::getId).toList();
+        Map<Long, Map<String, Long>> modelCounts = new HashMap<>();
+        Map<Long, Long> machineCounts = new HashMap<>();
+        for (List<Long> chunk : chunks(ids)) {
+            for (ShipmentModelCount c : shipmentMachineRepo.countByShipmentIdInGroupByModel(chunk)) {
+                machineCounts.merge(c.shipmentId(), c.count(), Long::sum);
+                if (c.model() != null && !c.model().isBlank()) {
+                    modelCounts.computeIfAbsent(c.shipmentId(), k -> new TreeMap<>()).put(c.model(), c.count());
+                }
+            }
+        }
+
+        List<FreightBillItemEntity> items = new ArrayList<>();
+        for (ShipmentEntity shipment : shipments) {
+            Map<String, Long> modelToCount = modelCounts.get(shipment.getId());
+            if (modelToCount == null) {
+                modelToCount = Map.of(shipment.getModel() != null ? shipment.getModel() : "未分类",
+                        Math.max(1L, machineCounts.getOrDefault(shipment.getId(), 0L)));
+            }
+            FinancialCategory category = mapToCategory(shipment);
+            String shipmentNo = "S" + shipment.getId();
+
+            for (Map.Entry<String, Long> e : modelToCount.entrySet()) {
+                FreightBillItemEntity item = new FreightBillItemEntity();
+                item.setBillId(bill.getId());
+                item.setShipmentId(shipment.getId());
+                item.setShipmentNo(shipmentNo);
+                item.setFinancialCategory(category);
+                item.setMachineModel(e.getKey());
+                item.setQuantity(e.getValue().intValue());
+                item.setUnitPrice(null);
+                item.setLineTotal(BigDecimal.ZERO);
+                items.add(item);
+            }
+        }
+        freightBillItemRepo.saveAll(items);
+
+        for (List<Long> chunk : chunks(ids)) {
+            if (shipmentRepo.linkToFreightBill(bill.getId(), chunk) != chunk.size()) {
+                throw new IllegalStateException("发货单已被其他运单占用");
+            }
+        }
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> out = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += IN_CHUNK) {
+            out.add(ids.subList(i, Math.min(ids.size(), i + IN_CHUNK)));
+        }
+        return out;
+    }
+
     private void recalcBillTotal(Long billId) {
         List<FreightBillItemEntity> items = freightBillItemRepo.findByBillIdOrderByIdAsc(billId);
         BigDecimal total = items.stream()
@@ -437,13 +450,7 @@ public class FreightBillService {
     }
 
     private String generateBillNo() {
-        String base = "FB-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String candidate = base;
-        int suffix = 0;
-        while (freightBillRepo.existsByBillNo(candidate)) {
-            candidate = base + "-" + (++suffix);
-        }
-        return candidate;
+        return documentNumberService.next(DocumentType.FREIGHT_BILL);
     }
 
     private static String escape(Object o) {
@@ -4,40 +4,38 @@ import com.dfbs.app.application.iccid.dto.IccidListDto;
 import com.dfbs.app.modules.iccid.IccidEntity;
 import com.dfbs.app.modules.iccid.IccidRepo;
 import com.dfbs.app.modules.masterdata.MachineRepo;
-import com.dfbs.app.modules.shipment.ShipmentEntity;
-import com.dfbs.app.modules.shipment.ShipmentMachineEntity;
-import com.dfbs.app.modules.shipment.ShipmentMachineRepo;
-import com.dfbs.app.modules.shipment.ShipmentRepo;
+import com.dfbs.app.modules.shipment.MachineLatestShipmentRepo;
+import com.dfbs.app.modules.shipment.MachineShipmentSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class IccidMasterDataService {
 
     private final IccidRepo iccidRepo;
     private final MachineRepo machineRepo;
-    private final ShipmentMachineRepo shipmentMachineRepo;
-    private final ShipmentRepo shipmentRepo;
+    private final MachineLatestShipmentRepo latestShipmentRepo;
 
     public IccidMasterDataService(
             IccidRepo iccidRepo,
             MachineRepo machineRepo,
-            ShipmentMachineRepo shipmentMachineRepo,
-            ShipmentRepo shipmentRepo
+            MachineLatestShipmentRepo latestShipmentRepo
     ) {
         this.iccidRepo = iccidRepo;
         this.machineRepo = machineRepo;
-        this.shipmentMachineRepo = shipmentMachineRepo;
-        this.shipmentRepo = shipmentRepo;
+        this.latestShipmentRepo = latestShipmentRepo;
     }
 
     /**
      * Search ICCIDs by keyword (iccidNo), optional isBound filter. Enrich with shipment (customerName, contractNo, orgCode) when bound.
+     * Shipment data for the whole page comes from the latest-shipment projection in one query.
      */
     public Page<IccidListDto> searchIccids(String keyword, Boolean isBound, Pageable pageable) {
         Page<IccidEntity> page;
@@ -56,30 +54,24 @@ public class IccidMasterDataService {
                     : iccidRepo.findByIccidNoContainingIgnoreCase(kw, pageable);
         }
 
+        Set<String> machineNos = page.getContent().stream()
+                .map(IccidEntity::getMachineSn)
+                .filter(sn -> sn != null && !sn.isBlank())
+                .collect(Collectors.toSet());
+        Map<String, MachineShipmentSummary> latestByMachine = machineNos.isEmpty() ? Map.of()
+                : latestShipmentRepo.findSummariesByMachineNoIn(machineNos).stream()
+                        .collect(Collectors.toMap(MachineShipmentSummary::machineNo, m -> m));
+
         return page.map(ic -> {
             boolean bound = ic.getMachineSn() != null && !ic.getMachineSn().isBlank();
-            String customerName = null;
-            String contractNo = null;
-            String orgCode = null;
-
-            if (bound) {
-                Optional<ShipmentMachineEntity> latest = shipmentMachineRepo.findTopByMachineNoOrderByShipmentIdDesc(ic.getMachineSn());
-                if (latest.isPresent()) {
-                    ShipmentEntity shipment = shipmentRepo.findById(latest.get().getShipmentId()).orElse(null);
-                    if (shipment != null) {
-                        customerName = shipment.getReceiverName();
-                        contractNo = shipment.getContractNo();
-                    }
-                }
-            }
-
+            MachineShipmentSummary latest = bound ? latestByMachine.get(ic.getMachineSn()) : null;
             return new IccidListDto(
                     ic.getId(),
                     ic.getIccidNo(),
                     ic.getMachineSn(),
-                    customerName,
-                    contractNo,
-                    orgCode,
+                    latest != null ? latest.receiverName() : null,
+                    latest != null ? latest.contractNo() : null,
+                    null,
                     ic.getPlan(),
                     ic.getPlatform(),
                     ic.getExpiryDate(),
@@ -5,7 +5,7 @@ import lombok.Data;
 
 /** Excel row: contractNo, customerName (required). */
 @Data
-public class ContractImportRow {
+public class ContractImportRow implements ImportRow {
 
     @ExcelProperty(index = 0)
     private String contractNo;
@@ -19,6 +19,7 @@ public class ContractImportRow {
     @ExcelProperty(index = 3)
     private String endDateStr;
 
+    @Override
     public boolean isBlank() {
         return (contractNo == null || contractNo.isBlank()) && (customerName == null || customerName.isBlank());
     }
@@ -1,8 +1,6 @@
 package com.dfbs.app.application.importdata;
 
-import com.alibaba.excel.EasyExcel;
-import com.alibaba.excel.context.AnalysisContext;
-import com.alibaba.excel.read.listener.ReadListener;
+import com.dfbs.app.application.importdata.StreamingImportEngine.NumberedRow;
 import com.dfbs.app.application.importdata.dto.*;
 import com.dfbs.app.modules.customer.CustomerEntity;
 import com.dfbs.app.modules.customer.CustomerRepo;
@@ -14,40 +12,58 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class ContractImportService implements ImportServiceDelegate {
 
+    static final String IMPORT_TYPE = "CONTRACT";
+
     private final ContractRepo contractRepo;
     private final CustomerRepo customerRepo;
     private final ObjectMapper objectMapper;
+    private final StreamingImportEngine importEngine;
 
-    public ContractImportService(ContractRepo contractRepo, CustomerRepo customerRepo, ObjectMapper objectMapper) {
+    public ContractImportService(ContractRepo contractRepo, CustomerRepo customerRepo, ObjectMapper objectMapper,
+                                 StreamingImportEngine importEngine) {
         this.contractRepo = contractRepo;
         this.customerRepo = customerRepo;
         this.objectMapper = objectMapper;
+        this.importEngine = importEngine;
     }
 
-    @Transactional
-    public ImportResultDto importFromExcel(InputStream file) {
-        List<ContractImportRow> rows = new ArrayList<>();
-        EasyExcel.read(file, ContractImportRow.class, new ReadListener<ContractImportRow>() {
-            @Override
-            public void invoke(ContractImportRow data, AnalysisContext context) {
-                if (data == null || data.isBlank()) return;
-                rows.add(data);
-            }
-            @Override
-            public void doAfterAllAnalysed(AnalysisContext context) {}
-        }).sheet().doRead();
+    @Override
+    public String importType() {
+        return IMPORT_TYPE;
+    }
 
+    @Override
+    public ImportResultDto importFromExcel(InputStream file, String resumeKey, ImportProgress progress) {
+        return importEngine.run(IMPORT_TYPE, resumeKey, file, ContractImportRow.class, null, progress, this::importChunk);
+    }
+
+    private ImportResultDto importChunk(List<NumberedRow<ContractImportRow>> chunk) {
         int successCount = 0;
         List<ImportFailureDto> failures = new ArrayList<>();
         List<ImportConflictDto> conflicts = new ArrayList<>();
 
-        for (int i = 0; i < rows.size(); i++) {
-            ContractImportRow row = rows.get(i);
-            int rowNum = i + 2;
+        Set<String> contractNos = new HashSet<>();
+        Set<String> customerNames = new HashSet<>();
+        for (NumberedRow<ContractImportRow> r : chunk) {
+            String contractNo = blankToNull(r.row().getContractNo());
+            String customerName = blankToNull(r.row().getCustomerName());
+            if (contractNo != null) contractNos.add(contractNo);
+            if (customerName != null) customerNames.add(customerName);
+        }
+        Map<String, List<CustomerEntity>> customersByName = customerRepo.findByNameInAndDeletedAtIsNull(customerNames)
+                .stream().collect(Collectors.groupingBy(CustomerEntity::getName));
+        Map<String, ContractEntity> existingByNo = new HashMap<>();
+        for (ContractEntity c : contractRepo.findByContractNoIn(contractNos)) existingByNo.put(c.getContractNo(), c);
+        List<ContractEntity> toSave = new ArrayList<>();
+
+        for (NumberedRow<ContractImportRow> r : chunk) {
+            ContractImportRow row = r.row();
+            int rowNum = r.rowNum();
 
             String contractNo = blankToNull(row.getContractNo());
             String customerName = blankToNull(row.getCustomerName());
@@ -60,10 +76,8 @@ public class ContractImportService implements ImportServiceDelegate {
                 failures.add(ImportFailureDto.builder().rowNum(rowNum).uniqueKey(contractNo).reason("客户名称必填").build());
                 continue;
             }
-            contractNo = contractNo.trim();
-            customerName = customerName.trim();
 
-            List<CustomerEntity> customers = customerRepo.findByNameAndDeletedAtIsNull(customerName);
+            List<CustomerEntity> customers = customersByName.getOrDefault(customerName, List.of());
             if (customers.isEmpty()) {
                 failures.add(ImportFailureDto.builder().rowNum(rowNum).uniqueKey(contractNo).reason("引用对象不存在：" + customerName).build());
                 continue;
@@ -74,10 +88,10 @@ public class ContractImportService implements ImportServiceDelegate {
             }
             Long customerId = customers.get(0).getId();
 
-            Optional<ContractEntity> existingOpt = contractRepo.findByContractNo(contractNo);
-            if (existingOpt.isPresent()) {
+            ContractEntity existing = existingByNo.get(contractNo);
+            if (existing != null) {
                 try {
-                    String originalJson = objectMapper.writeValueAsString(toMap(existingOpt.get()));
+                    String originalJson = objectMapper.writeValueAsString(toMap(existing));
                     String importJson = objectMapper.writeValueAsString(Map.of("contractNo", contractNo, "customerName", customerName));
                     conflicts.add(ImportConflictDto.builder().rowNum(rowNum).uniqueKey(contractNo).originalData(originalJson).importData(importJson).build());
                 } catch (Exception e) {
@@ -96,9 +110,11 @@ public class ContractImportService implements ImportServiceDelegate {
             e.setUpdatedAt(now);
             e.setCreatedBy("import");
             e.setUpdatedBy("import");
-            contractRepo.save(e);
+            existingByNo.put(contractNo, e);
+            toSave.add(e);
             successCount++;
         }
+        contractRepo.saveAll(toSave);
 
         return ImportResultDto.builder().successCount(successCount).failureCount(failures.size()).conflictCount(conflicts.size()).failures(failures).conflicts(conflicts).build();
     }
@@ -7,7 +7,7 @@ import lombok.Data;
  * Excel row for customer import. Columns: Name (required), Code (optional).
  */
 @Data
-public class CustomerImportRow {
+public class CustomerImportRow implements ImportRow {
 
     @ExcelProperty(index = 0)
     private String name;
@@ -15,6 +15,7 @@ public class CustomerImportRow {
     @ExcelProperty(index = 1)
     private String code;
 
+    @Override
     public boolean isBlank() {
         return (name == null || name.isBlank()) && (code == null || code.isBlank());
     }
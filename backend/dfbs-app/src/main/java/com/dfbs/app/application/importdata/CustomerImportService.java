@@ -1,8 +1,6 @@
 package com.dfbs.app.application.importdata;
 
-import com.alibaba.excel.EasyExcel;
-import com.alibaba.excel.context.AnalysisContext;
-import com.alibaba.excel.read.listener.ReadListener;
+import com.dfbs.app.application.importdata.StreamingImportEngine.NumberedRow;
 import com.dfbs.app.application.importdata.dto.*;
 import com.dfbs.app.modules.customer.CustomerEntity;
 import com.dfbs.app.modules.customer.CustomerRepo;
@@ -14,42 +12,55 @@ import java.io.InputStream;
 import java.util.*;
 
 /**
- * Parse Excel -> Validate -> Check Duplicates (Conflict) -> Insert or Report.
+ * Parse Excel -> Validate -> Check Duplicates (Conflict) -> Insert or Report, per chunk (see StreamingImportEngine).
  * Conflict: existing customer by code; do not overwrite on first pass.
  */
 @Service
 public class CustomerImportService implements ImportServiceDelegate {
 
+    static final String IMPORT_TYPE = "CUSTOMER";
+
     private final CustomerRepo customerRepo;
     private final ObjectMapper objectMapper;
+    private final StreamingImportEngine importEngine;
 
-    public CustomerImportService(CustomerRepo customerRepo, ObjectMapper objectMapper) {
+    public CustomerImportService(CustomerRepo customerRepo, ObjectMapper objectMapper,
+                                 StreamingImportEngine importEngine) {
         this.customerRepo = customerRepo;
         this.objectMapper = objectMapper;
+        this.importEngine = importEngine;
     }
 
-    @Transactional
-    public ImportResultDto importFromExcel(InputStream file) {
-        List<CustomerImportRow> rows = new ArrayList<>();
-
-        EasyExcel.read(file, CustomerImportRow.class, new ReadListener<CustomerImportRow>() {
-            @Override
-            public void invoke(CustomerImportRow data, AnalysisContext context) {
-                if (data == null || data.isBlank()) return;
-                rows.add(data);
-            }
+    @Override
+    public String importType() {
+        return IMPORT_TYPE;
+    }
 
-            @Override
-            public void doAfterAllAnalysed(AnalysisContext context) {}
-        }).sheet().doRead();
+    @Override
+    public ImportResultDto importFromExcel(InputStream file, String resumeKey, ImportProgress progress) {
+        return importEngine.run(IMPORT_TYPE, resumeKey, file, CustomerImportRow.class, null, progress, this::importChunk);
+    }
 
+    private ImportResultDto importChunk(List<NumberedRow<CustomerImportRow>> chunk) {
         int successCount = 0;
         List<ImportFailureDto> failures = new ArrayList<>();
         List<ImportConflictDto> conflicts = new ArrayList<>();
 
-        for (int i = 0; i < rows.size(); i++) {
-            CustomerImportRow row = rows.get(i);
-            int rowNum = i + 2; // 1-based, +1 for header
+        Set<String> codes = new HashSet<>();
+        for (NumberedRow<CustomerImportRow> r : chunk) {
+            codes.add(effectiveCode(blankToNull(r.row().getCode()), r.rowNum()));
+        }
+        // Conflict check for the whole chunk: existing by customer code (do not overwrite); rows earlier in the
+        // chunk count as existing too.
+        Map<String, CustomerEntity> existingByCode = new HashMap<>();
+        for (CustomerEntity c : customerRepo.findByCustomerCodeIn(codes)) {
+            existingByCode.put(c.getCustomerCode(), c);
+        }
+        List<CustomerEntity> toSave = new ArrayList<>();
+
+        for (NumberedRow<CustomerImportRow> r : chunk) {
+            CustomerImportRow row = r.row();
+            int rowNum = r.rowNum();
 
             String name = blankToNull(row.getName());
             String code = blankToNull(row.getCode());
@@ -64,13 +75,12 @@ public class CustomerImportService implements ImportServiceDelegate {
                 continue;
             }
             name = name.trim();
-            String effectiveCode = (code != null && !code.isBlank()) ? code.trim() : ("IMP-" + rowNum);
+            String effectiveCode = effectiveCode(code, rowNum);
 
-            // Conflict check: existing by customer code (do not overwrite)
-            Optional<CustomerEntity> existingOpt = customerRepo.findByCustomerCode(effectiveCode);
-            if (existingOpt.isPresent()) {
+            CustomerEntity existing = existingByCode.get(effectiveCode);
+            if (existing != null) {
                 try {
-                    String originalJson = objectMapper.writeValueAsString(toMap(existingOpt.get()));
+                    String originalJson = objectMapper.writeValueAsString(toMap(existing));
                     String importJson = objectMapper.writeValueAsString(Map.of("name", name, "code", effectiveCode));
                     conflicts.add(ImportConflictDto.builder()
                             .rowNum(rowNum)
@@ -89,11 +99,13 @@ public class CustomerImportService implements ImportServiceDelegate {
                 continue;
             }
 
-            // Persist: valid and unique
+            // Persist: valid and unique (one saveAll per chunk)
             CustomerEntity entity = CustomerEntity.create(effectiveCode, name);
-            customerRepo.save(entity);
+            existingByCode.put(effectiveCode, entity);
+            toSave.add(entity);
             successCount++;
         }
+        customerRepo.saveAll(toSave);
 
         return ImportResultDto.builder()
                 .successCount(successCount)
@@ -119,6 +131,10 @@ public class CustomerImportService implements ImportServiceDelegate {
                 .build();
     }
 
+    private static String effectiveCode(String code, int rowNum) {
+        return (code != null && !code.isBlank()) ? code.trim() : ("IMP-" + rowNum);
+    }
+
     private static String blankToNull(String s) {
         if (s == null || s.isBlank()) return null;
         return s.trim();
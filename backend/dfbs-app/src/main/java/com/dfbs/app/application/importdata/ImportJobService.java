@@ -0,0 +1,261 @@
+package com.dfbs.app.application.importdata;
+
+import com.dfbs.app.application.importdata.StreamingImportEngine.ImportCancelledException;
+import com.dfbs.app.application.importdata.dto.ImportResultDto;
+import com.dfbs.app.application.perm.PermForbiddenException;
+import com.dfbs.app.config.NodeIdentity;
+import com.dfbs.app.modules.importdata.ImportJobEntity;
+import com.dfbs.app.modules.importdata.ImportJobRepo;
+import com.dfbs.app.modules.importdata.ImportJobStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Background Excel imports. submit() spools the upload to a temp file, records a QUEUED job and returns at once;
+ * at most dfbs.import.max-concurrent-jobs jobs run (on virtual threads), the rest wait in order.
+ * Progress is written after every committed chunk; the final ImportResultDto is stored as JSON.
+ * A cancelled or failed job keeps its committed chunks and resume checkpoint, so re-uploading the file continues it.
+ * Jobs are visible to their submitter and admins only; a restarted node fails the jobs it left unfinished, and
+ * every node periodically fails jobs of any node still unfinished dfbs.import.stale-job-minutes after submission
+ * (their node died and has not come back).
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final ImportJobRepo jobRepo;
+    private final Map<String, ImportServiceDelegate> delegates;
+    private final ObjectMapper objectMapper;
+    private final NodeIdentity node;
+    private final Clock clock;
+    private final long staleJobMinutes;
+    private final ExecutorService workers;
+
+    public ImportJobService(ImportJobRepo jobRepo,
+                            List<ImportServiceDelegate> delegates,
+                            ObjectMapper objectMapper,
+                            NodeIdentity node,
+                            Clock clock,
+                            @Value("${dfbs.import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                            @Value("${dfbs.import.stale-job-minutes:360}") long staleJobMinutes) {
+        this.jobRepo = jobRepo;
+        this.delegates = delegates.stream()
+                .collect(Collectors.toMap(ImportServiceDelegate::importType, Function.identity()));
+        this.objectMapper = objectMapper;
+        this.node = node;
+        this.clock = clock;
+        this.staleJobMinutes = staleJobMinutes;
+        this.workers = Executors.newFixedThreadPool(Math.max(1, maxConcurrentJobs),
+                Thread.ofVirtual().name("import-job-", 0).factory());
+    }
+
+    /** Queues an import of file for importType (e.g. CUSTOMER); the job is committed before a worker can pick it up. */
+    public ImportJobEntity submit(String importType, String fileName, InputStream file, Long userId) {
+        ImportServiceDelegate delegate = delegates.get(importType);
+        if (delegate == null) {
+            throw new IllegalArgumentException("不支持的导入类型: " + importType);
+        }
+        Path spool;
+        try {
+            spool = Files.createTempFile("import-job-", ".xlsx");
+            Files.copy(file, spool, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new IllegalStateException("上传文件保存失败：" + e.getMessage(), e);
+        }
+        ImportJobEntity job = new ImportJobEntity();
+        job.setImportType(importType);
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setFileName(fileName);
+        job.setWorkerNode(node.nodeId());
+        job.setSpoolPath(spool.toString());
+        job.setCreatedBy(userId);
+        job.setCreatedAt(LocalDateTime.now(clock));
+        try {
+            job = jobRepo.save(job);
+        } catch (RuntimeException e) {
+            deleteQuietly(spool);
+            throw e;
+        }
+        Long jobId = job.getId();
+        workers.execute(() -> run(jobId, delegate, spool));
+        return job;
+    }
+
+    /** The job, if userId submitted it or admin is set (ROLE_ADMIN / ROLE_SUPER_ADMIN); otherwise 403. */
+    public ImportJobEntity get(Long id, Long userId, boolean admin) {
+        ImportJobEntity job = load(id);
+        if (!admin && (userId == null || !userId.equals(job.getCreatedBy()))) {
+            throw new PermForbiddenException("无权查看或取消他人的导入任务");
+        }
+        return job;
+    }
+
+    /** Final result of a finished job (null while queued/running or if the job failed before any result). */
+    public ImportResultDto result(ImportJobEntity job) {
+        if (job.getResultJson() == null) return null;
+        try {
+            return objectMapper.readValue(job.getResultJson(), ImportResultDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("导入结果解析失败：" + e.getMessage(), e);
+        }
+    }
+
+    /** Queued jobs are cancelled at once; running jobs stop before their next chunk. Same access rule as get. */
+    public ImportJobEntity cancel(Long id, Long userId, boolean admin) {
+        ImportJobEntity job = get(id, userId, admin);
+        if (job.getStatus().isFinished()) {
+            throw new IllegalStateException("导入任务已结束，无法取消");
+        }
+        if (jobRepo.cancelQueued(id, LocalDateTime.now(clock)) == 0) {
+            jobRepo.requestCancel(id);
+        }
+        return load(id);
+    }
+
+    /**
+     * Worker threads and spool files do not survive a restart: jobs this node left QUEUED / RUNNING are failed and
+     * their spool files deleted (re-uploading the file resumes after the last committed chunk).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        List<ImportJobEntity> interrupted = jobRepo.findInterrupted(node.nodeId(), node.startedAt());
+        for (ImportJobEntity job : interrupted) {
+            if (job.getSpoolPath() != null) {
+                deleteQuietly(Path.of(job.getSpoolPath()));
+            }
+        }
+        if (!interrupted.isEmpty()) {
+            int failed = jobRepo.failInterrupted(interrupted.stream().map(ImportJobEntity::getId).toList(),
+                    "服务重启，导入已中断，请重新上传文件继续", LocalDateTime.now(clock));
+            log.warn("Marked {} interrupted import job(s) of node {} as FAILED", failed, node.nodeId());
+        }
+    }
+
+    /**
+     * Fails jobs of any node that are still QUEUED / RUNNING stale-job-minutes after submission, so a job whose node
+     * died and never restarted does not stay open forever. Runs on every node; the update is idempotent. Spool files
+     * are deleted only for this node's jobs (other nodes' files are not reachable from here).
+     */
+    @Scheduled(fixedDelayString = "${dfbs.import.stale-sweep-ms:600000}")
+    public void failStaleJobs() {
+        List<ImportJobEntity> stale = jobRepo.findStale(LocalDateTime.now(clock).minusMinutes(staleJobMinutes));
+        if (stale.isEmpty()) {
+            return;
+        }
+        int failed = jobRepo.failInterrupted(stale.stream().map(ImportJobEntity::getId).toList(),
+                "导入任务超时未完成（执行节点可能已停止），请重新上传文件继续", LocalDateTime.now(clock));
+        for (ImportJobEntity job : stale) {
+            if (job.getSpoolPath() != null && node.nodeId().equals(job.getWorkerNode())) {
+                deleteQuietly(Path.of(job.getSpoolPath()));
+            }
+        }
+        log.warn("Marked {} stale import job(s) as FAILED (unfinished after {} minutes)", failed, staleJobMinutes);
+    }
+
+    private ImportJobEntity load(Long id) {
+        return jobRepo.findById(id)
+                .orElseThrow(() -> new IllegalStateException("import job not found: " + id));
+    }
+
+    private void run(Long jobId, ImportServiceDelegate delegate, Path spool) {
+        try {
+            if (jobRepo.markRunning(jobId, LocalDateTime.now(clock)) == 0) {
+                return;
+            }
+            JobProgress progress = new JobProgress(jobId);
+            try {
+                String resumeKey;
+                try (InputStream is = Files.newInputStream(spool)) {
+                    resumeKey = StreamingImportEngine.fingerprint(is);
+                }
+                ImportResultDto result;
+                try (InputStream is = Files.newInputStream(spool)) {
+                    result = delegate.importFromExcel(is, resumeKey, progress);
+                }
+                finish(jobId, ImportJobStatus.SUCCEEDED, result, null);
+            } catch (ImportCancelledException e) {
+                finish(jobId, ImportJobStatus.CANCELLED, progress.totals, null);
+            } catch (Exception e) {
+                log.warn("Import job {} ({}) failed", jobId, delegate.importType(), e);
+                finish(jobId, ImportJobStatus.FAILED, progress.totals, e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            log.error("Import job {} could not record its outcome", jobId, e);
+        } finally {
+            deleteQuietly(spool);
+        }
+    }
+
+    private void finish(Long jobId, ImportJobStatus status, ImportResultDto result, String error) {
+        ImportResultDto totals = result != null ? result : new ImportResultDto();
+        String json;
+        try {
+            json = result != null ? objectMapper.writeValueAsString(result) : null;
+        } catch (JsonProcessingException e) {
+            json = null;
+        }
+        if (error != null && error.length() > 1000) {
+            error = error.substring(0, 1000);
+        }
+        jobRepo.finish(jobId, status, totals.getSuccessCount(), totals.getFailureCount(), totals.getConflictCount(),
+                json, error, LocalDateTime.now(clock));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete import spool file {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /** Writes progress after each chunk; reads the cancel flag from the job row (works across nodes). */
+    private final class JobProgress implements ImportProgress {
+        private final Long jobId;
+        private volatile ImportResultDto totals;
+
+        private JobProgress(Long jobId) {
+            this.jobId = jobId;
+        }
+
+        @Override
+        public void onChunkCommitted(int rowsRead, ImportResultDto totals) {
+            this.totals = totals;
+            jobRepo.updateProgress(jobId, rowsRead, totals.getSuccessCount(), totals.getFailureCount(),
+                    totals.getConflictCount());
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return Boolean.TRUE.equals(jobRepo.findCancelRequested(jobId));
+        }
+    }
+}
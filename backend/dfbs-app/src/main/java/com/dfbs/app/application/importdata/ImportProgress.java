@@ -0,0 +1,23 @@
+package com.dfbs.app.application.importdata;
+
+import com.dfbs.app.application.importdata.dto.ImportResultDto;
+
+/** Observes a {@link StreamingImportEngine} run between chunks (progress reporting, cancellation). */
+public interface ImportProgress {
+
+    ImportProgress NONE = new ImportProgress() {
+        @Override
+        public void onChunkCommitted(int rowsRead, ImportResultDto totals) {}
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    /** After each committed chunk: data rows read so far (incl. blank and resumed rows) and the running totals. */
+    void onChunkCommitted(int rowsRead, ImportResultDto totals);
+
+    /** Checked before each chunk; true stops the run, keeping what is committed (and its resume checkpoint). */
+    boolean isCancelled();
+}
@@ -0,0 +1,7 @@
+package com.dfbs.app.application.importdata;
+
+/** Excel row type read by {@link StreamingImportEngine}; blank rows are skipped before chunking. */
+public interface ImportRow {
+
+    boolean isBlank();
+}
@@ -4,8 +4,24 @@ import com.dfbs.app.application.importdata.dto.ImportResultDto;
 
 import java.io.InputStream;
 
-/** Common interface for all import services (Parse -> Validate -> Conflict -> Result). */
+/** Common interface for all import services (Parse -> Validate -> Conflict -> Result), run chunk by chunk. */
 public interface ImportServiceDelegate {
 
-    ImportResultDto importFromExcel(InputStream file);
+    /** Key used for checkpoints and import jobs, e.g. CUSTOMER. */
+    String importType();
+
+    /** Fresh run, no checkpoint. */
+    default ImportResultDto importFromExcel(InputStream file) {
+        return importFromExcel(file, null, ImportProgress.NONE);
+    }
+
+    default ImportResultDto importFromExcel(InputStream file, String resumeKey) {
+        return importFromExcel(file, resumeKey, ImportProgress.NONE);
+    }
+
+    /**
+     * resumeKey identifies the file (see {@link StreamingImportEngine#fingerprint}). If an earlier run with the same key
+     * stopped part-way, rows up to its last committed chunk are skipped and its counts carried over. Null = no checkpoint.
+     */
+    ImportResultDto importFromExcel(InputStream file, String resumeKey, ImportProgress progress);
 }
@@ -5,7 +5,7 @@ import lombok.Data;
 
 /** Excel row: machineNo, serialNo (required), modelName, customerName (optional refs). */
 @Data
-public class MachineImportRow {
+public class MachineImportRow implements ImportRow {
 
     @ExcelProperty(index = 0)
     private String machineNo;
@@ -19,6 +19,7 @@ public class MachineImportRow {
     @ExcelProperty(index = 3)
     private String customerName;
 
+    @Override
     public boolean isBlank() {
         return (machineNo == null || machineNo.isBlank()) && (serialNo == null || serialNo.isBlank());
     }
@@ -1,8 +1,6 @@
 package com.dfbs.app.application.importdata;
 
-import com.alibaba.excel.EasyExcel;
-import com.alibaba.excel.context.AnalysisContext;
-import com.alibaba.excel.read.listener.ReadListener;
+import com.dfbs.app.application.importdata.StreamingImportEngine.NumberedRow;
 import com.dfbs.app.application.importdata.dto.*;
 import com.dfbs.app.modules.customer.CustomerEntity;
 import com.dfbs.app.modules.customer.CustomerRepo;
@@ -18,39 +16,68 @@ import java.util.*;
 @Service
 public class MachineImportService implements ImportServiceDelegate {
 
+    static final String IMPORT_TYPE = "MACHINE";
+
     private final MachineRepo machineRepo;
     private final CustomerRepo customerRepo;
     private final MachineModelRepo machineModelRepo;
     private final ObjectMapper objectMapper;
+    private final StreamingImportEngine importEngine;
 
     public MachineImportService(MachineRepo machineRepo, CustomerRepo customerRepo,
-                                MachineModelRepo machineModelRepo, ObjectMapper objectMapper) {
+                                MachineModelRepo machineModelRepo, ObjectMapper objectMapper,
+                                StreamingImportEngine importEngine) {
         this.machineRepo = machineRepo;
         this.customerRepo = customerRepo;
         this.machineModelRepo = machineModelRepo;
         this.objectMapper = objectMapper;
+        this.importEngine = importEngine;
     }
 
-    @Transactional
-    public ImportResultDto importFromExcel(InputStream file) {
-        List<MachineImportRow> rows = new ArrayList<>();
-        EasyExcel.read(file, MachineImportRow.class, new ReadListener<MachineImportRow>() {
-            @Override
-            public void invoke(MachineImportRow data, AnalysisContext context) {
-                if (data == null || data.isBlank()) return;
-                rows.add(data);
-            }
-            @Override
-            public void doAfterAllAnalysed(AnalysisContext context) {}
-        }).sheet().doRead();
+    @Override
+    public String importType() {
+        return IMPORT_TYPE;
+    }
 
+    @Override
+    public ImportResultDto importFromExcel(InputStream file, String resumeKey, ImportProgress progress) {
+        return importEngine.run(IMPORT_TYPE, resumeKey, file, MachineImportRow.class, null, progress, this::importChunk);
+    }
+
+    private ImportResultDto importChunk(List<NumberedRow<MachineImportRow>> chunk) {
         int successCount = 0;
         List<ImportFailureDto> failures = new ArrayList<>();
         List<ImportConflictDto> conflicts = new ArrayList<>();
 
-        for (int i = 0; i < rows.size(); i++) {
-            MachineImportRow row = rows.get(i);
-            int rowNum = i + 2;
+        Set<String> machineNos = new HashSet<>();
+        Set<String> serialNos = new HashSet<>();
+        Set<String> customerNames = new HashSet<>();
+        Set<String> modelNames = new HashSet<>();
+        for (NumberedRow<MachineImportRow> r : chunk) {
+            MachineImportRow row = r.row();
+            addIfPresent(machineNos, row.getMachineNo());
+            addIfPresent(serialNos, row.getSerialNo());
+            addIfPresent(customerNames, row.getCustomerName());
+            addIfPresent(modelNames, row.getModelName());
+        }
+        Map<String, MachineEntity> byMachineNo = new HashMap<>();
+        Map<String, MachineEntity> bySerialNo = new HashMap<>();
+        for (MachineEntity m : machineRepo.findByMachineNoIn(machineNos)) byMachineNo.put(m.getMachineNo(), m);
+        for (MachineEntity m : machineRepo.findBySerialNoIn(serialNos)) bySerialNo.put(m.getSerialNo(), m);
+        // First match wins, as the per-row lookups did (get(0)).
+        Map<String, Long> customerIdByName = new HashMap<>();
+        for (CustomerEntity c : customerRepo.findByNameInAndDeletedAtIsNull(customerNames)) {
+            customerIdByName.putIfAbsent(c.getName(), c.getId());
+        }
+        Map<String, Long> modelIdByName = new HashMap<>();
+        for (MachineModelEntity m : machineModelRepo.findByModelNameIn(modelNames)) {
+            modelIdByName.putIfAbsent(m.getModelName(), m.getId());
+        }
+        List<MachineEntity> toSave = new ArrayList<>();
+
+        for (NumberedRow<MachineImportRow> r : chunk) {
+            MachineImportRow row = r.row();
+            int rowNum = r.rowNum();
 
             String machineNo = blankToNull(row.getMachineNo());
             String serialNo = blankToNull(row.getSerialNo());
@@ -65,16 +92,11 @@ public class MachineImportService implements ImportServiceDelegate {
                 failures.add(ImportFailureDto.builder().rowNum(rowNum).uniqueKey(machineNo).reason("序列号必填").build());
                 continue;
             }
-            machineNo = machineNo.trim();
-            serialNo = serialNo.trim();
 
-            if (machineRepo.existsByMachineNo(machineNo) || machineRepo.existsBySerialNo(serialNo)) {
-                Optional<MachineEntity> existingOpt = machineRepo.findByMachineNo(machineNo);
-                if (existingOpt.isEmpty()) {
-                    existingOpt = machineRepo.findBySerialNo(serialNo);
-                }
+            MachineEntity existing = byMachineNo.containsKey(machineNo) ? byMachineNo.get(machineNo) : bySerialNo.get(serialNo);
+            if (existing != null) {
                 try {
-                    String originalJson = objectMapper.writeValueAsString(toMap(existingOpt.get()));
+                    String originalJson = objectMapper.writeValueAsString(toMap(existing));
                     String importJson = objectMapper.writeValueAsString(Map.of("machineNo", machineNo, "serialNo", serialNo, "modelName", modelName != null ? modelName : "", "customerName", customerName != null ? customerName : ""));
                     conflicts.add(ImportConflictDto.builder().rowNum(rowNum).uniqueKey(machineNo).originalData(originalJson).importData(importJson).build());
                 } catch (Exception e) {
@@ -83,31 +105,23 @@ public class MachineImportService implements ImportServiceDelegate {
                 continue;
             }
 
-            Long customerId = null;
-            if (customerName != null && !customerName.isBlank()) {
-                List<CustomerEntity> customers = customerRepo.findByNameAndDeletedAtIsNull(customerName.trim());
-                if (!customers.isEmpty()) customerId = customers.get(0).getId();
-            }
-            Long modelId = null;
-            if (modelName != null && !modelName.isBlank()) {
-                List<MachineModelEntity> models = machineModelRepo.findByModelName(modelName.trim());
-                if (!models.isEmpty()) modelId = models.get(0).getId();
-            }
-
             MachineEntity e = new MachineEntity();
             e.setMachineNo(machineNo);
             e.setSerialNo(serialNo);
-            e.setCustomerId(customerId);
-            e.setModelId(modelId);
+            e.setCustomerId(customerName != null ? customerIdByName.get(customerName) : null);
+            e.setModelId(modelName != null ? modelIdByName.get(modelName) : null);
             e.setStatus(MasterDataStatus.ENABLE);
             LocalDateTime now = LocalDateTime.now();
             e.setCreatedAt(now);
             e.setUpdatedAt(now);
             e.setCreatedBy("import");
             e.setUpdatedBy("import");
-            machineRepo.save(e);
+            byMachineNo.put(machineNo, e);
+            bySerialNo.put(serialNo, e);
+            toSave.add(e);
             successCount++;
         }
+        machineRepo.saveAll(toSave);
 
         return ImportResultDto.builder().successCount(successCount).failureCount(failures.size()).conflictCount(conflicts.size()).failures(failures).conflicts(conflicts).build();
     }
@@ -117,6 +131,11 @@ public class MachineImportService implements ImportServiceDelegate {
         return ImportResultDto.builder().successCount(0).failureCount(0).conflictCount(0).failures(List.of()).conflicts(List.of()).build();
     }
 
+    private static void addIfPresent(Set<String> keys, String value) {
+        String v = blankToNull(value);
+        if (v != null) keys.add(v);
+    }
+
     private static String blankToNull(String s) {
         if (s == null || s.isBlank()) return null;
         return s.trim();
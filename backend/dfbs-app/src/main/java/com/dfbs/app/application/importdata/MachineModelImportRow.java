@@ -5,7 +5,7 @@ import lombok.Data;
 
 /** Excel row: modelName, modelNo (required). */
 @Data
-public class MachineModelImportRow {
+public class MachineModelImportRow implements ImportRow {
 
     @ExcelProperty(index = 0)
     private String modelName;
@@ -19,6 +19,7 @@ public class MachineModelImportRow {
     @ExcelProperty(index = 3)
     private String warrantyInfo;
 
+    @Override
     public boolean isBlank() {
         return (modelName == null || modelName.isBlank()) && (modelNo == null || modelNo.isBlank());
     }
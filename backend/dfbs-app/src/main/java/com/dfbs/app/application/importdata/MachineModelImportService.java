@@ -1,8 +1,6 @@
 package com.dfbs.app.application.importdata;
 
-import com.alibaba.excel.EasyExcel;
-import com.alibaba.excel.context.AnalysisContext;
-import com.alibaba.excel.read.listener.ReadListener;
+import com.dfbs.app.application.importdata.StreamingImportEngine.NumberedRow;
 import com.dfbs.app.application.importdata.dto.*;
 import com.dfbs.app.modules.masterdata.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,34 +14,46 @@ import java.util.*;
 @Service
 public class MachineModelImportService implements ImportServiceDelegate {
 
+    static final String IMPORT_TYPE = "MACHINE_MODEL";
+
     private final MachineModelRepo machineModelRepo;
     private final ObjectMapper objectMapper;
+    private final StreamingImportEngine importEngine;
 
-    public MachineModelImportService(MachineModelRepo machineModelRepo, ObjectMapper objectMapper) {
+    public MachineModelImportService(MachineModelRepo machineModelRepo, ObjectMapper objectMapper,
+                                     StreamingImportEngine importEngine) {
         this.machineModelRepo = machineModelRepo;
         this.objectMapper = objectMapper;
+        this.importEngine = importEngine;
     }
 
-    @Transactional
-    public ImportResultDto importFromExcel(InputStream file) {
-        List<MachineModelImportRow> rows = new ArrayList<>();
-        EasyExcel.read(file, MachineModelImportRow.class, new ReadListener<MachineModelImportRow>() {
-            @Override
-            public void invoke(MachineModelImportRow data, AnalysisContext context) {
-                if (data == null || data.isBlank()) return;
-                rows.add(data);
-            }
-            @Override
-            public void doAfterAllAnalysed(AnalysisContext context) {}
-        }).sheet().doRead();
+    @Override
+    public String importType() {
+        return IMPORT_TYPE;
+    }
 
+    @Override
+    public ImportResultDto importFromExcel(InputStream file, String resumeKey, ImportProgress progress) {
+        return importEngine.run(IMPORT_TYPE, resumeKey, file, MachineModelImportRow.class, null, progress, this::importChunk);
+    }
+
+    private ImportResultDto importChunk(List<NumberedRow<MachineModelImportRow>> chunk) {
         int successCount = 0;
         List<ImportFailureDto> failures = new ArrayList<>();
         List<ImportConflictDto> conflicts = new ArrayList<>();
 
-        for (int i = 0; i < rows.size(); i++) {
-            MachineModelImportRow row = rows.get(i);
-            int rowNum = i + 2;
+        Set<String> modelNos = new HashSet<>();
+        for (NumberedRow<MachineModelImportRow> r : chunk) {
+            String modelNo = blankToNull(r.row().getModelNo());
+            if (modelNo != null) modelNos.add(modelNo);
+        }
+        Map<String, MachineModelEntity> existingByNo = new HashMap<>();
+        for (MachineModelEntity m : machineModelRepo.findByModelNoIn(modelNos)) existingByNo.put(m.getModelNo(), m);
+        List<MachineModelEntity> toSave = new ArrayList<>();
+
+        for (NumberedRow<MachineModelImportRow> r : chunk) {
+            MachineModelImportRow row = r.row();
+            int rowNum = r.rowNum();
 
             String modelName = blankToNull(row.getModelName());
             String modelNo = blankToNull(row.getModelNo());
@@ -56,13 +66,11 @@ public class MachineModelImportService implements ImportServiceDelegate {
                 failures.add(ImportFailureDto.builder().rowNum(rowNum).uniqueKey(modelName).reason("型号编号必填").build());
                 continue;
             }
-            modelName = modelName.trim();
-            modelNo = modelNo.trim();
 
-            if (machineModelRepo.existsByModelNo(modelNo)) {
-                Optional<MachineModelEntity> existingOpt = machineModelRepo.findByModelNo(modelNo);
+            MachineModelEntity existing = existingByNo.get(modelNo);
+            if (existing != null) {
                 try {
-                    String originalJson = objectMapper.writeValueAsString(toMap(existingOpt.get()));
+                    String originalJson = objectMapper.writeValueAsString(toMap(existing));
                     String importJson = objectMapper.writeValueAsString(Map.of("modelName", modelName, "modelNo", modelNo));
                     conflicts.add(ImportConflictDto.builder().rowNum(rowNum).uniqueKey(modelNo).originalData(originalJson).importData(importJson).build());
                 } catch (Exception e) {
@@ -82,9 +90,11 @@ public class MachineModelImportService implements ImportServiceDelegate {
             e.setUpdatedAt(now);
             e.setCreatedBy("import");
             e.setUpdatedBy("import");
-            machineModelRepo.save(e);
+            existingByNo.put(modelNo, e);
+            toSave.add(e);
             successCount++;
         }
+        machineModelRepo.saveAll(toSave);
 
         return ImportResultDto.builder().successCount(successCount).failureCount(failures.size()).conflictCount(conflicts.size()).failures(failures).conflicts(conflicts).build();
     }
@@ -5,7 +5,7 @@ import lombok.Data;
 
 /** Flat Excel row for BOM import: Model Name, Version, Part No, Qty. Rows grouped by Model + Version. */
 @Data
-public class ModelPartListImportRow {
+public class ModelPartListImportRow implements ImportRow {
 
     @ExcelProperty(index = 0)
     private String modelName;
@@ -19,6 +19,7 @@ public class ModelPartListImportRow {
     @ExcelProperty(index = 3)
     private Integer quantity;
 
+    @Override
     public boolean isBlank() {
         return (modelName == null || modelName.isBlank())
                 && (version == null || version.isBlank())
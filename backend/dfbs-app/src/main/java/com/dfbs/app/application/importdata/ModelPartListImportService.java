@@ -1,8 +1,6 @@
 package com.dfbs.app.application.importdata;
 
-import com.alibaba.excel.EasyExcel;
-import com.alibaba.excel.context.AnalysisContext;
-import com.alibaba.excel.read.listener.ReadListener;
+import com.dfbs.app.application.importdata.StreamingImportEngine.NumberedRow;
 import com.dfbs.app.application.importdata.dto.*;
 import com.dfbs.app.application.masterdata.ModelPartListBomService;
 import com.dfbs.app.application.masterdata.dto.BomItemDto;
@@ -17,58 +15,88 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * BOM import: flat rows (Model Name, Version, Part No, Qty). Group by Model+Version.
+ * BOM import: flat rows (Model Name, Version, Part No, Qty). Group by Model+Version; a group's rows must be
+ * consecutive in the file. A run of rows repeating a group seen earlier in the file fails, wherever the chunk
+ * boundaries fall (chunks are never cut inside a run).
  * Conflict: BOM with same model+version already exists and is NOT Draft.
  * Action: Create DRAFT BOM via ModelPartListBomService.createDraft.
  */
 @Service
 public class ModelPartListImportService implements ImportServiceDelegate {
 
+    static final String IMPORT_TYPE = "MODEL_PART_LIST";
+
     private final ModelPartListRepo modelPartListRepo;
     private final ModelPartListBomService bomService;
     private final MachineModelRepo machineModelRepo;
     private final SparePartRepo sparePartRepo;
     private final ObjectMapper objectMapper;
+    private final StreamingImportEngine importEngine;
 
     public ModelPartListImportService(ModelPartListRepo modelPartListRepo, ModelPartListBomService bomService,
                                       MachineModelRepo machineModelRepo, SparePartRepo sparePartRepo,
-                                      ObjectMapper objectMapper) {
+                                      ObjectMapper objectMapper, StreamingImportEngine importEngine) {
         this.modelPartListRepo = modelPartListRepo;
         this.bomService = bomService;
         this.machineModelRepo = machineModelRepo;
         this.sparePartRepo = sparePartRepo;
         this.objectMapper = objectMapper;
+        this.importEngine = importEngine;
     }
 
-    @Transactional
-    public ImportResultDto importFromExcel(InputStream file) {
-        List<ModelPartListImportRow> rows = new ArrayList<>();
-        EasyExcel.read(file, ModelPartListImportRow.class, new ReadListener<ModelPartListImportRow>() {
-            @Override
-            public void invoke(ModelPartListImportRow data, AnalysisContext context) {
-                if (data == null || data.isBlank()) return;
-                rows.add(data);
-            }
-            @Override
-            public void doAfterAllAnalysed(AnalysisContext context) {}
-        }).sheet().doRead();
+    @Override
+    public String importType() {
+        return IMPORT_TYPE;
+    }
 
+    @Override
+    public ImportResultDto importFromExcel(InputStream file, String resumeKey, ImportProgress progress) {
+        Set<String> importedGroups = new HashSet<>();
+        return importEngine.run(IMPORT_TYPE, resumeKey, file, ModelPartListImportRow.class,
+                row -> key(row.getModelName(), row.getVersion()), progress,
+                chunk -> importChunk(chunk, importedGroups));
+    }
+
+    private ImportResultDto importChunk(List<NumberedRow<ModelPartListImportRow>> chunk, Set<String> importedGroups) {
         int successCount = 0;
         List<ImportFailureDto> failures = new ArrayList<>();
         List<ImportConflictDto> conflicts = new ArrayList<>();
 
-        List<Map.Entry<Integer, ModelPartListImportRow>> indexed = new ArrayList<>();
-        for (int i = 0; i < rows.size(); i++) indexed.add(Map.entry(i + 2, rows.get(i)));
-
-        Map<String, List<Map.Entry<Integer, ModelPartListImportRow>>> groups = indexed.stream()
-                .collect(Collectors.groupingBy(e -> key(e.getValue().getModelName(), e.getValue().getVersion())));
+        // Runs of consecutive rows with the same key, in file order; not grouped across the chunk.
+        List<Map.Entry<String, List<NumberedRow<ModelPartListImportRow>>>> groups = new ArrayList<>();
+        for (NumberedRow<ModelPartListImportRow> r : chunk) {
+            String key = key(r.row().getModelName(), r.row().getVersion());
+            if (groups.isEmpty() || !groups.get(groups.size() - 1).getKey().equals(key)) {
+                groups.add(Map.entry(key, new ArrayList<>()));
+            }
+            groups.get(groups.size() - 1).getValue().add(r);
+        }
 
-        for (Map.Entry<String, List<Map.Entry<Integer, ModelPartListImportRow>>> entry : groups.entrySet()) {
-            List<Map.Entry<Integer, ModelPartListImportRow>> groupEntries = entry.getValue();
+        // One query per lookup for the whole chunk.
+        Set<String> modelNames = new HashSet<>();
+        Set<String> partNos = new HashSet<>();
+        for (NumberedRow<ModelPartListImportRow> r : chunk) {
+            String modelName = blankToNull(r.row().getModelName());
+            String partNo = blankToNull(r.row().getPartNo());
+            if (modelName != null) modelNames.add(modelName);
+            if (partNo != null) partNos.add(partNo);
+        }
+        Map<String, Long> modelIdByName = new HashMap<>();
+        for (MachineModelEntity m : machineModelRepo.findByModelNameIn(modelNames)) {
+            modelIdByName.putIfAbsent(m.getModelName(), m.getId());
+        }
+        Map<Long, List<ModelPartListEntity>> bomsByModel = modelIdByName.isEmpty() ? Map.of()
+                : modelPartListRepo.findByModelIdIn(modelIdByName.values()).stream()
+                        .collect(Collectors.groupingBy(ModelPartListEntity::getModelId));
+        Map<String, String> partNameByNo = new HashMap<>();
+        for (SparePartEntity p : sparePartRepo.findByPartNoIn(partNos)) partNameByNo.put(p.getPartNo(), p.getName());
+
+        for (Map.Entry<String, List<NumberedRow<ModelPartListImportRow>>> entry : groups) {
+            List<NumberedRow<ModelPartListImportRow>> groupEntries = entry.getValue();
             if (groupEntries.isEmpty()) continue;
 
-            int rowNum = groupEntries.stream().mapToInt(Map.Entry::getKey).min().orElse(2);
-            List<ModelPartListImportRow> groupRows = groupEntries.stream().map(Map.Entry::getValue).toList();
+            int rowNum = groupEntries.get(0).rowNum();
+            List<ModelPartListImportRow> groupRows = groupEntries.stream().map(NumberedRow::row).toList();
             ModelPartListImportRow first = groupRows.get(0);
             String modelName = blankToNull(first.getModelName());
             String version = blankToNull(first.getVersion());
@@ -81,17 +109,18 @@ public class ModelPartListImportService implements ImportServiceDelegate {
                 failures.add(ImportFailureDto.builder().rowNum(rowNum).uniqueKey(modelName).reason("版本号必填").build());
                 continue;
             }
-            modelName = modelName.trim();
-            version = version.trim();
+            if (!importedGroups.add(entry.getKey())) {
+                failures.add(ImportFailureDto.builder().rowNum(rowNum).uniqueKey(modelName + "/" + version).reason("同一型号版本的清单行须连续").build());
+                continue;
+            }
 
-            List<MachineModelEntity> models = machineModelRepo.findByModelName(modelName);
-            if (models.isEmpty()) {
+            Long modelId = modelIdByName.get(modelName);
+            if (modelId == null) {
                 failures.add(ImportFailureDto.builder().rowNum(rowNum).uniqueKey(modelName + "/" + version).reason("引用对象不存在：型号 " + modelName).build());
                 continue;
             }
-            Long modelId = models.get(0).getId();
 
-            List<ModelPartListEntity> existingBoms = modelPartListRepo.findByModelId(modelId);
+            List<ModelPartListEntity> existingBoms = bomsByModel.getOrDefault(modelId, List.of());
             final String versionKey = version;
             Optional<ModelPartListEntity> sameVersion = existingBoms.stream()
                     .filter(b -> versionKey.equals(b.getVersion()) && b.getStatus() != BomStatus.DRAFT)
@@ -111,9 +140,8 @@ public class ModelPartListImportService implements ImportServiceDelegate {
             for (ModelPartListImportRow r : groupRows) {
                 String partNo = blankToNull(r.getPartNo());
                 if (partNo == null || partNo.isBlank()) continue;
-                partNo = partNo.trim();
                 int qty = r.getQuantity() != null && r.getQuantity() > 0 ? r.getQuantity() : 1;
-                String name = sparePartRepo.findByPartNo(partNo).map(SparePartEntity::getName).orElse(partNo);
+                String name = partNameByNo.getOrDefault(partNo, partNo);
                 items.add(new BomItemDto(partNo, name, qty, ""));
             }
             if (items.isEmpty()) {
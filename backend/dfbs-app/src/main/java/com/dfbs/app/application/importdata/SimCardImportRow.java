@@ -5,7 +5,7 @@ import lombok.Data;
 
 /** Excel row: cardNo (required), operator. */
 @Data
-public class SimCardImportRow {
+public class SimCardImportRow implements ImportRow {
 
     @ExcelProperty(index = 0)
     private String cardNo;
@@ -16,6 +16,7 @@ public class SimCardImportRow {
     @ExcelProperty(index = 2)
     private String planInfo;
 
+    @Override
     public boolean isBlank() {
         return cardNo == null || cardNo.isBlank();
     }
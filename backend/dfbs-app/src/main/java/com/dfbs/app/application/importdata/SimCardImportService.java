@@ -1,8 +1,6 @@
 package com.dfbs.app.application.importdata;
 
-import com.alibaba.excel.EasyExcel;
-import com.alibaba.excel.context.AnalysisContext;
-import com.alibaba.excel.read.listener.ReadListener;
+import com.dfbs.app.application.importdata.StreamingImportEngine.NumberedRow;
 import com.dfbs.app.application.importdata.dto.*;
 import com.dfbs.app.modules.masterdata.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,34 +14,46 @@ import java.util.*;
 @Service
 public class SimCardImportService implements ImportServiceDelegate {
 
+    static final String IMPORT_TYPE = "SIM_CARD";
+
     private final SimCardRepo simCardRepo;
     private final ObjectMapper objectMapper;
+    private final StreamingImportEngine importEngine;
 
-    public SimCardImportService(SimCardRepo simCardRepo, ObjectMapper objectMapper) {
+    public SimCardImportService(SimCardRepo simCardRepo, ObjectMapper objectMapper,
+                                StreamingImportEngine importEngine) {
         this.simCardRepo = simCardRepo;
         this.objectMapper = objectMapper;
+        this.importEngine = importEngine;
     }
 
-    @Transactional
-    public ImportResultDto importFromExcel(InputStream file) {
-        List<SimCardImportRow> rows = new ArrayList<>();
-        EasyExcel.read(file, SimCardImportRow.class, new ReadListener<SimCardImportRow>() {
-            @Override
-            public void invoke(SimCardImportRow data, AnalysisContext context) {
-                if (data == null || data.isBlank()) return;
-                rows.add(data);
-            }
-            @Override
-            public void doAfterAllAnalysed(AnalysisContext context) {}
-        }).sheet().doRead();
+    @Override
+    public String importType() {
+        return IMPORT_TYPE;
+    }
 
+    @Override
+    public ImportResultDto importFromExcel(InputStream file, String resumeKey, ImportProgress progress) {
+        return importEngine.run(IMPORT_TYPE, resumeKey, file, SimCardImportRow.class, null, progress, this::importChunk);
+    }
+
+    private ImportResultDto importChunk(List<NumberedRow<SimCardImportRow>> chunk) {
         int successCount = 0;
         List<ImportFailureDto> failures = new ArrayList<>();
         List<ImportConflictDto> conflicts = new ArrayList<>();
 
-        for (int i = 0; i < rows.size(); i++) {
-            SimCardImportRow row = rows.get(i);
-            int rowNum = i + 2;
+        Set<String> cardNos = new HashSet<>();
+        for (NumberedRow<SimCardImportRow> r : chunk) {
+            String cardNo = blankToNull(r.row().getCardNo());
+            if (cardNo != null) cardNos.add(cardNo);
+        }
+        Map<String, SimCardEntity> existingByNo = new HashMap<>();
+        for (SimCardEntity c : simCardRepo.findByCardNoIn(cardNos)) existingByNo.put(c.getCardNo(), c);
+        List<SimCardEntity> toSave = new ArrayList<>();
+
+        for (NumberedRow<SimCardImportRow> r : chunk) {
+            SimCardImportRow row = r.row();
+            int rowNum = r.rowNum();
 
             String cardNo = blankToNull(row.getCardNo());
 
@@ -51,12 +61,11 @@ public class SimCardImportService implements ImportServiceDelegate {
                 failures.add(ImportFailureDto.builder().rowNum(rowNum).uniqueKey("").reason("卡号必填").build());
                 continue;
             }
-            cardNo = cardNo.trim();
 
-            if (simCardRepo.findByCardNo(cardNo).isPresent()) {
-                Optional<SimCardEntity> existingOpt = simCardRepo.findByCardNo(cardNo);
+            SimCardEntity existing = existingByNo.get(cardNo);
+            if (existing != null) {
                 try {
-                    String originalJson = objectMapper.writeValueAsString(toMap(existingOpt.get()));
+                    String originalJson = objectMapper.writeValueAsString(toMap(existing));
                     String importJson = objectMapper.writeValueAsString(Map.of("cardNo", cardNo, "operator", blankToNull(row.getOperator()) != null ? blankToNull(row.getOperator()) : ""));
                     conflicts.add(ImportConflictDto.builder().rowNum(rowNum).uniqueKey(cardNo).originalData(originalJson).importData(importJson).build());
                 } catch (Exception e) {
@@ -75,9 +84,11 @@ public class SimCardImportService implements ImportServiceDelegate {
             e.setUpdatedAt(now);
             e.setCreatedBy("import");
             e.setUpdatedBy("import");
-            simCardRepo.save(e);
+            existingByNo.put(cardNo, e);
+            toSave.add(e);
             successCount++;
         }
+        simCardRepo.saveAll(toSave);
 
         return ImportResultDto.builder().successCount(successCount).failureCount(failures.size()).conflictCount(conflicts.size()).failures(failures).conflicts(conflicts).build();
     }
@@ -5,7 +5,7 @@ import lombok.Data;
 
 /** Excel row: partNo, name (required). */
 @Data
-public class SparePartImportRow {
+public class SparePartImportRow implements ImportRow {
 
     @ExcelProperty(index = 0)
     private String partNo;
@@ -19,6 +19,7 @@ public class SparePartImportRow {
     @ExcelProperty(index = 3)
     private String unit;
 
+    @Override
     public boolean isBlank() {
         return (partNo == null || partNo.isBlank()) && (name == null || name.isBlank());
     }
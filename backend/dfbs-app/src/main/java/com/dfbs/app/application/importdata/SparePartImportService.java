@@ -1,8 +1,6 @@
 package com.dfbs.app.application.importdata;
 
-import com.alibaba.excel.EasyExcel;
-import com.alibaba.excel.context.AnalysisContext;
-import com.alibaba.excel.read.listener.ReadListener;
+import com.dfbs.app.application.importdata.StreamingImportEngine.NumberedRow;
 import com.dfbs.app.application.importdata.dto.*;
 import com.dfbs.app.modules.masterdata.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,34 +14,46 @@ import java.util.*;
 @Service
 public class SparePartImportService implements ImportServiceDelegate {
 
+    static final String IMPORT_TYPE = "SPARE_PART";
+
     private final SparePartRepo sparePartRepo;
     private final ObjectMapper objectMapper;
+    private final StreamingImportEngine importEngine;
 
-    public SparePartImportService(SparePartRepo sparePartRepo, ObjectMapper objectMapper) {
+    public SparePartImportService(SparePartRepo sparePartRepo, ObjectMapper objectMapper,
+                                  StreamingImportEngine importEngine) {
         this.sparePartRepo = sparePartRepo;
         this.objectMapper = objectMapper;
+        this.importEngine = importEngine;
     }
 
-    @Transactional
-    public ImportResultDto importFromExcel(InputStream file) {
-        List<SparePartImportRow> rows = new ArrayList<>();
-        EasyExcel.read(file, SparePartImportRow.class, new ReadListener<SparePartImportRow>() {
-            @Override
-            public void invoke(SparePartImportRow data, AnalysisContext context) {
-                if (data == null || data.isBlank()) return;
-                rows.add(data);
-            }
-            @Override
-            public void doAfterAllAnalysed(AnalysisContext context) {}
-        }).sheet().doRead();
+    @Override
+    public String importType() {
+        return IMPORT_TYPE;
+    }
 
+    @Override
+    public ImportResultDto importFromExcel(InputStream file, String resumeKey, ImportProgress progress) {
+        return importEngine.run(IMPORT_TYPE, resumeKey, file, SparePartImportRow.class, null, progress, this::importChunk);
+    }
+
+    private ImportResultDto importChunk(List<NumberedRow<SparePartImportRow>> chunk) {
         int successCount = 0;
         List<ImportFailureDto> failures = new ArrayList<>();
         List<ImportConflictDto> conflicts = new ArrayList<>();
 
-        for (int i = 0; i < rows.size(); i++) {
-            SparePartImportRow row = rows.get(i);
-            int rowNum = i + 2;
+        Set<String> partNos = new HashSet<>();
+        for (NumberedRow<SparePartImportRow> r : chunk) {
+            String partNo = blankToNull(r.row().getPartNo());
+            if (partNo != null) partNos.add(partNo);
+        }
+        Map<String, SparePartEntity> existingByNo = new HashMap<>();
+        for (SparePartEntity p : sparePartRepo.findByPartNoIn(partNos)) existingByNo.put(p.getPartNo(), p);
+        List<SparePartEntity> toSave = new ArrayList<>();
+
+        for (NumberedRow<SparePartImportRow> r : chunk) {
+            SparePartImportRow row = r.row();
+            int rowNum = r.rowNum();
 
             String partNo = blankToNull(row.getPartNo());
             String name = blankToNull(row.getName());
@@ -56,13 +66,11 @@ public class SparePartImportService implements ImportServiceDelegate {
                 failures.add(ImportFailureDto.builder().rowNum(rowNum).uniqueKey(partNo).reason("名称必填").build());
                 continue;
             }
-            partNo = partNo.trim();
-            name = name.trim();
 
-            if (sparePartRepo.existsByPartNo(partNo)) {
-                Optional<SparePartEntity> existingOpt = sparePartRepo.findByPartNo(partNo);
+            SparePartEntity existing = existingByNo.get(partNo);
+            if (existing != null) {
                 try {
-                    String originalJson = objectMapper.writeValueAsString(toMap(existingOpt.get()));
+                    String originalJson = objectMapper.writeValueAsString(toMap(existing));
                     String importJson = objectMapper.writeValueAsString(Map.of("partNo", partNo, "name", name));
                     conflicts.add(ImportConflictDto.builder().rowNum(rowNum).uniqueKey(partNo).originalData(originalJson).importData(importJson).build());
                 } catch (Exception ex) {
@@ -82,9 +90,11 @@ public class SparePartImportService implements ImportServiceDelegate {
             e.setUpdatedAt(now);
             e.setCreatedBy("import");
             e.setUpdatedBy("import");
-            sparePartRepo.save(e);
+            existingByNo.put(partNo, e);
+            toSave.add(e);
             successCount++;
         }
+        sparePartRepo.saveAll(toSave);
 
         return ImportResultDto.builder().successCount(successCount).failureCount(failures.size()).conflictCount(conflicts.size()).failures(failures).conflicts(conflicts).build();
     }
@@ -0,0 +1,200 @@
+package com.dfbs.app.application.importdata;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.read.listener.ReadListener;
+import com.dfbs.app.application.importdata.dto.ImportResultDto;
+import com.dfbs.app.modules.importdata.ImportCheckpointEntity;
+import com.dfbs.app.modules.importdata.ImportCheckpointRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Streams an Excel sheet into chunks of {@code dfbs.import.chunk-size} rows as EasyExcel emits them; each chunk is
+ * handled and committed in its own transaction, so heap stays bounded by one chunk and a failure loses at most one.
+ * With a resume key, the chunk's transaction also advances an import_checkpoint row; a re-run of the same file skips
+ * what was already committed. Handlers resolve conflicts for the whole chunk with one IN (...) query and saveAll.
+ * An {@link ImportProgress} sees the running totals after each commit and can stop the run between chunks.
+ * The result counts every failure and conflict but lists only the first {@code dfbs.import.max-reported-rows} of
+ * each, so a file that fails on every row does not hold them all in memory.
+ */
+@Component
+public class StreamingImportEngine {
+
+    /** Row with its 1-based Excel row number (header = row 1). */
+    public record NumberedRow<R>(int rowNum, R row) {}
+
+    /** Handles one chunk inside its transaction and returns that chunk's counts, failures and conflicts. */
+    @FunctionalInterface
+    public interface ChunkHandler<R> {
+        ImportResultDto handle(List<NumberedRow<R>> chunk);
+    }
+
+    private final ImportCheckpointRepo checkpointRepo;
+    private final TransactionTemplate chunkTx;
+    private final int chunkSize;
+    private final int maxReportedRows;
+
+    @Autowired
+    public StreamingImportEngine(ImportCheckpointRepo checkpointRepo,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${dfbs.import.chunk-size:500}") int chunkSize,
+                                 @Value("${dfbs.import.max-reported-rows:1000}") int maxReportedRows) {
+        this.checkpointRepo = checkpointRepo;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReportedRows = Math.max(0, maxReportedRows);
+    }
+
+    /** Thrown (after the last committed chunk) when {@link ImportProgress#isCancelled()} turns true. */
+    public static final class ImportCancelledException extends RuntimeException {
+        public ImportCancelledException() {
+            super("导入已取消");
+        }
+    }
+
+    public <R extends ImportRow> ImportResultDto run(String importType, String resumeKey, InputStream file,
+                                                     Class<R> rowType, ChunkHandler<R> handler) {
+        return run(importType, resumeKey, file, rowType, null, ImportProgress.NONE, handler);
+    }
+
+    /**
+     * groupKey (optional): a chunk is never cut between consecutive rows with the same key, so multi-row records
+     * (e.g. one BOM = all rows of a model+version) reach the handler together. A chunk may then exceed chunk-size.
+     */
+    public <R extends ImportRow> ImportResultDto run(String importType, String resumeKey, InputStream file,
+                                                     Class<R> rowType, Function<R, ?> groupKey,
+                                                     ImportProgress progress, ChunkHandler<R> handler) {
+        ImportProgress listener = progress != null ? progress : ImportProgress.NONE;
+        ImportCheckpointEntity checkpoint = resumeKey != null
+                ? checkpointRepo.findByImportTypeAndResumeKey(importType, resumeKey).orElse(null)
+                : null;
+        int skipThrough = checkpoint != null ? checkpoint.getLastRow() : 0;
+        ImportResultDto total = ImportResultDto.builder().build();
+        if (checkpoint != null) {
+            total.setSuccessCount(checkpoint.getSuccessCount());
+            total.setFailureCount(checkpoint.getFailureCount());
+            total.setConflictCount(checkpoint.getConflictCount());
+        }
+
+        List<NumberedRow<R>> buffer = new ArrayList<>(chunkSize);
+        try {
+            EasyExcel.read(file, rowType, new ReadListener<R>() {
+                @Override
+                public void invoke(R data, AnalysisContext context) {
+                    int rowNum = context.readRowHolder().getRowIndex() + 1;
+                    if (rowNum <= skipThrough || data == null || data.isBlank()) return;
+                    if (buffer.size() >= chunkSize && !sameGroup(groupKey, buffer.get(buffer.size() - 1).row(), data)) {
+                        commitChunk(importType, resumeKey, buffer, handler, total, listener);
+                    }
+                    buffer.add(new NumberedRow<>(rowNum, data));
+                }
+
+                @Override
+                public void doAfterAllAnalysed(AnalysisContext context) {
+                    if (!buffer.isEmpty()) {
+                        commitChunk(importType, resumeKey, buffer, handler, total, listener);
+                    }
+                }
+            }).sheet().doRead();
+        } catch (RuntimeException e) {
+            // EasyExcel wraps listener exceptions; surface cancellation as itself.
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (t instanceof ImportCancelledException cancelled) throw cancelled;
+            }
+            throw e;
+        }
+
+        if (resumeKey != null) {
+            chunkTx.executeWithoutResult(status -> checkpointRepo.findByImportTypeAndResumeKey(importType, resumeKey)
+                    .ifPresent(checkpointRepo::delete));
+        }
+        return total;
+    }
+
+    private <R> void commitChunk(String importType, String resumeKey, List<NumberedRow<R>> buffer,
+                                 ChunkHandler<R> handler, ImportResultDto total, ImportProgress progress) {
+        if (progress.isCancelled()) {
+            throw new ImportCancelledException();
+        }
+        List<NumberedRow<R>> chunk = List.copyOf(buffer);
+        int lastRow = chunk.get(chunk.size() - 1).rowNum();
+        ImportResultDto part = chunkTx.execute(status -> {
+            ImportResultDto result = handler.handle(chunk);
+            if (resumeKey != null) {
+                saveCheckpoint(importType, resumeKey, lastRow, total, result);
+            }
+            return result;
+        });
+        merge(total, part);
+        buffer.clear();
+        progress.onChunkCommitted(lastRow - 1, total);
+    }
+
+    private void saveCheckpoint(String importType, String resumeKey, int lastRow,
+                                ImportResultDto total, ImportResultDto part) {
+        ImportCheckpointEntity cp = checkpointRepo.findByImportTypeAndResumeKey(importType, resumeKey)
+                .orElseGet(() -> {
+                    ImportCheckpointEntity created = new ImportCheckpointEntity();
+                    created.setImportType(importType);
+                    created.setResumeKey(resumeKey);
+                    return created;
+                });
+        cp.setLastRow(lastRow);
+        cp.setSuccessCount(total.getSuccessCount() + part.getSuccessCount());
+        cp.setFailureCount(total.getFailureCount() + part.getFailureCount());
+        cp.setConflictCount(total.getConflictCount() + part.getConflictCount());
+        cp.setUpdatedAt(LocalDateTime.now());
+        checkpointRepo.save(cp);
+    }
+
+    private void merge(ImportResultDto total, ImportResultDto part) {
+        total.setSuccessCount(total.getSuccessCount() + part.getSuccessCount());
+        total.setFailureCount(total.getFailureCount() + part.getFailureCount());
+        total.setConflictCount(total.getConflictCount() + part.getConflictCount());
+        addCapped(total.getFailures(), part.getFailures());
+        addCapped(total.getConflicts(), part.getConflicts());
+    }
+
+    private <T> void addCapped(List<T> kept, List<T> more) {
+        int room = maxReportedRows - kept.size();
+        if (room > 0) {
+            kept.addAll(more.size() <= room ? more : more.subList(0, room));
+        }
+    }
+
+    private static <R> boolean sameGroup(Function<R, ?> groupKey, R previous, R next) {
+        return groupKey != null && Objects.equals(groupKey.apply(previous), groupKey.apply(next));
+    }
+
+    /** SHA-256 of the file content, for use as a resume key. Reads the stream to the end; the caller closes it. */
+    public static String fingerprint(InputStream in) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buf = new byte[8192];
+        for (int n; (n = in.read(buf)) > 0; ) {
+            digest.update(buf, 0, n);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
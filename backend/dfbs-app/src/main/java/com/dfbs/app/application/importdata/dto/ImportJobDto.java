@@ -0,0 +1,53 @@
+package com.dfbs.app.application.importdata.dto;
+
+import com.dfbs.app.modules.importdata.ImportJobEntity;
+import com.dfbs.app.modules.importdata.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status of a background import job. Counts are as of the last committed chunk; result is set once the job ends.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDto {
+    private Long id;
+    private String importType;
+    private ImportJobStatus status;
+    private String fileName;
+    private int rowsRead;
+    private int successCount;
+    private int failureCount;
+    private int conflictCount;
+    private boolean cancelRequested;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private ImportResultDto result;
+
+    public static ImportJobDto from(ImportJobEntity job, ImportResultDto result) {
+        return ImportJobDto.builder()
+                .id(job.getId())
+                .importType(job.getImportType())
+                .status(job.getStatus())
+                .fileName(job.getFileName())
+                .rowsRead(job.getRowsRead())
+                .successCount(job.getSuccessCount())
+                .failureCount(job.getFailureCount())
+                .conflictCount(job.getConflictCount())
+                .cancelRequested(Boolean.TRUE.equals(job.getCancelRequested()))
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .result(result)
+                .build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.dfbs.app.application.invoice;
 
+import com.dfbs.app.application.docnumber.DocumentNumberService;
+import com.dfbs.app.application.docnumber.DocumentType;
 import com.dfbs.app.application.invoice.dto.InvoiceApplicationCreateRequest;
 import com.dfbs.app.application.invoice.dto.InvoiceGroupRequest;
 import com.dfbs.app.application.invoice.dto.QuoteItemSelection;
@@ -8,6 +10,7 @@ import com.dfbs.app.modules.invoice.*;
 import com.dfbs.app.modules.quote.QuoteEntity;
 import com.dfbs.app.modules.quote.QuoteItemEntity;
 import com.dfbs.app.modules.quote.QuoteItemRepo;
+import com.dfbs.app.modules.quote.QuoteItemTotal;
 import com.dfbs.app.modules.quote.QuoteRepo;
 import com.dfbs.app.modules.quote.enums.Currency;
 import com.dfbs.app.modules.quote.enums.QuoteInvoiceStatus;
@@ -18,9 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,16 +33,19 @@ public class InvoiceApplicationService {
     private final InvoiceRecordRepo recordRepo;
     private final InvoiceItemRefRepo itemRefRepo;
     private final NotificationService notificationService;
+    private final DocumentNumberService documentNumberService;
 
     public InvoiceApplicationService(QuoteRepo quoteRepo, QuoteItemRepo quoteItemRepo,
                                      InvoiceApplicationRepo applicationRepo, InvoiceRecordRepo recordRepo,
-                                     InvoiceItemRefRepo itemRefRepo, NotificationService notificationService) {
+                                     InvoiceItemRefRepo itemRefRepo, NotificationService notificationService,
+                                     DocumentNumberService documentNumberService) {
         this.quoteRepo = quoteRepo;
         this.quoteItemRepo = quoteItemRepo;
         this.applicationRepo = applicationRepo;
         this.recordRepo = recordRepo;
         this.itemRefRepo = itemRefRepo;
         this.notificationService = notificationService;
+        this.documentNumberService = documentNumberService;
     }
 
     @Transactional
@@ -59,19 +63,30 @@ public class InvoiceApplicationService {
             throw new IllegalArgumentException("至少需要一条明细");
         }
 
-        Set<Long> quoteIds = new HashSet<>();
-        Map<Long, BigDecimal> amountPerQuote = new HashMap<>();
+        // One load each for items and (locked) quotes; checks still run per selection, in request order.
+        Map<Long, QuoteItemEntity> itemsById = quoteItemRepo.findAllById(allSelections.stream()
+                        .map(QuoteItemSelection::getQuoteItemId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(QuoteItemEntity::getId, i -> i));
+        Map<Long, QuoteEntity> quotesById = quoteRepo.findAllByIdForUpdate(itemsById.values().stream()
+                        .map(QuoteItemEntity::getQuoteId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(QuoteEntity::getId, q -> q));
+
+        Map<Long, BigDecimal> amountPerQuote = new LinkedHashMap<>();
         Long firstCustomerId = null;
         Currency firstCurrency = null;
 
         for (QuoteItemSelection sel : allSelections) {
-            QuoteItemEntity item = quoteItemRepo.findById(sel.getQuoteItemId())
-                    .orElseThrow(() -> new IllegalArgumentException("报价明细不存在: id=" + sel.getQuoteItemId()));
+            QuoteItemEntity item = itemsById.get(sel.getQuoteItemId());
+            if (item == null) {
+                throw new IllegalArgumentException("报价明细不存在: id=" + sel.getQuoteItemId());
+            }
             if (sel.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
                 throw new IllegalArgumentException("金额必须大于0: quoteItemId=" + sel.getQuoteItemId());
             }
-            QuoteEntity quote = quoteRepo.findById(item.getQuoteId())
-                    .orElseThrow(() -> new IllegalStateException("Quote not found"));
+            QuoteEntity quote = quotesById.get(item.getQuoteId());
+            if (quote == null) {
+                throw new IllegalStateException("Quote not found");
+            }
             if (quote.getStatus() != QuoteStatus.CONFIRMED) {
                 throw new IllegalArgumentException("只能对已确认的报价单申请开票");
             }
@@ -91,18 +106,16 @@ public class InvoiceApplicationService {
             if (quote.getCollectorId() == null || !quote.getCollectorId().equals(collectorId)) {
                 throw new IllegalArgumentException("存在未指派给当前收款执行人的报价单，无法合并开票");
             }
-            quoteIds.add(quote.getId());
             amountPerQuote.merge(quote.getId(), sel.getAmount().setScale(2, RoundingMode.HALF_UP),
                     BigDecimal::add);
         }
 
-        for (Long quoteId : quoteIds) {
-            QuoteEntity q = quoteRepo.findById(quoteId).orElseThrow();
-            BigDecimal totalAmount = calculateQuoteTotalFromItems(quoteId);
-            BigDecimal remainingQuota = totalAmount.subtract(q.getInvoicedAmount() != null ? q.getInvoicedAmount() : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
-            BigDecimal applied = amountPerQuote.get(quoteId);
-            if (applied.compareTo(remainingQuota) > 0) {
-                throw new IllegalArgumentException("开票金额不能超过报价单未开票金额，报价单 id=" + quoteId + "，剩余可开票=" + remainingQuota.toPlainString());
+        Map<Long, BigDecimal> totals = quoteTotals(amountPerQuote.keySet());
+        for (Map.Entry<Long, BigDecimal> e : amountPerQuote.entrySet()) {
+            QuoteEntity q = quotesById.get(e.getKey());
+            BigDecimal remainingQuota = totals.get(e.getKey()).subtract(q.getInvoicedAmount() != null ? q.getInvoicedAmount() : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+            if (e.getValue().compareTo(remainingQuota) > 0) {
+                throw new IllegalArgumentException("开票金额不能超过报价单未开票金额，报价单 id=" + e.getKey() + "，剩余可开票=" + remainingQuota.toPlainString());
             }
         }
 
@@ -111,7 +124,7 @@ public class InvoiceApplicationService {
                 .reduce(BigDecimal.ZERO, BigDecimal::add)
                 .setScale(2, RoundingMode.HALF_UP);
 
-        String applicationNo = "INV-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")) + "-" + ThreadLocalRandom.current().nextInt(100, 1000);
+        String applicationNo = documentNumberService.next(DocumentType.INVOICE_APPLICATION);
 
         Currency applicationCurrency = firstCurrency != null ? firstCurrency : Currency.CNY;
         InvoiceApplicationEntity app = new InvoiceApplicationEntity();
@@ -131,8 +144,12 @@ public class InvoiceApplicationService {
         app.setCreatedAt(LocalDateTime.now());
         app = applicationRepo.save(app);
 
-        for (InvoiceGroupRequest group : request.getGroups()) {
-            if (group.getItems() == null || group.getItems().isEmpty()) continue;
+        // Sequence ids are assigned on persist, so refs can point at their record before the batched flush.
+        List<InvoiceGroupRequest> groups = request.getGroups().stream()
+                .filter(g -> g.getItems() != null && !g.getItems().isEmpty())
+                .toList();
+        List<InvoiceRecordEntity> records = new ArrayList<>(groups.size());
+        for (InvoiceGroupRequest group : groups) {
             BigDecimal recordAmount = group.getItems().stream()
                     .map(QuoteItemSelection::getAmount)
                     .reduce(BigDecimal.ZERO, BigDecimal::add)
@@ -143,23 +160,27 @@ public class InvoiceApplicationService {
             record.setInvoiceType(group.getInvoiceType() != null ? group.getInvoiceType() : InvoiceType.NORMAL);
             record.setTaxRate(group.getTaxRate());
             record.setContent(group.getContent() != null ? group.getContent() : "Software Service");
-            record = recordRepo.save(record);
-            for (QuoteItemSelection sel : group.getItems()) {
-                QuoteItemEntity item = quoteItemRepo.findById(sel.getQuoteItemId()).orElseThrow();
+            records.add(record);
+        }
+        records = recordRepo.saveAll(records);
+
+        List<InvoiceItemRefEntity> refs = new ArrayList<>(allSelections.size());
+        for (int g = 0; g < groups.size(); g++) {
+            for (QuoteItemSelection sel : groups.get(g).getItems()) {
                 InvoiceItemRefEntity ref = new InvoiceItemRefEntity();
-                ref.setInvoiceRecordId(record.getId());
-                ref.setQuoteId(item.getQuoteId());
+                ref.setInvoiceRecordId(records.get(g).getId());
+                ref.setQuoteId(itemsById.get(sel.getQuoteItemId()).getQuoteId());
                 ref.setQuoteItemId(sel.getQuoteItemId());
                 ref.setAmount(sel.getAmount().setScale(2, RoundingMode.HALF_UP));
-                itemRefRepo.save(ref);
+                refs.add(ref);
             }
         }
+        itemRefRepo.saveAll(refs);
 
-        for (Long quoteId : quoteIds) {
-            QuoteEntity q = quoteRepo.findById(quoteId).orElseThrow();
+        for (Long quoteId : amountPerQuote.keySet()) {
+            QuoteEntity q = quotesById.get(quoteId);
             if (q.getInvoiceStatus() == QuoteInvoiceStatus.UNINVOICED) {
                 q.setInvoiceStatus(QuoteInvoiceStatus.IN_PROCESS);
-                quoteRepo.save(q);
             }
         }
 
@@ -192,19 +213,18 @@ public class InvoiceApplicationService {
         applicationRepo.save(app);
 
         Map<Long, BigDecimal> amountToAddPerQuote = new HashMap<>();
-        List<InvoiceRecordEntity> records = recordRepo.findByApplicationId(applicationId);
-        for (InvoiceRecordEntity rec : records) {
-            for (InvoiceItemRefEntity ref : itemRefRepo.findByInvoiceRecordId(rec.getId())) {
-                amountToAddPerQuote.merge(ref.getQuoteId(), ref.getAmount().setScale(2, RoundingMode.HALF_UP), BigDecimal::add);
-            }
+        for (InvoiceItemRefEntity ref : refsOfApplication(applicationId)) {
+            amountToAddPerQuote.merge(ref.getQuoteId(), ref.getAmount().setScale(2, RoundingMode.HALF_UP), BigDecimal::add);
         }
-        for (Map.Entry<Long, BigDecimal> e : amountToAddPerQuote.entrySet()) {
-            QuoteEntity quote = quoteRepo.findById(e.getKey()).orElseThrow();
-            BigDecimal newInvoiced = (quote.getInvoicedAmount() != null ? quote.getInvoicedAmount() : BigDecimal.ZERO).add(e.getValue()).setScale(2, RoundingMode.HALF_UP);
-            quote.setInvoicedAmount(newInvoiced);
-            BigDecimal total = calculateQuoteTotalFromItems(quote.getId());
-            quote.setInvoiceStatus(newInvoiced.compareTo(total) >= 0 ? QuoteInvoiceStatus.FULLY_INVOICED : QuoteInvoiceStatus.PARTIAL);
-            quoteRepo.save(quote);
+        if (!amountToAddPerQuote.isEmpty()) {
+            Map<Long, BigDecimal> totals = quoteTotals(amountToAddPerQuote.keySet());
+            List<QuoteEntity> quotes = quoteRepo.findAllByIdForUpdate(amountToAddPerQuote.keySet());
+            for (QuoteEntity quote : quotes) {
+                BigDecimal newInvoiced = (quote.getInvoicedAmount() != null ? quote.getInvoicedAmount() : BigDecimal.ZERO).add(amountToAddPerQuote.get(quote.getId())).setScale(2, RoundingMode.HALF_UP);
+                quote.setInvoicedAmount(newInvoiced);
+                quote.setInvoiceStatus(newInvoiced.compareTo(totals.get(quote.getId())) >= 0 ? QuoteInvoiceStatus.FULLY_INVOICED : QuoteInvoiceStatus.PARTIAL);
+            }
+            quoteRepo.saveAll(quotes);
         }
 
         notificationService.send(app.getCollectorId(), "开票申请已通过", "开票申请 " + app.getApplicationNo() + " 已通过", "/invoice-applications/" + applicationId);
@@ -212,35 +232,47 @@ public class InvoiceApplicationService {
     }
 
     private void recalcQuoteInvoiceStatusForApplication(Long applicationId) {
-        List<InvoiceRecordEntity> records = recordRepo.findByApplicationId(applicationId);
-        Set<Long> quoteIds = new HashSet<>();
-        for (InvoiceRecordEntity rec : records) {
-            itemRefRepo.findByInvoiceRecordId(rec.getId()).forEach(ref -> quoteIds.add(ref.getQuoteId()));
+        Set<Long> quoteIds = refsOfApplication(applicationId).stream()
+                .map(InvoiceItemRefEntity::getQuoteId)
+                .collect(Collectors.toSet());
+        if (quoteIds.isEmpty()) {
+            return;
         }
-        for (Long quoteId : quoteIds) {
-            recalcQuoteInvoiceStatus(quoteId);
+        Map<Long, BigDecimal> totals = quoteTotals(quoteIds);
+        List<QuoteEntity> quotes = quoteRepo.findAllByIdForUpdate(quoteIds);
+        for (QuoteEntity quote : quotes) {
+            BigDecimal invoiced = quote.getInvoicedAmount() != null ? quote.getInvoicedAmount() : BigDecimal.ZERO;
+            if (invoiced.compareTo(BigDecimal.ZERO) <= 0) {
+                quote.setInvoiceStatus(QuoteInvoiceStatus.UNINVOICED);
+            } else if (invoiced.compareTo(totals.get(quote.getId())) >= 0) {
+                quote.setInvoiceStatus(QuoteInvoiceStatus.FULLY_INVOICED);
+            } else {
+                quote.setInvoiceStatus(QuoteInvoiceStatus.PARTIAL);
+            }
         }
+        quoteRepo.saveAll(quotes);
     }
 
-    private void recalcQuoteInvoiceStatus(Long quoteId) {
-        QuoteEntity quote = quoteRepo.findById(quoteId).orElseThrow();
-        BigDecimal invoiced = quote.getInvoicedAmount() != null ? quote.getInvoicedAmount() : BigDecimal.ZERO;
-        BigDecimal total = calculateQuoteTotalFromItems(quoteId);
-        if (invoiced.compareTo(BigDecimal.ZERO) <= 0) {
-            quote.setInvoiceStatus(QuoteInvoiceStatus.UNINVOICED);
-        } else if (invoiced.compareTo(total) >= 0) {
-            quote.setInvoiceStatus(QuoteInvoiceStatus.FULLY_INVOICED);
-        } else {
-            quote.setInvoiceStatus(QuoteInvoiceStatus.PARTIAL);
-        }
-        quoteRepo.save(quote);
+    /** All item refs of an application: records, then refs by record id set. */
+    private List<InvoiceItemRefEntity> refsOfApplication(Long applicationId) {
+        List<Long> recordIds = recordRepo.findByApplicationId(applicationId).stream()
+                .map(InvoiceRecordEntity::getId)
+                .toList();
+        return recordIds.isEmpty() ? List.of() : itemRefRepo.findByInvoiceRecordIdIn(recordIds);
     }
 
-    private BigDecimal calculateQuoteTotalFromItems(Long quoteId) {
-        return quoteItemRepo.findByQuoteIdOrderByLineOrderAsc(quoteId).stream()
-                .map(QuoteItemEntity::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
+    /** Item amount total per quote (scale 2); quotes without items total zero. */
+    private Map<Long, BigDecimal> quoteTotals(Collection<Long> quoteIds) {
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        for (Long quoteId : quoteIds) {
+            totals.put(quoteId, BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP));
+        }
+        for (QuoteItemTotal t : quoteItemRepo.sumAmountByQuoteIdIn(quoteIds)) {
+            if (t.total() != null) {
+                totals.put(t.quoteId(), t.total().setScale(2, RoundingMode.HALF_UP));
+            }
+        }
+        return totals;
     }
 
     @Transactional(readOnly = true)
@@ -259,17 +291,19 @@ public class InvoiceApplicationService {
      */
     @Transactional
     public void cancelPending(Long quoteId) {
-        List<InvoiceItemRefEntity> refs = itemRefRepo.findByQuoteId(quoteId);
-        Set<Long> applicationIds = refs.stream().map(ref -> {
-            InvoiceRecordEntity rec = recordRepo.findById(ref.getInvoiceRecordId()).orElse(null);
-            return rec != null ? rec.getApplicationId() : null;
-        }).filter(java.util.Objects::nonNull).collect(Collectors.toSet());
-        for (Long appId : applicationIds) {
-            InvoiceApplicationEntity app = applicationRepo.findById(appId).orElse(null);
-            if (app != null && app.getStatus() == InvoiceApplicationStatus.PENDING) {
-                app.setStatus(InvoiceApplicationStatus.CANCELLED);
-                applicationRepo.save(app);
-            }
+        Set<Long> recordIds = itemRefRepo.findByQuoteId(quoteId).stream()
+                .map(InvoiceItemRefEntity::getInvoiceRecordId)
+                .collect(Collectors.toSet());
+        if (recordIds.isEmpty()) {
+            return;
         }
+        Set<Long> applicationIds = recordRepo.findAllById(recordIds).stream()
+                .map(InvoiceRecordEntity::getApplicationId)
+                .collect(Collectors.toSet());
+        List<InvoiceApplicationEntity> pending = applicationRepo.findAllById(applicationIds).stream()
+                .filter(app -> app.getStatus() == InvoiceApplicationStatus.PENDING)
+                .toList();
+        pending.forEach(app -> app.setStatus(InvoiceApplicationStatus.CANCELLED));
+        applicationRepo.saveAll(pending);
     }
 }
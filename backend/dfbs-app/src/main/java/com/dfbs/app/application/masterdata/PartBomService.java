@@ -4,6 +4,8 @@ import com.alibaba.excel.EasyExcel;
 import com.alibaba.excel.context.AnalysisContext;
 import com.alibaba.excel.read.listener.ReadListener;
 import com.dfbs.app.application.bom.BomService;
+import com.dfbs.app.application.docnumber.DocumentNumberService;
+import com.dfbs.app.application.docnumber.DocumentType;
 import com.dfbs.app.modules.bom.BomItemEntity;
 import com.dfbs.app.modules.masterdata.PartEntity;
 import com.dfbs.app.modules.masterdata.PartRepo;
@@ -14,11 +16,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.InputStream;
 import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -29,11 +31,14 @@ public class PartBomService {
     private final PartRepo partRepo;
     private final ProductBomRepo bomRepo;
     private final BomService bomService;
+    private final DocumentNumberService documentNumberService;
 
-    public PartBomService(PartRepo partRepo, ProductBomRepo bomRepo, BomService bomService) {
+    public PartBomService(PartRepo partRepo, ProductBomRepo bomRepo, BomService bomService,
+                          DocumentNumberService documentNumberService) {
         this.partRepo = partRepo;
         this.bomRepo = bomRepo;
         this.bomService = bomService;
+        this.documentNumberService = documentNumberService;
     }
 
     // ========== Part CRUD ==========
@@ -77,17 +82,10 @@ public class PartBomService {
                 .orElseThrow(() -> new IllegalStateException("Part not found: id=" + id));
     }
 
-    /** Generate unique system number: PT-YYYYMMDD-NNN (sequence per day). */
-    @Transactional(readOnly = true)
-    public String generateSystemNo() {
-        String prefix = "PT-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + "-";
-        long count = partRepo.countBySystemNoStartingWith(prefix);
-        return prefix + String.format("%03d", count + 1);
-    }
-
     /**
      * Import parts from Excel. Columns: Name, Spec, Price, DrawingNo (optional).
-     * Create if not exists (by Name+Spec or DrawingNo). Generate SystemNo for new parts.
+     * Create if not exists (by Name+Spec or DrawingNo). Generate SystemNo for new parts: the numbers for all new
+     * parts are reserved with one counter update once the file has been read.
      */
     @Transactional
     public PartImportResult importParts(InputStream file) {
@@ -103,11 +101,10 @@ public class PartBomService {
         }).sheet().doRead();
 
         List<String> errors = new ArrayList<>();
-        int created = 0;
         int updated = 0;
-        String prefix = "PT-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + "-";
-        long baseSeq = partRepo.countBySystemNoStartingWith(prefix) + 1;
-        int newPartIndex = 0;
+        List<PartEntity> newParts = new ArrayList<>();
+        // New parts by "D:" + drawingNo and "NS:" + name + spec (the lookups below), so a later row of the file updates them.
+        Map<String, PartEntity> pending = new HashMap<>();
         for (int i = 0; i < rows.size(); i++) {
             PartImportExcelRow row = rows.get(i);
             int excelRow = i + 2;
@@ -133,6 +130,14 @@ public class PartBomService {
                 continue;
             }
 
+            String pendingKey = drawingNo != null ? "D:" + drawingNo.trim() : "NS:" + name.trim() + "\u0000" + spec;
+            PartEntity pendingPart = pending.get(pendingKey);
+            if (pendingPart != null) {
+                pendingPart.setSalesPrice(price);
+                updated++;
+                continue;
+            }
+
             Optional<PartEntity> existing = drawingNo != null && !drawingNo.isBlank()
                     ? partRepo.findByDrawingNo(drawingNo.trim())
                     : partRepo.findByNameAndSpec(name.trim(), spec);
@@ -145,18 +150,24 @@ public class PartBomService {
                 updated++;
             } else {
                 PartEntity entity = new PartEntity();
-                entity.setSystemNo(prefix + String.format("%03d", baseSeq + newPartIndex));
-                newPartIndex++;
                 entity.setName(name.trim());
                 entity.setSpec(spec);
                 entity.setDrawingNo(drawingNo != null ? drawingNo.trim() : null);
                 entity.setSalesPrice(price);
                 entity.setUnit("个");
                 entity.setIsActive(true);
-                partRepo.save(entity);
-                created++;
+                newParts.add(entity);
+                pending.put("NS:" + entity.getName() + "\u0000" + spec, entity);
+                if (entity.getDrawingNo() != null) pending.put("D:" + entity.getDrawingNo(), entity);
             }
         }
+
+        List<String> systemNos = documentNumberService.nextBlock(DocumentType.PART, newParts.size());
+        for (int i = 0; i < newParts.size(); i++) {
+            newParts.get(i).setSystemNo(systemNos.get(i));
+        }
+        partRepo.saveAll(newParts);
+        int created = newParts.size();
         return new PartImportResult(created, updated, errors);
     }
 
@@ -0,0 +1,117 @@
+package com.dfbs.app.application.notification;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-node counts, for single-node deploys and tests (no Redis needed). Only changes committed on this node reach
+ * them, so each count expires dfbs.notification.unread-memory-ttl-seconds after it was seeded and is then re-counted
+ * from the notification table; that bounds drift from other nodes' writes.
+ */
+@Component
+@ConditionalOnProperty(name = "dfbs.notification.unread-store", havingValue = "memory")
+public class InMemoryUnreadCounterStore implements UnreadCounterStore {
+
+    private record Count(long value, long expiresAtNanos) {
+        boolean expired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+    }
+
+    private final Map<Long, Count> counts = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    /**
+     * Users with a change in flight, guarded by this. An entry is dropped once its last change ends; generations come
+     * from one sequence, so every other user reads {@link #floor}, which moves on each drop and on clear.
+     */
+    private final Map<Long, ChangeState> changes = new HashMap<>();
+    private long sequence;
+    private long floor;
+
+    public InMemoryUnreadCounterStore(@Value("${dfbs.notification.unread-memory-ttl-seconds:15}") long ttlSeconds) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    @Override
+    public Long get(Long userId) {
+        Count count = counts.get(userId);
+        if (count == null) {
+            return null;
+        }
+        if (count.expired()) {
+            counts.remove(userId, count);
+            return null;
+        }
+        return count.value();
+    }
+
+    @Override
+    public synchronized long generation(Long userId) {
+        ChangeState state = changes.get(userId);
+        return state != null ? state.generation : floor;
+    }
+
+    @Override
+    public synchronized void seed(Long userId, long count, long generation) {
+        ChangeState state = changes.get(userId);
+        if (state != null || generation(userId) != generation) {
+            return;
+        }
+        Count fresh = new Count(count, System.nanoTime() + ttlNanos);
+        counts.compute(userId, (id, held) -> held == null || held.expired() ? fresh : held);
+    }
+
+    @Override
+    public synchronized void beginChange(Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            ChangeState state = changes.computeIfAbsent(userId, id -> new ChangeState());
+            state.generation = ++sequence;
+            state.inFlight++;
+        }
+    }
+
+    @Override
+    public synchronized void endChange(Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            ChangeState state = changes.get(userId);
+            if (state != null && --state.inFlight <= 0) {
+                changes.remove(userId);
+                floor = ++sequence;
+            } else if (state != null) {
+                state.generation = ++sequence;
+            }
+        }
+    }
+
+    @Override
+    public void add(Long userId, long delta) {
+        counts.computeIfPresent(userId, (id, count) -> count.expired() ? null
+                : new Count(Math.max(0, count.value() + delta), count.expiresAtNanos()));
+    }
+
+    @Override
+    public void evict(Long userId) {
+        counts.remove(userId);
+    }
+
+    @Override
+    public synchronized void clear() {
+        floor = ++sequence;
+        for (ChangeState state : changes.values()) {
+            state.generation = ++sequence;
+        }
+        counts.clear();
+    }
+
+    private static final class ChangeState {
+        long generation;
+        int inFlight;
+    }
+}
@@ -0,0 +1,22 @@
+package com.dfbs.app.application.notification;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/** Delivers to this node's streams only: streams open on other nodes miss the change. Single-node deploys and tests. */
+@Component
+@ConditionalOnProperty(name = "dfbs.notification.stream-fanout", havingValue = "local")
+public class LocalNotificationStreamBus implements NotificationStreamBus {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LocalNotificationStreamBus(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void publish(NotificationStreamMessage message) {
+        eventPublisher.publishEvent(message);
+    }
+}
@@ -0,0 +1,4 @@
+package com.dfbs.app.application.notification;
+
+/** A batch send was written to notification_outbox; delivered by {@link NotificationOutboxRelay} after commit. */
+public record NotificationOutboxEnqueuedEvent(Long outboxId) {}
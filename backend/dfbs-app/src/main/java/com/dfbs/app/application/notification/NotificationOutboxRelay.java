@@ -0,0 +1,86 @@
+package com.dfbs.app.application.notification;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Delivers notification_outbox rows: right after the enqueuing transaction commits (nothing happens on rollback),
+ * and from a periodic sweep for rows whose after-commit delivery failed or was lost to a restart.
+ * After-commit deliveries run on virtual threads, not on the committing request's thread. A row whose delivery has
+ * failed dfbs.notification.outbox-max-attempts times is marked dead and no longer swept.
+ */
+@Component
+public class NotificationOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxRelay.class);
+    private static final int SWEEP_BATCH = 100;
+
+    private final NotificationService notificationService;
+    private final long sweepAgeSeconds;
+    private final int maxAttempts;
+    private final ExecutorService deliverers =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("notification-outbox-", 0).factory());
+
+    public NotificationOutboxRelay(NotificationService notificationService,
+                                   @Value("${dfbs.notification.outbox-sweep-age-seconds:60}") long sweepAgeSeconds,
+                                   @Value("${dfbs.notification.outbox-max-attempts:5}") int maxAttempts) {
+        this.notificationService = notificationService;
+        this.sweepAgeSeconds = sweepAgeSeconds;
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /** Runs after commit (or immediately when no transaction is active) and returns at once; failures go to the sweep. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnqueued(NotificationOutboxEnqueuedEvent event) {
+        try {
+            deliverers.execute(() -> deliver(event.outboxId()));
+        } catch (RejectedExecutionException e) {
+            log.warn("Notification outbox {} not handed off (shutting down), will retry on sweep", event.outboxId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${dfbs.notification.outbox-sweep-ms:60000}")
+    public void sweep() {
+        List<Long> ids = notificationService.findStaleOutboxIds(LocalDateTime.now().minusSeconds(sweepAgeSeconds), SWEEP_BATCH);
+        for (Long id : ids) {
+            deliver(id);
+        }
+    }
+
+    private void deliver(Long outboxId) {
+        try {
+            notificationService.deliverOutbox(outboxId);
+        } catch (RuntimeException e) {
+            recordFailure(outboxId, e);
+        }
+    }
+
+    private void recordFailure(Long outboxId, RuntimeException failure) {
+        try {
+            if (notificationService.recordOutboxFailure(outboxId, String.valueOf(failure.getMessage()), maxAttempts)) {
+                log.error("Notification outbox {} failed {} deliveries, marked dead", outboxId, maxAttempts, failure);
+            } else {
+                log.warn("Notification outbox {} not delivered, will retry on sweep: {}", outboxId, failure.getMessage());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Notification outbox {} not delivered ({}) and the failure could not be recorded: {}",
+                    outboxId, failure.getMessage(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        deliverers.shutdown();
+    }
+}
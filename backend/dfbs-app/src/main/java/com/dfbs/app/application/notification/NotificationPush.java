@@ -0,0 +1,19 @@
+package com.dfbs.app.application.notification;
+
+import com.dfbs.app.modules.notification.NotificationEntity;
+import com.dfbs.app.modules.notification.NotificationPriority;
+import com.dfbs.app.modules.notification.NotificationType;
+
+import java.time.LocalDateTime;
+
+/** Payload of a "notification" stream event (same fields the list endpoints return). */
+public record NotificationPush(Long id, Long userId, String title, String content, String targetUrl,
+                               NotificationType type, Long relatedId, NotificationPriority priority,
+                               boolean isActionRequired, LocalDateTime createdAt) {
+
+    public static NotificationPush from(NotificationEntity n) {
+        return new NotificationPush(n.getId(), n.getUserId(), n.getTitle(), n.getContent(), n.getTargetUrl(),
+                n.getType(), n.getRelatedId(), n.getPriority(), Boolean.TRUE.equals(n.getIsActionRequired()),
+                n.getCreatedAt());
+    }
+}
@@ -1,33 +1,69 @@
 package com.dfbs.app.application.notification;
 
+import com.dfbs.app.application.retention.RetentionEngine;
+import com.dfbs.app.application.retention.RetentionPolicy;
 import com.dfbs.app.modules.notification.NotificationEntity;
+import com.dfbs.app.modules.notification.NotificationOutboxEntity;
+import com.dfbs.app.modules.notification.NotificationOutboxRepo;
 import com.dfbs.app.modules.notification.NotificationPriority;
 import com.dfbs.app.modules.notification.NotificationRepo;
 import com.dfbs.app.modules.notification.NotificationType;
 import com.dfbs.app.modules.user.UserEntity;
 import com.dfbs.app.modules.user.UserRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class NotificationService {
 
     private static final int NORMAL_RETENTION_DAYS = 180;
     private static final int URGENT_RETENTION_DAYS = 365;
+    private static final RetentionPolicy NORMAL_RETENTION = new RetentionPolicy("notification_normal", "notification",
+            "created_at", "priority = 'NORMAL'", NORMAL_RETENTION_DAYS, false);
+    /** URGENT has the longest retention, so rows older than it are expired whatever their priority. */
+    private static final RetentionPolicy URGENT_RETENTION = new RetentionPolicy("notification_urgent", "notification",
+            "created_at", "priority = 'URGENT'", URGENT_RETENTION_DAYS, true);
 
     private final NotificationRepo repo;
     private final UserRepo userRepo;
+    private final NotificationOutboxRepo outboxRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UnreadCounterService unreadCounter;
+    private final NotificationStreamHub streamHub;
+    private final RetentionEngine retentionEngine;
+    private final boolean outboxEnabled;
 
-    public NotificationService(NotificationRepo repo, UserRepo userRepo) {
+    public NotificationService(NotificationRepo repo, UserRepo userRepo, NotificationOutboxRepo outboxRepo,
+                               ApplicationEventPublisher eventPublisher, UnreadCounterService unreadCounter,
+                               NotificationStreamHub streamHub, RetentionEngine retentionEngine,
+                               @Value("${dfbs.notification.outbox-enabled:false}") boolean outboxEnabled) {
         this.repo = repo;
         this.userRepo = userRepo;
+        this.outboxRepo = outboxRepo;
+        this.eventPublisher = eventPublisher;
+        this.unreadCounter = unreadCounter;
+        this.streamHub = streamHub;
+        this.retentionEngine = retentionEngine;
+        this.outboxEnabled = outboxEnabled;
     }
 
     /**
@@ -37,6 +73,21 @@ public class NotificationService {
     @Transactional
     public NotificationEntity send(Long userId, String title, String content, NotificationType type,
                                    Long relatedId, NotificationPriority priority, boolean isActionRequired) {
+        return sendOne(userId, title, content, null, type, relatedId, priority, isActionRequired);
+    }
+
+    /**
+     * Backward-compatible send (no type/priority/action). Uses SYSTEM, NORMAL, not action required.
+     * Optional targetUrl can be set for frontend route.
+     */
+    @Transactional
+    public NotificationEntity send(Long userId, String title, String content, String targetUrl) {
+        return sendOne(userId, title, content, targetUrl, NotificationType.SYSTEM, null, NotificationPriority.NORMAL, false);
+    }
+
+    private NotificationEntity sendOne(Long userId, String title, String content, String targetUrl,
+                                       NotificationType type, Long relatedId, NotificationPriority priority,
+                                       boolean isActionRequired) {
         if (priority == NotificationPriority.NORMAL) {
             UserEntity user = userRepo.findById(userId).orElse(null);
             if (user != null && Boolean.FALSE.equals(user.getAllowNormalNotification())) {
@@ -47,44 +98,145 @@ public class NotificationService {
         n.setUserId(userId);
         n.setTitle(title);
         n.setContent(content);
+        n.setTargetUrl(targetUrl);
         n.setType(type);
         n.setRelatedId(relatedId);
         n.setPriority(priority);
         n.setIsRead(false);
         n.setIsActionRequired(isActionRequired);
         n.setCreatedAt(LocalDateTime.now());
-        return repo.save(n);
+        n = repo.save(n);
+        eventPublisher.publishEvent(new NotificationsCreatedEvent(List.of(NotificationPush.from(n))));
+        return n;
     }
 
     /**
-     * Backward-compatible send (no type/priority/action). Uses SYSTEM, NORMAL, not action required.
-     * Optional targetUrl can be set for frontend route.
+     * Send the same notification to multiple recipients (e.g. CC list). Preferences are loaded in one query and
+     * all rows are inserted as one JDBC batch. Duplicate and null ids are dropped.
      */
     @Transactional
-    public NotificationEntity send(Long userId, String title, String content, String targetUrl) {
-        NotificationEntity n = send(userId, title, content, NotificationType.SYSTEM, null, NotificationPriority.NORMAL, false);
-        if (n != null && targetUrl != null) {
-            n.setTargetUrl(targetUrl);
-            repo.save(n);
-        }
-        return n;
+    public List<NotificationEntity> sendBatch(Collection<Long> userIds, String title, String content,
+                                              NotificationType type, Long relatedId,
+                                              NotificationPriority priority, boolean isActionRequired) {
+        return insertBatch(userIds, title, content, null, type, relatedId, priority, isActionRequired);
     }
 
     /**
-     * Send the same notification to multiple recipients (e.g. CC list).
+     * Batch variant of {@link #send(Long, String, String, String)} (SYSTEM, NORMAL, not action required).
+     * With dfbs.notification.outbox-enabled the caller's transaction only writes one outbox row; the notification
+     * rows are inserted after commit on a {@link NotificationOutboxRelay} worker thread, so the caller's latency does
+     * not grow with the recipient count.
      */
     @Transactional
-    public List<NotificationEntity> sendBatch(List<Long> userIds, String title, String content,
-                                              NotificationType type, Long relatedId,
-                                              NotificationPriority priority, boolean isActionRequired) {
-        List<NotificationEntity> result = new ArrayList<>();
-        for (Long userId : userIds) {
-            NotificationEntity saved = send(userId, title, content, type, relatedId, priority, isActionRequired);
-            if (saved != null) {
-                result.add(saved);
+    public void sendBatch(Collection<Long> userIds, String title, String content, String targetUrl) {
+        if (!outboxEnabled) {
+            insertBatch(userIds, title, content, targetUrl, NotificationType.SYSTEM, null,
+                    NotificationPriority.NORMAL, false);
+            return;
+        }
+        Set<Long> recipients = distinctIds(userIds);
+        if (recipients.isEmpty()) {
+            return;
+        }
+        NotificationOutboxEntity o = new NotificationOutboxEntity();
+        o.setRecipientIds(recipients.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        o.setTitle(title);
+        o.setContent(content);
+        o.setTargetUrl(targetUrl);
+        o.setType(NotificationType.SYSTEM);
+        o.setPriority(NotificationPriority.NORMAL);
+        o.setIsActionRequired(false);
+        o.setCreatedAt(LocalDateTime.now());
+        o = outboxRepo.save(o);
+        eventPublisher.publishEvent(new NotificationOutboxEnqueuedEvent(o.getId()));
+    }
+
+    /**
+     * Expand one outbox row into notifications and delete it, in its own transaction.
+     * No-op if another delivery already took it. Returns the number of notifications inserted.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int deliverOutbox(Long outboxId) {
+        NotificationOutboxEntity o = outboxRepo.findByIdForUpdate(outboxId).orElse(null);
+        if (o == null) {
+            return 0;
+        }
+        List<Long> recipients = Arrays.stream(o.getRecipientIds().split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(Long::valueOf)
+                .toList();
+        int sent = insertBatch(recipients, o.getTitle(), o.getContent(), o.getTargetUrl(), o.getType(),
+                o.getRelatedId(), o.getPriority(), Boolean.TRUE.equals(o.getIsActionRequired())).size();
+        outboxRepo.delete(o);
+        return sent;
+    }
+
+    /**
+     * Records a failed delivery of outboxId, in its own transaction. Once maxAttempts deliveries have failed the row
+     * is marked dead and the sweep leaves it alone. Returns true if the row is dead now.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean recordOutboxFailure(Long outboxId, String error, int maxAttempts) {
+        NotificationOutboxEntity o = outboxRepo.findByIdForUpdate(outboxId).orElse(null);
+        if (o == null) {
+            return false;
+        }
+        o.setAttempts(o.getAttempts() + 1);
+        o.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (o.getAttempts() >= maxAttempts && o.getDeadAt() == null) {
+            o.setDeadAt(LocalDateTime.now());
+        }
+        return o.getDeadAt() != null;
+    }
+
+    /** Ids of live (not dead) outbox rows older than before (oldest first, at most limit), for the sweep. */
+    @Transactional(readOnly = true)
+    public List<Long> findStaleOutboxIds(LocalDateTime before, int limit) {
+        return outboxRepo.findIdsCreatedBefore(before, PageRequest.of(0, limit));
+    }
+
+    private List<NotificationEntity> insertBatch(Collection<Long> userIds, String title, String content,
+                                                 String targetUrl, NotificationType type, Long relatedId,
+                                                 NotificationPriority priority, boolean isActionRequired) {
+        Set<Long> recipients = distinctIds(userIds);
+        if (recipients.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> optedOut = priority == NotificationPriority.NORMAL
+                ? new HashSet<>(userRepo.findIdsWithNormalNotificationOff(recipients))
+                : Set.of();
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationEntity> batch = new ArrayList<>(recipients.size());
+        for (Long userId : recipients) {
+            if (optedOut.contains(userId)) {
+                continue;
             }
+            NotificationEntity n = new NotificationEntity();
+            n.setUserId(userId);
+            n.setTitle(title);
+            n.setContent(content);
+            n.setTargetUrl(targetUrl);
+            n.setType(type);
+            n.setRelatedId(relatedId);
+            n.setPriority(priority);
+            n.setIsRead(false);
+            n.setIsActionRequired(isActionRequired);
+            n.setCreatedAt(now);
+            batch.add(n);
+        }
+        List<NotificationEntity> saved = repo.saveAll(batch);
+        if (!saved.isEmpty()) {
+            eventPublisher.publishEvent(new NotificationsCreatedEvent(saved.stream().map(NotificationPush::from).toList()));
+        }
+        return saved;
+    }
+
+    private static Set<Long> distinctIds(Collection<Long> userIds) {
+        if (userIds == null) {
+            return Set.of();
         }
-        return result;
+        return userIds.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     /**
@@ -115,8 +267,12 @@ public class NotificationService {
             throw new IllegalStateException("Notification not found or not owned: id=" + id);
         }
         NotificationEntity n = repo.findById(id).orElseThrow();
-        n.setIsRead(true);
-        return repo.save(n);
+        if (!Boolean.TRUE.equals(n.getIsRead())) {
+            n.setIsRead(true);
+            n = repo.save(n);
+            eventPublisher.publishEvent(NotificationsReadEvent.one(userId));
+        }
+        return n;
     }
 
     /**
@@ -125,6 +281,7 @@ public class NotificationService {
     @Transactional
     public void markAllAsRead(Long userId) {
         repo.markAllAsReadByUserId(userId);
+        eventPublisher.publishEvent(NotificationsReadEvent.allOf(userId));
     }
 
     /**
@@ -138,19 +295,27 @@ public class NotificationService {
     }
 
     /**
-     * Retention cleanup: delete NORMAL older than 180 days, URGENT older than 365 days. Runs daily at 2 AM.
+     * Retention cleanup: delete NORMAL older than 180 days, URGENT older than 365 days. Runs daily at 2 AM, in
+     * bounded batches with one short transaction each (see {@link RetentionEngine}); if notification is range
+     * partitioned, months older than the URGENT retention are dropped as whole partitions.
      */
     @Scheduled(cron = "0 0 2 * * ?")
-    @Transactional
     public void retentionCleanup() {
-        LocalDateTime normalBefore = LocalDateTime.now().minusDays(NORMAL_RETENTION_DAYS);
-        LocalDateTime urgentBefore = LocalDateTime.now().minusDays(URGENT_RETENTION_DAYS);
-        repo.deleteByPriorityAndCreatedAtBefore(NotificationPriority.NORMAL, normalBefore);
-        repo.deleteByPriorityAndCreatedAtBefore(NotificationPriority.URGENT, urgentBefore);
+        LocalDateTime now = LocalDateTime.now();
+        retentionEngine.run(NORMAL_RETENTION, now);
+        retentionEngine.run(URGENT_RETENTION, now);
+        eventPublisher.publishEvent(new NotificationsPurgedEvent());
     }
 
+    /** Served from the incrementally maintained counter (see {@link UnreadCounterService}). */
     @Transactional(readOnly = true)
     public Long getUnreadCount(Long userId) {
-        return repo.countByUserIdAndIsReadFalse(userId);
+        return unreadCounter.get(userId);
+    }
+
+    /** Server-Sent Events stream for userId: "notification" per new notification, "unread" on count changes. */
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(Long userId) {
+        return streamHub.subscribe(userId, unreadCounter.get(userId));
     }
 }
@@ -0,0 +1,11 @@
+package com.dfbs.app.application.notification;
+
+/**
+ * Fans committed notification changes out to every node. Selected by dfbs.notification.stream-fanout: "redis"
+ * (default, pub/sub) or "local" (this node only; single-node deploys and tests). Receivers republish each message as
+ * a local {@link NotificationStreamMessage} event.
+ */
+public interface NotificationStreamBus {
+
+    void publish(NotificationStreamMessage message);
+}
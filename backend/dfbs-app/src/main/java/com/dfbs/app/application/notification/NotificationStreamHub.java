@@ -0,0 +1,193 @@
+package com.dfbs.app.application.notification;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Open Server-Sent Events streams per user (one per browser tab). Each stream has its own event queue, written by at
+ * most one virtual-thread task at a time, so committing transactions never block on client I/O, each stream sees
+ * events in publish order, and a slow client only delays its own stream. A stream is dropped on the first failed
+ * write, when its queue overflows, or when one write has been blocked longer than the send timeout (checked at each
+ * heartbeat); a periodic comment keeps idle connections open.
+ */
+@Component
+public class NotificationStreamHub {
+
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_UNREAD = "unread";
+    /** Events a stream may have queued; a client that far behind is dropped (it reloads on reconnect). */
+    private static final int MAX_PENDING = 256;
+
+    public record UnreadPush(long count) {}
+
+    /** name == null: keep-alive comment. */
+    private record PendingEvent(String name, Object data) {
+        SseEmitter.SseEventBuilder build() {
+            return name == null ? SseEmitter.event().comment("ping") : SseEmitter.event().name(name).data(data);
+        }
+    }
+
+    private final Map<Long, List<Stream>> streams = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+
+    public NotificationStreamHub(@Value("${dfbs.notification.stream-timeout-ms:1800000}") long timeoutMs,
+                                 @Value("${dfbs.notification.stream-send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+    }
+
+    /** New stream for userId; first event is the current unread count. */
+    public SseEmitter subscribe(Long userId, long unreadCount) {
+        return subscribe(userId, unreadCount, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(Long userId, long unreadCount, SseEmitter emitter) {
+        Stream stream = new Stream(userId, emitter);
+        streams.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>()).add(stream);
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(() -> remove(stream));
+        emitter.onError(e -> remove(stream));
+        stream.enqueue(new PendingEvent(EVENT_UNREAD, new UnreadPush(unreadCount)));
+        return emitter;
+    }
+
+    public boolean isConnected(Long userId) {
+        return streams.containsKey(userId);
+    }
+
+    public Set<Long> connectedUserIds() {
+        return Set.copyOf(streams.keySet());
+    }
+
+    /** Queues an event on every open stream of userId; no-op if none. */
+    public void push(Long userId, String name, Object data) {
+        List<Stream> userStreams = streams.get(userId);
+        if (userStreams == null) {
+            return;
+        }
+        PendingEvent event = new PendingEvent(name, data);
+        userStreams.forEach(stream -> stream.enqueue(event));
+    }
+
+    @Scheduled(fixedDelayString = "${dfbs.notification.stream-heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        PendingEvent ping = new PendingEvent(null, null);
+        for (List<Stream> userStreams : streams.values()) {
+            for (Stream stream : userStreams) {
+                if (stream.stalledSince(now)) {
+                    stream.close(new TimeoutException("stream send blocked longer than the send timeout"));
+                } else {
+                    stream.enqueue(ping);
+                }
+            }
+        }
+    }
+
+    private void remove(Stream stream) {
+        streams.computeIfPresent(stream.userId, (id, list) -> {
+            list.remove(stream);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+        streams.values().forEach(list -> list.forEach(stream -> stream.emitter.complete()));
+        streams.clear();
+    }
+
+    /** One open stream and its queue; the queue, draining flag and send start are guarded by this. */
+    private final class Stream {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<PendingEvent> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        /** System.nanoTime() when the current write started; 0 when no write is in progress. */
+        private long sendStartedNanos;
+
+        Stream(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(PendingEvent event) {
+            boolean overflow;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                overflow = pending.size() >= MAX_PENDING;
+                if (!overflow) {
+                    pending.add(event);
+                    if (draining) {
+                        return;
+                    }
+                    draining = true;
+                }
+            }
+            if (overflow) {
+                close(new IllegalStateException("stream queue full"));
+            } else {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                PendingEvent next;
+                synchronized (this) {
+                    next = closed ? null : pending.poll();
+                    if (next == null) {
+                        draining = false;
+                        sendStartedNanos = 0;
+                        return;
+                    }
+                    sendStartedNanos = System.nanoTime();
+                }
+                try {
+                    emitter.send(next.build());
+                } catch (IOException | IllegalStateException e) {
+                    close(e);
+                    return;
+                }
+            }
+        }
+
+        synchronized boolean stalledSince(long now) {
+            return sendStartedNanos != 0 && now - sendStartedNanos > sendTimeoutNanos;
+        }
+
+        void close(Exception cause) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+            }
+            remove(this);
+            emitter.completeWithError(cause);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.dfbs.app.application.notification;
+
+import java.util.List;
+
+/**
+ * A committed notification change, sent to every node through {@link NotificationStreamBus} and republished there
+ * as a local event; each node pushes it to its own open streams.
+ */
+public record NotificationStreamMessage(Kind kind, Long userId, List<NotificationPush> created) {
+
+    public enum Kind { CREATED, READ, PURGED }
+
+    public static NotificationStreamMessage created(List<NotificationPush> created) {
+        return new NotificationStreamMessage(Kind.CREATED, null, created);
+    }
+
+    public static NotificationStreamMessage read(Long userId) {
+        return new NotificationStreamMessage(Kind.READ, userId, List.of());
+    }
+
+    public static NotificationStreamMessage purged() {
+        return new NotificationStreamMessage(Kind.PURGED, null, List.of());
+    }
+}
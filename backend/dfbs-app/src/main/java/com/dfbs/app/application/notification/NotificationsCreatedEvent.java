@@ -0,0 +1,6 @@
+package com.dfbs.app.application.notification;
+
+import java.util.List;
+
+/** Notifications were inserted; applied to unread counters and pushed to open streams after commit. */
+public record NotificationsCreatedEvent(List<NotificationPush> created) {}
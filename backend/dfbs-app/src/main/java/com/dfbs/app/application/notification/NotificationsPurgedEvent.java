@@ -0,0 +1,4 @@
+package com.dfbs.app.application.notification;
+
+/** Notifications of any user may have been deleted (retention cleanup); every unread counter is dropped. */
+public record NotificationsPurgedEvent() {}
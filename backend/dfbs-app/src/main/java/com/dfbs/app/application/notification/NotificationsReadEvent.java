@@ -0,0 +1,13 @@
+package com.dfbs.app.application.notification;
+
+/** Notifications of userId were marked read: one (all = false) or every one of them (all = true). */
+public record NotificationsReadEvent(Long userId, boolean all) {
+
+    public static NotificationsReadEvent one(Long userId) {
+        return new NotificationsReadEvent(userId, false);
+    }
+
+    public static NotificationsReadEvent allOf(Long userId) {
+        return new NotificationsReadEvent(userId, true);
+    }
+}
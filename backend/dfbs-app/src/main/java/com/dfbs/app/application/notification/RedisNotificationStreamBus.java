@@ -0,0 +1,70 @@
+package com.dfbs.app.application.notification;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Publishes each change as JSON on "dfbs:notification:stream"; every node (this one included) receives it and
+ * republishes it locally. If the publish fails the change is delivered locally only, and streams on other nodes
+ * catch up on their next change or reconnect (the first event of a stream is the current unread count).
+ */
+@Component
+@ConditionalOnProperty(name = "dfbs.notification.stream-fanout", havingValue = "redis", matchIfMissing = true)
+public class RedisNotificationStreamBus implements NotificationStreamBus {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisNotificationStreamBus.class);
+    private static final ChannelTopic CHANNEL = new ChannelTopic("dfbs:notification:stream");
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RedisMessageListenerContainer container;
+
+    public RedisNotificationStreamBus(StringRedisTemplate redis, RedisConnectionFactory connectionFactory,
+                                      ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> receive(message.getBody()), CHANNEL);
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @Override
+    public void publish(NotificationStreamMessage message) {
+        try {
+            redis.convertAndSend(CHANNEL.getTopic(), objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Notification stream fan-out failed, delivering on this node only: {}", e.getMessage());
+            eventPublisher.publishEvent(message);
+        }
+    }
+
+    private void receive(byte[] body) {
+        try {
+            eventPublisher.publishEvent(objectMapper.readValue(new String(body, StandardCharsets.UTF_8),
+                    NotificationStreamMessage.class));
+        } catch (Exception e) {
+            log.warn("Notification stream message dropped: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws Exception {
+        container.destroy();
+    }
+}
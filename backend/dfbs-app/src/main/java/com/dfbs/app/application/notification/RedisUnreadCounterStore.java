@@ -0,0 +1,198 @@
+package com.dfbs.app.application.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Counts shared by all nodes, as "dfbs:notification:unread:&lt;userId&gt;" keys with a TTL (bounds drift from writes
+ * that bypass NotificationService). Seed guards live next to them ("unread-gen:" / "unread-inflight:" keys) and are
+ * checked in the same script as the seed itself. Redis errors are logged and read as "not held", so callers fall back
+ * to the notification table instead of failing.
+ */
+@Component
+@ConditionalOnProperty(name = "dfbs.notification.unread-store", havingValue = "redis", matchIfMissing = true)
+public class RedisUnreadCounterStore implements UnreadCounterStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisUnreadCounterStore.class);
+    private static final String KEY_PREFIX = "dfbs:notification:unread:";
+    private static final String GEN_PREFIX = "dfbs:notification:unread-gen:";
+    private static final String IN_FLIGHT_PREFIX = "dfbs:notification:unread-inflight:";
+    private static final String CLEAR_GEN_KEY = GEN_PREFIX + "clear";
+
+    /** INCRBY only if the key exists (never turns a delta into a count); floors at 0 and keeps the TTL. */
+    private static final DefaultRedisScript<Long> ADD_IF_PRESENT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 0 then return nil end "
+                    + "local v = redis.call('incrby', KEYS[1], ARGV[1]) "
+                    + "if v < 0 then redis.call('set', KEYS[1], 0, 'KEEPTTL') v = 0 end "
+                    + "return v",
+            Long.class);
+
+    /** KEYS: user generation, clear generation. */
+    private static final DefaultRedisScript<Long> GENERATION = new DefaultRedisScript<>(
+            "return tonumber(redis.call('get', KEYS[1]) or '0') + tonumber(redis.call('get', KEYS[2]) or '0')",
+            Long.class);
+
+    /** KEYS: count, user generation, clear generation, in-flight; ARGV: expected generation, count, TTL seconds. */
+    private static final DefaultRedisScript<Long> SEED = new DefaultRedisScript<>(
+            "local g = tonumber(redis.call('get', KEYS[2]) or '0') + tonumber(redis.call('get', KEYS[3]) or '0') "
+                    + "if g ~= tonumber(ARGV[1]) or tonumber(redis.call('get', KEYS[4]) or '0') > 0 then return 0 end "
+                    + "if redis.call('set', KEYS[1], ARGV[2], 'EX', ARGV[3], 'NX') then return 1 end "
+                    + "return 0",
+            Long.class);
+
+    /**
+     * KEYS: (generation, in-flight) pairs; ARGV: TTL seconds. The in-flight TTL bounds a node dying mid-change; the
+     * generation TTL lets idle users' keys go (a seed only spans milliseconds, far inside it).
+     */
+    private static final DefaultRedisScript<Long> BEGIN_CHANGE = new DefaultRedisScript<>(
+            "for i = 1, #KEYS, 2 do "
+                    + "redis.call('incr', KEYS[i]) "
+                    + "redis.call('expire', KEYS[i], ARGV[1]) "
+                    + "redis.call('incr', KEYS[i + 1]) "
+                    + "redis.call('expire', KEYS[i + 1], ARGV[1]) "
+                    + "end return 0",
+            Long.class);
+
+    /** KEYS: (generation, in-flight) pairs; ARGV: TTL seconds. */
+    private static final DefaultRedisScript<Long> END_CHANGE = new DefaultRedisScript<>(
+            "for i = 1, #KEYS, 2 do "
+                    + "redis.call('incr', KEYS[i]) "
+                    + "redis.call('expire', KEYS[i], ARGV[1]) "
+                    + "if redis.call('decr', KEYS[i + 1]) <= 0 then redis.call('del', KEYS[i + 1]) end "
+                    + "end return 0",
+            Long.class);
+
+    private final StringRedisTemplate redis;
+    private final Duration ttl;
+
+    public RedisUnreadCounterStore(StringRedisTemplate redis,
+                                   @Value("${dfbs.notification.unread-ttl-minutes:30}") long ttlMinutes) {
+        this.redis = redis;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    @Override
+    public Long get(Long userId) {
+        try {
+            String value = redis.opsForValue().get(key(userId));
+            return value != null ? Long.valueOf(value) : null;
+        } catch (RuntimeException e) {
+            log.warn("Unread counter read failed for user {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    /** -1 (never a valid generation) when Redis is unreachable, so the following seed is skipped. */
+    @Override
+    public long generation(Long userId) {
+        try {
+            Long generation = redis.execute(GENERATION, List.of(GEN_PREFIX + userId, CLEAR_GEN_KEY));
+            return generation != null ? generation : -1;
+        } catch (RuntimeException e) {
+            log.warn("Unread counter generation read failed for user {}: {}", userId, e.getMessage());
+            return -1;
+        }
+    }
+
+    @Override
+    public void seed(Long userId, long count, long generation) {
+        if (generation < 0) {
+            return;
+        }
+        try {
+            redis.execute(SEED, List.of(key(userId), GEN_PREFIX + userId, CLEAR_GEN_KEY, IN_FLIGHT_PREFIX + userId),
+                    String.valueOf(generation), String.valueOf(count), String.valueOf(ttl.toSeconds()));
+        } catch (RuntimeException e) {
+            log.warn("Unread counter seed failed for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void beginChange(Collection<Long> userIds) {
+        try {
+            redis.execute(BEGIN_CHANGE, changeKeys(userIds), String.valueOf(ttl.toSeconds()));
+        } catch (RuntimeException e) {
+            log.warn("Unread counter change start failed for users {}, dropping them: {}", userIds, e.getMessage());
+            userIds.forEach(this::evictQuietly);
+        }
+    }
+
+    @Override
+    public void endChange(Collection<Long> userIds) {
+        try {
+            redis.execute(END_CHANGE, changeKeys(userIds), String.valueOf(ttl.toSeconds()));
+        } catch (RuntimeException e) {
+            // The in-flight keys expire after the TTL; until then those users are counted from the table.
+            log.warn("Unread counter change end failed for users {}: {}", userIds, e.getMessage());
+        }
+    }
+
+    @Override
+    public void add(Long userId, long delta) {
+        try {
+            redis.execute(ADD_IF_PRESENT, List.of(key(userId)), String.valueOf(delta));
+        } catch (RuntimeException e) {
+            log.warn("Unread counter update failed for user {}, dropping it: {}", userId, e.getMessage());
+            evictQuietly(userId);
+        }
+    }
+
+    @Override
+    public void evict(Long userId) {
+        try {
+            redis.delete(key(userId));
+        } catch (RuntimeException e) {
+            // Redis unreachable: the TTL expires the stale count.
+            log.warn("Unread counter eviction failed for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void clear() {
+        try {
+            redis.opsForValue().increment(CLEAR_GEN_KEY);
+            List<String> keys = new ArrayList<>();
+            try (Cursor<String> cursor = redis.scan(ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build())) {
+                cursor.forEachRemaining(keys::add);
+            }
+            if (!keys.isEmpty()) {
+                redis.delete(keys);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unread counter clear failed: {}", e.getMessage());
+        }
+    }
+
+    private void evictQuietly(Long userId) {
+        try {
+            redis.delete(key(userId));
+        } catch (RuntimeException ignored) {
+            // Redis unreachable: the TTL expires the stale count.
+        }
+    }
+
+    private static List<String> changeKeys(Collection<Long> userIds) {
+        List<String> keys = new ArrayList<>(userIds.size() * 2);
+        for (Long userId : userIds) {
+            keys.add(GEN_PREFIX + userId);
+            keys.add(IN_FLIGHT_PREFIX + userId);
+        }
+        return keys;
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+}
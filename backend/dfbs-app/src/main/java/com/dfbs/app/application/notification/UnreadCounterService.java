@@ -0,0 +1,153 @@
+package com.dfbs.app.application.notification;
+
+import com.dfbs.app.config.TransactionMarkers;
+import com.dfbs.app.modules.notification.NotificationRepo;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unread notification counts, served from {@link UnreadCounterStore} and kept current incrementally from
+ * notification events after commit (no count query per poll). A missing count is seeded from the notification
+ * table; a seed that raced with a committed change is not stored (generation check). A transaction that changed
+ * notifications reads the table, since its own changes reach the store only after commit.
+ * Each committed change is also sent through {@link NotificationStreamBus} to every node, which pushes it to the
+ * streams open there.
+ */
+@Component
+public class UnreadCounterService {
+
+    private static final Object TX_CHANGED_KEY = new Object();
+
+    private final NotificationRepo repo;
+    private final UnreadCounterStore store;
+    private final NotificationStreamHub hub;
+    private final NotificationStreamBus bus;
+
+    public UnreadCounterService(NotificationRepo repo, UnreadCounterStore store, NotificationStreamHub hub,
+                                NotificationStreamBus bus) {
+        this.repo = repo;
+        this.store = store;
+        this.hub = hub;
+        this.bus = bus;
+    }
+
+    public long get(Long userId) {
+        if (TransactionMarkers.isMarked(TX_CHANGED_KEY)) {
+            return repo.countByUserIdAndIsReadFalse(userId);
+        }
+        Long cached = store.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = store.generation(userId);
+        long count = repo.countByUserIdAndIsReadFalse(userId);
+        store.seed(userId, count, generation);
+        return count;
+    }
+
+    @EventListener
+    public void onCreatedInTransaction(NotificationsCreatedEvent event) {
+        TransactionMarkers.mark(TX_CHANGED_KEY);
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (NotificationPush n : event.created()) {
+            userIds.add(n.userId());
+        }
+        guardSeeds(userIds);
+    }
+
+    @EventListener
+    public void onReadInTransaction(NotificationsReadEvent event) {
+        TransactionMarkers.mark(TX_CHANGED_KEY);
+        guardSeeds(Set.of(event.userId()));
+    }
+
+    @EventListener
+    public void onPurgedInTransaction(NotificationsPurgedEvent event) {
+        TransactionMarkers.mark(TX_CHANGED_KEY);
+    }
+
+    /** Runs after commit (or immediately when no transaction is active). */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCreated(NotificationsCreatedEvent event) {
+        Map<Long, Long> added = new LinkedHashMap<>();
+        for (NotificationPush n : event.created()) {
+            added.merge(n.userId(), 1L, Long::sum);
+        }
+        added.forEach(store::add);
+        bus.publish(NotificationStreamMessage.created(event.created()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRead(NotificationsReadEvent event) {
+        if (event.all()) {
+            // Not an absolute zero: a notification committed during the mark-all must still count.
+            store.evict(event.userId());
+        } else {
+            store.add(event.userId(), -1);
+        }
+        bus.publish(NotificationStreamMessage.read(event.userId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPurged(NotificationsPurgedEvent event) {
+        store.clear();
+        bus.publish(NotificationStreamMessage.purged());
+    }
+
+    /** A committed change from any node: push it to the streams open on this node. */
+    @EventListener
+    public void onStreamMessage(NotificationStreamMessage message) {
+        switch (message.kind()) {
+            case CREATED -> {
+                Set<Long> userIds = new LinkedHashSet<>();
+                for (NotificationPush n : message.created()) {
+                    hub.push(n.userId(), NotificationStreamHub.EVENT_NOTIFICATION, n);
+                    userIds.add(n.userId());
+                }
+                userIds.forEach(this::pushUnread);
+            }
+            case READ -> pushUnread(message.userId());
+            case PURGED -> hub.connectedUserIds().forEach(this::pushUnread);
+        }
+    }
+
+    /**
+     * Marks userIds in flight from before commit until completion. afterCompletion runs after every afterCommit
+     * callback, so the window also covers the delta listeners above.
+     */
+    private void guardSeeds(Set<Long> userIds) {
+        if (userIds.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean begun;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                store.beginChange(userIds);
+                begun = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (begun) {
+                    store.endChange(userIds);
+                }
+            }
+        });
+    }
+
+    private void pushUnread(Long userId) {
+        if (hub.isConnected(userId)) {
+            hub.push(userId, NotificationStreamHub.EVENT_UNREAD, new NotificationStreamHub.UnreadPush(get(userId)));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.dfbs.app.application.notification;
+
+import java.util.Collection;
+
+/**
+ * Per-user unread notification counts. Selected by dfbs.notification.unread-store: "redis" (default, shared by all
+ * nodes) or "memory" (per node, short TTL). A missing count means "unknown": {@link UnreadCounterService} seeds it from the
+ * notification table. Implementations never create a count from a delta.
+ * <p>
+ * Seeding is guarded per user: a change is "in flight" from just before its transaction commits until after its
+ * deltas are applied ({@link #beginChange} / {@link #endChange}), and both ends move {@link #generation}. A seed is
+ * stored only if no change for the user is in flight and the generation it read before counting is still current,
+ * so a count that may or may not include a pending change is never stored.
+ */
+public interface UnreadCounterStore {
+
+    /** Count for userId, or null if not held. */
+    Long get(Long userId);
+
+    /** Seeding token for userId; moves whenever a change for the user begins or ends, and on {@link #clear()}. */
+    long generation(Long userId);
+
+    /**
+     * Atomically stores count unless one is already held, a change for userId is in flight, or
+     * {@link #generation(Long)} no longer equals generation.
+     */
+    void seed(Long userId, long count, long generation);
+
+    /** Marks a change for each of userIds as in flight; called before its transaction commits. */
+    void beginChange(Collection<Long> userIds);
+
+    /** Ends a change begun with {@link #beginChange} (after commit and its deltas, or after rollback). */
+    void endChange(Collection<Long> userIds);
+
+    /** Adds delta to a held count (floored at 0); no-op if none is held. */
+    void add(Long userId, long delta);
+
+    /** Drops the count for userId; the next read seeds it from the notification table. */
+    void evict(Long userId);
+
+    /** Drops every count and invalidates seeds in progress. */
+    void clear();
+}
@@ -0,0 +1,18 @@
+package com.dfbs.app.application.orgstructure;
+
+import com.dfbs.app.modules.orgstructure.OrgNodeEntity;
+
+/**
+ * Published when an org node is created, renamed or moved (its state after the change), or with a null id when
+ * nodes were deleted in bulk. Applied after commit by {@link OrgTreeSnapshot}.
+ */
+public record OrgNodeChangedEvent(Long id, Long parentId, String name) {
+
+    public static OrgNodeChangedEvent of(OrgNodeEntity node) {
+        return new OrgNodeChangedEvent(node.getId(), node.getParentId(), node.getName());
+    }
+
+    public static OrgNodeChangedEvent all() {
+        return new OrgNodeChangedEvent(null, null, null);
+    }
+}
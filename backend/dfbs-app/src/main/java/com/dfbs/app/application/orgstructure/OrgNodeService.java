@@ -4,58 +4,66 @@ import com.dfbs.app.application.orgstructure.dto.OrgNodeDto;
 import com.dfbs.app.application.orgstructure.dto.OrgTreeNodeDto;
 import com.dfbs.app.config.CurrentUserIdResolver;
 import com.dfbs.app.modules.orgstructure.OrgLevelEntity;
+import com.dfbs.app.modules.orgstructure.OrgNodeClosureRepo;
 import com.dfbs.app.modules.orgstructure.OrgNodeEntity;
 import com.dfbs.app.modules.orgstructure.OrgNodeRepo;
 import com.dfbs.app.modules.orgstructure.OrgLevelRepo;
 import com.dfbs.app.modules.orgstructure.PersonAffiliationRepo;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class OrgNodeService {
 
     private final OrgNodeRepo nodeRepo;
+    private final OrgNodeClosureRepo closureRepo;
     private final OrgLevelRepo levelRepo;
     private final PersonAffiliationRepo affiliationRepo;
     private final OrgChangeLogService changeLogService;
     private final CurrentUserIdResolver userIdResolver;
     private final OrgPositionConfigService positionConfigService;
+    private final OrgTreeSnapshot treeSnapshot;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public OrgNodeService(OrgNodeRepo nodeRepo, OrgLevelRepo levelRepo,
+    public OrgNodeService(OrgNodeRepo nodeRepo, OrgNodeClosureRepo closureRepo, OrgLevelRepo levelRepo,
                           PersonAffiliationRepo affiliationRepo,
                           OrgChangeLogService changeLogService,
                           CurrentUserIdResolver userIdResolver,
-                          OrgPositionConfigService positionConfigService) {
+                          OrgPositionConfigService positionConfigService,
+                          OrgTreeSnapshot treeSnapshot,
+                          ApplicationEventPublisher eventPublisher) {
         this.nodeRepo = nodeRepo;
+        this.closureRepo = closureRepo;
         this.levelRepo = levelRepo;
         this.affiliationRepo = affiliationRepo;
         this.changeLogService = changeLogService;
         this.userIdResolver = userIdResolver;
         this.positionConfigService = positionConfigService;
+        this.treeSnapshot = treeSnapshot;
+        this.eventPublisher = eventPublisher;
     }
 
-    /** All descendant node IDs (children, grandchildren, ...). */
+    /** All descendant node IDs (children, grandchildren, ...), nearest first; one org_node_closure lookup. */
     public List<Long> getDescendantIds(Long nodeId) {
-        List<Long> out = new ArrayList<>();
-        List<Long> current = List.of(nodeId);
-        while (!current.isEmpty()) {
-            List<Long> next = new ArrayList<>();
-            for (Long id : current) {
-                for (OrgNodeEntity c : nodeRepo.findByParentIdOrderByNameAsc(id)) {
-                    next.add(c.getId());
-                    out.add(c.getId());
-                }
-            }
-            current = next;
+        return closureRepo.findDescendantIds(nodeId);
+    }
+
+    /** Distance from the root (0 for a root node). */
+    public int getDepth(Long nodeId) {
+        Integer depth = closureRepo.findDepth(nodeId);
+        if (depth == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "组织节点不存在");
         }
-        return out;
+        return depth;
     }
 
     /** Node id + all descendant ids (for subtree impact). */
@@ -68,9 +76,8 @@ public class OrgNodeService {
 
     /** Impact summary for move/disable: descendant node count and active-person count in subtree (在岗/启用人员). */
     public ImpactSummary getImpactSummary(Long nodeId) {
-        List<Long> subtreeIds = getSubtreeNodeIds(nodeId);
-        long nodeCount = subtreeIds.size() - 1; // exclude self
-        long personCount = subtreeIds.isEmpty() ? 0 : affiliationRepo.countDistinctActivePersonIdByOrgNodeIdIn(subtreeIds);
+        long nodeCount = closureRepo.countDescendants(nodeId);
+        long personCount = affiliationRepo.countDistinctActivePersonIdInSubtree(nodeId);
         return new ImpactSummary(nodeCount, personCount);
     }
 
@@ -120,17 +127,14 @@ public class OrgNodeService {
         return OrgNodeDto.from(getById(id));
     }
 
-    /** Name path from root to node (e.g. "公司 / 本部 / 研发部"). */
+    /** Name path from root to node (e.g. "公司 / 本部 / 研发部"); resolved in memory via {@link OrgTreeSnapshot}. */
     public String getNodeNamePath(Long nodeId) {
-        List<String> names = new ArrayList<>();
-        Long currentId = nodeId;
-        while (currentId != null) {
-            OrgNodeEntity node = nodeRepo.findById(currentId).orElse(null);
-            if (node == null) break;
-            names.add(0, node.getName());
-            currentId = node.getParentId();
-        }
-        return String.join(" / ", names);
+        return treeSnapshot.resolvePath(nodeId);
+    }
+
+    /** Name paths for several nodes (list views); unknown ids map to "". */
+    public Map<Long, String> getNodeNamePaths(Collection<Long> nodeIds) {
+        return treeSnapshot.resolvePaths(nodeIds);
     }
 
     /** Children as DTOs for API. */
@@ -166,6 +170,11 @@ public class OrgNodeService {
         e.setCreatedBy(uname);
         e.setUpdatedBy(uname);
         e = nodeRepo.save(e);
+        eventPublisher.publishEvent(OrgNodeChangedEvent.of(e));
+        closureRepo.insertSelf(e.getId());
+        if (parentId != null) {
+            closureRepo.insertUnder(e.getId(), parentId);
+        }
         changeLogService.log("ORG_NODE", e.getId(), "CREATE", uid, uname,
                 "新建组织节点: " + e.getName(), null);
         positionConfigService.applyTemplateForNewNode(e.getId(), e.getLevelId());
@@ -183,11 +192,12 @@ public class OrgNodeService {
         if (isEnabled != null) e.setIsEnabled(isEnabled);
         e.setUpdatedBy(uname);
         e = nodeRepo.save(e);
+        eventPublisher.publishEvent(OrgNodeChangedEvent.of(e));
         changeLogService.log("ORG_NODE", e.getId(), "UPDATE", uid, uname, "更新组织节点: " + e.getName(), null);
         return OrgNodeDto.from(e);
     }
 
-    /** Move node to new parent. Validates cycle (new parent must not be self or descendant). */
+    /** Move node to new parent. Validates cycle (new parent must not be self or descendant); re-links the subtree in org_node_closure. */
     @Transactional
     public OrgNodeDto move(Long nodeId, Long newParentId) {
         OrgNodeEntity node = getById(nodeId);
@@ -195,8 +205,7 @@ public class OrgNodeService {
             if (newParentId.equals(nodeId)) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "不能将节点移动到自身");
             }
-            Set<Long> descendantIds = getDescendantIds(nodeId).stream().collect(Collectors.toSet());
-            if (descendantIds.contains(newParentId)) {
+            if (closureRepo.existsByAncestorIdAndDescendantId(nodeId, newParentId)) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "不能将节点移动到其下级，否则会形成循环");
             }
             getById(newParentId); // ensure exists
@@ -204,9 +213,17 @@ public class OrgNodeService {
         Long uid = userIdResolver.getCurrentUserId();
         String uname = userIdResolver.getCurrentUserEntity().getNickname();
         if (uname == null) uname = "user-" + uid;
+        boolean parentChanged = !Objects.equals(node.getParentId(), newParentId);
         node.setParentId(newParentId);
         node.setUpdatedBy(uname);
         node = nodeRepo.save(node);
+        eventPublisher.publishEvent(OrgNodeChangedEvent.of(node));
+        if (parentChanged) {
+            closureRepo.detachSubtree(nodeId);
+            if (newParentId != null) {
+                closureRepo.attachSubtree(nodeId, newParentId);
+            }
+        }
         changeLogService.log("ORG_NODE", node.getId(), "MOVE", uid, uname,
                 "移动组织节点至新上级: " + node.getName(), null);
         return OrgNodeDto.from(node);
@@ -222,8 +239,7 @@ public class OrgNodeService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "该节点下存在 " + activeChildren + " 个启用中的下级节点，请先迁移或停用下级后再停用本节点");
         }
-        List<Long> subtreeIds = getSubtreeNodeIds(id);
-        long personCount = affiliationRepo.countDistinctActivePersonIdByOrgNodeIdIn(subtreeIds);
+        long personCount = affiliationRepo.countDistinctActivePersonIdInSubtree(id);
         if (personCount > 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "该节点及其下级下关联 " + personCount + " 名在岗/启用人员，请先迁移人员归属再停用");
@@ -24,7 +24,6 @@ public class OrgPersonService {
     private final OrgPersonRepo personRepo;
     private final PersonAffiliationRepo affiliationRepo;
     private final OrgNodeRepo nodeRepo;
-    private final OrgNodeService nodeService;
     private final OrgChangeLogService changeLogService;
     private final CurrentUserIdResolver userIdResolver;
     private final com.dfbs.app.modules.orgstructure.JobLevelRepo jobLevelRepo;
@@ -32,7 +31,7 @@ public class OrgPersonService {
     private final EntityManager entityManager;
 
     public OrgPersonService(OrgPersonRepo personRepo, PersonAffiliationRepo affiliationRepo,
-                            OrgNodeRepo nodeRepo, OrgNodeService nodeService,
+                            OrgNodeRepo nodeRepo,
                             OrgChangeLogService changeLogService, CurrentUserIdResolver userIdResolver,
                             com.dfbs.app.modules.orgstructure.JobLevelRepo jobLevelRepo,
                             OrgPositionConfigService positionConfigService,
@@ -40,7 +39,6 @@ public class OrgPersonService {
         this.personRepo = personRepo;
         this.affiliationRepo = affiliationRepo;
         this.nodeRepo = nodeRepo;
-        this.nodeService = nodeService;
         this.changeLogService = changeLogService;
         this.userIdResolver = userIdResolver;
         this.jobLevelRepo = jobLevelRepo;
@@ -75,11 +73,9 @@ public class OrgPersonService {
             jobLevelRepo.findAllById(jobLevelIds).forEach(j -> jobLevelNames.put(j.getId(), j.getDisplayName()));
             return page.map(p -> toResponse(p, jobLevelNames.get(p.getJobLevelId())));
         }
-        List<Long> nodeIds = includeDescendants ? nodeService.getSubtreeNodeIds(orgNodeId) : List.of(orgNodeId);
-        if (nodeIds.isEmpty()) {
-            return org.springframework.data.domain.Page.empty(pageable);
-        }
-        Page<OrgPersonEntity> page = personRepo.findByOrgSubtree(nodeIds, includeSecondaries, kw, activeOnly, pageable);
+        Page<OrgPersonEntity> page = includeDescendants
+                ? personRepo.findByOrgSubtreeRoot(orgNodeId, includeSecondaries, kw, activeOnly, pageable)
+                : personRepo.findByOrgSubtree(List.of(orgNodeId), includeSecondaries, kw, activeOnly, pageable);
         java.util.Set<Long> jobLevelIds = page.getContent().stream().map(OrgPersonEntity::getJobLevelId).filter(java.util.Objects::nonNull).collect(java.util.stream.Collectors.toSet());
         java.util.Map<Long, String> jobLevelNames = new java.util.HashMap<>();
         jobLevelRepo.findAllById(jobLevelIds).forEach(j -> jobLevelNames.put(j.getId(), j.getDisplayName()));
@@ -28,6 +28,7 @@ public class OrgPositionConfigService {
     private final PersonAffiliationRepo affiliationRepo;
     private final OrgChangeLogService changeLogService;
     private final CurrentUserIdResolver userIdResolver;
+    private final OrgTreeSnapshot treeSnapshot;
 
     public OrgPositionConfigService(OrgPositionCatalogRepo catalogRepo,
                                     OrgPositionEnabledRepo enabledRepo,
@@ -37,7 +38,8 @@ public class OrgPositionConfigService {
                                     OrgPersonRepo personRepo,
                                     PersonAffiliationRepo affiliationRepo,
                                     OrgChangeLogService changeLogService,
-                                    CurrentUserIdResolver userIdResolver) {
+                                    CurrentUserIdResolver userIdResolver,
+                                    OrgTreeSnapshot treeSnapshot) {
         this.catalogRepo = catalogRepo;
         this.enabledRepo = enabledRepo;
         this.bindingRepo = bindingRepo;
@@ -47,18 +49,7 @@ public class OrgPositionConfigService {
         this.affiliationRepo = affiliationRepo;
         this.changeLogService = changeLogService;
         this.userIdResolver = userIdResolver;
-    }
-
-    private String getNodeNamePath(Long nodeId) {
-        List<String> names = new ArrayList<>();
-        Long currentId = nodeId;
-        while (currentId != null) {
-            OrgNodeEntity node = nodeRepo.findById(currentId).orElse(null);
-            if (node == null) break;
-            names.add(0, node.getName());
-            currentId = node.getParentId();
-        }
-        return String.join(" / ", names);
+        this.treeSnapshot = treeSnapshot;
     }
 
     public PositionsByOrgResponseDto getByOrg(Long orgNodeId) {
@@ -90,19 +81,15 @@ public class OrgPositionConfigService {
         if (bindings.isEmpty()) return List.of();
         Set<Long> personIds = bindings.stream().map(OrgPositionBindingEntity::getPersonId).collect(Collectors.toSet());
         Map<Long, OrgPersonEntity> personMap = personRepo.findAllById(personIds).stream().collect(Collectors.toMap(OrgPersonEntity::getId, p -> p));
-        Map<Long, Long> primaryOrgByPerson = new java.util.HashMap<>();
-        for (Long pid : personIds) {
-            affiliationRepo.findByPersonIdAndIsPrimaryTrue(pid)
-                    .map(PersonAffiliationEntity::getOrgNodeId)
-                    .ifPresent(primaryId -> primaryOrgByPerson.put(pid, primaryId));
-        }
+        Map<Long, Long> primaryOrgByPerson = primaryOrgByPerson(personIds);
+        Map<Long, String> primaryPaths = treeSnapshot.resolvePaths(primaryOrgByPerson.values());
         List<PositionBoundPersonDto> out = new ArrayList<>();
         for (OrgPositionBindingEntity b : bindings) {
             OrgPersonEntity person = personMap.get(b.getPersonId());
             if (person == null) continue;
             Long primaryOrgId = primaryOrgByPerson.get(b.getPersonId());
             boolean isPartTime = primaryOrgId != null && !primaryOrgId.equals(currentOrgNodeId);
-            String primaryPath = primaryOrgId != null ? getNodeNamePath(primaryOrgId) : null;
+            String primaryPath = primaryOrgId != null ? primaryPaths.get(primaryOrgId) : null;
             out.add(new PositionBoundPersonDto(
                     person.getId(),
                     person.getName(),
@@ -116,6 +103,12 @@ public class OrgPositionConfigService {
         return out;
     }
 
+    /** Primary org node per person, one query for all. */
+    private Map<Long, Long> primaryOrgByPerson(Set<Long> personIds) {
+        return affiliationRepo.findByPersonIdInAndIsPrimaryTrue(personIds).stream()
+                .collect(Collectors.toMap(PersonAffiliationEntity::getPersonId, PersonAffiliationEntity::getOrgNodeId, (a, b) -> a));
+    }
+
     @Transactional
     public void enablePosition(Long orgNodeId, Long positionId) {
         nodeRepo.findById(orgNodeId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "组织节点不存在"));
@@ -189,12 +182,7 @@ public class OrgPositionConfigService {
         if (bindings.isEmpty()) return List.of();
         Set<Long> personIds = bindings.stream().map(OrgPositionBindingEntity::getPersonId).collect(Collectors.toSet());
         Map<Long, OrgPersonEntity> personMap = personRepo.findAllById(personIds).stream().collect(Collectors.toMap(OrgPersonEntity::getId, p -> p));
-        Map<Long, Long> primaryByPerson = new java.util.HashMap<>();
-        for (Long pid : personIds) {
-            affiliationRepo.findByPersonIdAndIsPrimaryTrue(pid)
-                    .map(PersonAffiliationEntity::getOrgNodeId)
-                    .ifPresent(primaryId -> primaryByPerson.put(pid, primaryId));
-        }
+        Map<Long, Long> primaryByPerson = primaryOrgByPerson(personIds);
         List<BindingQueryPersonDto> out = new ArrayList<>();
         for (OrgPositionBindingEntity b : bindings) {
             OrgPersonEntity person = personMap.get(b.getPersonId());
@@ -213,11 +201,12 @@ public class OrgPositionConfigService {
         Set<Long> orgIds = bindings.stream().map(OrgPositionBindingEntity::getOrgNodeId).collect(Collectors.toSet());
         Map<Long, OrgPositionCatalogEntity> catalogMap = catalogRepo.findAllById(positionIds).stream().collect(Collectors.toMap(OrgPositionCatalogEntity::getId, p -> p));
         Long primaryOrgId = affiliationRepo.findByPersonIdAndIsPrimaryTrue(personId).map(PersonAffiliationEntity::getOrgNodeId).orElse(null);
+        Map<Long, String> orgPaths = treeSnapshot.resolvePaths(orgIds);
         List<PersonPositionAssignmentDto> out = new ArrayList<>();
         for (OrgPositionBindingEntity b : bindings) {
             OrgPositionCatalogEntity pos = catalogMap.get(b.getPositionId());
             if (pos == null) continue;
-            String orgPath = getNodeNamePath(b.getOrgNodeId());
+            String orgPath = orgPaths.get(b.getOrgNodeId());
             boolean isPartTime = primaryOrgId != null && !primaryOrgId.equals(b.getOrgNodeId());
             out.add(new PersonPositionAssignmentDto(
                     b.getOrgNodeId(),
@@ -8,6 +8,7 @@ import com.dfbs.app.modules.orgstructure.OrgPersonRepo;
 import com.dfbs.app.modules.orgstructure.OrgPositionBindingRepo;
 import com.dfbs.app.modules.orgstructure.OrgPositionEnabledRepo;
 import com.dfbs.app.modules.orgstructure.PersonAffiliationRepo;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,6 +35,7 @@ public class OrgStructureDevResetService {
     private final OrgPositionEnabledRepo enabledRepo;
     private final OrgLevelPositionTemplateRepo levelPositionTemplateRepo;
     private final OrgNodeService nodeService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public OrgStructureDevResetService(OrgChangeLogRepo changeLogRepo,
                                        PersonAffiliationRepo affiliationRepo,
@@ -43,7 +45,8 @@ public class OrgStructureDevResetService {
                                        OrgPositionBindingRepo bindingRepo,
                                        OrgPositionEnabledRepo enabledRepo,
                                        OrgLevelPositionTemplateRepo levelPositionTemplateRepo,
-                                       OrgNodeService nodeService) {
+                                       OrgNodeService nodeService,
+                                       ApplicationEventPublisher eventPublisher) {
         this.changeLogRepo = changeLogRepo;
         this.affiliationRepo = affiliationRepo;
         this.personRepo = personRepo;
@@ -53,6 +56,7 @@ public class OrgStructureDevResetService {
         this.enabledRepo = enabledRepo;
         this.levelPositionTemplateRepo = levelPositionTemplateRepo;
         this.nodeService = nodeService;
+        this.eventPublisher = eventPublisher;
     }
 
     /** For GET reset-availability: allowed, reason, personCount, affiliationCount, nodeCount. */
@@ -85,6 +89,7 @@ public class OrgStructureDevResetService {
                     "存在人员/归属，禁止清空。人员数: " + personCount + "，归属数: " + affiliationCount);
         }
         nodeRepo.deleteAll();
+        eventPublisher.publishEvent(OrgNodeChangedEvent.all());
         changeLogRepo.deleteAll();
         return levelService.resetLevelsToDefault();
     }
@@ -95,6 +100,7 @@ public class OrgStructureDevResetService {
         affiliationRepo.deleteAll();
         personRepo.deleteAll();
         nodeRepo.deleteAll();
+        eventPublisher.publishEvent(OrgNodeChangedEvent.all());
         changeLogRepo.deleteAll();
         return levelService.resetLevelsToDefault();
     }
@@ -119,6 +125,7 @@ public class OrgStructureDevResetService {
         affiliationRepo.deleteAll();
         personRepo.deleteAll();
         nodeRepo.deleteAll();
+        eventPublisher.publishEvent(OrgNodeChangedEvent.all());
         changeLogRepo.deleteAll();
         levelPositionTemplateRepo.deleteAllInBatch();
         List<OrgLevelEntity> levels = levelService.resetLevelsToDefault();
@@ -0,0 +1,131 @@
+package com.dfbs.app.application.orgstructure;
+
+import com.dfbs.app.config.TransactionMarkers;
+import com.dfbs.app.modules.orgstructure.OrgNodeEntity;
+import com.dfbs.app.modules.orgstructure.OrgNodeRepo;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory org tree (id -&gt; parent id, name) for name paths and ancestor chains in O(depth) without queries.
+ * Loaded with one query on first use; after commit each {@link OrgNodeChangedEvent} replaces just that node
+ * (copy-on-write), a bulk event drops the snapshot. A load that raced with a change is not stored (generation
+ * check), and a transaction that changed nodes resolves against a fresh load until it completes.
+ */
+@Component
+public class OrgTreeSnapshot {
+
+    public static final String PATH_SEPARATOR = " / ";
+
+    record Node(Long id, Long parentId, String name) {}
+
+    private static final Object TX_CHANGED_KEY = new Object();
+
+    private final OrgNodeRepo nodeRepo;
+
+    private volatile Map<Long, Node> nodes;
+    private long generation;
+
+    public OrgTreeSnapshot(OrgNodeRepo nodeRepo) {
+        this.nodeRepo = nodeRepo;
+    }
+
+    /** Name path from root to node (e.g. "公司 / 本部 / 研发部"); empty for unknown ids. */
+    public String resolvePath(Long nodeId) {
+        return path(nodes(), nodeId);
+    }
+
+    /** Paths for several nodes at once (ids in iteration order; null ids skipped, unknown ids map to ""). */
+    public Map<Long, String> resolvePaths(Collection<Long> nodeIds) {
+        Map<Long, Node> current = nodes();
+        Map<Long, String> out = new LinkedHashMap<>();
+        for (Long id : nodeIds) {
+            if (id != null) out.computeIfAbsent(id, k -> path(current, k));
+        }
+        return out;
+    }
+
+    /** Ancestor ids from the root down to the node's parent; empty for roots and unknown ids. */
+    public List<Long> ancestorIds(Long nodeId) {
+        List<Long> out = new ArrayList<>();
+        for (Node n : chain(nodes(), nodeId)) out.add(n.id());
+        if (!out.isEmpty()) out.remove(out.size() - 1);
+        return out;
+    }
+
+    private static String path(Map<Long, Node> nodes, Long nodeId) {
+        List<Node> chain = chain(nodes, nodeId);
+        List<String> names = new ArrayList<>(chain.size());
+        for (Node n : chain) names.add(n.name());
+        return String.join(PATH_SEPARATOR, names);
+    }
+
+    /** Root..node; bounded by the node count so a corrupt cycle cannot loop forever. */
+    private static List<Node> chain(Map<Long, Node> nodes, Long nodeId) {
+        List<Node> chain = new ArrayList<>();
+        Node current = nodeId != null ? nodes.get(nodeId) : null;
+        while (current != null && chain.size() <= nodes.size()) {
+            chain.add(current);
+            current = current.parentId() != null ? nodes.get(current.parentId()) : null;
+        }
+        Collections.reverse(chain);
+        return chain;
+    }
+
+    private Map<Long, Node> nodes() {
+        if (TransactionMarkers.isMarked(TX_CHANGED_KEY)) {
+            return load();
+        }
+        Map<Long, Node> current = nodes;
+        if (current != null) return current;
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+        Map<Long, Node> loaded = load();
+        synchronized (this) {
+            if (generation == startGeneration && nodes == null) {
+                nodes = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private Map<Long, Node> load() {
+        Map<Long, Node> loaded = new HashMap<>();
+        for (OrgNodeEntity e : nodeRepo.findAll()) {
+            loaded.put(e.getId(), new Node(e.getId(), e.getParentId(), e.getName()));
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    /** Marks the publishing transaction so its own lookups bypass the shared snapshot until it completes. */
+    @EventListener
+    public void onChanged(OrgNodeChangedEvent event) {
+        TransactionMarkers.mark(TX_CHANGED_KEY);
+    }
+
+    /** Runs after commit (or immediately when no transaction is active). */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCommitted(OrgNodeChangedEvent event) {
+        generation++;
+        Map<Long, Node> current = nodes;
+        if (current == null) return;
+        if (event.id() == null) {
+            nodes = null;
+            return;
+        }
+        Map<Long, Node> next = new HashMap<>(current);
+        next.put(event.id(), new Node(event.id(), event.parentId(), event.name()));
+        nodes = Collections.unmodifiableMap(next);
+    }
+}
@@ -4,6 +4,7 @@ import com.dfbs.app.interfaces.perm.PermAccountOverrideDto;
 import com.dfbs.app.modules.perm.*;
 import com.dfbs.app.modules.user.UserEntity;
 import com.dfbs.app.modules.user.UserRepo;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,8 +18,8 @@ import java.util.stream.Stream;
 @Service
 public class PermAccountOverrideService {
 
-    private static final String OP_ADD = "ADD";
-    private static final String OP_REMOVE = "REMOVE";
+    static final String OP_ADD = "ADD";
+    static final String OP_REMOVE = "REMOVE";
 
     private final UserRepo userRepo;
     private final PermUserRoleTemplateRepo userRoleTemplateRepo;
@@ -26,19 +27,22 @@ public class PermAccountOverrideService {
     private final PermRoleRepo roleRepo;
     private final PermRolePermissionRepo rolePermissionRepo;
     private final PermRoleService roleService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PermAccountOverrideService(UserRepo userRepo,
                                      PermUserRoleTemplateRepo userRoleTemplateRepo,
                                      PermUserPermissionOverrideRepo overrideRepo,
                                      PermRoleRepo roleRepo,
                                      PermRolePermissionRepo rolePermissionRepo,
-                                     PermRoleService roleService) {
+                                     PermRoleService roleService,
+                                     ApplicationEventPublisher eventPublisher) {
         this.userRepo = userRepo;
         this.userRoleTemplateRepo = userRoleTemplateRepo;
         this.overrideRepo = overrideRepo;
         this.roleRepo = roleRepo;
         this.rolePermissionRepo = rolePermissionRepo;
         this.roleService = roleService;
+        this.eventPublisher = eventPublisher;
     }
 
     /** Effective permissions for userId: (template ∪ add) \\ remove. Returns empty set if user not in app_user (for enforcement). */
@@ -46,10 +50,13 @@ public class PermAccountOverrideService {
         if (userId == null || !userRepo.existsById(userId)) {
             return java.util.Set.of();
         }
+        Long roleId = userRoleTemplateRepo.findByUserId(userId).map(PermUserRoleTemplateEntity::getRoleId).orElse(null);
+        return resolveEffectiveKeys(userId, roleId);
+    }
+
+    private Set<String> resolveEffectiveKeys(Long userId, Long roleId) {
         List<String> templateKeys = new ArrayList<>();
-        Optional<PermUserRoleTemplateEntity> templateOpt = userRoleTemplateRepo.findByUserId(userId);
-        if (templateOpt.isPresent() && templateOpt.get().getRoleId() != null) {
-            Long roleId = templateOpt.get().getRoleId();
+        if (roleId != null) {
             templateKeys.addAll(rolePermissionRepo.findByRoleId(roleId).stream()
                     .map(PermRolePermissionEntity::getPermissionKey)
                     .toList());
@@ -131,6 +138,7 @@ public class PermAccountOverrideService {
             o.setOp(OP_REMOVE);
             overrideRepo.save(o);
         }
+        eventPublisher.publishEvent(PermCacheEvictEvent.forUser(userId));
         return getOverride(userId);
     }
 
@@ -0,0 +1,26 @@
+package com.dfbs.app.application.perm;
+
+/**
+ * Published when a change may alter effective permissions. Handled after commit by {@link PermEffectiveCache}.
+ * Scope: one user (override / authorities), one role template (role permissions), or all entries.
+ */
+public record PermCacheEvictEvent(Scope scope, Long id) {
+
+    public enum Scope {
+        USER,
+        ROLE,
+        ALL
+    }
+
+    public static PermCacheEvictEvent forUser(Long userId) {
+        return new PermCacheEvictEvent(Scope.USER, userId);
+    }
+
+    public static PermCacheEvictEvent forRole(Long roleId) {
+        return new PermCacheEvictEvent(Scope.ROLE, roleId);
+    }
+
+    public static PermCacheEvictEvent all() {
+        return new PermCacheEvictEvent(Scope.ALL, null);
+    }
+}
@@ -0,0 +1,241 @@
+package com.dfbs.app.application.perm;
+
+import com.dfbs.app.config.TransactionMarkers;
+import com.dfbs.app.modules.perm.PermRolePermissionEntity;
+import com.dfbs.app.modules.perm.PermRolePermissionRepo;
+import com.dfbs.app.modules.perm.PermUserPermissionOverrideEntity;
+import com.dfbs.app.modules.perm.PermUserPermissionOverrideRepo;
+import com.dfbs.app.modules.perm.PermUserRoleTemplateEntity;
+import com.dfbs.app.modules.perm.PermUserRoleTemplateRepo;
+import com.dfbs.app.modules.user.UserEntity;
+import com.dfbs.app.modules.user.UserRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user effective permission snapshot (compiled mask + admin flags), keyed by userId.
+ * Masks use ids of a {@link PermKeyRegistry.Layout}: effective = (template | add) &amp; ~remove, and a check is one bit test.
+ * Each snapshot keeps the layout its mask was built on; a snapshot from an older layout is reloaded on its next lookup.
+ * Role template masks are cached too, so a user miss costs user + template + override lookups only.
+ * Loaded on first check; evicted after commit via {@link PermCacheEvictEvent}. Thread-safe.
+ * A load that raced with an eviction is not stored (generation check and store are one step under the cache's lock,
+ * as is an eviction), so a stale snapshot never outlives a commit. A transaction that published an eviction resolves
+ * its users from the database, bypassing the cache, until it completes.
+ * Unknown users are never cached (ids are reused only by new rows, which must resolve fresh).
+ */
+@Component
+public class PermEffectiveCache {
+
+    /**
+     * Resolved permission state for one user. adminOrSuperAdmin mirrors CurrentUserIdResolver.isAdminOrSuperAdmin.
+     * The mask is never mutated after construction; mask() hands out a copy.
+     */
+    public record Snapshot(Long userId, Long roleTemplateId, PermKeyRegistry.Layout layout, BitSet mask,
+                           Set<String> effectiveKeys, boolean admin, boolean superAdmin) {
+        public boolean adminOrSuperAdmin() {
+            return admin || superAdmin;
+        }
+
+        /** True if bit keyId is set; keyId &lt; 0 (unknown key) is never granted. */
+        public boolean has(int keyId) {
+            return keyId >= 0 && mask.get(keyId);
+        }
+
+        /** True if permissionKey is granted (resolved against this snapshot's own layout). */
+        public boolean has(String permissionKey) {
+            return has(layout.indexOf(permissionKey));
+        }
+
+        /** Layout version the mask bits refer to. */
+        public String version() {
+            return layout.version();
+        }
+
+        @Override
+        public BitSet mask() {
+            return (BitSet) mask.clone();
+        }
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size) {}
+
+    /** Template keys and their mask on one layout (the mask is recompiled from keys when the layout changes). */
+    private record RoleMask(List<String> keys, PermKeyRegistry.Layout layout, BitSet mask) {}
+
+    private static final Object TX_CHANGED_KEY = new Object();
+    /** Start generation of a load that must not be stored; {@link #generation} never takes this value. */
+    private static final long UNCACHED = -1;
+
+    private final UserRepo userRepo;
+    private final PermUserRoleTemplateRepo userRoleTemplateRepo;
+    private final PermRolePermissionRepo rolePermissionRepo;
+    private final PermUserPermissionOverrideRepo overrideRepo;
+    private final PermKeyRegistry keyRegistry;
+
+    private final Map<Long, Snapshot> byUser = new ConcurrentHashMap<>();
+    private final Map<Long, RoleMask> roleMasks = new ConcurrentHashMap<>();
+    /** Guarded by this, as are stores into byUser / roleMasks and evictions. */
+    private long generation;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public PermEffectiveCache(UserRepo userRepo,
+                              PermUserRoleTemplateRepo userRoleTemplateRepo,
+                              PermRolePermissionRepo rolePermissionRepo,
+                              PermUserPermissionOverrideRepo overrideRepo,
+                              PermKeyRegistry keyRegistry,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        this.userRepo = userRepo;
+        this.userRoleTemplateRepo = userRoleTemplateRepo;
+        this.rolePermissionRepo = rolePermissionRepo;
+        this.overrideRepo = overrideRepo;
+        this.keyRegistry = keyRegistry;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            this.hitCounter = Counter.builder("dfbs.perm.effective.cache").tag("result", "hit").register(registry);
+            this.missCounter = Counter.builder("dfbs.perm.effective.cache").tag("result", "miss").register(registry);
+            registry.gauge("dfbs.perm.effective.cache.size", byUser, Map::size);
+        } else {
+            this.hitCounter = null;
+            this.missCounter = null;
+        }
+    }
+
+    /** Snapshot for userId; loads on miss. Returns an empty non-admin snapshot for null/unknown users (not cached). */
+    public Snapshot get(Long userId) {
+        if (userId == null) {
+            return unknownUser();
+        }
+        if (TransactionMarkers.isMarked(TX_CHANGED_KEY)) {
+            return userRepo.findById(userId).map(u -> load(u, UNCACHED)).orElseGet(this::unknownUser);
+        }
+        Snapshot cached = byUser.get(userId);
+        if (cached != null && cached.layout() == keyRegistry.current()) {
+            hits.incrementAndGet();
+            if (hitCounter != null) hitCounter.increment();
+            return cached;
+        }
+        misses.incrementAndGet();
+        if (missCounter != null) missCounter.increment();
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+        Optional<UserEntity> user = userRepo.findById(userId);
+        if (user.isEmpty()) {
+            return unknownUser();
+        }
+        Snapshot loaded = load(user.get(), startGeneration);
+        synchronized (this) {
+            if (generation == startGeneration) {
+                byUser.put(userId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private Snapshot load(UserEntity user, long startGeneration) {
+        Long userId = user.getId();
+        Long roleId = userRoleTemplateRepo.findByUserId(userId)
+                .map(PermUserRoleTemplateEntity::getRoleId)
+                .orElse(null);
+        RoleMask role = roleId != null ? roleMask(roleId, startGeneration) : null;
+        List<PermUserPermissionOverrideEntity> overrides = overrideRepo.findByUserId(userId);
+        List<String> addKeys = overrideKeys(overrides, PermAccountOverrideService.OP_ADD);
+        List<String> removeKeys = overrideKeys(overrides, PermAccountOverrideService.OP_REMOVE);
+        List<String> allKeys = new ArrayList<>(addKeys);
+        if (role != null) allKeys.addAll(role.keys());
+        PermKeyRegistry.Layout layout = keyRegistry.covering(allKeys);
+        BitSet mask = role == null ? new BitSet()
+                : role.layout() == layout ? (BitSet) role.mask().clone() : layout.compile(role.keys());
+        mask.or(layout.compile(addKeys));
+        mask.andNot(layout.compile(removeKeys));
+        String auth = user.getAuthorities();
+        boolean superAdmin = auth != null && auth.contains("ROLE_SUPER_ADMIN");
+        boolean admin = auth != null && auth.contains("ROLE_ADMIN");
+        return new Snapshot(userId, roleId, layout, mask, Set.copyOf(layout.keysOf(mask)), admin, superAdmin);
+    }
+
+    /** Cached template for roleId (loads on miss; recompiled when the layout moved on). */
+    private RoleMask roleMask(Long roleId, long startGeneration) {
+        RoleMask cached = roleMasks.get(roleId);
+        List<String> keys = cached != null ? cached.keys() : rolePermissionRepo.findByRoleId(roleId).stream()
+                .map(PermRolePermissionEntity::getPermissionKey)
+                .toList();
+        PermKeyRegistry.Layout layout = keyRegistry.covering(keys);
+        if (cached != null && cached.layout() == layout) {
+            return cached;
+        }
+        RoleMask compiled = new RoleMask(keys, layout, layout.compile(keys));
+        synchronized (this) {
+            if (generation == startGeneration) {
+                roleMasks.put(roleId, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /** Empty non-admin snapshot on the current layout; never cached. */
+    private Snapshot unknownUser() {
+        return new Snapshot(null, null, keyRegistry.current(), new BitSet(), Set.of(), false, false);
+    }
+
+    private static List<String> overrideKeys(List<PermUserPermissionOverrideEntity> overrides, String op) {
+        return overrides.stream()
+                .filter(o -> op.equals(o.getOp()))
+                .map(PermUserPermissionOverrideEntity::getPermissionKey)
+                .toList();
+    }
+
+    /** Marks the publishing transaction so its own lookups bypass the cache until it completes. */
+    @EventListener
+    public void onChanged(PermCacheEvictEvent event) {
+        TransactionMarkers.mark(TX_CHANGED_KEY);
+    }
+
+    /** Runs after commit (or immediately when no transaction is active). */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEvict(PermCacheEvictEvent event) {
+        generation++;
+        switch (event.scope()) {
+            case USER -> {
+                if (event.id() != null && byUser.remove(event.id()) != null) {
+                    evictions.incrementAndGet();
+                }
+            }
+            case ROLE -> {
+                if (event.id() != null) roleMasks.remove(event.id());
+                byUser.values().removeIf(s -> {
+                    boolean match = event.id() != null && event.id().equals(s.roleTemplateId());
+                    if (match) evictions.incrementAndGet();
+                    return match;
+                });
+            }
+            case ALL -> {
+                evictions.addAndGet(byUser.size());
+                byUser.clear();
+                roleMasks.clear();
+            }
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.get(), misses.get(), evictions.get(), byUser.size());
+    }
+}
@@ -13,6 +13,8 @@ import java.util.Set;
  * work_order:CREATE is also bypassed so admin baseline can use 新建工单.
  * Dev-stage first-batch action bypass (ROLESIMA-260306-001-05): Super Admin can execute confirmed first-batch
  * actions on /shipments, /work-orders, /platform/orgs, /platform/applications without 403 for acceptance only.
+ * Keys and admin flags come from PermEffectiveCache: a warm check is one map lookup plus one bit test
+ * (key id from the snapshot's PermKeyRegistry layout), no DB round-trip.
  */
 @Service
 public class PermEnforcementService {
@@ -59,18 +61,26 @@ public class PermEnforcementService {
     );
 
     private final CurrentUserIdResolver userIdResolver;
-    private final PermAccountOverrideService accountOverrideService;
+    private final PermEffectiveCache effectiveCache;
 
     public PermEnforcementService(CurrentUserIdResolver userIdResolver,
-                                  PermAccountOverrideService accountOverrideService) {
+                                  PermEffectiveCache effectiveCache) {
         this.userIdResolver = userIdResolver;
-        this.accountOverrideService = accountOverrideService;
+        this.effectiveCache = effectiveCache;
     }
 
     /** Effective permission keys for current request user. */
     public Set<String> getEffectiveKeysForCurrentUser() {
-        Long userId = userIdResolver.getCurrentUserId();
-        return accountOverrideService.getEffectiveKeys(userId);
+        return currentSnapshot().effectiveKeys();
+    }
+
+    /** Effective snapshot for current request user; mask bit i = key i of the layout with {@code version()}. */
+    public PermEffectiveCache.Snapshot getEffectiveSnapshotForCurrentUser() {
+        return currentSnapshot();
+    }
+
+    private PermEffectiveCache.Snapshot currentSnapshot() {
+        return effectiveCache.get(userIdResolver.getCurrentUserId());
     }
 
     /** Throws PermForbiddenException (403 PERM_FORBIDDEN) if current user does not have the permission key. */
@@ -79,14 +89,14 @@ public class PermEnforcementService {
             return;
         }
         String key = permissionKey.trim();
-        if (userIdResolver.isAdminOrSuperAdmin()
+        PermEffectiveCache.Snapshot snapshot = currentSnapshot();
+        if (snapshot.adminOrSuperAdmin()
                 && (BASELINE_VIEW_KEYS_ADMIN_BYPASS.contains(key)
                         || BASELINE_CREATE_KEYS_ADMIN_BYPASS.contains(key)
                         || DEV_STAGE_FIRST_BATCH_ACTION_BYPASS.contains(key))) {
             return;
         }
-        Set<String> effective = getEffectiveKeysForCurrentUser();
-        if (!effective.contains(key)) {
+        if (!snapshot.has(key)) {
             throw new PermForbiddenException(MESSAGE_NO_ACCESS);
         }
     }
@@ -0,0 +1,189 @@
+package com.dfbs.app.application.perm;
+
+import com.dfbs.app.modules.perm.PermRolePermissionRepo;
+import com.dfbs.app.modules.perm.PermUserPermissionOverrideRepo;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Interns permission keys ("&lt;moduleKey&gt;:&lt;actionKey&gt;") into dense int ids for BitSet masks.
+ * A {@link Layout} is the sorted set of every known key: module tree keys plus keys stored in role templates and
+ * account overrides (e.g. grants for a deleted module). Ids are positions in that order and the version is a hash of
+ * the key list, so any two nodes (or one node across restarts) reporting the same version decode masks identically.
+ * The layout is rebuilt when the tree changes or a key outside it shows up; masks keep the layout they were built on.
+ */
+@Component
+public class PermKeyRegistry {
+
+    /** Immutable key set: id = index in sorted order. */
+    public static final class Layout {
+        private final String[] keyById;
+        private final Map<String, Integer> idByKey;
+        private final String version;
+
+        Layout(Collection<String> sortedKeys) {
+            this.keyById = sortedKeys.toArray(new String[0]);
+            this.idByKey = new HashMap<>(keyById.length * 2);
+            for (int i = 0; i < keyById.length; i++) {
+                idByKey.put(keyById[i], i);
+            }
+            this.version = hash(keyById);
+        }
+
+        /** Id of key, or -1 if not in this layout (then no mask built on it can contain it). */
+        public int indexOf(String permissionKey) {
+            Integer id = permissionKey != null ? idByKey.get(permissionKey) : null;
+            return id != null ? id : -1;
+        }
+
+        public String keyOf(int id) {
+            return id >= 0 && id < keyById.length ? keyById[id] : null;
+        }
+
+        public int size() {
+            return keyById.length;
+        }
+
+        /** Keys in id order (index = id). */
+        public List<String> keys() {
+            return List.of(keyById);
+        }
+
+        /** Content hash of {@link #keys()}; equal versions mean equal id layouts. */
+        public String version() {
+            return version;
+        }
+
+        boolean containsAll(Collection<String> permissionKeys) {
+            for (String key : permissionKeys) {
+                String k = normalize(key);
+                if (k != null && !idByKey.containsKey(k)) return false;
+            }
+            return true;
+        }
+
+        /** Mask with a bit set for every non-blank key of this layout (others are ignored). */
+        public BitSet compile(Collection<String> permissionKeys) {
+            BitSet mask = new BitSet(keyById.length);
+            for (String key : permissionKeys) {
+                int id = indexOf(normalize(key));
+                if (id >= 0) mask.set(id);
+            }
+            return mask;
+        }
+
+        /** Keys for the set bits of mask. */
+        public Set<String> keysOf(BitSet mask) {
+            Set<String> out = new LinkedHashSet<>();
+            for (int i = mask.nextSetBit(0); i >= 0 && i < keyById.length; i = mask.nextSetBit(i + 1)) {
+                out.add(keyById[i]);
+            }
+            return out;
+        }
+    }
+
+    private final PermPermissionTreeService treeService;
+    private final PermRolePermissionRepo rolePermissionRepo;
+    private final PermUserPermissionOverrideRepo overrideRepo;
+
+    private volatile Layout layout;
+    /** Tree key set the layout was built from (the tree service hands out the same instance until it changes). */
+    private volatile Set<String> layoutTreeKeys;
+
+    public PermKeyRegistry(PermPermissionTreeService treeService,
+                           PermRolePermissionRepo rolePermissionRepo,
+                           PermUserPermissionOverrideRepo overrideRepo) {
+        this.treeService = treeService;
+        this.rolePermissionRepo = rolePermissionRepo;
+        this.overrideRepo = overrideRepo;
+    }
+
+    /** Current layout; rebuilt if the module tree changed since it was built. */
+    public Layout current() {
+        Set<String> treeKeys = treeService.getAllPermissionKeys();
+        Layout current = layout;
+        if (current != null && layoutTreeKeys == treeKeys) {
+            return current;
+        }
+        return rebuild(treeKeys, List.of());
+    }
+
+    /** A layout containing every key of permissionKeys: the current one if it does, else a rebuilt one. */
+    public Layout covering(Collection<String> permissionKeys) {
+        Layout current = current();
+        return current.containsAll(permissionKeys) ? current : rebuild(treeService.getAllPermissionKeys(), permissionKeys);
+    }
+
+    /** Id of key in the current layout, or -1. */
+    public int indexOf(String permissionKey) {
+        return current().indexOf(permissionKey);
+    }
+
+    /** Keys in id order of the current layout. */
+    public List<String> keys() {
+        return current().keys();
+    }
+
+    /** Version of the current layout. */
+    public String version() {
+        return current().version();
+    }
+
+    /**
+     * Sorted union of tree keys, every stored grant key and extra (keys read by a caller, possibly not committed yet).
+     * The result depends only on that key set, never on the order keys were first seen.
+     */
+    private synchronized Layout rebuild(Set<String> treeKeys, Collection<String> extra) {
+        Layout current = layout;
+        if (current != null && layoutTreeKeys == treeKeys && current.containsAll(extra)) {
+            return current;
+        }
+        TreeSet<String> all = new TreeSet<>();
+        addAll(all, treeKeys);
+        addAll(all, rolePermissionRepo.findDistinctPermissionKeys());
+        addAll(all, overrideRepo.findDistinctPermissionKeys());
+        addAll(all, extra);
+        Layout rebuilt = new Layout(all);
+        layout = rebuilt;
+        layoutTreeKeys = treeKeys;
+        return rebuilt;
+    }
+
+    private static void addAll(Set<String> target, Collection<String> keys) {
+        for (String key : keys) {
+            String k = normalize(key);
+            if (k != null) target.add(k);
+        }
+    }
+
+    private static String normalize(String key) {
+        if (key == null) return null;
+        String k = key.trim();
+        return k.isEmpty() ? null : k;
+    }
+
+    private static String hash(String[] keys) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String key : keys) {
+                digest.update(key.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.dfbs.app.modules.perm.PermModuleActionRepo;
 import com.dfbs.app.modules.perm.PermModuleEntity;
 import com.dfbs.app.modules.perm.PermModuleRepo;
 import com.dfbs.app.modules.perm.PermActionRepo;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +16,7 @@ import java.util.List;
 /**
  * PERM module tree management: create/update/delete nodes, set module actions.
  * All action keys must exist in perm_action. Module key must be unique. Delete forbidden if node has children.
+ * Every mutation publishes PermModuleTreeChangedEvent so the cached permission tree is rebuilt after commit.
  */
 @Service
 public class PermModuleManagementService {
@@ -22,13 +24,16 @@ public class PermModuleManagementService {
     private final PermModuleRepo moduleRepo;
     private final PermModuleActionRepo moduleActionRepo;
     private final PermActionRepo actionRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PermModuleManagementService(PermModuleRepo moduleRepo,
                                        PermModuleActionRepo moduleActionRepo,
-                                       PermActionRepo actionRepo) {
+                                       PermActionRepo actionRepo,
+                                       ApplicationEventPublisher eventPublisher) {
         this.moduleRepo = moduleRepo;
         this.moduleActionRepo = moduleActionRepo;
         this.actionRepo = actionRepo;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -48,7 +53,9 @@ public class PermModuleManagementService {
         e.setLabel(label != null && !label.isBlank() ? label.trim() : key);
         e.setParentId(parentId);
         e.setEnabled(enabled != null ? enabled : true);
-        return moduleRepo.save(e);
+        PermModuleEntity saved = moduleRepo.save(e);
+        eventPublisher.publishEvent(new PermModuleTreeChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Transactional
@@ -71,7 +78,9 @@ public class PermModuleManagementService {
         if (enabled != null) {
             e.setEnabled(enabled);
         }
-        return moduleRepo.save(e);
+        PermModuleEntity saved = moduleRepo.save(e);
+        eventPublisher.publishEvent(new PermModuleTreeChangedEvent(id));
+        return saved;
     }
 
     @Transactional
@@ -82,6 +91,7 @@ public class PermModuleManagementService {
         }
         moduleActionRepo.deleteAll(moduleActionRepo.findByModuleId(id));
         moduleRepo.delete(e);
+        eventPublisher.publishEvent(new PermModuleTreeChangedEvent(id));
     }
 
     @Transactional
@@ -114,6 +124,7 @@ public class PermModuleManagementService {
             }
         }
         moduleActionRepo.saveAll(toSave);
+        eventPublisher.publishEvent(new PermModuleTreeChangedEvent(moduleId));
     }
 
     public static final class ModuleKeyExistsException extends RuntimeException {
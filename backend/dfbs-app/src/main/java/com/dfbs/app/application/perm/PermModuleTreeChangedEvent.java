@@ -0,0 +1,4 @@
+package com.dfbs.app.application.perm;
+
+/** Published by PermModuleManagementService mutations; PermPermissionTreeService drops its snapshot after commit. */
+public record PermModuleTreeChangedEvent(Long moduleId) {}
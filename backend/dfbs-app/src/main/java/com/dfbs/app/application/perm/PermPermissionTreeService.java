@@ -3,20 +3,28 @@ package com.dfbs.app.application.perm;
 import com.dfbs.app.interfaces.perm.PermissionTreeDto;
 import com.dfbs.app.modules.perm.PermActionEntity;
 import com.dfbs.app.modules.perm.PermActionRepo;
+import com.dfbs.app.modules.perm.PermModuleActionEntity;
 import com.dfbs.app.modules.perm.PermModuleActionRepo;
 import com.dfbs.app.modules.perm.PermModuleEntity;
 import com.dfbs.app.modules.perm.PermModuleRepo;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * v1 permission model: default actions set + module tree (read-only, persisted).
  * keyFormat: "&lt;moduleKey&gt;:&lt;actionKey&gt;". Extensible via new moduleKey/actionKey in DB.
+ * The tree is loaded with three queries (actions, modules, module-actions), assembled in memory and kept as an
+ * immutable versioned snapshot. Dropped after commit of a PermModuleManagementService mutation
+ * ({@link PermModuleTreeChangedEvent}) or via {@link #invalidate()} for direct repo writers (dev seeders).
  */
 @Service
 public class PermPermissionTreeService {
@@ -25,6 +33,17 @@ public class PermPermissionTreeService {
     private final PermModuleRepo moduleRepo;
     private final PermModuleActionRepo moduleActionRepo;
 
+    /** Immutable tree state. actionKeys/moduleKeys are DB keys only (no fallback) for strict validation. */
+    public record TreeSnapshot(long version,
+                               List<PermissionTreeDto.ActionItem> actions,
+                               List<PermissionTreeDto.ModuleNode> modules,
+                               Set<String> permissionKeys,
+                               Set<String> moduleKeys,
+                               Set<String> actionKeys) {}
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile TreeSnapshot snapshot;
+
     /** v1 default actions fallback when DB has no actions (e.g. pre-migration). */
     private static final List<PermissionTreeDto.ActionItem> FALLBACK_ACTIONS = List.of(
             new PermissionTreeDto.ActionItem("VIEW", "查看"),
@@ -48,22 +67,82 @@ public class PermPermissionTreeService {
     }
 
     public PermissionTreeDto.PermissionTreeResponse getPermissionTree() {
-        List<PermissionTreeDto.ActionItem> actions = loadActions();
-        List<PermissionTreeDto.ModuleNode> modules = loadModuleTree();
+        TreeSnapshot current = getSnapshot();
         return new PermissionTreeDto.PermissionTreeResponse(
                 PermissionTreeDto.KEY_FORMAT,
-                actions,
-                modules
+                current.actions(),
+                current.modules()
         );
     }
 
     /** All valid permission keys (moduleKey:actionKey) from current permission tree. Used for strict validation. */
     public Set<String> getAllPermissionKeys() {
+        return getSnapshot().permissionKeys();
+    }
+
+    /** Current snapshot; loads on first use or after invalidation. */
+    public TreeSnapshot getSnapshot() {
+        TreeSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long startVersion = version.get();
+        TreeSnapshot loaded = load(startVersion);
+        synchronized (this) {
+            if (version.get() == startVersion && snapshot == null) {
+                snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidate() {
+        synchronized (this) {
+            version.incrementAndGet();
+            snapshot = null;
+        }
+    }
+
+    /** Runs after commit (or immediately when no transaction is active). */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onModuleTreeChanged(PermModuleTreeChangedEvent event) {
+        invalidate();
+    }
+
+    private TreeSnapshot load(long snapshotVersion) {
+        List<PermActionEntity> actionEntities = actionRepo.findAllByOrderByIdAsc();
+        List<PermissionTreeDto.ActionItem> actions = actionEntities.isEmpty()
+                ? FALLBACK_ACTIONS
+                : actionEntities.stream()
+                        .map(e -> new PermissionTreeDto.ActionItem(e.getActionKey(), e.getLabel()))
+                        .toList();
+        Set<String> actionKeys = actionEntities.stream().map(PermActionEntity::getActionKey).collect(Collectors.toUnmodifiableSet());
+
+        List<PermModuleEntity> moduleEntities = moduleRepo.findAllByOrderByIdAsc();
+        Map<Long, List<String>> actionsByModule = new HashMap<>();
+        for (PermModuleActionEntity ma : moduleActionRepo.findAllByOrderByIdAsc()) {
+            actionsByModule.computeIfAbsent(ma.getModuleId(), k -> new ArrayList<>()).add(ma.getActionKey());
+        }
+        Map<Long, List<PermModuleEntity>> childrenByParent = new HashMap<>();
+        List<PermModuleEntity> roots = new ArrayList<>();
+        for (PermModuleEntity m : moduleEntities) {
+            if (m.getParentId() == null) {
+                roots.add(m);
+            } else {
+                childrenByParent.computeIfAbsent(m.getParentId(), k -> new ArrayList<>()).add(m);
+            }
+        }
+        List<PermissionTreeDto.ModuleNode> modules = new ArrayList<>();
+        for (PermModuleEntity root : roots) {
+            modules.add(toModuleNode(root, actionsByModule, childrenByParent, new HashSet<>()));
+        }
         Set<String> keys = new HashSet<>();
-        for (PermissionTreeDto.ModuleNode m : loadModuleTree()) {
+        for (PermissionTreeDto.ModuleNode m : modules) {
             collectPermissionKeys(m, keys);
         }
-        return keys;
+        Set<String> moduleKeys = moduleEntities.stream().map(PermModuleEntity::getModuleKey).collect(Collectors.toUnmodifiableSet());
+        return new TreeSnapshot(snapshotVersion, List.copyOf(actions), List.copyOf(modules),
+                Set.copyOf(keys), moduleKeys, actionKeys);
     }
 
     private void collectPermissionKeys(PermissionTreeDto.ModuleNode node, Set<String> out) {
@@ -75,32 +154,17 @@ public class PermPermissionTreeService {
         }
     }
 
-    private List<PermissionTreeDto.ActionItem> loadActions() {
-        List<PermActionEntity> entities = actionRepo.findAllByOrderByIdAsc();
-        if (entities.isEmpty()) {
-            return FALLBACK_ACTIONS;
-        }
-        return entities.stream()
-                .map(e -> new PermissionTreeDto.ActionItem(e.getActionKey(), e.getLabel()))
-                .collect(Collectors.toList());
-    }
-
-    private List<PermissionTreeDto.ModuleNode> loadModuleTree() {
-        List<PermModuleEntity> roots = moduleRepo.findByParentIdIsNullOrderByIdAsc();
-        List<PermissionTreeDto.ModuleNode> result = new ArrayList<>();
-        for (PermModuleEntity root : roots) {
-            result.add(toModuleNode(root));
-        }
-        return result;
-    }
-
-    private PermissionTreeDto.ModuleNode toModuleNode(PermModuleEntity entity) {
-        List<String> actionKeys = moduleActionRepo.findByModuleId(entity.getId()).stream()
-                .map(ma -> ma.getActionKey())
-                .collect(Collectors.toList());
-        List<PermissionTreeDto.ModuleNode> children = moduleRepo.findByParentIdOrderByIdAsc(entity.getId()).stream()
-                .map(this::toModuleNode)
-                .collect(Collectors.toList());
+    /** visited guards against parent cycles in bad data (the recursive per-node loader would not terminate either). */
+    private PermissionTreeDto.ModuleNode toModuleNode(PermModuleEntity entity,
+                                                      Map<Long, List<String>> actionsByModule,
+                                                      Map<Long, List<PermModuleEntity>> childrenByParent,
+                                                      Set<Long> visited) {
+        visited.add(entity.getId());
+        List<String> actionKeys = List.copyOf(actionsByModule.getOrDefault(entity.getId(), List.of()));
+        List<PermissionTreeDto.ModuleNode> children = childrenByParent.getOrDefault(entity.getId(), List.of()).stream()
+                .filter(child -> !visited.contains(child.getId()))
+                .map(child -> toModuleNode(child, actionsByModule, childrenByParent, visited))
+                .toList();
         Boolean enabled = entity.getEnabled() != null ? entity.getEnabled() : true;
         return new PermissionTreeDto.ModuleNode(
                 entity.getModuleKey(), entity.getLabel(), actionKeys, children,
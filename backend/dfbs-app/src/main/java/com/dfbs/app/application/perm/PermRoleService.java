@@ -5,8 +5,7 @@ import com.dfbs.app.modules.perm.PermRoleEntity;
 import com.dfbs.app.modules.perm.PermRolePermissionEntity;
 import com.dfbs.app.modules.perm.PermRolePermissionRepo;
 import com.dfbs.app.modules.perm.PermRoleRepo;
-import com.dfbs.app.modules.perm.PermModuleRepo;
-import com.dfbs.app.modules.perm.PermActionRepo;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,17 +25,17 @@ public class PermRoleService {
 
     private final PermRoleRepo roleRepo;
     private final PermRolePermissionRepo rolePermissionRepo;
-    private final PermModuleRepo moduleRepo;
-    private final PermActionRepo actionRepo;
+    private final PermPermissionTreeService treeService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PermRoleService(PermRoleRepo roleRepo,
                            PermRolePermissionRepo rolePermissionRepo,
-                           PermModuleRepo moduleRepo,
-                           PermActionRepo actionRepo) {
+                           PermPermissionTreeService treeService,
+                           ApplicationEventPublisher eventPublisher) {
         this.roleRepo = roleRepo;
         this.rolePermissionRepo = rolePermissionRepo;
-        this.moduleRepo = moduleRepo;
-        this.actionRepo = actionRepo;
+        this.treeService = treeService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<PermRoleEntity> list(Boolean enabledOnly) {
@@ -132,6 +131,7 @@ public class PermRoleService {
             toSave.add(p);
         }
         rolePermissionRepo.saveAll(toSave);
+        eventPublisher.publishEvent(PermCacheEvictEvent.forRole(id));
         return role;
     }
 
@@ -140,6 +140,7 @@ public class PermRoleService {
         PermRoleEntity e = roleRepo.findById(id).orElseThrow(() -> new RoleNotFoundException("角色不存在: id=" + id));
         rolePermissionRepo.deleteByRoleId(id);
         roleRepo.delete(e);
+        eventPublisher.publishEvent(PermCacheEvictEvent.forRole(id));
     }
 
     /** Clone source role: new role with label + "-副本", enabled=false, copied description and permissions; roleKey auto-generated. */
@@ -188,9 +189,10 @@ public class PermRoleService {
             toSave.add(p);
         }
         rolePermissionRepo.saveAll(toSave);
+        eventPublisher.publishEvent(PermCacheEvictEvent.forRole(roleId));
     }
 
-    /** Public for use by PermAccountOverrideService; validates moduleKey:actionKey and existence. */
+    /** Public for use by PermAccountOverrideService; validates moduleKey:actionKey and existence (against the cached tree). */
     public void validatePermissionKey(String permissionKey) {
         int colon = permissionKey.indexOf(':');
         if (colon <= 0 || colon == permissionKey.length() - 1) {
@@ -198,10 +200,11 @@ public class PermRoleService {
         }
         String moduleKey = permissionKey.substring(0, colon);
         String actionKey = permissionKey.substring(colon + 1);
-        if (!moduleRepo.existsByModuleKey(moduleKey)) {
+        PermPermissionTreeService.TreeSnapshot tree = treeService.getSnapshot();
+        if (!tree.moduleKeys().contains(moduleKey)) {
             throw new InvalidPermissionKeyException("模块不存在: " + moduleKey);
         }
-        if (!actionRepo.existsByActionKey(actionKey)) {
+        if (!tree.actionKeys().contains(actionKey)) {
             throw new InvalidPermissionKeyException("动作不存在: " + actionKey);
         }
     }
@@ -1,6 +1,7 @@
 package com.dfbs.app.application.permission;
 
 import com.dfbs.app.application.notification.NotificationService;
+import com.dfbs.app.application.perm.PermCacheEvictEvent;
 import com.dfbs.app.modules.permission.PermissionRequestEntity;
 import com.dfbs.app.modules.permission.PermissionRequestRepo;
 import com.dfbs.app.modules.permission.RequestStatus;
@@ -9,6 +10,7 @@ import com.dfbs.app.modules.user.UserRepo;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,15 +29,18 @@ public class PermissionRequestService {
     private final UserRepo userRepo;
     private final NotificationService notificationService;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PermissionRequestService(PermissionRequestRepo permissionRequestRepo,
                                     UserRepo userRepo,
                                     NotificationService notificationService,
-                                    ObjectMapper objectMapper) {
+                                    ObjectMapper objectMapper,
+                                    ApplicationEventPublisher eventPublisher) {
         this.permissionRequestRepo = permissionRequestRepo;
         this.userRepo = userRepo;
         this.notificationService = notificationService;
         this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -168,6 +173,7 @@ public class PermissionRequestService {
         String authoritiesJson = serializeAuthorities(newAuthorities);
         target.setAuthorities(authoritiesJson);
         userRepo.save(target);
+        eventPublisher.publishEvent(PermCacheEvictEvent.forUser(targetUserId));
 
         req.setSnapshotAfter(authoritiesJson);
         req.setStatus(RequestStatus.APPROVED);
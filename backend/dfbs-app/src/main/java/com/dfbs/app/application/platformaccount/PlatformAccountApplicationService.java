@@ -2,6 +2,8 @@ package com.dfbs.app.application.platformaccount;
 
 import com.dfbs.app.application.platformaccount.dto.*;
 import com.dfbs.app.application.customer.CustomerMasterDataService;
+import com.dfbs.app.application.docnumber.DocumentNumberService;
+import com.dfbs.app.application.docnumber.DocumentType;
 import com.dfbs.app.application.platformorg.PlatformOrgService;
 import com.dfbs.app.application.platformorg.dto.PlatformOrgRequest;
 import com.dfbs.app.application.smartselect.TempDataService;
@@ -25,8 +27,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -35,8 +35,6 @@ import java.util.Optional;
 @Service
 public class PlatformAccountApplicationService {
 
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
-
     private final PlatformAccountApplicationRepo repo;
     private final PlatformOrgRepo platformOrgRepo;
     private final PlatformOrgService platformOrgService;
@@ -45,6 +43,7 @@ public class PlatformAccountApplicationService {
     private final TempDataService tempDataService;
     private final ContractRepo contractRepo;
     private final UserRepo userRepo;
+    private final DocumentNumberService documentNumberService;
 
     public PlatformAccountApplicationService(PlatformAccountApplicationRepo repo,
                                              PlatformOrgRepo platformOrgRepo,
@@ -53,7 +52,8 @@ public class PlatformAccountApplicationService {
                                              CustomerMasterDataService customerMasterDataService,
                                              TempDataService tempDataService,
                                              ContractRepo contractRepo,
-                                             UserRepo userRepo) {
+                                             UserRepo userRepo,
+                                             DocumentNumberService documentNumberService) {
         this.repo = repo;
         this.platformOrgRepo = platformOrgRepo;
         this.platformOrgService = platformOrgService;
@@ -62,6 +62,7 @@ public class PlatformAccountApplicationService {
         this.tempDataService = tempDataService;
         this.contractRepo = contractRepo;
         this.userRepo = userRepo;
+        this.documentNumberService = documentNumberService;
     }
 
     private String resolveApplicantName(Long applicantId) {
@@ -448,19 +449,7 @@ public class PlatformAccountApplicationService {
     }
 
     private String generateApplicationNo() {
-        String prefix = "APP-" + LocalDate.now().format(DATE_FORMAT) + "-";
-        int nextSeq = 1;
-        String latest = repo.findTopByApplicationNoStartingWithOrderByApplicationNoDesc(prefix)
-                .map(PlatformAccountApplicationEntity::getApplicationNo)
-                .orElse(null);
-        if (latest != null && latest.startsWith(prefix)) {
-            String seqStr = latest.substring(prefix.length());
-            try {
-                nextSeq = Integer.parseInt(seqStr) + 1;
-            } catch (NumberFormatException ignored) {
-            }
-        }
-        return prefix + String.format("%03d", nextSeq);
+        return documentNumberService.next(DocumentType.PLATFORM_ACCOUNT_APPLICATION);
     }
 
     private String trimToNull(String value) {
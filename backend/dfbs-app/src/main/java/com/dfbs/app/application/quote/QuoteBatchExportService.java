@@ -0,0 +1,157 @@
+package com.dfbs.app.application.quote;
+
+import com.dfbs.app.application.quote.dto.QuoteBatchExportRequest;
+import com.dfbs.app.application.quote.dto.QuoteFilterRequest;
+import com.dfbs.app.config.CurrentUserProvider;
+import com.dfbs.app.modules.quote.QuoteEntity;
+import com.dfbs.app.modules.quote.QuoteRepo;
+import com.dfbs.app.modules.quote.QuoteSpecification;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Many quotes in one ZIP. prepare() runs on the request thread (loads the quotes, captures the current user);
+ * writeZip() then loads items per page of quotes with one IN query, renders the page in parallel and writes
+ * entries in quote order as they finish, so only one page of documents is held in memory.
+ * Quotes that are missing, not exportable or fail to render are listed in errors.txt instead of aborting the ZIP.
+ */
+@Service
+public class QuoteBatchExportService {
+
+    private static final int PAGE_SIZE = 32;
+
+    private final QuoteRepo quoteRepo;
+    private final QuoteItemService itemService;
+    private final QuoteExportService exportService;
+    private final CurrentUserProvider currentUserProvider;
+    private final int maxQuotes;
+    private final ExecutorService renderPool;
+
+    public QuoteBatchExportService(QuoteRepo quoteRepo, QuoteItemService itemService,
+                                   QuoteExportService exportService, CurrentUserProvider currentUserProvider,
+                                   @Value("${dfbs.quote.export.batch-max:500}") int maxQuotes) {
+        this.quoteRepo = quoteRepo;
+        this.itemService = itemService;
+        this.exportService = exportService;
+        this.currentUserProvider = currentUserProvider;
+        this.maxQuotes = maxQuotes;
+        AtomicInteger seq = new AtomicInteger();
+        this.renderPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread t = new Thread(r, "quote-export-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Quotes to export, in request order (ids) or creation order (filter), plus per-id problems found up front. */
+    public record Prepared(List<QuoteEntity> quotes, String format, String currentUser, List<String> errors) {}
+
+    public Prepared prepare(QuoteBatchExportRequest request) {
+        String format = "pdf".equalsIgnoreCase(request.getFormat()) ? "pdf" : "xlsx";
+        List<String> errors = new ArrayList<>();
+        List<QuoteEntity> quotes;
+        if (request.getQuoteIds() != null && !request.getQuoteIds().isEmpty()) {
+            List<Long> ids = request.getQuoteIds().stream().distinct().toList();
+            checkSize(ids.size());
+            Map<Long, QuoteEntity> byId = quoteRepo.findAllById(ids).stream()
+                    .collect(Collectors.toMap(QuoteEntity::getId, Function.identity()));
+            quotes = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                QuoteEntity quote = byId.get(id);
+                if (quote == null) {
+                    errors.add("quote " + id + ": not found");
+                } else if (!QuoteExportService.isExportable(quote.getStatus())) {
+                    errors.add("quote " + id + ": status " + quote.getStatus() + " cannot be exported");
+                } else {
+                    quotes.add(quote);
+                }
+            }
+        } else {
+            QuoteFilterRequest f = request.getFilter() != null ? request.getFilter() : new QuoteFilterRequest();
+            quotes = quoteRepo.findAll(QuoteSpecification.exportableQuotes(f.getCustomerName(),
+                    f.getCreateTimeFrom(), f.getCreateTimeTo(), f.getPaymentStatus()),
+                    Sort.by("createdAt", "id"));
+            checkSize(quotes.size());
+        }
+        return new Prepared(List.copyOf(quotes), format, currentUserProvider.getCurrentUser(), errors);
+    }
+
+    private void checkSize(int count) {
+        if (count > maxQuotes) {
+            throw new IllegalArgumentException("一次最多导出 " + maxQuotes + " 个报价单，当前 " + count + " 个");
+        }
+    }
+
+    public void writeZip(Prepared batch, OutputStream out) throws IOException {
+        List<String> errors = new ArrayList<>(batch.errors());
+        Set<String> names = new HashSet<>();
+        ZipOutputStream zip = new ZipOutputStream(out);
+        List<QuoteEntity> quotes = batch.quotes();
+        for (int from = 0; from < quotes.size(); from += PAGE_SIZE) {
+            List<QuoteEntity> page = quotes.subList(from, Math.min(from + PAGE_SIZE, quotes.size()));
+            Map<Long, List<QuoteItemService.QuoteItemDto>> items =
+                    itemService.getItemsByQuoteIds(page.stream().map(QuoteEntity::getId).toList());
+            Deque<Future<QuoteExportService.ExportResult>> pending = new ArrayDeque<>(page.size());
+            for (QuoteEntity quote : page) {
+                QuoteExportService.Submitter submitter = exportService.submitter(quote, batch.currentUser());
+                List<QuoteItemService.QuoteItemDto> quoteItems = items.getOrDefault(quote.getId(), List.of());
+                pending.add(renderPool.submit(() -> exportService.render(quote, quoteItems, submitter, batch.format())));
+            }
+            for (QuoteEntity quote : page) {
+                QuoteExportService.ExportResult result;
+                try {
+                    result = pending.removeFirst().get();
+                } catch (InterruptedException e) {
+                    pending.forEach(f -> f.cancel(true));
+                    Thread.currentThread().interrupt();
+                    throw new IOException("quote export interrupted", e);
+                } catch (ExecutionException e) {
+                    errors.add("quote " + quote.getId() + ": " + e.getCause().getMessage());
+                    continue;
+                }
+                String name = result.filename();
+                if (!names.add(name)) {
+                    name = name.replaceFirst("(\\.[a-z]+)$", "_" + quote.getId() + "$1");
+                    names.add(name);
+                }
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write(result.bytes());
+                zip.closeEntry();
+            }
+            zip.flush();
+        }
+        if (!errors.isEmpty()) {
+            zip.putNextEntry(new ZipEntry("errors.txt"));
+            zip.write(String.join("\n", errors).getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        zip.finish();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderPool.shutdownNow();
+    }
+}
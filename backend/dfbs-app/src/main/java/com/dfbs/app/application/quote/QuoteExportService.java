@@ -12,23 +12,29 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.util.CellUtil;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import com.spire.xls.FileFormat;
-import com.spire.xls.Workbook;
-
+/**
+ * Quote export to Excel (template fill) or PDF (Spire, via {@link QuotePdfConverter}).
+ * CONFIRMED quotes are cached per (quote, format) together with a hash of everything the document shows;
+ * re-exporting while the hash is unchanged returns the cached bytes without rendering.
+ */
 @Service
 public class QuoteExportService {
 
-    private static final String TEMPLATE_PATH = "templates/excel/quote_template_v3.xlsx";
-    private static final int ITEM_START_ROW = 9;  // 0-based, row 10
+    private static final int ITEM_START_ROW = QuoteExportTemplate.ITEM_START_ROW;
     private static final int PRESET_ITEM_ROWS = 9;
     private static final int TOTAL_ROW_ORIGINAL = 18;  // 0-based, row 19
     private static final int[] ITEM_COLS = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};  // A-J
@@ -38,40 +44,120 @@ public class QuoteExportService {
     private final CompanyInfoProperties companyInfo;
     private final CurrentUserProvider currentUserProvider;
     private final UserInfoProvider userInfoProvider;
+    private final QuoteExportTemplate template;
+    private final QuotePdfConverter pdfConverter;
+    private final Map<String, CachedExport> resultCache;
 
     public QuoteExportService(QuoteService quoteService, QuoteItemService itemService,
                               CompanyInfoProperties companyInfo, CurrentUserProvider currentUserProvider,
-                              UserInfoProvider userInfoProvider) {
+                              UserInfoProvider userInfoProvider, QuoteExportTemplate template,
+                              QuotePdfConverter pdfConverter,
+                              @Value("${dfbs.quote.export.cache-size:64}") int cacheSize) {
         this.quoteService = quoteService;
         this.itemService = itemService;
         this.companyInfo = companyInfo;
         this.currentUserProvider = currentUserProvider;
         this.userInfoProvider = userInfoProvider;
+        this.template = template;
+        this.pdfConverter = pdfConverter;
+        this.resultCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedExport> eldest) {
+                return size() > cacheSize;
+            }
+        });
     }
 
+    /** bytes may be shared with the result cache: read only. */
     public record ExportResult(byte[] bytes, String filename) {}
 
+    private record CachedExport(String contentHash, byte[] bytes) {}
+
+    record Submitter(String name, String phone, String office) {}
+
     public ExportResult export(Long quoteId, String format) throws Exception {
         QuoteEntity quote = quoteService.findById(quoteId)
                 .orElseThrow(() -> new IllegalStateException("quote not found: id=" + quoteId));
-        if (quote.getStatus() != QuoteStatus.DRAFT && quote.getStatus() != QuoteStatus.APPROVAL_PENDING
-                && quote.getStatus() != QuoteStatus.RETURNED && quote.getStatus() != QuoteStatus.CONFIRMED) {
+        if (!isExportable(quote.getStatus())) {
             throw new IllegalStateException("Only DRAFT, APPROVAL_PENDING, RETURNED or CONFIRMED quote can be exported");
         }
 
         List<QuoteItemService.QuoteItemDto> items = itemService.getItems(quoteId);
-        byte[] excelBytes = fillTemplate(quote, items);
-        String ext = "pdf".equalsIgnoreCase(format) ? "pdf" : "xlsx";
-        String safeNo = quote.getQuoteNo() != null ? quote.getQuoteNo().replaceAll("[^a-zA-Z0-9_-]", "_") : ("quote_" + quoteId);
+        return render(quote, items, submitter(quote, currentUserProvider.getCurrentUser()), format);
+    }
+
+    static boolean isExportable(QuoteStatus status) {
+        return status == QuoteStatus.DRAFT || status == QuoteStatus.APPROVAL_PENDING
+                || status == QuoteStatus.RETURNED || status == QuoteStatus.CONFIRMED;
+    }
+
+    /** Renders one quote; thread-safe (no request state: the submitter is resolved by the caller). */
+    ExportResult render(QuoteEntity quote, List<QuoteItemService.QuoteItemDto> items, Submitter submitter,
+                        String format) throws Exception {
+        boolean pdf = "pdf".equalsIgnoreCase(format);
+        String ext = pdf ? "pdf" : "xlsx";
+        String safeNo = quote.getQuoteNo() != null ? quote.getQuoteNo().replaceAll("[^a-zA-Z0-9_-]", "_") : ("quote_" + quote.getId());
         String filename = "quote_" + safeNo + "." + ext;
 
-        byte[] out = "pdf".equalsIgnoreCase(format) ? excelToPdf(excelBytes) : excelBytes;
+        String cacheKey = null;
+        String contentHash = null;
+        if (quote.getStatus() == QuoteStatus.CONFIRMED) {
+            cacheKey = quote.getId() + ":" + ext;
+            contentHash = contentHash(quote, items, submitter);
+            CachedExport cached = resultCache.get(cacheKey);
+            if (cached != null && cached.contentHash().equals(contentHash)) {
+                return new ExportResult(cached.bytes(), filename);
+            }
+        }
+
+        byte[] excelBytes = fillTemplate(quote, items, submitter);
+        byte[] out = pdf ? pdfConverter.toPdf(excelBytes) : excelBytes;
+        if (cacheKey != null) {
+            resultCache.put(cacheKey, new CachedExport(contentHash, out));
+        }
         return new ExportResult(out, filename);
     }
 
-    private byte[] fillTemplate(QuoteEntity quote, List<QuoteItemService.QuoteItemDto> items) throws Exception {
-        try (var resource = new ClassPathResource(TEMPLATE_PATH).getInputStream();
-             org.apache.poi.ss.usermodel.Workbook poiWorkbook = new XSSFWorkbook(resource)) {
+    /** Use assigneeId if available, otherwise fall back to createdBy (or currentUser). */
+    Submitter submitter(QuoteEntity quote, String currentUser) {
+        UserInfoProvider.UserInfo userInfo = null;
+        if (quote.getAssigneeId() != null) {
+            userInfo = userInfoProvider.getUserInfo(quote.getAssigneeId());
+        }
+        String submitterName = userInfo != null ? userInfo.name() :
+                (quote.getCreatedBy() != null ? quote.getCreatedBy() : currentUser);
+        String submitterPhone = userInfo != null ? userInfo.phone() : "";
+        String submitterOffice = userInfo != null ? userInfo.office() : "";
+        return new Submitter(submitterName, submitterPhone, submitterOffice);
+    }
+
+    /** SHA-256 over every value fillTemplate writes (plus the template path), so any visible change misses the cache. */
+    private String contentHash(QuoteEntity quote, List<QuoteItemService.QuoteItemDto> items, Submitter submitter)
+            throws Exception {
+        StringBuilder sb = new StringBuilder(256 + items.size() * 64);
+        append(sb, QuoteExportTemplate.TEMPLATE_PATH, quote.getQuoteNo(), quote.getRecipient(), quote.getCustomerId(),
+                quote.getPhone(), quote.getAddress(), quote.getCurrency(),
+                companyInfo.getName(), companyInfo.getBankName(), companyInfo.getBankNo(), companyInfo.getAccountNo(),
+                companyInfo.getTaxNo(), companyInfo.getPhone(), companyInfo.getAddress(),
+                submitter.name(), submitter.phone(), submitter.office());
+        for (QuoteItemService.QuoteItemDto item : items) {
+            append(sb, item.getExpenseType(), item.getDescription(), item.getSpec(), item.getUnit(),
+                    item.getQuantity(), item.getUnitPrice(), item.getAmount(), item.getWarehouse(), item.getRemark());
+        }
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void append(StringBuilder sb, Object... values) {
+        for (Object v : values) {
+            sb.append(v instanceof BigDecimal d ? d.toPlainString() : String.valueOf(v)).append('\u001f');
+        }
+        sb.append('\u001e');
+    }
+
+    private byte[] fillTemplate(QuoteEntity quote, List<QuoteItemService.QuoteItemDto> items, Submitter submitter)
+            throws Exception {
+        try (XSSFWorkbook poiWorkbook = template.open()) {
             Sheet sheet = poiWorkbook.getSheetAt(0);
 
             String customerName = quote.getRecipient() != null ? quote.getRecipient() : ("客户#" + quote.getCustomerId());
@@ -90,8 +176,7 @@ public class QuoteExportService {
             h9.setCellValue("金额（" + unitLabel + "）");
 
             int size = items.size();
-            Row templateRow = sheet.getRow(ITEM_START_ROW);
-            CellStyle[] styles = templateRow != null ? copyRowStyles(templateRow, poiWorkbook) : null;
+            CellStyle[] styles = itemStyles(poiWorkbook);
 
             if (size <= PRESET_ITEM_ROWS) {
                 for (int i = 0; i < PRESET_ITEM_ROWS; i++) {
@@ -160,20 +245,10 @@ public class QuoteExportService {
             setCellValue(sheet, bankRowIdx + 4, 1, "电话：" + companyInfo.getPhone());
             setCellValue(sheet, bankRowIdx + 5, 1, "地址：" + companyInfo.getAddress());
 
-            // Use assigneeId if available, otherwise fall back to createdBy
-            UserInfoProvider.UserInfo userInfo = null;
-            if (quote.getAssigneeId() != null) {
-                userInfo = userInfoProvider.getUserInfo(quote.getAssigneeId());
-            }
-            String submitterName = userInfo != null ? userInfo.name() : 
-                    (quote.getCreatedBy() != null ? quote.getCreatedBy() : currentUserProvider.getCurrentUser());
-            String submitterPhone = userInfo != null ? userInfo.phone() : "";
-            String submitterOffice = userInfo != null ? userInfo.office() : "";
-
             ensureRow(sheet, bankRowIdx + 6);
-            setCellValue(sheet, bankRowIdx + 6, 1, "提交人：" + (submitterName != null ? submitterName : ""));
-            setCellValue(sheet, bankRowIdx + 7, 1, "电话：" + submitterPhone);
-            setCellValue(sheet, bankRowIdx + 8, 1, "办事处：" + submitterOffice);
+            setCellValue(sheet, bankRowIdx + 6, 1, "提交人：" + (submitter.name() != null ? submitter.name() : ""));
+            setCellValue(sheet, bankRowIdx + 7, 1, "电话：" + submitter.phone());
+            setCellValue(sheet, bankRowIdx + 8, 1, "办事处：" + submitter.office());
 
             ByteArrayOutputStream out = new ByteArrayOutputStream();
             poiWorkbook.write(out);
@@ -226,15 +301,12 @@ public class QuoteExportService {
         }
     }
 
-    private static CellStyle[] copyRowStyles(Row row, org.apache.poi.ss.usermodel.Workbook workbook) {
-        CellStyle[] styles = new CellStyle[10];
-        for (int i = 0; i < 10; i++) {
-            Cell c = row.getCell(i);
-            if (c != null && c.getCellStyle() != null) {
-                CellStyle copy = workbook.createCellStyle();
-                copy.cloneStyleFrom(c.getCellStyle());
-                styles[i] = copy;
-            }
+    /** The template's item-row styles, looked up by their cached index (no per-export style clones). */
+    private CellStyle[] itemStyles(XSSFWorkbook workbook) {
+        short[] indexes = template.itemStyleIndexes();
+        CellStyle[] styles = new CellStyle[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] >= 0) styles[i] = workbook.getCellStyleAt(indexes[i]);
         }
         return styles;
     }
@@ -275,12 +347,4 @@ public class QuoteExportService {
         }
         return sb.toString();
     }
-
-    private byte[] excelToPdf(byte[] excelBytes) throws Exception {
-        Workbook workbook = new Workbook();
-        workbook.loadFromStream(new ByteArrayInputStream(excelBytes));
-        ByteArrayOutputStream pdfOut = new ByteArrayOutputStream();
-        workbook.saveToStream(pdfOut, FileFormat.PDF);
-        return pdfOut.toByteArray();
-    }
 }
@@ -0,0 +1,67 @@
+package com.dfbs.app.application.quote;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * The quote Excel template, read from the classpath once. The bytes and the item-row style indexes are immutable;
+ * open() parses a private workbook per export (POI workbooks are mutable and not thread-safe), whose item rows reuse
+ * the template's own styles by index instead of cloning new ones.
+ */
+@Component
+public class QuoteExportTemplate {
+
+    static final String TEMPLATE_PATH = "templates/excel/quote_template_v3.xlsx";
+    static final int ITEM_START_ROW = 9;  // 0-based, row 10
+    static final int ITEM_COL_COUNT = 10;  // A-J
+
+    private volatile Loaded loaded;
+
+    private record Loaded(byte[] bytes, short[] itemStyleIndexes) {}
+
+    /** New workbook parsed from the cached template bytes; caller closes it. */
+    public XSSFWorkbook open() throws IOException {
+        return new XSSFWorkbook(new ByteArrayInputStream(load().bytes()));
+    }
+
+    /** Style index per item column (A-J) of the template's first item row; -1 where the template has no cell. */
+    public short[] itemStyleIndexes() {
+        return load().itemStyleIndexes().clone();
+    }
+
+    private Loaded load() {
+        Loaded l = loaded;
+        if (l != null) return l;
+        synchronized (this) {
+            if (loaded == null) {
+                loaded = read();
+            }
+            return loaded;
+        }
+    }
+
+    private static Loaded read() {
+        try (InputStream in = new ClassPathResource(TEMPLATE_PATH).getInputStream()) {
+            byte[] bytes = in.readAllBytes();
+            short[] styles = new short[ITEM_COL_COUNT];
+            try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(bytes))) {
+                Row row = workbook.getSheetAt(0).getRow(ITEM_START_ROW);
+                for (int i = 0; i < ITEM_COL_COUNT; i++) {
+                    Cell c = row != null ? row.getCell(i) : null;
+                    styles[i] = c != null && c.getCellStyle() != null ? c.getCellStyle().getIndex() : -1;
+                }
+            }
+            return new Loaded(bytes, styles);
+        } catch (IOException e) {
+            throw new UncheckedIOException("quote template not readable: " + TEMPLATE_PATH, e);
+        }
+    }
+}
@@ -21,7 +21,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -281,15 +284,64 @@ public class QuoteItemService {
 
     @Transactional(readOnly = true)
     public List<QuoteItemDto> getItems(Long quoteId) {
+        return toDtos(itemRepo.findByQuoteIdOrderByLineOrderAsc(quoteId));
+    }
+
+    /**
+     * Current contract price suggestion for every line of the quote (item id -&gt; suggestion), resolved with one
+     * index lookup per quote. Lines without an expense type or matching contract, and quotes without customer, are absent.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, PriceSuggestionDto> suggestPrices(Long quoteId) {
+        QuoteEntity quote = quoteRepo.findById(quoteId)
+                .orElseThrow(() -> new IllegalStateException("quote not found: id=" + quoteId));
         List<QuoteItemEntity> items = itemRepo.findByQuoteIdOrderByLineOrderAsc(quoteId);
-        return items.stream()
-                .map(item -> {
-                    String alertMessage = (item.getWarehouse() == QuoteItemWarehouse.HEADQUARTERS)
-                            ? "需提醒总部发货"
-                            : null;
-                    return QuoteItemDto.from(item, alertMessage);
-                })
+        Map<QuoteExpenseType, PriceSuggestionDto> byType = contractPriceService.calculateSuggestedPrices(
+                quote.getCustomerId(), LocalDate.now(),
+                items.stream().map(QuoteItemEntity::getExpenseType).toList());
+        Map<Long, PriceSuggestionDto> result = new LinkedHashMap<>();
+        for (QuoteItemEntity item : items) {
+            PriceSuggestionDto suggestion = item.getExpenseType() != null ? byType.get(item.getExpenseType()) : null;
+            if (suggestion != null) result.put(item.getId(), suggestion);
+        }
+        return result;
+    }
+
+    /** Items of several quotes in one query, grouped by quote id (line order kept); quotes without items are absent. */
+    public Map<Long, List<QuoteItemDto>> getItemsByQuoteIds(Collection<Long> quoteIds) {
+        if (quoteIds.isEmpty()) return Map.of();
+        return toDtos(itemRepo.findByQuoteIdInOrderByQuoteIdAscLineOrderAsc(quoteIds)).stream()
+                .collect(Collectors.groupingBy(QuoteItemDto::getQuoteId, LinkedHashMap::new, Collectors.toList()));
+    }
+
+    /**
+     * Items saved before label snapshots existed have none; they get the current dictionary label, resolved for
+     * all rows at once.
+     */
+    private List<QuoteItemDto> toDtos(List<QuoteItemEntity> items) {
+        List<QuoteItemDto> dtos = items.stream()
+                .map(QuoteItemService::toDto)
                 .collect(Collectors.toList());
+        List<String> missing = dtos.stream()
+                .filter(d -> d.expenseTypeLabelSnapshot == null && d.expenseType != null)
+                .map(d -> d.expenseType.name())
+                .toList();
+        if (!missing.isEmpty()) {
+            Map<String, String> labels = dictionaryReadService.resolveLabels(QUOTE_EXPENSE_TYPE_CODE, missing);
+            for (QuoteItemDto d : dtos) {
+                if (d.expenseTypeLabelSnapshot == null && d.expenseType != null) {
+                    d.expenseTypeLabelSnapshot = labels.get(d.expenseType.name());
+                }
+            }
+        }
+        return dtos;
+    }
+
+    private static QuoteItemDto toDto(QuoteItemEntity item) {
+        String alertMessage = (item.getWarehouse() == QuoteItemWarehouse.HEADQUARTERS)
+                ? "需提醒总部发货"
+                : null;
+        return QuoteItemDto.from(item, alertMessage);
     }
 
     /** Command for creating an item. */
@@ -0,0 +1,66 @@
+package com.dfbs.app.application.quote;
+
+import com.dfbs.app.modules.quote.QuoteSequenceRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-(userInitials, YYMM) sequence allocator backed by an atomic upsert on quote_number_sequence (safe across nodes).
+ * blockSize = 1 (default): one upsert per number inside the caller's transaction, so numbers stay gap-free and a
+ * rolled-back quote gives its number back. blockSize &gt; 1 (dfbs.quote.number-block-size): each node reserves a
+ * block in its own short transaction and hands numbers out locally; unused numbers of a block are lost on restart,
+ * so sequences may have gaps and are only increasing per node.
+ */
+@Component
+public class QuoteNumberAllocator {
+
+    private record Key(String userInitials, String yearMonth) {}
+
+    /** Reserved range [next, last]; guarded by its own monitor. Empty until first refill. */
+    private static final class Block {
+        private int next = 1;
+        private int last = 0;
+    }
+
+    private final QuoteSequenceRepo sequenceRepo;
+    private final TransactionTemplate newTx;
+    private final int blockSize;
+    private final Map<Key, Block> blocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public QuoteNumberAllocator(QuoteSequenceRepo sequenceRepo,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${dfbs.quote.number-block-size:1}") int blockSize) {
+        this.sequenceRepo = sequenceRepo;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    /** Next sequence value for (userInitials, yearMonth), starting at 1. */
+    public int next(String userInitials, String yearMonth) {
+        if (blockSize == 1) {
+            return sequenceRepo.allocate(userInitials, yearMonth, 1);
+        }
+        Key key = new Key(userInitials, yearMonth);
+        if (!blocks.containsKey(key)) {
+            blocks.keySet().removeIf(other -> !other.yearMonth().equals(yearMonth));
+        }
+        Block block = blocks.computeIfAbsent(key, k -> new Block());
+        synchronized (block) {
+            if (block.next > block.last) {
+                Integer last = newTx.execute(status -> sequenceRepo.allocate(userInitials, yearMonth, blockSize));
+                block.next = last - blockSize + 1;
+                block.last = last;
+            }
+            return block.next++;
+        }
+    }
+}
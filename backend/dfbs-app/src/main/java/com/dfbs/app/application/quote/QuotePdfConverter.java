@@ -0,0 +1,73 @@
+package com.dfbs.app.application.quote;
+
+import com.spire.xls.FileFormat;
+import com.spire.xls.Workbook;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Excel -> PDF (Spire) on a dedicated bounded pool, so a burst of PDF exports cannot occupy every request thread
+ * or the heap. At most dfbs.quote.export.pdf-workers conversions run; up to pdf-queue-capacity wait; beyond that
+ * callers get "busy" at once.
+ */
+@Component
+public class QuotePdfConverter {
+
+    private final ThreadPoolExecutor pool;
+
+    public QuotePdfConverter(@Value("${dfbs.quote.export.pdf-workers:2}") int workers,
+                             @Value("${dfbs.quote.export.pdf-queue-capacity:32}") int queueCapacity) {
+        int n = Math.max(1, workers);
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "quote-pdf-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /** Converts on the pool and waits for the result. */
+    public byte[] toPdf(byte[] excelBytes) throws Exception {
+        Future<byte[]> future;
+        try {
+            future = pool.submit(() -> convert(excelBytes));
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("PDF 导出繁忙，请稍后重试");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private static byte[] convert(byte[] excelBytes) {
+        Workbook workbook = new Workbook();
+        workbook.loadFromStream(new ByteArrayInputStream(excelBytes));
+        ByteArrayOutputStream pdfOut = new ByteArrayOutputStream();
+        workbook.saveToStream(pdfOut, FileFormat.PDF);
+        return pdfOut.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
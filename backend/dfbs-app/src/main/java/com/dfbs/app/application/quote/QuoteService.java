@@ -229,9 +229,7 @@ public class QuoteService {
         String title = String.format("报价单已付清后作废: %s", quote.getQuoteNo());
         String content = reason != null ? reason : ("报价单 " + quote.getQuoteNo() + " 已作废");
         String targetUrl = String.format("/quotes/%d", quote.getId());
-        for (Long leaderId : leaderIds) {
-            notificationService.send(leaderId, title, content, targetUrl);
-        }
+        notificationService.sendBatch(leaderIds, title, content, targetUrl);
     }
 
     /**
@@ -277,10 +275,8 @@ public class QuoteService {
                 quote.getCurrency() != null ? quote.getCurrency().name() : "CNY");
         String targetUrl = String.format("/quotes/%d", quote.getId());
         
-        // Send notification to each leader
-        for (Long leaderId : leaderIds) {
-            notificationService.send(leaderId, title, content, targetUrl);
-        }
+        // Send notification to all leaders
+        notificationService.sendBatch(leaderIds, title, content, targetUrl);
     }
     
     /**
@@ -757,14 +753,12 @@ public class QuoteService {
             return;  // No warehouse users configured, skip
         }
         
-        // Send notification to each warehouse user
+        // Send notification to all warehouse users
         String title = String.format("新报价单需发货: %s", quote.getQuoteNo());
         String content = String.format("报价单 %s 包含总部仓库明细项，请准备发货。", quote.getQuoteNo());
         String targetUrl = String.format("/quotes/%d", quote.getId());
         
-        for (Long userId : warehouseUserIds) {
-            notificationService.send(userId, title, content, targetUrl);
-        }
+        notificationService.sendBatch(warehouseUserIds, title, content, targetUrl);
         
         // Mark as sent and save
         quote.setIsWarehouseCcSent(true);
@@ -790,14 +784,12 @@ public class QuoteService {
             return;  // No warehouse users configured, skip
         }
         
-        // Send notification to each warehouse user
+        // Send notification to all warehouse users
         String title = String.format("报价单已确认，请安排发货: %s", quote.getQuoteNo());
         String content = String.format("报价单 %s 已确认，包含总部仓库明细项，请安排发货。", quote.getQuoteNo());
         String targetUrl = String.format("/quotes/%d", quote.getId());
         
-        for (Long userId : warehouseUserIds) {
-            notificationService.send(userId, title, content, targetUrl);
-        }
+        notificationService.sendBatch(warehouseUserIds, title, content, targetUrl);
         
         // Mark as sent and save
         quote.setIsWarehouseShipSent(true);
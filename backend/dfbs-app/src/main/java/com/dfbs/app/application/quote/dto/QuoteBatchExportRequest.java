@@ -0,0 +1,14 @@
+package com.dfbs.app.application.quote.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/** Bulk export: explicit quote ids, or (when ids are empty) every exportable quote matching filter. */
+@Data
+public class QuoteBatchExportRequest {
+    private List<Long> quoteIds;
+    private QuoteFilterRequest filter;
+    /** xlsx (default) or pdf, for every document in the ZIP. */
+    private String format;
+}
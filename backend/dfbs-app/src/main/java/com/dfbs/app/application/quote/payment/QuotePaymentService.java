@@ -10,6 +10,7 @@ import com.dfbs.app.modules.statement.AccountStatementRepo;
 import com.dfbs.app.modules.statement.StatementStatus;
 import com.dfbs.app.modules.quote.QuoteItemEntity;
 import com.dfbs.app.modules.quote.QuoteItemRepo;
+import com.dfbs.app.modules.quote.QuoteItemTotal;
 import com.dfbs.app.modules.quote.QuoteRepo;
 import com.dfbs.app.modules.quote.enums.Currency;
 import com.dfbs.app.modules.quote.enums.PaymentStatus;
@@ -26,8 +27,14 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class QuotePaymentService {
@@ -79,7 +86,8 @@ public class QuotePaymentService {
     public QuotePaymentEntity submit(Long quoteId, BigDecimal amount, Long methodId,
                                      LocalDateTime paidAt, Long submitterId, boolean isFinance,
                                      String attachmentUrls, String paymentBatchNo, Currency currency, String note) {
-        QuoteEntity quote = quoteRepo.findById(quoteId)
+        // Locked: concurrent submissions and confirmations of one quote check the unpaid amount one at a time.
+        QuoteEntity quote = quoteRepo.findByIdForUpdate(quoteId)
                 .orElseThrow(() -> new IllegalStateException("Quote not found: id=" + quoteId));
 
         if (quote.getVoidStatus() == QuoteVoidStatus.APPLYING) {
@@ -159,6 +167,31 @@ public class QuotePaymentService {
         return total.subtract(confirmed).setScale(2, RoundingMode.HALF_UP);
     }
 
+    /**
+     * Unpaid amount per quote for many quotes: one item-total and one confirmed-payment query.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> getUnpaidAmounts(Collection<Long> quoteIds) {
+        Map<Long, BigDecimal> unpaid = new HashMap<>();
+        if (quoteIds.isEmpty()) {
+            return unpaid;
+        }
+        for (Long quoteId : quoteIds) {
+            unpaid.put(quoteId, BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP));
+        }
+        for (QuoteItemTotal t : itemRepo.sumAmountByQuoteIdIn(quoteIds)) {
+            if (t.total() != null) {
+                unpaid.put(t.quoteId(), t.total().setScale(2, RoundingMode.HALF_UP));
+            }
+        }
+        for (QuotePaymentTotal t : paymentRepo.sumConfirmedByQuoteIdIn(quoteIds)) {
+            if (t.total() != null) {
+                unpaid.computeIfPresent(t.quoteId(), (id, total) -> total.subtract(t.total()).setScale(2, RoundingMode.HALF_UP));
+            }
+        }
+        return unpaid;
+    }
+
     /**
      * Calculate total confirmed amount (sum of payments where isFinanceConfirmed = true).
      */
@@ -182,10 +215,10 @@ public class QuotePaymentService {
     @Transactional
     public QuotePaymentEntity financeConfirm(Long paymentId, String action, Long confirmerId,
                                              String confirmNote, String overpaymentStrategy) {
-        QuotePaymentEntity payment = paymentRepo.findById(paymentId)
+        QuotePaymentEntity payment = paymentRepo.findByIdForUpdate(paymentId)
                 .orElseThrow(() -> new IllegalStateException("Payment not found: id=" + paymentId));
 
-        QuoteEntity quote = quoteRepo.findById(payment.getQuoteId())
+        QuoteEntity quote = quoteRepo.findByIdForUpdate(payment.getQuoteId())
                 .orElseThrow(() -> new IllegalStateException("Quote not found"));
 
         // Logic Freeze: If voidStatus == APPLYING, BLOCK the action
@@ -314,7 +347,7 @@ public class QuotePaymentService {
     }
 
     /**
-     * Create batch payment: one payment per quote (amount = quote.unpaidAmount), linked by batchNo.
+     * Create batch payment: one payment per quote (amount = unpaid amount less payments awaiting confirmation), linked by batchNo.
      * When statementId is set: use statement's quote IDs, validate amount/currency/customerId, then set statement RECONCILED.
      */
     @Transactional
@@ -331,7 +364,7 @@ public class QuotePaymentService {
 
         List<Long> quoteIdsToUse = request.getQuoteIds();
         if (request.getStatementId() != null) {
-            AccountStatementEntity st = statementRepo.findById(request.getStatementId())
+            AccountStatementEntity st = statementRepo.findByIdForUpdate(request.getStatementId())
                     .orElseThrow(() -> new IllegalArgumentException("Statement not found: id=" + request.getStatementId()));
             if (st.getStatus() != StatementStatus.PENDING) {
                 throw new IllegalArgumentException("对账单已核销，无法用于回款");
@@ -360,10 +393,18 @@ public class QuotePaymentService {
             throw new IllegalArgumentException("quoteIds 不能为空");
         }
 
-        List<QuoteEntity> quotes = new ArrayList<>();
-        for (Long id : quoteIdsToUse) {
-            quotes.add(quoteRepo.findById(id)
-                    .orElseThrow(() -> new IllegalArgumentException("Quote not found: id=" + id)));
+        // Quotes are locked (in id order) until commit, so a concurrent submission or confirmation cannot change
+        // the unpaid amounts allocated here.
+        Set<Long> requestedIds = new LinkedHashSet<>(quoteIdsToUse);
+        Map<Long, QuoteEntity> lockedById = quoteRepo.findAllByIdForUpdate(requestedIds).stream()
+                .collect(Collectors.toMap(QuoteEntity::getId, q -> q));
+        List<QuoteEntity> quotes = new ArrayList<>(requestedIds.size());
+        for (Long id : requestedIds) {
+            QuoteEntity q = lockedById.get(id);
+            if (q == null) {
+                throw new IllegalArgumentException("Quote not found: id=" + id);
+            }
+            quotes.add(q);
         }
 
         Long firstCustomerId = quotes.get(0).getCustomerId();
@@ -390,15 +431,23 @@ public class QuotePaymentService {
             }
         }
 
+        // Allocatable = unpaid - payments still awaiting finance confirmation, so a second batch over the same
+        // quotes (serialized by the locks above) sees the first one and cannot allocate the same amount again.
+        Map<Long, BigDecimal> unpaidById = getUnpaidAmounts(requestedIds);
+        Map<Long, BigDecimal> pendingById = paymentRepo.sumSubmittedByQuoteIdIn(requestedIds).stream()
+                .filter(t -> t.total() != null)
+                .collect(Collectors.toMap(QuotePaymentTotal::quoteId, QuotePaymentTotal::total));
         BigDecimal sumExpected = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
         for (QuoteEntity q : quotes) {
-            if (q.getPaymentStatus() == QuotePaymentStatus.PAID) {
-                throw new IllegalArgumentException("存在未收金额为 0 的报价单，无法合并回款");
+            BigDecimal pending = pendingById.getOrDefault(q.getId(), BigDecimal.ZERO);
+            BigDecimal unpaid = unpaidById.get(q.getId()).subtract(pending).setScale(2, RoundingMode.HALF_UP);
+            if (unpaid.compareTo(BigDecimal.ZERO) <= 0 && pending.compareTo(BigDecimal.ZERO) > 0) {
+                throw new IllegalArgumentException("存在待财务确认的付款记录，报价单已无可回款金额，无法合并回款: quoteId=" + q.getId());
             }
-            BigDecimal unpaid = getUnpaidAmount(q.getId());
-            if (unpaid.compareTo(BigDecimal.ZERO) <= 0) {
+            if (q.getPaymentStatus() == QuotePaymentStatus.PAID || unpaid.compareTo(BigDecimal.ZERO) <= 0) {
                 throw new IllegalArgumentException("存在未收金额为 0 的报价单，无法合并回款");
             }
+            unpaidById.put(q.getId(), unpaid);
             sumExpected = sumExpected.add(unpaid);
         }
         if (request.getTotalPaymentAmount().compareTo(sumExpected) != 0) {
@@ -416,12 +465,12 @@ public class QuotePaymentService {
         LocalDateTime paidAt = request.getPaymentTime();
         Currency currency = requestCurrency != null ? requestCurrency : firstCurrency;
 
-        List<QuotePaymentEntity> created = new ArrayList<>();
+        LocalDateTime submittedAt = LocalDateTime.now();
+        List<QuotePaymentEntity> payments = new ArrayList<>(quotes.size());
         for (QuoteEntity quote : quotes) {
-            BigDecimal amount = getUnpaidAmount(quote.getId());
             QuotePaymentEntity payment = new QuotePaymentEntity();
             payment.setQuoteId(quote.getId());
-            payment.setAmount(amount);
+            payment.setAmount(unpaidById.get(quote.getId()));
             payment.setMethodId(request.getPaymentMethodId());
             payment.setPaidAt(paidAt);
             payment.setPaymentTime(paidAt);
@@ -429,13 +478,13 @@ public class QuotePaymentService {
             payment.setCurrency(currency);
             payment.setNote(request.getNote());
             payment.setSubmitterId(operatorId);
-            payment.setSubmittedAt(LocalDateTime.now());
+            payment.setSubmittedAt(submittedAt);
             payment.setAttachmentUrls(attachmentUrlsStr);
             payment.setIsFinanceConfirmed(false);
             payment.setStatus(PaymentStatus.SUBMITTED);
-            payment = paymentRepo.save(payment);
-            created.add(payment);
+            payments.add(payment);
         }
+        List<QuotePaymentEntity> created = paymentRepo.saveAll(payments);
 
         notificationService.send(MOCK_FINANCE_NOTIFY_USER_ID,
                 "合并回款待确认",
@@ -0,0 +1,215 @@
+package com.dfbs.app.application.retention;
+
+import com.dfbs.app.modules.retention.RetentionRunEntity;
+import com.dfbs.app.modules.retention.RetentionRunRepo;
+import com.dfbs.app.modules.retention.RetentionRunStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deletes expired rows in bounded batches: each batch is one DELETE of at most batchSize ids in its own short
+ * transaction (joined to the caller's transaction if there is one), with a pause between batches so the run
+ * never holds long locks or writes a burst of WAL. A retention_run row advances with every batch.
+ * Range-partitioned tables first lose whole partitions that lie before the cutoff (DETACH + DROP, no row deletes).
+ */
+@Component
+public class RetentionEngine {
+
+    private static final Pattern PARTITION_RANGE = Pattern.compile("FROM \\('([^']+)'\\) TO \\('([^']+)'\\)");
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /** Child partition name and range [lowerBound, upperBound) (nulls for DEFAULT / MINVALUE / MAXVALUE bounds). */
+    public record Partition(String name, LocalDateTime lowerBound, LocalDateTime upperBound) {
+
+        boolean covers(LocalDateTime t) {
+            return lowerBound != null && upperBound != null && !t.isBefore(lowerBound) && t.isBefore(upperBound);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RetentionRunRepo runRepo;
+    private final TransactionTemplate batchTx;
+    private final int batchSize;
+    private final long pauseMs;
+    private final int maxBatchesPerRun;
+
+    @Autowired
+    public RetentionEngine(JdbcTemplate jdbcTemplate, RetentionRunRepo runRepo,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${dfbs.retention.batch-size:5000}") int batchSize,
+                           @Value("${dfbs.retention.pause-ms:200}") long pauseMs,
+                           @Value("${dfbs.retention.max-batches-per-run:0}") int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.runRepo = runRepo;
+        this.batchTx = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.pauseMs = Math.max(0, pauseMs);
+        this.maxBatchesPerRun = Math.max(0, maxBatchesPerRun);
+    }
+
+    /** Runs policy with cutoff = now - keepDays. Returns the finished run; a failed run is recorded, then rethrown. */
+    public RetentionRunEntity run(RetentionPolicy policy, LocalDateTime now) {
+        LocalDateTime cutoff = now.minusDays(policy.keepDays());
+        RetentionRunEntity run = new RetentionRunEntity();
+        run.setPolicy(policy.name());
+        run.setTableName(policy.table());
+        run.setCutoff(cutoff);
+        run.setStatus(RetentionRunStatus.RUNNING);
+        run.setStartedAt(LocalDateTime.now());
+        run = save(run);
+        try {
+            if (policy.dropPartitions()) {
+                for (Partition p : listPartitions(policy.table())) {
+                    if (p.upperBound() != null && !p.upperBound().isAfter(cutoff)) {
+                        run = dropPartition(policy.table(), p.name(), run);
+                    }
+                }
+            }
+            String sql = deleteBatchSql(policy);
+            RetentionRunStatus status = RetentionRunStatus.COMPLETED;
+            while (true) {
+                if (maxBatchesPerRun > 0 && run.getBatches() >= maxBatchesPerRun) {
+                    status = RetentionRunStatus.PARTIAL;
+                    break;
+                }
+                RetentionRunEntity current = run;
+                int[] deleted = new int[1];
+                run = batchTx.execute(tx -> {
+                    deleted[0] = jdbcTemplate.update(sql, cutoff, batchSize);
+                    current.setDeletedRows(current.getDeletedRows() + deleted[0]);
+                    current.setBatches(current.getBatches() + 1);
+                    return runRepo.save(current);
+                });
+                if (deleted[0] < batchSize) {
+                    break;
+                }
+                if (!pause()) {
+                    status = RetentionRunStatus.PARTIAL;
+                    break;
+                }
+            }
+            run.setStatus(status);
+            run.setFinishedAt(LocalDateTime.now());
+            return save(run);
+        } catch (RuntimeException e) {
+            run.setStatus(RetentionRunStatus.FAILED);
+            run.setError(truncate(e.getMessage()));
+            run.setFinishedAt(LocalDateTime.now());
+            try {
+                save(run);
+            } catch (RuntimeException recordFailure) {
+                e.addSuppressed(recordFailure);
+            }
+            throw e;
+        }
+    }
+
+    /** Partitions of table (empty if table is not partitioned). */
+    public List<Partition> listPartitions(String table) {
+        return jdbcTemplate.query(
+                "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = ? AND p.relkind = 'p' ORDER BY c.relname",
+                (rs, i) -> partition(rs.getString(1), rs.getString(2)),
+                table);
+    }
+
+    /**
+     * Creates monthly partitions "&lt;table&gt;_pYYYYMM" from the current month through monthsAhead months ahead, if
+     * table is range partitioned, for months no existing partition starts in. Returns how many were created.
+     */
+    public int ensureMonthlyPartitions(String table, LocalDate today, int monthsAhead) {
+        if (!isPartitioned(table)) {
+            return 0;
+        }
+        List<Partition> existing = listPartitions(table);
+        int created = 0;
+        YearMonth month = YearMonth.from(today);
+        for (int i = 0; i <= monthsAhead; i++, month = month.plusMonths(1)) {
+            LocalDateTime start = month.atDay(1).atStartOfDay();
+            if (existing.stream().anyMatch(p -> p.covers(start))) {
+                continue;
+            }
+            String name = table + "_p" + month.format(MONTH_SUFFIX);
+            jdbcTemplate.execute(String.format("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    name, table, month.atDay(1), month.plusMonths(1).atDay(1)));
+            created++;
+        }
+        return created;
+    }
+
+    public boolean isPartitioned(String table) {
+        Integer n = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_class WHERE relname = ? AND relkind = 'p'", Integer.class, table);
+        return n != null && n > 0;
+    }
+
+    private RetentionRunEntity dropPartition(String table, String partition, RetentionRunEntity run) {
+        return batchTx.execute(tx -> {
+            jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            run.setDroppedPartitions(run.getDroppedPartitions() + 1);
+            return runRepo.save(run);
+        });
+    }
+
+    private RetentionRunEntity save(RetentionRunEntity run) {
+        return batchTx.execute(tx -> runRepo.save(run));
+    }
+
+    private static String deleteBatchSql(RetentionPolicy policy) {
+        String where = policy.timestampColumn() + " < ?"
+                + (policy.condition() != null ? " AND (" + policy.condition() + ")" : "");
+        return "DELETE FROM " + policy.table() + " WHERE id IN (SELECT id FROM " + policy.table()
+                + " WHERE " + where + " LIMIT ?)";
+    }
+
+    /** Sleeps between batches; false if interrupted (the run stops as PARTIAL). */
+    private boolean pause() {
+        if (pauseMs == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Partition partition(String name, String boundExpr) {
+        Matcher m = boundExpr != null ? PARTITION_RANGE.matcher(boundExpr) : null;
+        if (m == null || !m.find()) {
+            return new Partition(name, null, null);
+        }
+        return new Partition(name, parseBound(m.group(1)), parseBound(m.group(2)));
+    }
+
+    private static LocalDateTime parseBound(String raw) {
+        String value = raw.trim();
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay();
+        }
+        return LocalDateTime.parse(value.substring(0, 19).replace(' ', 'T'));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
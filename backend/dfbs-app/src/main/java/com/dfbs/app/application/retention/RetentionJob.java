@@ -0,0 +1,60 @@
+package com.dfbs.app.application.retention;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nightly retention of the log tables (notification retention runs from NotificationService on the same engine).
+ * Each table is kept forever unless its dfbs.retention.*-days is set. Monthly partitions of partitioned tables
+ * are created ahead of time.
+ */
+@Component
+public class RetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentionJob.class);
+
+    private final RetentionEngine engine;
+    private final List<RetentionPolicy> policies = new ArrayList<>();
+    private final int partitionsAheadMonths;
+
+    public RetentionJob(RetentionEngine engine,
+                        @Value("${dfbs.retention.inventory-log-days:0}") int inventoryLogDays,
+                        @Value("${dfbs.retention.wh-stock-record-days:0}") int whStockRecordDays,
+                        @Value("${dfbs.retention.perm-audit-log-days:0}") int permAuditLogDays,
+                        @Value("${dfbs.retention.partitions-ahead-months:2}") int partitionsAheadMonths) {
+        this.engine = engine;
+        this.partitionsAheadMonths = partitionsAheadMonths;
+        if (inventoryLogDays > 0) {
+            policies.add(RetentionPolicy.wholeTable("inventory_log", "inventory_log", "created_at", inventoryLogDays));
+        }
+        if (whStockRecordDays > 0) {
+            policies.add(RetentionPolicy.wholeTable("wh_stock_record", "wh_stock_record", "created_at", whStockRecordDays));
+        }
+        if (permAuditLogDays > 0) {
+            policies.add(RetentionPolicy.wholeTable("perm_audit_log", "perm_audit_log", "created_at", permAuditLogDays));
+        }
+    }
+
+    @Scheduled(cron = "${dfbs.retention.cron:0 30 2 * * ?}")
+    public void runAll() {
+        LocalDateTime now = LocalDateTime.now();
+        for (String table : List.of("notification", "inventory_log", "wh_stock_record", "perm_audit_log")) {
+            engine.ensureMonthlyPartitions(table, LocalDate.now(), partitionsAheadMonths);
+        }
+        for (RetentionPolicy policy : policies) {
+            try {
+                engine.run(policy, now);
+            } catch (RuntimeException e) {
+                log.warn("Retention policy {} failed: {}", policy.name(), e.getMessage());
+            }
+        }
+    }
+}
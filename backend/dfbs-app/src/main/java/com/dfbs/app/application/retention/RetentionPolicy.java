@@ -0,0 +1,29 @@
+package com.dfbs.app.application.retention;
+
+import java.util.regex.Pattern;
+
+/**
+ * Rows of table whose timestampColumn is older than keepDays are expired; condition (optional, a fixed SQL
+ * predicate from code, never user input) narrows the rows the policy covers. dropPartitions: when table is range
+ * partitioned on timestampColumn, partitions entirely before the cutoff hold only expired rows (under every policy
+ * of the table) and may be dropped whole. The table needs an id column for batched deletes.
+ */
+public record RetentionPolicy(String name, String table, String timestampColumn, String condition,
+                              int keepDays, boolean dropPartitions) {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    public RetentionPolicy {
+        if (!IDENTIFIER.matcher(table).matches() || !IDENTIFIER.matcher(timestampColumn).matches()) {
+            throw new IllegalArgumentException("Invalid retention table/column: " + table + "." + timestampColumn);
+        }
+        if (keepDays < 1) {
+            throw new IllegalArgumentException("keepDays must be positive: " + name);
+        }
+    }
+
+    /** Policy covering every row of table. */
+    public static RetentionPolicy wholeTable(String name, String table, String timestampColumn, int keepDays) {
+        return new RetentionPolicy(name, table, timestampColumn, null, keepDays, true);
+    }
+}
@@ -261,10 +261,10 @@ public class ShipmentService {
                 m.setShipmentId(shipmentId);
                 m.setModel(model);
                 m.setMachineNo(no);
-                result.add(shipmentMachineRepo.save(m));
+                result.add(m);
             }
         }
-        return result;
+        return shipmentMachineRepo.saveAll(result);
     }
 
     private List<String> generateSequentialNos(String startNo, int count) {
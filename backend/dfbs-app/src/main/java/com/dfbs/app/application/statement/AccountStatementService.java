@@ -1,9 +1,11 @@
 package com.dfbs.app.application.statement;
 
+import com.dfbs.app.application.docnumber.DocumentNumberService;
+import com.dfbs.app.application.docnumber.DocumentType;
 import com.dfbs.app.application.quote.payment.QuotePaymentService;
 import com.dfbs.app.modules.quote.QuoteEntity;
-import com.dfbs.app.modules.quote.QuoteItemEntity;
 import com.dfbs.app.modules.quote.QuoteItemRepo;
+import com.dfbs.app.modules.quote.QuoteItemTotal;
 import com.dfbs.app.modules.quote.QuoteRepo;
 import com.dfbs.app.modules.quote.enums.Currency;
 import com.dfbs.app.modules.statement.*;
@@ -19,11 +21,18 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class AccountStatementService {
@@ -34,19 +43,22 @@ public class AccountStatementService {
     private final QuoteItemRepo quoteItemRepo;
     private final QuotePaymentService paymentService;
     private final UserRepo userRepo;
+    private final DocumentNumberService documentNumberService;
 
     public AccountStatementService(AccountStatementRepo statementRepo,
                                   AccountStatementItemRepo itemRepo,
                                   QuoteRepo quoteRepo,
                                   QuoteItemRepo quoteItemRepo,
                                   QuotePaymentService paymentService,
-                                  UserRepo userRepo) {
+                                  UserRepo userRepo,
+                                  DocumentNumberService documentNumberService) {
         this.statementRepo = statementRepo;
         this.itemRepo = itemRepo;
         this.quoteRepo = quoteRepo;
         this.quoteItemRepo = quoteItemRepo;
         this.paymentService = paymentService;
         this.userRepo = userRepo;
+        this.documentNumberService = documentNumberService;
     }
 
     /**
@@ -59,9 +71,12 @@ public class AccountStatementService {
                 .orElse(false);
     }
 
+    /** Statements created by one generate call and the number of quote lines on them. */
+    public record StatementBatch(List<AccountStatementEntity> statements, int itemCount) {}
+
     /**
      * Generate a statement from selected quotes for a customer.
-     * Validates: all quotes belong to customerId, same currency, unpaid > 0.
+     * Validates: all quotes belong to customerId, same currency, not on a PENDING statement, unpaid > 0.
      */
     @Transactional
     public AccountStatementEntity generate(Long customerId, List<Long> quoteIds, Long creatorId) {
@@ -69,10 +84,15 @@ public class AccountStatementService {
             throw new IllegalArgumentException("quoteIds 不能为空");
         }
 
+        // Locked like a statement run's quotes, so the PENDING-statement check below cannot race with one.
+        Map<Long, QuoteEntity> byId = quoteRepo.findAllByIdForUpdate(new LinkedHashSet<>(quoteIds)).stream()
+                .collect(Collectors.toMap(QuoteEntity::getId, q -> q));
         List<QuoteEntity> quotes = new ArrayList<>();
-        for (Long id : quoteIds) {
-            QuoteEntity q = quoteRepo.findById(id)
-                    .orElseThrow(() -> new IllegalArgumentException("Quote not found: id=" + id));
+        for (Long id : new LinkedHashSet<>(quoteIds)) {
+            QuoteEntity q = byId.get(id);
+            if (q == null) {
+                throw new IllegalArgumentException("Quote not found: id=" + id);
+            }
             if (!q.getCustomerId().equals(customerId)) {
                 throw new IllegalArgumentException("报价单 " + q.getQuoteNo() + " 不属于该客户");
             }
@@ -86,47 +106,109 @@ public class AccountStatementService {
             }
         }
 
-        BigDecimal totalAmount = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        Set<Long> onPending = new HashSet<>(itemRepo.findQuoteIdsOnPendingStatements(byId.keySet()));
+        for (QuoteEntity q : quotes) {
+            if (onPending.contains(q.getId())) {
+                throw new IllegalArgumentException("报价单 " + q.getQuoteNo() + " 已在待确认的对账单中");
+            }
+        }
+
+        Map<Long, BigDecimal> unpaid = paymentService.getUnpaidAmounts(byId.keySet());
         for (QuoteEntity q : quotes) {
-            BigDecimal unpaid = paymentService.getUnpaidAmount(q.getId());
-            if (unpaid.compareTo(BigDecimal.ZERO) <= 0) {
+            if (unpaid.get(q.getId()).compareTo(BigDecimal.ZERO) <= 0) {
                 throw new IllegalArgumentException("报价单 " + q.getQuoteNo() + " 无未付金额，无法加入对账单");
             }
-            totalAmount = totalAmount.add(unpaid);
         }
 
-        String statementNo = generateStatementNo();
-        String customerName = quotes.get(0).getRecipient() != null
-                ? quotes.get(0).getRecipient()
-                : ("客户#" + customerId);
+        return saveStatements(List.of(quotes), unpaid, creatorId).statements().get(0);
+    }
 
-        AccountStatementEntity header = new AccountStatementEntity();
-        header.setStatementNo(statementNo);
-        header.setCustomerId(customerId);
-        header.setCustomerName(customerName);
-        header.setCurrency(firstCurrency);
-        header.setTotalAmount(totalAmount);
-        header.setStatus(StatementStatus.PENDING);
-        header.setCreatorId(creatorId);
-        header.setCreatedAt(LocalDateTime.now());
-        header = statementRepo.save(header);
+    /**
+     * Month-end generation: one statement per (customer, currency) over the customers' open quotes
+     * (CONFIRMED / PARTIAL_PAID, unpaid &gt; 0). Quotes already on a PENDING statement are skipped, so a re-run
+     * only picks up what is new. Loads, unpaid amounts and inserts are set-based for the whole customer list.
+     * The open quotes stay row-locked until commit, so concurrent runs (or a manual {@link #generate}) over the same
+     * customer wait and then skip what this one put on a statement.
+     */
+    @Transactional
+    public StatementBatch generateForCustomers(Collection<Long> customerIds, Long creatorId) {
+        if (customerIds == null || customerIds.isEmpty()) {
+            return new StatementBatch(List.of(), 0);
+        }
+        List<QuoteEntity> open = new ArrayList<>(quoteRepo.findOpenByCustomerIdInForUpdate(customerIds));
+        if (open.isEmpty()) {
+            return new StatementBatch(List.of(), 0);
+        }
+        open.sort(Comparator.comparing(QuoteEntity::getCustomerId).thenComparing(QuoteEntity::getId));
+        List<Long> openIds = open.stream().map(QuoteEntity::getId).toList();
+        Set<Long> onPending = new HashSet<>(itemRepo.findQuoteIdsOnPendingStatements(openIds));
+        Map<Long, BigDecimal> unpaid = paymentService.getUnpaidAmounts(openIds);
 
-        for (QuoteEntity q : quotes) {
-            BigDecimal quoteTotal = calculateQuoteTotal(q.getId());
-            BigDecimal unpaid = paymentService.getUnpaidAmount(q.getId());
-            BigDecimal quotePaid = quoteTotal.subtract(unpaid).setScale(2, RoundingMode.HALF_UP);
+        Map<String, List<QuoteEntity>> groups = new LinkedHashMap<>();
+        for (QuoteEntity q : open) {
+            if (!onPending.contains(q.getId()) && unpaid.get(q.getId()).compareTo(BigDecimal.ZERO) > 0) {
+                groups.computeIfAbsent(q.getCustomerId() + ":" + q.getCurrency(), k -> new ArrayList<>()).add(q);
+            }
+        }
+        return saveStatements(new ArrayList<>(groups.values()), unpaid, creatorId);
+    }
 
-            AccountStatementItemEntity item = new AccountStatementItemEntity();
-            item.setStatementId(header.getId());
-            item.setQuoteId(q.getId());
-            item.setQuoteNo(q.getQuoteNo());
-            item.setQuoteTotal(quoteTotal);
-            item.setQuotePaid(quotePaid);
-            item.setQuoteUnpaid(unpaid);
-            itemRepo.save(item);
+    /** Customers that currently have open quotes, in id order (statement run over all customers). */
+    @Transactional(readOnly = true)
+    public List<Long> findOpenCustomerIds() {
+        return quoteRepo.findOpenCustomerIds();
+    }
+
+    /**
+     * One PENDING statement per group (same customer and currency; first quote gives the customer name).
+     * Numbers are reserved in one block; headers, then items, are inserted in JDBC batches.
+     */
+    private StatementBatch saveStatements(List<List<QuoteEntity>> groups, Map<Long, BigDecimal> unpaid, Long creatorId) {
+        if (groups.isEmpty()) {
+            return new StatementBatch(List.of(), 0);
+        }
+        Map<Long, BigDecimal> totals = quoteTotals(groups.stream().flatMap(List::stream).map(QuoteEntity::getId).toList());
+        List<String> statementNos = documentNumberService.nextBlock(DocumentType.STATEMENT, groups.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<AccountStatementEntity> headers = new ArrayList<>(groups.size());
+        for (int g = 0; g < groups.size(); g++) {
+            List<QuoteEntity> quotes = groups.get(g);
+            QuoteEntity first = quotes.get(0);
+            BigDecimal totalAmount = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+            for (QuoteEntity q : quotes) {
+                totalAmount = totalAmount.add(unpaid.get(q.getId()));
+            }
+            AccountStatementEntity header = new AccountStatementEntity();
+            header.setStatementNo(statementNos.get(g));
+            header.setCustomerId(first.getCustomerId());
+            header.setCustomerName(first.getRecipient() != null ? first.getRecipient() : ("客户#" + first.getCustomerId()));
+            header.setCurrency(first.getCurrency());
+            header.setTotalAmount(totalAmount);
+            header.setStatus(StatementStatus.PENDING);
+            header.setCreatorId(creatorId);
+            header.setCreatedAt(now);
+            headers.add(header);
         }
+        headers = statementRepo.saveAll(headers);
 
-        return statementRepo.findById(header.getId()).orElseThrow();
+        List<AccountStatementItemEntity> items = new ArrayList<>();
+        for (int g = 0; g < groups.size(); g++) {
+            for (QuoteEntity q : groups.get(g)) {
+                BigDecimal quoteTotal = totals.get(q.getId());
+                BigDecimal quoteUnpaid = unpaid.get(q.getId());
+                AccountStatementItemEntity item = new AccountStatementItemEntity();
+                item.setStatementId(headers.get(g).getId());
+                item.setQuoteId(q.getId());
+                item.setQuoteNo(q.getQuoteNo());
+                item.setQuoteTotal(quoteTotal);
+                item.setQuotePaid(quoteTotal.subtract(quoteUnpaid).setScale(2, RoundingMode.HALF_UP));
+                item.setQuoteUnpaid(quoteUnpaid);
+                items.add(item);
+            }
+        }
+        itemRepo.saveAll(items);
+        return new StatementBatch(headers, items.size());
     }
 
     /**
@@ -222,18 +304,17 @@ public class AccountStatementService {
         return statementRepo.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
     }
 
-    private BigDecimal calculateQuoteTotal(Long quoteId) {
-        List<QuoteItemEntity> items = quoteItemRepo.findByQuoteIdOrderByLineOrderAsc(quoteId);
-        return items.stream()
-                .map(QuoteItemEntity::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-    }
-
-    private String generateStatementNo() {
-        String datePrefix = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String prefix = "ST-" + datePrefix + "-";
-        long count = statementRepo.countByStatementNoStartingWith(prefix);
-        return prefix + String.format("%03d", count + 1);
+    /** Item amount total per quote (scale 2); quotes without items total zero. */
+    private Map<Long, BigDecimal> quoteTotals(Collection<Long> quoteIds) {
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        for (Long quoteId : quoteIds) {
+            totals.put(quoteId, BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP));
+        }
+        for (QuoteItemTotal t : quoteItemRepo.sumAmountByQuoteIdIn(quoteIds)) {
+            if (t.total() != null) {
+                totals.put(t.quoteId(), t.total().setScale(2, RoundingMode.HALF_UP));
+            }
+        }
+        return totals;
     }
 }
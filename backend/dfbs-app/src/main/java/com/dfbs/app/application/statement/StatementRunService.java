@@ -0,0 +1,118 @@
+package com.dfbs.app.application.statement;
+
+import com.dfbs.app.config.NodeIdentity;
+import com.dfbs.app.modules.statement.StatementRunEntity;
+import com.dfbs.app.modules.statement.StatementRunRepo;
+import com.dfbs.app.modules.statement.StatementRunStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Month-end statement runs. submit() records a QUEUED run and returns at once; a single background worker
+ * generates statements for dfbs.statement.run-chunk-size customers per transaction and writes progress after each.
+ * A failed run keeps its committed chunks; submitting again skips quotes already on a PENDING statement.
+ * Runs this node left QUEUED / RUNNING when it stopped are marked FAILED once it is up again.
+ */
+@Service
+public class StatementRunService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementRunService.class);
+
+    private final StatementRunRepo runRepo;
+    private final AccountStatementService statementService;
+    private final NodeIdentity node;
+    private final Clock clock;
+    private final int chunkSize;
+    private final ExecutorService worker;
+
+    public StatementRunService(StatementRunRepo runRepo,
+                               AccountStatementService statementService,
+                               NodeIdentity node,
+                               Clock clock,
+                               @Value("${dfbs.statement.run-chunk-size:200}") int chunkSize) {
+        this.runRepo = runRepo;
+        this.statementService = statementService;
+        this.node = node;
+        this.clock = clock;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.worker = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("statement-run-", 0).factory());
+    }
+
+    /** Queues a run over customerIds (null or empty: every customer with open quotes). */
+    public StatementRunEntity submit(List<Long> customerIds, Long creatorId) {
+        StatementRunEntity run = new StatementRunEntity();
+        run.setStatus(StatementRunStatus.QUEUED);
+        run.setWorkerNode(node.nodeId());
+        run.setCreatedBy(creatorId);
+        run.setCreatedAt(LocalDateTime.now(clock));
+        run = runRepo.save(run);
+        Long runId = run.getId();
+        List<Long> customers = customerIds != null ? List.copyOf(new LinkedHashSet<>(customerIds)) : List.of();
+        worker.execute(() -> run(runId, customers, creatorId));
+        return run;
+    }
+
+    public StatementRunEntity get(Long id) {
+        return runRepo.findById(id)
+                .orElseThrow(() -> new IllegalStateException("statement run not found: " + id));
+    }
+
+    /** Worker threads do not survive a restart: runs this node had not finished are failed (they can be re-run). */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedRuns() {
+        int failed = runRepo.failInterrupted(node.nodeId(), node.startedAt(), "服务重启，运行已中断，请重新提交",
+                LocalDateTime.now(clock));
+        if (failed > 0) {
+            log.warn("Marked {} interrupted statement run(s) of node {} as FAILED", failed, node.nodeId());
+        }
+    }
+
+    private void run(Long runId, List<Long> requested, Long creatorId) {
+        try {
+            List<Long> customers = requested.isEmpty() ? statementService.findOpenCustomerIds() : requested;
+            if (runRepo.markRunning(runId, customers.size(), LocalDateTime.now(clock)) == 0) {
+                return;
+            }
+            int done = 0;
+            int statements = 0;
+            int items = 0;
+            try {
+                for (int from = 0; from < customers.size(); from += chunkSize) {
+                    List<Long> chunk = customers.subList(from, Math.min(from + chunkSize, customers.size()));
+                    AccountStatementService.StatementBatch batch = statementService.generateForCustomers(chunk, creatorId);
+                    done += chunk.size();
+                    statements += batch.statements().size();
+                    items += batch.itemCount();
+                    runRepo.updateProgress(runId, done, statements, items);
+                }
+                runRepo.finish(runId, StatementRunStatus.SUCCEEDED, null, LocalDateTime.now(clock));
+            } catch (Exception e) {
+                log.warn("Statement run {} failed after {} customers", runId, done, e);
+                String error = e.getMessage();
+                if (error != null && error.length() > 1000) {
+                    error = error.substring(0, 1000);
+                }
+                runRepo.finish(runId, StatementRunStatus.FAILED, error, LocalDateTime.now(clock));
+            }
+        } catch (RuntimeException e) {
+            log.error("Statement run {} could not record its outcome", runId, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+}
@@ -1,7 +1,9 @@
 package com.dfbs.app.application.testdatacleaner;
 
+import com.dfbs.app.application.orgstructure.OrgNodeChangedEvent;
 import com.dfbs.app.config.RedisFlusher;
 import com.dfbs.app.interfaces.testdatacleaner.dto.TestDataCleanerExecuteResponse;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
@@ -12,10 +14,13 @@ import java.util.*;
 /**
  * Best-effort cleanup execution for Test Data Cleaner. Uses same module→tables and safety
  * rules as preview; deletes in FK-safe order (children first per 03a evidence). Clears Redis when available.
+ * Clearing the org tree publishes {@link OrgNodeChangedEvent#all()} so the in-memory org tree snapshot is dropped.
  */
 @Service
 public class TestDataCleanerExecuteService {
 
+    private static final String ORG_TREE_MODULE = "org-tree";
+
     /** Delete order: first element = delete first (child). Whitelist-only. */
     private static final Map<String, List<String>> MODULE_TABLES_DELETE_ORDER = Map.ofEntries(
             Map.entry("dashboard", List.of()),
@@ -44,21 +49,24 @@ public class TestDataCleanerExecuteService {
             Map.entry("platform-config", List.of()),
             Map.entry("org-levels", List.of()),
             Map.entry("org-tree", List.of("org_position_enabled", "org_position_binding", "person_affiliation",
-                    "job_level", "org_level_position_template", "org_person", "org_node")),
+                    "job_level", "org_level_position_template", "org_person", "org_node_closure", "org_node")),
             Map.entry("org-change-logs", List.of("org_change_log"))
     );
 
     private final JdbcTemplate jdbcTemplate;
     private final TestDataCleanerPreviewService previewService;
     private final Optional<RedisFlusher> redisFlusher;
+    private final ApplicationEventPublisher eventPublisher;
 
     public TestDataCleanerExecuteService(
             JdbcTemplate jdbcTemplate,
             TestDataCleanerPreviewService previewService,
-            java.util.Optional<RedisFlusher> redisFlusher) {
+            java.util.Optional<RedisFlusher> redisFlusher,
+            ApplicationEventPublisher eventPublisher) {
         this.jdbcTemplate = jdbcTemplate;
         this.previewService = previewService;
         this.redisFlusher = redisFlusher != null ? redisFlusher : Optional.empty();
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -93,6 +101,10 @@ public class TestDataCleanerExecuteService {
                     failed++;
                 }
             }
+            if (ORG_TREE_MODULE.equals(moduleId) && success > 0) {
+                // Raw deletes bypass the org services; each delete has committed, so this applies immediately.
+                eventPublisher.publishEvent(OrgNodeChangedEvent.all());
+            }
             String moduleStatus = failed == 0 ? "SUCCESS" : (success == 0 ? "FAILED" : "PARTIAL");
             items.add(new TestDataCleanerExecuteResponse.ModuleExecuteItemDto(
                     moduleId, tableResults, moduleDeleted, moduleStatus));
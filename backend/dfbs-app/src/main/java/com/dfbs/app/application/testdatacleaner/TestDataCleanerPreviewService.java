@@ -52,7 +52,7 @@ public class TestDataCleanerPreviewService {
             Map.entry("confirmation-center", List.of()),
             Map.entry("platform-config", List.of()),
             Map.entry("org-levels", List.of()),
-            Map.entry("org-tree", List.of("org_node", "org_person", "person_affiliation", "job_level",
+            Map.entry("org-tree", List.of("org_node", "org_node_closure", "org_person", "person_affiliation", "job_level",
                     "org_position_enabled", "org_position_binding", "org_level_position_template")),
             Map.entry("org-change-logs", List.of("org_change_log"))
     );
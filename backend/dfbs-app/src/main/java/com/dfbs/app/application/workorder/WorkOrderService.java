@@ -1,5 +1,7 @@
 package com.dfbs.app.application.workorder;
 
+import com.dfbs.app.application.docnumber.DocumentNumberService;
+import com.dfbs.app.application.docnumber.DocumentType;
 import com.dfbs.app.application.notification.NotificationService;
 import com.dfbs.app.application.warehouse.WhCoreService;
 import com.dfbs.app.application.warehouse.dto.WhOutboundReq;
@@ -28,8 +30,6 @@ import com.dfbs.app.modules.workorder.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Map;
 
 @Service
@@ -45,13 +45,15 @@ public class WorkOrderService {
     private final CurrentUserIdResolver userIdResolver;
     private final CustomerMasterDataService customerMasterDataService;
     private final TempDataService tempDataService;
+    private final DocumentNumberService documentNumberService;
 
     public WorkOrderService(QuoteRepo quoteRepo, WorkOrderRepo workOrderRepo,
                             WorkOrderRecordRepo workOrderRecordRepo, WorkOrderPartRepo workOrderPartRepo,
                             NotificationService notificationService, WhCoreService whCoreService,
                             WhWarehouseRepo whWarehouseRepo, CurrentUserIdResolver userIdResolver,
                             CustomerMasterDataService customerMasterDataService,
-                            TempDataService tempDataService) {
+                            TempDataService tempDataService,
+                            DocumentNumberService documentNumberService) {
         this.quoteRepo = quoteRepo;
         this.workOrderRepo = workOrderRepo;
         this.workOrderRecordRepo = workOrderRecordRepo;
@@ -62,6 +64,7 @@ public class WorkOrderService {
         this.userIdResolver = userIdResolver;
         this.customerMasterDataService = customerMasterDataService;
         this.tempDataService = tempDataService;
+        this.documentNumberService = documentNumberService;
     }
 
     /**
@@ -148,13 +151,13 @@ public class WorkOrderService {
     }
 
     /**
-     * Create a work order from public request (no quote). Generate orderNo = "WO-" + timestamp.
+     * Create a work order from public request (no quote). Generate orderNo = WO-yyyyMMdd-NNNN.
      * Public repair: do NOT create temp records here. Only store raw customerName; customerId stays NULL.
      * Temp/link is created only when dispatcher accepts (acceptByDispatcher).
      */
     @Transactional
     public WorkOrderEntity createPublic(WorkOrderCreateReq req) {
-        String orderNo = "WO-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        String orderNo = documentNumberService.next(DocumentType.WORK_ORDER);
         WorkOrderEntity wo = new WorkOrderEntity();
         wo.setOrderNo(orderNo);
         wo.setType(WorkOrderType.REPAIR);
@@ -0,0 +1,42 @@
+package com.dfbs.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * This application node: its id (dfbs.node-id, default the host name) and start time. In-process background jobs
+ * record the node that runs them, so a restarted node fails only its own interrupted work.
+ */
+@Component
+public class NodeIdentity {
+
+    private final String nodeId;
+    private final LocalDateTime startedAt;
+
+    public NodeIdentity(@Value("${dfbs.node-id:}") String configuredId, Clock clock) {
+        this.nodeId = configuredId != null && !configuredId.isBlank() ? configuredId.trim() : hostName();
+        this.startedAt = LocalDateTime.now(clock);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /** Work recorded by this node before this time was started by a previous process. */
+    public LocalDateTime startedAt() {
+        return startedAt;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
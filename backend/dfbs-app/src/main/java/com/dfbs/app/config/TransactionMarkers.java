@@ -0,0 +1,33 @@
+package com.dfbs.app.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Flags bound to the current transaction and cleared when it completes. In-memory caches use them to serve a
+ * transaction that changed their source data from the database (its changes are invisible to the cache until
+ * commit, and must never be cached if it rolls back).
+ */
+public final class TransactionMarkers {
+
+    private TransactionMarkers() {}
+
+    /** Sets key on the current transaction; no-op without transaction synchronization. */
+    public static void mark(Object key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(key)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(key, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(key);
+            }
+        });
+    }
+
+    public static boolean isMarked(Object key) {
+        return TransactionSynchronizationManager.hasResource(key);
+    }
+}
@@ -1,10 +1,13 @@
 package com.dfbs.app.interfaces.carrier;
 
+import com.dfbs.app.application.carrier.CarrierRecommendation;
+import com.dfbs.app.application.carrier.CarrierRuleDto;
 import com.dfbs.app.application.carrier.CarrierService;
 import com.dfbs.app.modules.carrier.CarrierEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -24,10 +27,22 @@ public class CarrierController {
     }
 
     @GetMapping("/recommend")
-    public CarrierEntity recommend(@RequestParam String address) {
+    public CarrierRecommendation recommend(@RequestParam String address) {
         return carrierService.recommendCarrier(address);
     }
 
+    /** Recommendations for many addresses (e.g. shipment import), in request order; carrier is null where none matched. */
+    @PostMapping("/recommend/batch")
+    public List<BatchRecommendation> recommendBatch(@RequestBody BatchRecommendRequest req) {
+        List<String> addresses = req != null && req.addresses() != null ? req.addresses() : List.of();
+        List<CarrierRecommendation> carriers = carrierService.recommendCarriers(addresses);
+        List<BatchRecommendation> result = new ArrayList<>(addresses.size());
+        for (int i = 0; i < addresses.size(); i++) {
+            result.add(new BatchRecommendation(addresses.get(i), carriers.get(i)));
+        }
+        return result;
+    }
+
     @GetMapping("/{id}")
     public CarrierEntity getById(@PathVariable Long id) {
         return carrierService.getById(id);
@@ -53,4 +68,27 @@ public class CarrierController {
     public void delete(@PathVariable Long id) {
         carrierService.delete(id);
     }
+
+    @GetMapping("/{id}/rules")
+    public List<CarrierRuleDto> listRules(@PathVariable Long id) {
+        return carrierService.listRules(id);
+    }
+
+    @PostMapping("/{id}/rules")
+    @ResponseStatus(HttpStatus.CREATED)
+    public CarrierRuleDto addRule(@PathVariable Long id, @RequestBody RuleRequest req) {
+        return carrierService.addRule(id, req.matchKeyword(), req.priority());
+    }
+
+    @DeleteMapping("/rules/{ruleId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteRule(@PathVariable Long ruleId) {
+        carrierService.deleteRule(ruleId);
+    }
+
+    public record BatchRecommendRequest(List<String> addresses) {}
+
+    public record BatchRecommendation(String address, CarrierRecommendation carrier) {}
+
+    public record RuleRequest(String matchKeyword, Integer priority) {}
 }
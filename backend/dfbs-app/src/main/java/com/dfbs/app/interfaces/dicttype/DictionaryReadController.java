@@ -9,6 +9,9 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/dictionaries")
 public class DictionaryReadController {
@@ -53,6 +56,18 @@ public class DictionaryReadController {
                 .body(readService.getItemsByTypeCode(typeCode, includeDisabled, parentValue, q));
     }
 
+    /**
+     * Bulk label lookup for list views: body {typeCode: [values]}, response {typeCode: {value: label}}.
+     * Unknown types/values resolve to the value itself. Read-only; no auth.
+     */
+    @PostMapping("/labels")
+    public ResponseEntity<Map<String, Map<String, String>>> resolveLabels(
+            @RequestBody Map<String, List<String>> valuesByType) {
+        return ResponseEntity.ok()
+                .headers(NO_CACHE_HEADERS)
+                .body(readService.resolveLabels(valuesByType));
+    }
+
     /** Type B: list allowed transitions (from→to) for a dict type. Read-only; no auth. */
     @GetMapping("/{typeCode}/transitions")
     public ResponseEntity<TransitionsReadResponse> getTransitions(
@@ -3,12 +3,16 @@ package com.dfbs.app.interfaces.importdata;
 import com.dfbs.app.application.importdata.ImportServiceDelegate;
 import com.dfbs.app.application.importdata.*;
 import com.dfbs.app.application.importdata.dto.ImportActionReq;
+import com.dfbs.app.application.importdata.dto.ImportJobDto;
 import com.dfbs.app.application.importdata.dto.ImportResultDto;
+import com.dfbs.app.config.CurrentUserIdResolver;
+import com.dfbs.app.modules.importdata.ImportJobEntity;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 
@@ -24,6 +28,8 @@ public class ImportController {
     private final MachineImportService machineImportService;
     private final SimCardImportService simCardImportService;
     private final ModelPartListImportService modelPartListImportService;
+    private final ImportJobService importJobService;
+    private final CurrentUserIdResolver userIdResolver;
 
     public ImportController(CustomerImportService customerImportService,
                             ContractImportService contractImportService,
@@ -31,7 +37,9 @@ public class ImportController {
                             SparePartImportService sparePartImportService,
                             MachineImportService machineImportService,
                             SimCardImportService simCardImportService,
-                            ModelPartListImportService modelPartListImportService) {
+                            ModelPartListImportService modelPartListImportService,
+                            ImportJobService importJobService,
+                            CurrentUserIdResolver userIdResolver) {
         this.customerImportService = customerImportService;
         this.contractImportService = contractImportService;
         this.machineModelImportService = machineModelImportService;
@@ -39,6 +47,36 @@ public class ImportController {
         this.machineImportService = machineImportService;
         this.simCardImportService = simCardImportService;
         this.modelPartListImportService = modelPartListImportService;
+        this.importJobService = importJobService;
+        this.userIdResolver = userIdResolver;
+    }
+
+    @Operation(summary = "Start a background import (type: CUSTOMER, CONTRACT, MACHINE_MODEL, SPARE_PART, MACHINE, SIM_CARD, MODEL_PART_LIST); returns the job at once")
+    @PostMapping(value = "/jobs", consumes = "multipart/form-data")
+    public ImportJobDto submitJob(@RequestParam("type") String type, @RequestParam("file") MultipartFile file) {
+        try (InputStream is = file.getInputStream()) {
+            ImportJobEntity job = importJobService.submit(type, file.getOriginalFilename(), is,
+                    userIdResolver.getCurrentUserId());
+            return ImportJobDto.from(job, null);
+        } catch (IOException e) {
+            throw new RuntimeException("导入失败：" + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Poll a background import (own jobs; admins: any): progress counts, status and (when finished) the result")
+    @GetMapping("/jobs/{id}")
+    public ImportJobDto getJob(@PathVariable Long id) {
+        ImportJobEntity job = importJobService.get(id, userIdResolver.getCurrentUserId(),
+                userIdResolver.isAdminOrSuperAdmin());
+        return ImportJobDto.from(job, importJobService.result(job));
+    }
+
+    @Operation(summary = "Cancel a background import (own jobs; admins: any); rows already committed stay imported")
+    @PostMapping("/jobs/{id}/cancel")
+    public ImportJobDto cancelJob(@PathVariable Long id) {
+        ImportJobEntity job = importJobService.cancel(id, userIdResolver.getCurrentUserId(),
+                userIdResolver.isAdminOrSuperAdmin());
+        return ImportJobDto.from(job, importJobService.result(job));
     }
 
     @Operation(summary = "Import customers from Excel")
@@ -118,9 +156,16 @@ public class ImportController {
         return modelPartListImportService.resolve(actions);
     }
 
+    /** Re-uploading the same file after a failure resumes after its last committed chunk (keyed by content hash). */
     private static ImportResultDto runImport(MultipartFile file, ImportServiceDelegate service) {
-        try (InputStream is = file.getInputStream()) {
-            return service.importFromExcel(is);
+        try {
+            String resumeKey;
+            try (InputStream is = file.getInputStream()) {
+                resumeKey = StreamingImportEngine.fingerprint(is);
+            }
+            try (InputStream is = file.getInputStream()) {
+                return service.importFromExcel(is, resumeKey);
+            }
         } catch (Exception e) {
             throw new RuntimeException("导入失败：" + e.getMessage());
         }
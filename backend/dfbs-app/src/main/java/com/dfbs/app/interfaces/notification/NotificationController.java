@@ -6,7 +6,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/notifications")
@@ -49,6 +51,15 @@ public class NotificationController {
         return new UnreadCountResponse(count);
     }
 
+    /**
+     * Push channel instead of polling: Server-Sent Events "unread" ({count}, sent first and on every change) and
+     * "notification" (one per new notification). Clients reconnect after the server-side timeout.
+     */
+    @GetMapping(value = "/my/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam Long userId) {
+        return service.subscribe(userId);
+    }
+
     @PostMapping("/{id}/read")
     public NotificationEntity markAsRead(@PathVariable Long id, @RequestParam Long userId) {
         return service.markAsRead(id, userId);
@@ -1,11 +1,14 @@
 package com.dfbs.app.interfaces.perm;
 
 import com.dfbs.app.application.perm.PermEnforcementService;
+import com.dfbs.app.application.perm.PermKeyRegistry;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -13,15 +16,20 @@ import java.util.stream.Collectors;
 /**
  * Current-user permission read. No PERM allowlist; uses same auth as other APIs (X-User-Id).
  * GET /api/v1/perm/me/effective-keys → { "effectiveKeys": string[] } for frontend RBAC (menu/button hiding).
+ * Compact form: GET /api/v1/perm/key-registry → { "version", "keys" } (index = key id;
+ * version = hash of the key list, refetch when it differs);
+ * GET /api/v1/perm/me/effective-mask → { "version", "mask" } (base64 of little-endian bit bytes, bit i = keys[i]).
  */
 @RestController
 @RequestMapping("/api/v1/perm")
 public class PermMeController {
 
     private final PermEnforcementService permEnforcementService;
+    private final PermKeyRegistry keyRegistry;
 
-    public PermMeController(PermEnforcementService permEnforcementService) {
+    public PermMeController(PermEnforcementService permEnforcementService, PermKeyRegistry keyRegistry) {
         this.permEnforcementService = permEnforcementService;
+        this.keyRegistry = keyRegistry;
     }
 
     @GetMapping("/me/effective-keys")
@@ -29,4 +37,22 @@ public class PermMeController {
         var keys = permEnforcementService.getEffectiveKeysForCurrentUser().stream().sorted().collect(Collectors.toList());
         return ResponseEntity.ok(Map.of("effectiveKeys", keys));
     }
+
+    @GetMapping("/key-registry")
+    public ResponseEntity<Map<String, Object>> keyRegistry() {
+        PermKeyRegistry.Layout layout = keyRegistry.current();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("version", layout.version());
+        body.put("keys", layout.keys());
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/me/effective-mask")
+    public ResponseEntity<Map<String, Object>> effectiveMask() {
+        var snapshot = permEnforcementService.getEffectiveSnapshotForCurrentUser();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("version", snapshot.version());
+        body.put("mask", Base64.getEncoder().encodeToString(snapshot.mask().toByteArray()));
+        return ResponseEntity.ok(body);
+    }
 }
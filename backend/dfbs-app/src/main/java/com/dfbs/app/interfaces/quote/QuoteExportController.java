@@ -1,6 +1,9 @@
 package com.dfbs.app.interfaces.quote;
 
+import com.dfbs.app.application.quote.QuoteBatchExportService;
 import com.dfbs.app.application.quote.QuoteExportService;
+import com.dfbs.app.application.quote.dto.QuoteBatchExportRequest;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -8,19 +11,24 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/quotes")
 public class QuoteExportController {
 
     private final QuoteExportService exportService;
+    private final QuoteBatchExportService batchExportService;
 
-    public QuoteExportController(QuoteExportService exportService) {
+    public QuoteExportController(QuoteExportService exportService, QuoteBatchExportService batchExportService) {
         this.exportService = exportService;
+        this.batchExportService = batchExportService;
     }
 
     @GetMapping("/{id}/export")
@@ -43,6 +51,18 @@ public class QuoteExportController {
                 .body(result.bytes());
     }
 
+    /** Many quotes as one ZIP, streamed while rendering; problems per quote are listed in errors.txt inside it. */
+    @PostMapping("/export/batch")
+    public ResponseEntity<StreamingResponseBody> exportBatch(@RequestBody QuoteBatchExportRequest request) {
+        QuoteBatchExportService.Prepared batch = batchExportService.prepare(request);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDisposition(ContentDisposition.attachment().filename("quotes.zip").build());
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(out -> batchExportService.writeZip(batch, out));
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public void handleIllegalState(IllegalStateException ex) {
@@ -1,5 +1,6 @@
 package com.dfbs.app.interfaces.quote;
 
+import com.dfbs.app.application.contractprice.PriceSuggestionDto;
 import com.dfbs.app.application.quote.QuoteItemService;
 import com.dfbs.app.interfaces.quote.dto.CreateItemRequest;
 import com.dfbs.app.interfaces.quote.dto.QuoteItemDto;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -88,6 +90,11 @@ public class QuoteItemController {
                 .collect(Collectors.toList());
     }
 
+    @GetMapping("/{quoteId}/items/price-suggestions")
+    public Map<Long, PriceSuggestionDto> suggestPrices(@PathVariable Long quoteId) {
+        return itemService.suggestPrices(quoteId);
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public void handleIllegalState(IllegalStateException ex) {
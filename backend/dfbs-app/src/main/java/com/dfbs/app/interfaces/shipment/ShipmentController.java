@@ -1,9 +1,9 @@
 package com.dfbs.app.interfaces.shipment;
 
+import com.dfbs.app.application.carrier.CarrierRecommendation;
 import com.dfbs.app.application.carrier.CarrierService;
 import com.dfbs.app.application.perm.PermEnforcementService;
 import com.dfbs.app.application.shipment.*;
-import com.dfbs.app.modules.carrier.CarrierEntity;
 import com.dfbs.app.modules.shipment.ShipmentEntity;
 import com.dfbs.app.modules.shipment.ShipmentType;
 import io.swagger.v3.oas.annotations.Operation;
@@ -88,9 +88,9 @@ public class ShipmentController {
     public InferTypeResponse inferType(@RequestBody InferTypeRequest request) {
         String text = request != null && request.text() != null ? request.text() : "";
         ShipmentType type = shipmentTypeService.inferType(text);
-        CarrierEntity carrier = carrierService.recommendCarrier(text);
+        CarrierRecommendation carrier = carrierService.recommendCarrier(text);
         CarrierRecommendDto carrierDto = carrier != null
-                ? new CarrierRecommendDto(carrier.getId(), carrier.getName())
+                ? new CarrierRecommendDto(carrier.id(), carrier.name())
                 : null;
         return new InferTypeResponse(type, carrierDto);
     }
@@ -0,0 +1,54 @@
+package com.dfbs.app.interfaces.statement;
+
+import com.dfbs.app.application.statement.AccountStatementService;
+import com.dfbs.app.application.statement.StatementRunService;
+import com.dfbs.app.modules.statement.StatementRunEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Month-end statement runs: statements for many customers, generated in the background.
+ */
+@RestController
+@RequestMapping("/api/v1/statements/runs")
+public class StatementRunController {
+
+    private final AccountStatementService statementService;
+    private final StatementRunService runService;
+
+    public StatementRunController(AccountStatementService statementService, StatementRunService runService) {
+        this.statementService = statementService;
+        this.runService = runService;
+    }
+
+    private void requireCanManageStatements(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId 不能为空");
+        }
+        if (!statementService.hasManagementPermission(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "无对账单管理权限");
+        }
+    }
+
+    /**
+     * Queue a run. Body: { customerIds } (omitted or empty = every customer with open quotes).
+     * Poll GET /{id} for progress.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public StatementRunEntity submit(@RequestBody(required = false) RunRequest body, @RequestParam Long creatorId) {
+        requireCanManageStatements(creatorId);
+        return runService.submit(body != null ? body.customerIds() : null, creatorId);
+    }
+
+    @GetMapping("/{id}")
+    public StatementRunEntity get(@PathVariable Long id, @RequestParam Long userId) {
+        requireCanManageStatements(userId);
+        return runService.get(id);
+    }
+
+    public record RunRequest(List<Long> customerIds) {}
+}
@@ -11,7 +11,8 @@ import java.math.BigDecimal;
 public class BomItemEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bom_item_id_seq")
+    @SequenceGenerator(name = "bom_item_id_seq", sequenceName = "bom_item_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "version_id", nullable = false)
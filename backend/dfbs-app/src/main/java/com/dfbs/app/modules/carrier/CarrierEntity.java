@@ -10,7 +10,8 @@ import java.util.List;
 public class CarrierEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "md_carrier_id_seq")
+    @SequenceGenerator(name = "md_carrier_id_seq", sequenceName = "md_carrier_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false, unique = true, length = 256)
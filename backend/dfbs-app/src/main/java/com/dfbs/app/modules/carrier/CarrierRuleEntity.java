@@ -7,7 +7,8 @@ import jakarta.persistence.*;
 public class CarrierRuleEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "md_carrier_rule_id_seq")
+    @SequenceGenerator(name = "md_carrier_rule_id_seq", sequenceName = "md_carrier_rule_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
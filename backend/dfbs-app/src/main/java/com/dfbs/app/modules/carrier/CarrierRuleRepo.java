@@ -10,4 +10,7 @@ public interface CarrierRuleRepo extends JpaRepository<CarrierRuleEntity, Long>
 
     @Query("SELECT r FROM CarrierRuleEntity r JOIN FETCH r.carrier c WHERE c.isActive = true ORDER BY r.priority DESC")
     List<CarrierRuleEntity> findAllWithCarrierOrderByPriorityDesc();
+
+    @Query("SELECT r FROM CarrierRuleEntity r JOIN FETCH r.carrier c WHERE c.id = :carrierId ORDER BY r.priority DESC")
+    List<CarrierRuleEntity> findByCarrierIdOrderByPriorityDesc(@Param("carrierId") Long carrierId);
 }
@@ -7,7 +7,8 @@ import jakarta.persistence.*;
 public class CustomerAliasEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "md_customer_alias_id_seq")
+    @SequenceGenerator(name = "md_customer_alias_id_seq", sequenceName = "md_customer_alias_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -12,7 +12,8 @@ import java.util.List;
 public class CustomerEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "md_customer_id_seq")
+    @SequenceGenerator(name = "md_customer_id_seq", sequenceName = "md_customer_id_seq", allocationSize = 50)
     private Long id;
 
     /** Temp record (pending confirmation); excluded from standard search. */
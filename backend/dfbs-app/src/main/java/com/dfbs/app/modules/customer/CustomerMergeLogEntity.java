@@ -9,7 +9,8 @@ import java.time.OffsetDateTime;
 public class CustomerMergeLogEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "md_customer_merge_log_id_seq")
+    @SequenceGenerator(name = "md_customer_merge_log_id_seq", sequenceName = "md_customer_merge_log_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "created_at", nullable = false)
@@ -3,6 +3,7 @@ package com.dfbs.app.modules.customer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,4 +34,10 @@ public interface CustomerRepo extends JpaRepository<CustomerEntity, Long>, JpaSp
 
     /** Find customers by name (for import: resolve customerName to id). */
     List<CustomerEntity> findByNameAndDeletedAtIsNull(String name);
+
+    /** Import: customers for a chunk of codes in one query (any deletion state, as findByCustomerCode). */
+    List<CustomerEntity> findByCustomerCodeIn(Collection<String> customerCodes);
+
+    /** Import: resolve a chunk of customer names in one query. */
+    List<CustomerEntity> findByNameInAndDeletedAtIsNull(Collection<String> names);
 }
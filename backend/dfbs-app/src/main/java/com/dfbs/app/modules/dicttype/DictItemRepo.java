@@ -14,4 +14,6 @@ public interface DictItemRepo extends JpaRepository<DictItemEntity, Long>, JpaSp
     long countByParentId(Long parentId);
 
     java.util.Optional<DictItemEntity> findByTypeIdAndItemValue(Long typeId, String itemValue);
+
+    java.util.List<DictItemEntity> findByTypeId(Long typeId);
 }
@@ -0,0 +1,28 @@
+package com.dfbs.app.modules.docnumber;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Entity
+@Table(
+    name = "document_number_counter",
+    uniqueConstraints = @UniqueConstraint(columnNames = { "doc_type", "period" })
+)
+@Data
+public class DocumentNumberCounterEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doc_type", nullable = false, length = 32)
+    private String docType;
+
+    @Column(name = "period", nullable = false, length = 16)
+    private String period;
+
+    @Column(name = "current_value", nullable = false)
+    private Long currentValue;
+
+    public DocumentNumberCounterEntity() {}
+}
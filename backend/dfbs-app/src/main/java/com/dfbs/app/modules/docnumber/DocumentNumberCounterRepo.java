@@ -0,0 +1,31 @@
+package com.dfbs.app.modules.docnumber;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface DocumentNumberCounterRepo extends JpaRepository<DocumentNumberCounterEntity, Long> {
+
+    Optional<DocumentNumberCounterEntity> findByDocTypeAndPeriod(String docType, String period);
+
+    /**
+     * Atomically reserves {@code count} values for (docType, period) and returns the last one.
+     * Single upsert on ux_document_number_counter_type_period; the row lock is held until the caller commits,
+     * so numbers are race-free across nodes and gap-free (a rollback also rolls the counter back).
+     * Reserved range = [result - count + 1, result].
+     */
+    @Transactional
+    @Query(value = """
+            insert into document_number_counter (doc_type, period, current_value)
+            values (:docType, :period, :count)
+            on conflict (doc_type, period)
+            do update set current_value = document_number_counter.current_value + excluded.current_value
+            returning current_value
+            """, nativeQuery = true)
+    long allocate(@Param("docType") String docType,
+                  @Param("period") String period,
+                  @Param("count") int count);
+}
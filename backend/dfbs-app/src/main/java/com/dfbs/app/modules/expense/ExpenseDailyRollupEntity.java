@@ -0,0 +1,56 @@
+package com.dfbs.app.modules.expense;
+
+import com.dfbs.app.modules.quote.enums.Currency;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Daily sum of non-VOID expenses per dimension key; maintained by triggers on expense / claim (V0096), read-only here. */
+@Entity
+@Immutable
+@Table(name = "expense_daily_rollup")
+@Data
+public class ExpenseDailyRollupEntity {
+
+    @Id
+    private Long id;
+
+    @Column(name = "expense_date", nullable = false)
+    private LocalDate expenseDate;
+
+    @Column(name = "created_by", nullable = false)
+    private Long createdBy;
+
+    @Column(name = "quote_id")
+    private Long quoteId;
+
+    @Column(name = "work_order_id")
+    private Long workOrderId;
+
+    @Column(name = "trip_request_id")
+    private Long tripRequestId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "currency", nullable = false, length = 8)
+    private Currency currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "expense_type", length = 32)
+    private ExpenseType expenseType;
+
+    /** Status of the linked claim; null when the expense is not on a claim. */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "claim_status", length = 32)
+    private ClaimStatus claimStatus;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "expense_count", nullable = false)
+    private Integer expenseCount;
+
+    public ExpenseDailyRollupEntity() {}
+}
@@ -0,0 +1,40 @@
+package com.dfbs.app.modules.expense;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ExpenseDailyRollupRepo extends JpaRepository<ExpenseDailyRollupEntity, Long> {
+
+    /**
+     * Stats aggregated over the rollup. groupBy is USER, CUSTOMER, WORK_ORDER or TRIP; group keys match the
+     * former in-memory grouping ("User:1", customer name / "C1", "WO:1", "Trip:1", "N/A").
+     * Customer comes from the expense's quote, else its work order's quote; those joins only run for CUSTOMER.
+     * Null filters are ignored.
+     */
+    @Query(value = "SELECT CASE :groupBy "
+            + "  WHEN 'USER' THEN 'User:' || r.created_by "
+            + "  WHEN 'WORK_ORDER' THEN COALESCE('WO:' || r.work_order_id, 'N/A') "
+            + "  WHEN 'TRIP' THEN COALESCE('Trip:' || r.trip_request_id, 'N/A') "
+            + "  WHEN 'CUSTOMER' THEN COALESCE(q.customer_name, 'C' || q.customer_id, 'N/A') "
+            + "  ELSE 'N/A' END AS groupKey, "
+            + "r.currency AS currency, r.expense_type AS expenseType, r.claim_status AS claimStatus, "
+            + "SUM(r.amount) AS amount "
+            + "FROM expense_daily_rollup r "
+            + "LEFT JOIN work_order wo ON :groupBy = 'CUSTOMER' AND r.quote_id IS NULL AND wo.id = r.work_order_id "
+            + "LEFT JOIN quote q ON :groupBy = 'CUSTOMER' AND q.id = COALESCE(r.quote_id, wo.quote_id) "
+            + "WHERE (CAST(:startDate AS DATE) IS NULL OR r.expense_date >= CAST(:startDate AS DATE)) "
+            + "AND (CAST(:endDate AS DATE) IS NULL OR r.expense_date <= CAST(:endDate AS DATE)) "
+            + "AND (CAST(:currency AS VARCHAR) IS NULL OR r.currency = CAST(:currency AS VARCHAR)) "
+            + "AND (CAST(:expenseType AS VARCHAR) IS NULL OR r.expense_type = CAST(:expenseType AS VARCHAR)) "
+            + "GROUP BY 1, 2, 3, 4 ORDER BY 1",
+            nativeQuery = true)
+    List<ExpenseStatsAggregate> aggregate(@Param("groupBy") String groupBy,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          @Param("currency") String currency,
+                                          @Param("expenseType") String expenseType);
+}
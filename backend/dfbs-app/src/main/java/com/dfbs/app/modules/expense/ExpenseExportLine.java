@@ -0,0 +1,13 @@
+package com.dfbs.app.modules.expense;
+
+import com.dfbs.app.modules.quote.enums.Currency;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/** Expense columns for the stats export, read as a projection so export pages are never managed entities. */
+public record ExpenseExportLine(Long id, OffsetDateTime createdAt, Long createdBy, LocalDate expenseDate,
+                                BigDecimal amount, Currency currency, ExpenseType expenseType, String description,
+                                ExpenseStatus status, Long quoteId, Long workOrderId, Long tripRequestId,
+                                Long claimId) {}
@@ -1,11 +1,32 @@
 package com.dfbs.app.modules.expense;
 
+import com.dfbs.app.modules.quote.enums.Currency;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ExpenseRepo extends JpaRepository<ExpenseEntity, Long>, JpaSpecificationExecutor<ExpenseEntity> {
 
     List<ExpenseEntity> findByClaimIdOrderByIdAsc(Long claimId);
+
+    /** Next page of non-VOID expenses after afterId (keyset, id order) for the stats export; null filters are ignored. */
+    @Query("SELECT new com.dfbs.app.modules.expense.ExpenseExportLine(e.id, e.createdAt, e.createdBy, e.expenseDate, "
+            + "e.amount, e.currency, e.expenseType, e.description, e.status, e.quoteId, e.workOrderId, e.tripRequestId, "
+            + "e.claim.id) FROM ExpenseEntity e WHERE e.id > :afterId "
+            + "AND e.status <> com.dfbs.app.modules.expense.ExpenseStatus.VOID "
+            + "AND (CAST(:startDate AS LocalDate) IS NULL OR e.expenseDate >= :startDate) "
+            + "AND (CAST(:endDate AS LocalDate) IS NULL OR e.expenseDate <= :endDate) "
+            + "AND (:expenseType IS NULL OR e.expenseType = :expenseType) AND (:currency IS NULL OR e.currency = :currency) "
+            + "ORDER BY e.id")
+    List<ExpenseExportLine> findExportPage(@Param("afterId") long afterId,
+                                           @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate,
+                                           @Param("expenseType") ExpenseType expenseType,
+                                           @Param("currency") Currency currency,
+                                           Limit limit);
 }
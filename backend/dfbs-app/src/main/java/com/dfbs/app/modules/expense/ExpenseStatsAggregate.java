@@ -0,0 +1,17 @@
+package com.dfbs.app.modules.expense;
+
+import java.math.BigDecimal;
+
+/** One SQL aggregate row of the expense stats: amount per (group key, currency, expense type, claim status). */
+public interface ExpenseStatsAggregate {
+
+    String getGroupKey();
+
+    String getCurrency();
+
+    String getExpenseType();
+
+    String getClaimStatus();
+
+    BigDecimal getAmount();
+}
@@ -11,7 +11,8 @@ import java.math.BigDecimal;
 public class FreightBillItemEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "freight_bill_item_id_seq")
+    @SequenceGenerator(name = "freight_bill_item_id_seq", sequenceName = "freight_bill_item_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "bill_id", nullable = false)
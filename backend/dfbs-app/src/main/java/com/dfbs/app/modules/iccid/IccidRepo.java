@@ -11,6 +11,7 @@ import java.util.UUID;
 public interface IccidRepo extends JpaRepository<IccidEntity, UUID>, JpaSpecificationExecutor<IccidEntity> {
     Optional<IccidEntity> findByIccidNo(String iccidNo);
 
+    /** Keyword queries emit upper(iccid_no) LIKE upper('%kw%'), served by the trigram index ix_md_iccid_iccid_no_trgm. */
     Page<IccidEntity> findByIccidNoContainingIgnoreCase(String keyword, Pageable pageable);
 
     Page<IccidEntity> findByIccidNoContainingIgnoreCaseAndMachineSnIsNotNull(String keyword, Pageable pageable);
@@ -0,0 +1,43 @@
+package com.dfbs.app.modules.importdata;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+    name = "import_checkpoint",
+    uniqueConstraints = @UniqueConstraint(columnNames = { "import_type", "resume_key" })
+)
+@Data
+public class ImportCheckpointEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "import_type", nullable = false, length = 64)
+    private String importType;
+
+    @Column(name = "resume_key", nullable = false, length = 128)
+    private String resumeKey;
+
+    /** Last Excel row (1-based) of the last committed chunk. */
+    @Column(name = "last_row", nullable = false)
+    private Integer lastRow;
+
+    @Column(name = "success_count", nullable = false)
+    private Integer successCount = 0;
+
+    @Column(name = "failure_count", nullable = false)
+    private Integer failureCount = 0;
+
+    @Column(name = "conflict_count", nullable = false)
+    private Integer conflictCount = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public ImportCheckpointEntity() {}
+}
@@ -0,0 +1,10 @@
+package com.dfbs.app.modules.importdata;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ImportCheckpointRepo extends JpaRepository<ImportCheckpointEntity, Long> {
+
+    Optional<ImportCheckpointEntity> findByImportTypeAndResumeKey(String importType, String resumeKey);
+}
@@ -0,0 +1,70 @@
+package com.dfbs.app.modules.importdata;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "import_job")
+@Data
+public class ImportJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "import_type", nullable = false, length = 64)
+    private String importType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private ImportJobStatus status;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "rows_read", nullable = false)
+    private Integer rowsRead = 0;
+
+    @Column(name = "success_count", nullable = false)
+    private Integer successCount = 0;
+
+    @Column(name = "failure_count", nullable = false)
+    private Integer failureCount = 0;
+
+    @Column(name = "conflict_count", nullable = false)
+    private Integer conflictCount = 0;
+
+    @Column(name = "cancel_requested", nullable = false)
+    private Boolean cancelRequested = false;
+
+    /** Final ImportResultDto (failures and conflicts included) as JSON; set when the job ends. */
+    @Column(name = "result_json", columnDefinition = "TEXT")
+    private String resultJson;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    /** Node whose worker runs it (see NodeIdentity). */
+    @Column(name = "worker_node", length = 128)
+    private String workerNode;
+
+    /** Uploaded file spooled on workerNode; deleted when the job ends (or by startup recovery). */
+    @Column(name = "spool_path", length = 512)
+    private String spoolPath;
+
+    @Column(name = "created_by")
+    private Long createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public ImportJobEntity() {}
+}
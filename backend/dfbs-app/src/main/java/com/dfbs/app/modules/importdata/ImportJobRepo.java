@@ -0,0 +1,78 @@
+package com.dfbs.app.modules.importdata;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ImportJobRepo extends JpaRepository<ImportJobEntity, Long> {
+
+    /** QUEUED -> RUNNING; 0 if the job was cancelled (or already claimed) meanwhile. */
+    @Transactional
+    @Modifying
+    @Query("update ImportJobEntity j set j.status = com.dfbs.app.modules.importdata.ImportJobStatus.RUNNING, "
+            + "j.startedAt = :now where j.id = :id and j.status = com.dfbs.app.modules.importdata.ImportJobStatus.QUEUED")
+    int markRunning(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update ImportJobEntity j set j.rowsRead = :rowsRead, j.successCount = :success, "
+            + "j.failureCount = :failure, j.conflictCount = :conflict where j.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("rowsRead") int rowsRead, @Param("success") int success,
+                       @Param("failure") int failure, @Param("conflict") int conflict);
+
+    /** Final status and counts; leaves cancel_requested as is. */
+    @Transactional
+    @Modifying
+    @Query("update ImportJobEntity j set j.status = :status, j.successCount = :success, j.failureCount = :failure, "
+            + "j.conflictCount = :conflict, j.resultJson = :resultJson, j.errorMessage = :error, j.finishedAt = :now "
+            + "where j.id = :id")
+    int finish(@Param("id") Long id, @Param("status") ImportJobStatus status, @Param("success") int success,
+               @Param("failure") int failure, @Param("conflict") int conflict,
+               @Param("resultJson") String resultJson, @Param("error") String error,
+               @Param("now") LocalDateTime now);
+
+    /** A queued job is cancelled outright; 0 if it already started or ended. */
+    @Transactional
+    @Modifying
+    @Query("update ImportJobEntity j set j.status = com.dfbs.app.modules.importdata.ImportJobStatus.CANCELLED, "
+            + "j.cancelRequested = true, j.finishedAt = :now "
+            + "where j.id = :id and j.status = com.dfbs.app.modules.importdata.ImportJobStatus.QUEUED")
+    int cancelQueued(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /** A running job sees the flag before its next chunk. */
+    @Transactional
+    @Modifying
+    @Query("update ImportJobEntity j set j.cancelRequested = true "
+            + "where j.id = :id and j.status = com.dfbs.app.modules.importdata.ImportJobStatus.RUNNING")
+    int requestCancel(@Param("id") Long id);
+
+    @Query("select j.cancelRequested from ImportJobEntity j where j.id = :id")
+    Boolean findCancelRequested(@Param("id") Long id);
+
+    /** Jobs of workerNode left QUEUED / RUNNING by an earlier process (created before startedAt). */
+    @Query("select j from ImportJobEntity j where j.status in (com.dfbs.app.modules.importdata.ImportJobStatus.QUEUED, "
+            + "com.dfbs.app.modules.importdata.ImportJobStatus.RUNNING) "
+            + "and (j.workerNode = :workerNode or j.workerNode is null) and j.createdAt < :startedAt")
+    List<ImportJobEntity> findInterrupted(@Param("workerNode") String workerNode,
+                                          @Param("startedAt") LocalDateTime startedAt);
+
+    /** Jobs of any node still QUEUED / RUNNING although created before createdBefore. */
+    @Query("select j from ImportJobEntity j where j.status in (com.dfbs.app.modules.importdata.ImportJobStatus.QUEUED, "
+            + "com.dfbs.app.modules.importdata.ImportJobStatus.RUNNING) and j.createdAt < :createdBefore")
+    List<ImportJobEntity> findStale(@Param("createdBefore") LocalDateTime createdBefore);
+
+    @Transactional
+    @Modifying
+    @Query("update ImportJobEntity j set j.status = com.dfbs.app.modules.importdata.ImportJobStatus.FAILED, "
+            + "j.errorMessage = :error, j.finishedAt = :now where j.id in :ids "
+            + "and j.status in (com.dfbs.app.modules.importdata.ImportJobStatus.QUEUED, "
+            + "com.dfbs.app.modules.importdata.ImportJobStatus.RUNNING)")
+    int failInterrupted(@Param("ids") Collection<Long> ids, @Param("error") String error,
+                        @Param("now") LocalDateTime now);
+}
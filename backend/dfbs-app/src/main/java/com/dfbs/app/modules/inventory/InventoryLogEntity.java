@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 public class InventoryLogEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_log_id_seq")
+    @SequenceGenerator(name = "inventory_log_id_seq", sequenceName = "inventory_log_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "warehouse_id", nullable = false)
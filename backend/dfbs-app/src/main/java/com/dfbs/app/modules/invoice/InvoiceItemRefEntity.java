@@ -11,7 +11,8 @@ import java.math.BigDecimal;
 public class InvoiceItemRefEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoice_item_ref_id_seq")
+    @SequenceGenerator(name = "invoice_item_ref_id_seq", sequenceName = "invoice_item_ref_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "invoice_record_id", nullable = false)
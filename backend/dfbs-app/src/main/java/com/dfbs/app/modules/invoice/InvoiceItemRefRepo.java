@@ -2,9 +2,11 @@ package com.dfbs.app.modules.invoice;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface InvoiceItemRefRepo extends JpaRepository<InvoiceItemRefEntity, Long> {
     List<InvoiceItemRefEntity> findByInvoiceRecordId(Long invoiceRecordId);
+    List<InvoiceItemRefEntity> findByInvoiceRecordIdIn(Collection<Long> invoiceRecordIds);
     List<InvoiceItemRefEntity> findByQuoteId(Long quoteId);
 }
@@ -11,7 +11,8 @@ import java.math.BigDecimal;
 public class InvoiceRecordEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoice_record_id_seq")
+    @SequenceGenerator(name = "invoice_record_id_seq", sequenceName = "invoice_record_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "application_id", nullable = false)
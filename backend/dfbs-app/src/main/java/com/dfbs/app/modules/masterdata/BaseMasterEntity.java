@@ -7,17 +7,15 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 /**
- * Base entity for master data: id, audit fields, is_temp (Smart Select temp pool), last_used_at (MRU).
- * Subclasses add status and business fields.
+ * Base entity for master data: audit fields, is_temp (Smart Select temp pool), last_used_at (MRU).
+ * Subclasses declare the id (pooled-lo sequence per table, see V0102) and add status and business fields.
  */
 @MappedSuperclass
 @Getter
 @Setter
 public abstract class BaseMasterEntity {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    public abstract Long getId();
 
     /** Temp record (pending confirmation); excluded from standard search (Rule 2.4). */
     @Column(name = "is_temp", nullable = false)
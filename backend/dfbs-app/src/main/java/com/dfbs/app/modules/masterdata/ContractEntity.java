@@ -12,6 +12,11 @@ import java.time.LocalDate;
 @Setter
 public class ContractEntity extends BaseMasterEntity {
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contracts_id_seq")
+    @SequenceGenerator(name = "contracts_id_seq", sequenceName = "contracts_id_seq", allocationSize = 50)
+    private Long id;
+
     @Column(name = "contract_no", nullable = false, unique = true, length = 64)
     private String contractNo;
 
@@ -5,9 +5,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ContractRepo extends JpaRepository<ContractEntity, Long>, JpaSpecificationExecutor<ContractEntity> {
     Optional<ContractEntity> findByContractNo(String contractNo);
     boolean existsByContractNo(String contractNo);
+
+    List<ContractEntity> findByContractNoIn(Collection<String> contractNos);
 }
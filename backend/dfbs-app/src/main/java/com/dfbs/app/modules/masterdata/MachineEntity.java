@@ -13,6 +13,11 @@ import lombok.Setter;
 @Setter
 public class MachineEntity extends BaseMasterEntity {
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "machines_id_seq")
+    @SequenceGenerator(name = "machines_id_seq", sequenceName = "machines_id_seq", allocationSize = 50)
+    private Long id;
+
     @Column(name = "machine_no", nullable = false, unique = true, length = 64)
     private String machineNo;
 
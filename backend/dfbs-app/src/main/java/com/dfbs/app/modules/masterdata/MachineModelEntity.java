@@ -10,6 +10,11 @@ import lombok.Setter;
 @Setter
 public class MachineModelEntity extends BaseMasterEntity {
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "machine_models_id_seq")
+    @SequenceGenerator(name = "machine_models_id_seq", sequenceName = "machine_models_id_seq", allocationSize = 50)
+    private Long id;
+
     @Column(name = "model_name", length = 200)
     private String modelName;
 
@@ -5,6 +5,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +14,8 @@ public interface MachineModelRepo extends JpaRepository<MachineModelEntity, Long
     boolean existsByModelNo(String modelNo);
     /** Find by model name (for import: resolve model name to id). */
     List<MachineModelEntity> findByModelName(String modelName);
+
+    List<MachineModelEntity> findByModelNoIn(Collection<String> modelNos);
+
+    List<MachineModelEntity> findByModelNameIn(Collection<String> modelNames);
 }
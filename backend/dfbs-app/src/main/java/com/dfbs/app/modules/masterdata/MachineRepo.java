@@ -3,6 +3,8 @@ package com.dfbs.app.modules.masterdata;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface MachineRepo extends JpaRepository<MachineEntity, Long>, JpaSpecificationExecutor<MachineEntity> {
@@ -10,4 +12,8 @@ public interface MachineRepo extends JpaRepository<MachineEntity, Long>, JpaSpec
     Optional<MachineEntity> findBySerialNo(String serialNo);
     boolean existsByMachineNo(String machineNo);
     boolean existsBySerialNo(String serialNo);
+
+    List<MachineEntity> findByMachineNoIn(Collection<String> machineNos);
+
+    List<MachineEntity> findBySerialNoIn(Collection<String> serialNos);
 }
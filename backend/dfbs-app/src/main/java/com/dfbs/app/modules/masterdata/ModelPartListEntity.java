@@ -15,6 +15,11 @@ import java.time.LocalDate;
 @Setter
 public class ModelPartListEntity extends BaseMasterEntity {
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "model_part_lists_id_seq")
+    @SequenceGenerator(name = "model_part_lists_id_seq", sequenceName = "model_part_lists_id_seq", allocationSize = 50)
+    private Long id;
+
     @Column(name = "model_id", nullable = false)
     private Long modelId;
 
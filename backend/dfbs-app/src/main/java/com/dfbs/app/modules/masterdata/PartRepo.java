@@ -12,7 +12,6 @@ public interface PartRepo extends JpaRepository<PartEntity, Long> {
     Optional<PartEntity> findBySystemNo(String systemNo);
     Optional<PartEntity> findByNameAndSpec(String name, String spec);
     Optional<PartEntity> findByDrawingNo(String drawingNo);
-    long countBySystemNoStartingWith(String prefix);
     List<PartEntity> findByIsActiveTrue();
 
     @Query("SELECT p FROM PartEntity p WHERE (:name IS NULL OR :name = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) "
@@ -10,6 +10,11 @@ import lombok.Setter;
 @Setter
 public class SimCardEntity extends BaseMasterEntity {
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sim_cards_id_seq")
+    @SequenceGenerator(name = "sim_cards_id_seq", sequenceName = "sim_cards_id_seq", allocationSize = 50)
+    private Long id;
+
     @Column(name = "card_no", nullable = false, unique = true, length = 64)
     private String cardNo;
 
@@ -3,9 +3,13 @@ package com.dfbs.app.modules.masterdata;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface SimCardRepo extends JpaRepository<SimCardEntity, Long>, JpaSpecificationExecutor<SimCardEntity> {
     Optional<SimCardEntity> findByCardNo(String cardNo);
     boolean existsByCardNo(String cardNo);
+
+    List<SimCardEntity> findByCardNoIn(Collection<String> cardNos);
 }
@@ -12,6 +12,11 @@ import java.math.BigDecimal;
 @Setter
 public class SparePartEntity extends BaseMasterEntity {
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spare_parts_id_seq")
+    @SequenceGenerator(name = "spare_parts_id_seq", sequenceName = "spare_parts_id_seq", allocationSize = 50)
+    private Long id;
+
     @Column(name = "part_no", nullable = false, unique = true, length = 64)
     private String partNo;
 
@@ -0,0 +1,62 @@
+package com.dfbs.app.modules.notification;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One pending batch send; expanded into {@link NotificationEntity} rows after the sender commits, then deleted.
+ * A row whose delivery keeps failing is marked dead (deadAt) and left for inspection.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Data
+public class NotificationOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Comma-separated user ids. */
+    @Column(name = "recipient_ids", nullable = false, columnDefinition = "TEXT")
+    private String recipientIds;
+
+    @Column(name = "title", nullable = false, length = 200)
+    private String title;
+
+    @Column(name = "content", columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name = "target_url", length = 500)
+    private String targetUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", length = 32)
+    private NotificationType type;
+
+    @Column(name = "related_id")
+    private Long relatedId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", length = 16, nullable = false)
+    private NotificationPriority priority = NotificationPriority.NORMAL;
+
+    @Column(name = "is_action_required", nullable = false)
+    private Boolean isActionRequired = false;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Failed deliveries so far. */
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "dead_at")
+    private LocalDateTime deadAt;
+
+    public NotificationOutboxEntity() {}
+}
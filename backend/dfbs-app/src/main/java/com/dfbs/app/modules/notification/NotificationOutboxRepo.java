@@ -0,0 +1,23 @@
+package com.dfbs.app.modules.notification;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface NotificationOutboxRepo extends JpaRepository<NotificationOutboxEntity, Long> {
+
+    /** Row lock, so the after-commit delivery and the sweep never expand the same batch twice. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM NotificationOutboxEntity o WHERE o.id = :id")
+    Optional<NotificationOutboxEntity> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT o.id FROM NotificationOutboxEntity o WHERE o.createdAt < :before AND o.deadAt IS NULL ORDER BY o.id")
+    List<Long> findIdsCreatedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+}
@@ -0,0 +1,25 @@
+package com.dfbs.app.modules.orgstructure;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/** Ancestor/descendant pair of the org tree (depth 0 = the node itself). Written only via {@link OrgNodeClosureRepo}. */
+@Entity
+@Table(name = "org_node_closure")
+@IdClass(OrgNodeClosureId.class)
+@Getter
+@Setter
+public class OrgNodeClosureEntity {
+
+    @Id
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    @Column(name = "depth", nullable = false)
+    private Integer depth;
+}
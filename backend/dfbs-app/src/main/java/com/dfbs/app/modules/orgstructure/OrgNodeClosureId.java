@@ -0,0 +1,20 @@
+package com.dfbs.app.modules.orgstructure;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class OrgNodeClosureId implements Serializable {
+
+    private Long ancestorId;
+    private Long descendantId;
+}
@@ -0,0 +1,56 @@
+package com.dfbs.app.modules.orgstructure;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OrgNodeClosureRepo extends JpaRepository<OrgNodeClosureEntity, OrgNodeClosureId> {
+
+    /** Self row (depth 0) of a new node. */
+    @Modifying
+    @Query(value = "insert into org_node_closure (ancestor_id, descendant_id, depth) values (:nodeId, :nodeId, 0)", nativeQuery = true)
+    int insertSelf(@Param("nodeId") Long nodeId);
+
+    /** One row per ancestor of parentId (itself included) for a new leaf nodeId. */
+    @Modifying
+    @Query(value = """
+            insert into org_node_closure (ancestor_id, descendant_id, depth)
+            select c.ancestor_id, :nodeId, c.depth + 1 from org_node_closure c where c.descendant_id = :parentId
+            """, nativeQuery = true)
+    int insertUnder(@Param("nodeId") Long nodeId, @Param("parentId") Long parentId);
+
+    /** Removes the links between the subtree of nodeId and its current ancestors (links inside the subtree stay). */
+    @Modifying
+    @Query(value = """
+            delete from org_node_closure
+            where descendant_id in (select descendant_id from org_node_closure where ancestor_id = :nodeId)
+              and ancestor_id not in (select descendant_id from org_node_closure where ancestor_id = :nodeId)
+            """, nativeQuery = true)
+    int detachSubtree(@Param("nodeId") Long nodeId);
+
+    /** Links every ancestor of newParentId (itself included) to every node of the subtree of nodeId. */
+    @Modifying
+    @Query(value = """
+            insert into org_node_closure (ancestor_id, descendant_id, depth)
+            select a.ancestor_id, d.descendant_id, a.depth + d.depth + 1
+            from org_node_closure a cross join org_node_closure d
+            where a.descendant_id = :newParentId and d.ancestor_id = :nodeId
+            """, nativeQuery = true)
+    int attachSubtree(@Param("nodeId") Long nodeId, @Param("newParentId") Long newParentId);
+
+    /** Descendants of nodeId (self excluded), nearest first. */
+    @Query("SELECT c.descendantId FROM OrgNodeClosureEntity c WHERE c.ancestorId = :nodeId AND c.depth > 0 ORDER BY c.depth, c.descendantId")
+    List<Long> findDescendantIds(@Param("nodeId") Long nodeId);
+
+    @Query("SELECT COUNT(c.descendantId) FROM OrgNodeClosureEntity c WHERE c.ancestorId = :nodeId AND c.depth > 0")
+    long countDescendants(@Param("nodeId") Long nodeId);
+
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    /** Distance from the root (0 for a root); null when nodeId has no closure row. */
+    @Query("SELECT MAX(c.depth) FROM OrgNodeClosureEntity c WHERE c.descendantId = :nodeId")
+    Integer findDepth(@Param("nodeId") Long nodeId);
+}
@@ -36,6 +36,17 @@ public interface OrgPersonRepo extends JpaRepository<OrgPersonEntity, Long> {
     Page<OrgPersonEntity> findByOrgSubtree(@Param("nodeIds") List<Long> nodeIds, @Param("includeSecondaries") boolean includeSecondaries,
                                            @Param("keyword") String keyword, @Param("activeOnly") boolean activeOnly, Pageable pageable);
 
+    /** People linked to rootId or any of its descendants (one join through org_node_closure). */
+    @Query("SELECT DISTINCT p FROM OrgPersonEntity p INNER JOIN PersonAffiliationEntity pa ON pa.personId = p.id " +
+            "AND (pa.isPrimary = true OR :includeSecondaries = true) " +
+            "INNER JOIN OrgNodeClosureEntity c ON c.descendantId = pa.orgNodeId AND c.ancestorId = :rootId " +
+            "WHERE (:keyword IS NULL OR :keyword = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+            "OR LOWER(p.phone) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+            "OR (p.email IS NOT NULL AND LOWER(p.email) LIKE LOWER(CONCAT('%', :keyword, '%')))) " +
+            "AND (:activeOnly = false OR p.isActive = true) ORDER BY p.name")
+    Page<OrgPersonEntity> findByOrgSubtreeRoot(@Param("rootId") Long rootId, @Param("includeSecondaries") boolean includeSecondaries,
+                                               @Param("keyword") String keyword, @Param("activeOnly") boolean activeOnly, Pageable pageable);
+
     List<OrgPersonEntity> findByIsActiveTrueOrderByNameAsc();
 
     Optional<OrgPersonEntity> findByIdAndIsActiveTrue(Long id);
@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +14,8 @@ public interface PersonAffiliationRepo extends JpaRepository<PersonAffiliationEn
 
     Optional<PersonAffiliationEntity> findByPersonIdAndIsPrimaryTrue(Long personId);
 
+    List<PersonAffiliationEntity> findByPersonIdInAndIsPrimaryTrue(Collection<Long> personIds);
+
     List<PersonAffiliationEntity> findByOrgNodeId(Long orgNodeId);
 
     @Query("SELECT COUNT(DISTINCT pa.personId) FROM PersonAffiliationEntity pa WHERE pa.orgNodeId IN :nodeIds")
@@ -22,6 +25,11 @@ public interface PersonAffiliationRepo extends JpaRepository<PersonAffiliationEn
     @Query("SELECT COUNT(DISTINCT pa.personId) FROM PersonAffiliationEntity pa INNER JOIN OrgPersonEntity p ON p.id = pa.personId AND p.isActive = true WHERE pa.orgNodeId IN :nodeIds")
     long countDistinctActivePersonIdByOrgNodeIdIn(@Param("nodeIds") List<Long> nodeIds);
 
+    /** Same count over rootId and all its descendants, via org_node_closure. */
+    @Query("SELECT COUNT(DISTINCT pa.personId) FROM PersonAffiliationEntity pa INNER JOIN OrgPersonEntity p ON p.id = pa.personId AND p.isActive = true " +
+            "INNER JOIN OrgNodeClosureEntity c ON c.descendantId = pa.orgNodeId WHERE c.ancestorId = :rootId")
+    long countDistinctActivePersonIdInSubtree(@Param("rootId") Long rootId);
+
     void deleteByPersonId(Long personId);
 
     void deleteByPersonIdAndOrgNodeId(Long personId, Long orgNodeId);
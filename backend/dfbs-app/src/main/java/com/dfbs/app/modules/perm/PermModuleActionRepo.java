@@ -6,6 +6,8 @@ import java.util.List;
 
 public interface PermModuleActionRepo extends JpaRepository<PermModuleActionEntity, Long> {
 
+    List<PermModuleActionEntity> findAllByOrderByIdAsc();
+
     List<PermModuleActionEntity> findByModuleId(Long moduleId);
 
     boolean existsByModuleIdAndActionKey(Long moduleId, String actionKey);
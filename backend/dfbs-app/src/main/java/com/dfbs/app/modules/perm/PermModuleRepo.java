@@ -7,6 +7,8 @@ import java.util.Optional;
 
 public interface PermModuleRepo extends JpaRepository<PermModuleEntity, Long> {
 
+    List<PermModuleEntity> findAllByOrderByIdAsc();
+
     List<PermModuleEntity> findByParentIdIsNullOrderByIdAsc();
 
     List<PermModuleEntity> findByParentIdOrderByIdAsc(Long parentId);
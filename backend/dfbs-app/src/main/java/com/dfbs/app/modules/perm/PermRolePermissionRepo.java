@@ -1,6 +1,7 @@
 package com.dfbs.app.modules.perm;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
@@ -9,4 +10,8 @@ public interface PermRolePermissionRepo extends JpaRepository<PermRolePermission
     List<PermRolePermissionEntity> findByRoleId(Long roleId);
 
     void deleteByRoleId(Long roleId);
+
+    /** Every distinct stored key (permission key registry layout). */
+    @Query("select distinct p.permissionKey from PermRolePermissionEntity p")
+    List<String> findDistinctPermissionKeys();
 }
@@ -1,6 +1,7 @@
 package com.dfbs.app.modules.perm;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
@@ -9,4 +10,8 @@ public interface PermUserPermissionOverrideRepo extends JpaRepository<PermUserPe
     List<PermUserPermissionOverrideEntity> findByUserId(Long userId);
 
     void deleteByUserId(Long userId);
+
+    /** Every distinct stored key (permission key registry layout). */
+    @Query("select distinct p.permissionKey from PermUserPermissionOverrideEntity p")
+    List<String> findDistinctPermissionKeys();
 }
@@ -10,5 +10,4 @@ public interface PlatformAccountApplicationRepo extends JpaRepository<PlatformAc
 
     Optional<PlatformAccountApplicationEntity> findByApplicationNo(String applicationNo);
 
-    Optional<PlatformAccountApplicationEntity> findTopByApplicationNoStartingWithOrderByApplicationNoDesc(String prefix);
 }
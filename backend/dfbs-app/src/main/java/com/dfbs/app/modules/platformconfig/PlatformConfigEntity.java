@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class PlatformConfigEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "md_platform_id_seq")
+    @SequenceGenerator(name = "md_platform_id_seq", sequenceName = "md_platform_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "platform_name", nullable = false, length = 64)
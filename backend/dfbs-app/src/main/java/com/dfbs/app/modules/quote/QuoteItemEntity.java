@@ -13,7 +13,8 @@ import java.math.BigDecimal;
 public class QuoteItemEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quote_item_id_seq")
+    @SequenceGenerator(name = "quote_item_id_seq", sequenceName = "quote_item_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "quote_id", nullable = false)
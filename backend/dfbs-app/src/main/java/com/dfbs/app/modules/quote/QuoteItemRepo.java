@@ -1,12 +1,22 @@
 package com.dfbs.app.modules.quote;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface QuoteItemRepo extends JpaRepository<QuoteItemEntity, Long> {
 
     List<QuoteItemEntity> findByQuoteIdOrderByLineOrderAsc(Long quoteId);
 
+    List<QuoteItemEntity> findByQuoteIdInOrderByQuoteIdAscLineOrderAsc(Collection<Long> quoteIds);
+
+    /** Item amount total per quote in one query; quotes without items are absent. */
+    @Query("SELECT new com.dfbs.app.modules.quote.QuoteItemTotal(i.quoteId, SUM(i.amount)) "
+            + "FROM QuoteItemEntity i WHERE i.quoteId IN :quoteIds GROUP BY i.quoteId")
+    List<QuoteItemTotal> sumAmountByQuoteIdIn(@Param("quoteIds") Collection<Long> quoteIds);
+
     void deleteByQuoteId(Long quoteId);
 }
@@ -0,0 +1,6 @@
+package com.dfbs.app.modules.quote;
+
+import java.math.BigDecimal;
+
+/** Sum of item amounts of one quote. */
+public record QuoteItemTotal(Long quoteId, BigDecimal total) {}
@@ -1,7 +1,42 @@
 package com.dfbs.app.modules.quote;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface QuoteRepo extends JpaRepository<QuoteEntity, Long>, JpaSpecificationExecutor<QuoteEntity> {
+
+    /** Row locks in id order, so concurrent writers of invoiced/paid amounts serialize without deadlocking. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT q FROM QuoteEntity q WHERE q.id IN :ids ORDER BY q.id")
+    List<QuoteEntity> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT q FROM QuoteEntity q WHERE q.id = :id")
+    Optional<QuoteEntity> findByIdForUpdate(@Param("id") Long id);
+
+    /** Customers with confirmed, not fully paid quotes outside a void application (statement run). */
+    @Query("SELECT DISTINCT q.customerId FROM QuoteEntity q "
+            + "WHERE q.status IN (com.dfbs.app.modules.quote.enums.QuoteStatus.CONFIRMED, com.dfbs.app.modules.quote.enums.QuoteStatus.PARTIAL_PAID) "
+            + "AND q.voidStatus <> com.dfbs.app.modules.quote.enums.QuoteVoidStatus.APPLYING AND q.currency IS NOT NULL "
+            + "ORDER BY q.customerId")
+    List<Long> findOpenCustomerIds();
+
+    /**
+     * Open quotes of many customers, row-locked in id order (same order as {@link #findAllByIdForUpdate}), so statement
+     * generation for a customer runs one at a time and sees statements committed before it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT q FROM QuoteEntity q WHERE q.customerId IN :customerIds "
+            + "AND q.status IN (com.dfbs.app.modules.quote.enums.QuoteStatus.CONFIRMED, com.dfbs.app.modules.quote.enums.QuoteStatus.PARTIAL_PAID) "
+            + "AND q.voidStatus <> com.dfbs.app.modules.quote.enums.QuoteVoidStatus.APPLYING AND q.currency IS NOT NULL "
+            + "ORDER BY q.id")
+    List<QuoteEntity> findOpenByCustomerIdInForUpdate(@Param("customerIds") Collection<Long> customerIds);
 }
@@ -1,10 +1,30 @@
 package com.dfbs.app.modules.quote;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface QuoteSequenceRepo extends JpaRepository<QuoteSequenceEntity, Long> {
 
     Optional<QuoteSequenceEntity> findByUserInitialsAndYearMonth(String userInitials, String yearMonth);
+
+    /**
+     * Atomically reserves {@code count} numbers for (userInitials, yearMonth) and returns the last one.
+     * Single upsert on ux_quote_number_sequence_user_year_month: first caller inserts, later callers increment under
+     * the row lock, so concurrent nodes never read the same value. Reserved range = [result - count + 1, result].
+     */
+    @Transactional
+    @Query(value = """
+            insert into quote_number_sequence (user_initials, year_month, current_seq)
+            values (:userInitials, :yearMonth, :count)
+            on conflict (user_initials, year_month)
+            do update set current_seq = quote_number_sequence.current_seq + excluded.current_seq
+            returning current_seq
+            """, nativeQuery = true)
+    int allocate(@Param("userInitials") String userInitials,
+                 @Param("yearMonth") String yearMonth,
+                 @Param("count") int count);
 }
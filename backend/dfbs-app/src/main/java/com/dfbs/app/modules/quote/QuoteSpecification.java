@@ -13,6 +13,35 @@ public final class QuoteSpecification {
 
     private QuoteSpecification() {}
 
+    /**
+     * Quotes that can be exported (DRAFT, APPROVAL_PENDING, RETURNED, CONFIRMED), oldest first.
+     * Optional: customerName (recipient like), createTime range, paymentStatus exact.
+     */
+    public static Specification<QuoteEntity> exportableQuotes(
+            String customerName,
+            LocalDateTime createTimeFrom,
+            LocalDateTime createTimeTo,
+            QuotePaymentStatus paymentStatus) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(root.get("status").in(QuoteStatus.DRAFT, QuoteStatus.APPROVAL_PENDING,
+                    QuoteStatus.RETURNED, QuoteStatus.CONFIRMED));
+            if (customerName != null && !customerName.isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("recipient")), "%" + customerName.toLowerCase() + "%"));
+            }
+            if (createTimeFrom != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), createTimeFrom));
+            }
+            if (createTimeTo != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), createTimeTo));
+            }
+            if (paymentStatus != null) {
+                predicates.add(cb.equal(root.get("paymentStatus"), paymentStatus));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
     /**
      * Pending payment list: collectorId == current user, status CONFIRMED, paymentStatus != PAID.
      * Optional: customerName (recipient like), createTime range, paymentStatus exact.
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class QuotePaymentEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quote_payment_id_seq")
+    @SequenceGenerator(name = "quote_payment_id_seq", sequenceName = "quote_payment_id_seq", allocationSize = 50)
     private Long id;
 
     @CreatedDate
@@ -1,15 +1,37 @@
 package com.dfbs.app.modules.quote.payment;
 
 import com.dfbs.app.modules.quote.enums.PaymentStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface QuotePaymentRepo extends JpaRepository<QuotePaymentEntity, Long> {
     List<QuotePaymentEntity> findByQuoteId(Long quoteId);
     List<QuotePaymentEntity> findByQuoteIdAndStatus(Long quoteId, PaymentStatus status);
     List<QuotePaymentEntity> findByQuoteIdAndIsFinanceConfirmedTrue(Long quoteId);
     Page<QuotePaymentEntity> findByQuoteId(Long quoteId, Pageable pageable);
+
+    /** Row lock, so the same payment is never confirmed or returned twice. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM QuotePaymentEntity p WHERE p.id = :id")
+    Optional<QuotePaymentEntity> findByIdForUpdate(@Param("id") Long id);
+
+    /** Finance-confirmed amount per quote in one query; quotes without confirmed payments are absent. */
+    @Query("SELECT new com.dfbs.app.modules.quote.payment.QuotePaymentTotal(p.quoteId, SUM(p.amount)) "
+            + "FROM QuotePaymentEntity p WHERE p.quoteId IN :quoteIds AND p.isFinanceConfirmed = true GROUP BY p.quoteId")
+    List<QuotePaymentTotal> sumConfirmedByQuoteIdIn(@Param("quoteIds") Collection<Long> quoteIds);
+
+    /** Submitted, not yet confirmed or returned amount per quote; quotes without pending payments are absent. */
+    @Query("SELECT new com.dfbs.app.modules.quote.payment.QuotePaymentTotal(p.quoteId, SUM(p.amount)) "
+            + "FROM QuotePaymentEntity p WHERE p.quoteId IN :quoteIds "
+            + "AND p.status = com.dfbs.app.modules.quote.enums.PaymentStatus.SUBMITTED GROUP BY p.quoteId")
+    List<QuotePaymentTotal> sumSubmittedByQuoteIdIn(@Param("quoteIds") Collection<Long> quoteIds);
 }
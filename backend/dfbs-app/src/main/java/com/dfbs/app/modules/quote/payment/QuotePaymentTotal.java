@@ -0,0 +1,6 @@
+package com.dfbs.app.modules.quote.payment;
+
+import java.math.BigDecimal;
+
+/** Sum of payment amounts of one quote. */
+public record QuotePaymentTotal(Long quoteId, BigDecimal total) {}
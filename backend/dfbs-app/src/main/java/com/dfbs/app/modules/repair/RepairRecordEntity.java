@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 public class RepairRecordEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "repair_record_id_seq")
+    @SequenceGenerator(name = "repair_record_id_seq", sequenceName = "repair_record_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "customer_name", nullable = false, length = 256)
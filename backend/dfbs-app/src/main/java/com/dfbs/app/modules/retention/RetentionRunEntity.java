@@ -0,0 +1,51 @@
+package com.dfbs.app.modules.retention;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/** Progress of one retention run of one policy. */
+@Entity
+@Table(name = "retention_run")
+@Data
+public class RetentionRunEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "policy", nullable = false, length = 64)
+    private String policy;
+
+    @Column(name = "table_name", nullable = false, length = 64)
+    private String tableName;
+
+    /** Rows older than this are expired. */
+    @Column(name = "cutoff", nullable = false)
+    private LocalDateTime cutoff;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private RetentionRunStatus status;
+
+    @Column(name = "deleted_rows", nullable = false)
+    private Long deletedRows = 0L;
+
+    @Column(name = "batches", nullable = false)
+    private Integer batches = 0;
+
+    @Column(name = "dropped_partitions", nullable = false)
+    private Integer droppedPartitions = 0;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public RetentionRunEntity() {}
+}
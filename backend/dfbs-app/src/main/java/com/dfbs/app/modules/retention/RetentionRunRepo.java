@@ -0,0 +1,10 @@
+package com.dfbs.app.modules.retention;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface RetentionRunRepo extends JpaRepository<RetentionRunEntity, Long> {
+
+    List<RetentionRunEntity> findTop20ByPolicyOrderByStartedAtDesc(String policy);
+}
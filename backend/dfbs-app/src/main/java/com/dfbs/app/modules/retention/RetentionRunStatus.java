@@ -0,0 +1,9 @@
+package com.dfbs.app.modules.retention;
+
+public enum RetentionRunStatus {
+    RUNNING,
+    COMPLETED,
+    /** Stopped at the per-run batch limit; the next run continues. */
+    PARTIAL,
+    FAILED
+}
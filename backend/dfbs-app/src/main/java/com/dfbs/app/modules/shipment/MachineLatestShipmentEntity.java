@@ -0,0 +1,22 @@
+package com.dfbs.app.modules.shipment;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+/** Latest shipment per machine; maintained by triggers on shipment_machine (V0095), read-only here. */
+@Entity
+@Immutable
+@Table(name = "machine_latest_shipment")
+@Data
+public class MachineLatestShipmentEntity {
+
+    @Id
+    @Column(name = "machine_no", nullable = false, length = 128)
+    private String machineNo;
+
+    @Column(name = "shipment_id", nullable = false)
+    private Long shipmentId;
+
+    public MachineLatestShipmentEntity() {}
+}
@@ -0,0 +1,16 @@
+package com.dfbs.app.modules.shipment;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface MachineLatestShipmentRepo extends JpaRepository<MachineLatestShipmentEntity, String> {
+
+    /** Latest shipment of each given machine, one query for a whole page (machines never shipped are absent). */
+    @Query("SELECT new com.dfbs.app.modules.shipment.MachineShipmentSummary(l.machineNo, s.id, s.receiverName, s.contractNo) "
+            + "FROM MachineLatestShipmentEntity l, ShipmentEntity s WHERE s.id = l.shipmentId AND l.machineNo IN :machineNos")
+    List<MachineShipmentSummary> findSummariesByMachineNoIn(@Param("machineNos") Collection<String> machineNos);
+}
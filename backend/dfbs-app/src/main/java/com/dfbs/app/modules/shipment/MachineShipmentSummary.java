@@ -0,0 +1,4 @@
+package com.dfbs.app.modules.shipment;
+
+/** Machine with the receiver / contract of its latest shipment. */
+public record MachineShipmentSummary(String machineNo, Long shipmentId, String receiverName, String contractNo) {}
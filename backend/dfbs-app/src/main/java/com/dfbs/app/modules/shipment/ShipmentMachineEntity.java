@@ -9,7 +9,8 @@ import lombok.Data;
 public class ShipmentMachineEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipment_machine_id_seq")
+    @SequenceGenerator(name = "shipment_machine_id_seq", sequenceName = "shipment_machine_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "shipment_id", nullable = false)
@@ -1,7 +1,10 @@
 package com.dfbs.app.modules.shipment;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ShipmentMachineRepo extends JpaRepository<ShipmentMachineEntity, Long> {
@@ -9,7 +12,12 @@ public interface ShipmentMachineRepo extends JpaRepository<ShipmentMachineEntity
 
     long countByShipmentId(Long shipmentId);
 
-    /** Latest shipment for a machine (Machine -> Shipment). */
+    /** Machine count per (shipment, model) for many shipments in one query (freight bill build). */
+    @Query("SELECT new com.dfbs.app.modules.shipment.ShipmentModelCount(m.shipmentId, m.model, COUNT(m)) "
+            + "FROM ShipmentMachineEntity m WHERE m.shipmentId IN :shipmentIds GROUP BY m.shipmentId, m.model")
+    List<ShipmentModelCount> countByShipmentIdInGroupByModel(@Param("shipmentIds") Collection<Long> shipmentIds);
+
+    /** Latest shipment for a machine (Machine -> Shipment). For many machines use MachineLatestShipmentRepo. */
     java.util.Optional<ShipmentMachineEntity> findTopByMachineNoOrderByShipmentIdDesc(String machineNo);
 
     void deleteByShipmentId(Long shipmentId);
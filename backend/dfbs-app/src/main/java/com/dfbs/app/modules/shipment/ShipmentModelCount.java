@@ -0,0 +1,4 @@
+package com.dfbs.app.modules.shipment;
+
+/** Number of machines of one model on one shipment (model may be null or blank). */
+public record ShipmentModelCount(Long shipmentId, String model, long count) {}
@@ -1,9 +1,16 @@
 package com.dfbs.app.modules.shipment;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ShipmentRepo extends JpaRepository<ShipmentEntity, Long>, JpaSpecificationExecutor<ShipmentEntity> {
@@ -11,7 +18,20 @@ public interface ShipmentRepo extends JpaRepository<ShipmentEntity, Long>, JpaSp
     /** For freight bill: available shipments by carrier, not yet linked to any bill, status SHIPPED or COMPLETED. */
     List<ShipmentEntity> findByCarrierAndFreightBillIdIsNullAndStatusIn(String carrier, List<ShipmentStatus> statuses);
 
-    /** By carrier_id, not linked, status in list, createdAt between. */
+    /** By carrier_id, not linked, status in list, createdAt between. Read-only (loaded to build a freight bill). */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<ShipmentEntity> findByCarrierIdAndFreightBillIdIsNullAndStatusInAndCreatedAtBetween(
             Long carrierId, List<ShipmentStatus> statuses, LocalDateTime from, LocalDateTime to);
+
+    /** Read-only load of many shipments by id (freight bill build). */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<ShipmentEntity> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Links the given unlinked shipments to a freight bill in one statement; returns the number linked
+     * (fewer than ids.size() means some were linked meanwhile). Clears the persistence context afterwards.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ShipmentEntity s set s.freightBillId = :billId where s.id in :ids and s.freightBillId is null")
+    int linkToFreightBill(@Param("billId") Long billId, @Param("ids") Collection<Long> ids);
 }
@@ -15,7 +15,8 @@ import java.util.List;
 public class AccountStatementEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_statement_id_seq")
+    @SequenceGenerator(name = "account_statement_id_seq", sequenceName = "account_statement_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "statement_no", nullable = false, unique = true, length = 64)
@@ -11,7 +11,8 @@ import java.math.BigDecimal;
 public class AccountStatementItemEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_statement_item_id_seq")
+    @SequenceGenerator(name = "account_statement_item_id_seq", sequenceName = "account_statement_item_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "statement_id", nullable = false)
@@ -1,7 +1,10 @@
 package com.dfbs.app.modules.statement;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +15,10 @@ public interface AccountStatementItemRepo extends JpaRepository<AccountStatement
     Optional<AccountStatementItemEntity> findByStatementIdAndQuoteId(Long statementId, Long quoteId);
 
     void deleteByStatementIdAndQuoteId(Long statementId, Long quoteId);
+
+    /** Those of quoteIds already on a PENDING statement (statement run skips them). */
+    @Query("SELECT DISTINCT i.quoteId FROM AccountStatementItemEntity i, AccountStatementEntity s "
+            + "WHERE s.id = i.statementId AND s.status = com.dfbs.app.modules.statement.StatementStatus.PENDING "
+            + "AND i.quoteId IN :quoteIds")
+    List<Long> findQuoteIdsOnPendingStatements(@Param("quoteIds") Collection<Long> quoteIds);
 }
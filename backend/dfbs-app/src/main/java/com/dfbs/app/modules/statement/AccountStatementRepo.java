@@ -1,8 +1,13 @@
 package com.dfbs.app.modules.statement;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface AccountStatementRepo extends JpaRepository<AccountStatementEntity, Long> {
 
@@ -12,5 +17,9 @@ public interface AccountStatementRepo extends JpaRepository<AccountStatementEnti
 
     List<AccountStatementEntity> findByCustomerIdAndStatusOrderByCreatedAtDesc(Long customerId, StatementStatus status);
 
-    long countByStatementNoStartingWith(String prefix);
+    /** Row lock, so a statement is reconciled by one batch payment only. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountStatementEntity s WHERE s.id = :id")
+    Optional<AccountStatementEntity> findByIdForUpdate(@Param("id") Long id);
+
 }
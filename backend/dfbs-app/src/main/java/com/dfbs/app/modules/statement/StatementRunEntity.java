@@ -0,0 +1,53 @@
+package com.dfbs.app.modules.statement;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "statement_run")
+@Data
+public class StatementRunEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private StatementRunStatus status;
+
+    @Column(name = "customer_total", nullable = false)
+    private Integer customerTotal = 0;
+
+    @Column(name = "customer_done", nullable = false)
+    private Integer customerDone = 0;
+
+    @Column(name = "statement_count", nullable = false)
+    private Integer statementCount = 0;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount = 0;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    /** Node that runs it (see NodeIdentity). */
+    @Column(name = "worker_node", length = 128)
+    private String workerNode;
+
+    @Column(name = "created_by")
+    private Long createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public StatementRunEntity() {}
+}
@@ -0,0 +1,45 @@
+package com.dfbs.app.modules.statement;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface StatementRunRepo extends JpaRepository<StatementRunEntity, Long> {
+
+    /** QUEUED -> RUNNING with the number of customers to process; 0 if the run was already claimed. */
+    @Transactional
+    @Modifying
+    @Query("update StatementRunEntity r set r.status = com.dfbs.app.modules.statement.StatementRunStatus.RUNNING, "
+            + "r.customerTotal = :customerTotal, r.startedAt = :now "
+            + "where r.id = :id and r.status = com.dfbs.app.modules.statement.StatementRunStatus.QUEUED")
+    int markRunning(@Param("id") Long id, @Param("customerTotal") int customerTotal, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update StatementRunEntity r set r.customerDone = :customerDone, r.statementCount = :statements, "
+            + "r.itemCount = :items where r.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("customerDone") int customerDone,
+                       @Param("statements") int statements, @Param("items") int items);
+
+    @Transactional
+    @Modifying
+    @Query("update StatementRunEntity r set r.status = :status, r.errorMessage = :error, r.finishedAt = :now "
+            + "where r.id = :id")
+    int finish(@Param("id") Long id, @Param("status") StatementRunStatus status, @Param("error") String error,
+               @Param("now") LocalDateTime now);
+
+    /** Runs of workerNode left QUEUED / RUNNING by an earlier process (created before startedAt) become FAILED. */
+    @Transactional
+    @Modifying
+    @Query("update StatementRunEntity r set r.status = com.dfbs.app.modules.statement.StatementRunStatus.FAILED, "
+            + "r.errorMessage = :error, r.finishedAt = :now "
+            + "where r.status in (com.dfbs.app.modules.statement.StatementRunStatus.QUEUED, "
+            + "com.dfbs.app.modules.statement.StatementRunStatus.RUNNING) "
+            + "and (r.workerNode = :workerNode or r.workerNode is null) and r.createdAt < :startedAt")
+    int failInterrupted(@Param("workerNode") String workerNode, @Param("startedAt") LocalDateTime startedAt,
+                        @Param("error") String error, @Param("now") LocalDateTime now);
+}
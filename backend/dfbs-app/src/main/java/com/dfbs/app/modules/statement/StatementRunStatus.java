@@ -0,0 +1,12 @@
+package com.dfbs.app.modules.statement;
+
+public enum StatementRunStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
@@ -3,7 +3,10 @@ package com.dfbs.app.modules.user;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +25,8 @@ public interface UserRepo extends JpaRepository<UserEntity, Long> {
 
     /** Paginated search: username or nickname contains (case-insensitive). */
     Page<UserEntity> findByUsernameContainingIgnoreCaseOrNicknameContainingIgnoreCaseOrderByUsername(String username, String nickname, Pageable pageable);
+
+    /** Of the given ids, those that turned off Normal notifications (one query for a whole recipient list). */
+    @Query("SELECT u.id FROM UserEntity u WHERE u.id IN :ids AND u.allowNormalNotification = false")
+    List<Long> findIdsWithNormalNotificationOff(@Param("ids") Collection<Long> ids);
 }
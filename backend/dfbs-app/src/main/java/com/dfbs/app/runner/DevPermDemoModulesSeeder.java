@@ -1,5 +1,6 @@
 package com.dfbs.app.runner;
 
+import com.dfbs.app.application.perm.PermPermissionTreeService;
 import com.dfbs.app.modules.perm.PermModuleActionEntity;
 import com.dfbs.app.modules.perm.PermModuleActionRepo;
 import com.dfbs.app.modules.perm.PermModuleEntity;
@@ -32,13 +33,16 @@ public class DevPermDemoModulesSeeder implements ApplicationRunner {
 
     private final PermModuleRepo moduleRepo;
     private final PermModuleActionRepo moduleActionRepo;
+    private final PermPermissionTreeService permissionTreeService;
     private final Environment environment;
 
     public DevPermDemoModulesSeeder(PermModuleRepo moduleRepo,
                                     PermModuleActionRepo moduleActionRepo,
+                                    PermPermissionTreeService permissionTreeService,
                                     Environment environment) {
         this.moduleRepo = moduleRepo;
         this.moduleActionRepo = moduleActionRepo;
+        this.permissionTreeService = permissionTreeService;
         this.environment = environment;
     }
 
@@ -57,6 +61,7 @@ public class DevPermDemoModulesSeeder implements ApplicationRunner {
                 moduleActionRepo.save(ma);
             }
         }
+        permissionTreeService.invalidate();
     }
 
     private PermModuleEntity ensureModule(String moduleKey, String label, Long parentId) {
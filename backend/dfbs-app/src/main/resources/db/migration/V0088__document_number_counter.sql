@@ -0,0 +1,36 @@
+-- Shared counters for human-readable document numbers (ST-/PT-/WO-/FB-/INV-/APP-).
+-- One row per (doc_type, period); allocation is a single upsert, so concurrent nodes never read the same value.
+
+CREATE TABLE IF NOT EXISTS document_number_counter (
+    id BIGSERIAL PRIMARY KEY,
+    doc_type VARCHAR(32) NOT NULL,
+    period VARCHAR(16) NOT NULL,
+    current_value BIGINT NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_document_number_counter_type_period
+    ON document_number_counter(doc_type, period);
+
+COMMENT ON TABLE document_number_counter IS 'Last issued sequence per document type and period (e.g. yyyyMMdd).';
+
+-- Seed from numbers already issued with a per-day sequence, so today's counters continue after existing rows.
+INSERT INTO document_number_counter (doc_type, period, current_value)
+SELECT 'STATEMENT', substring(statement_no FROM 4 FOR 8), max(substring(statement_no FROM 13)::BIGINT)
+FROM account_statement
+WHERE statement_no ~ '^ST-[0-9]{8}-[0-9]+$'
+GROUP BY substring(statement_no FROM 4 FOR 8)
+ON CONFLICT (doc_type, period) DO NOTHING;
+
+INSERT INTO document_number_counter (doc_type, period, current_value)
+SELECT 'PART', substring(system_no FROM 4 FOR 8), max(substring(system_no FROM 13)::BIGINT)
+FROM part
+WHERE system_no ~ '^PT-[0-9]{8}-[0-9]+$'
+GROUP BY substring(system_no FROM 4 FOR 8)
+ON CONFLICT (doc_type, period) DO NOTHING;
+
+INSERT INTO document_number_counter (doc_type, period, current_value)
+SELECT 'PLATFORM_ACCOUNT_APPLICATION', substring(application_no FROM 5 FOR 8), max(substring(application_no FROM 14)::BIGINT)
+FROM platform_account_applications
+WHERE application_no ~ '^APP-[0-9]{8}-[0-9]+$'
+GROUP BY substring(application_no FROM 5 FOR 8)
+ON CONFLICT (doc_type, period) DO NOTHING;
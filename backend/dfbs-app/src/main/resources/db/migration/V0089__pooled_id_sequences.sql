@@ -0,0 +1,22 @@
+-- Hot insert tables: move entity ids from IDENTITY to sequence-backed pooled-lo allocation (allocationSize = 50).
+-- Hibernate reserves a block of 50 ids per nextval, which lets it batch INSERTs (IDENTITY disables batching).
+-- Column defaults stay on the same sequences, so raw SQL inserts still work and never overlap a reserved block.
+
+DO $$
+DECLARE
+    t TEXT;
+    seq TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'quote_item', 'shipment_machine', 'inventory_log', 'notification',
+        'repair_record', 'bom_item', 'md_customer', 'md_customer_alias', 'md_customer_merge_log',
+        'md_platform', 'md_carrier', 'md_carrier_rule'
+    ]
+    LOOP
+        seq := t || '_id_seq';
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', seq);
+        -- Sequences can lag behind ids inserted explicitly (seeds); never hand out an id already in use.
+        EXECUTE format('SELECT setval(%L, GREATEST((SELECT COALESCE(MAX(id), 0) FROM %I), (SELECT last_value FROM %I)) + 1, false)',
+                       seq, t, seq);
+    END LOOP;
+END $$;
@@ -0,0 +1,17 @@
+-- Resumable checkpoints for chunked Excel imports (one row per import type + file fingerprint).
+-- Updated in the same transaction as each committed chunk; deleted when the file finishes.
+
+CREATE TABLE IF NOT EXISTS import_checkpoint (
+    id BIGSERIAL PRIMARY KEY,
+    import_type VARCHAR(64) NOT NULL,
+    resume_key VARCHAR(128) NOT NULL,
+    last_row INT NOT NULL,
+    success_count INT NOT NULL DEFAULT 0,
+    failure_count INT NOT NULL DEFAULT 0,
+    conflict_count INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_import_checkpoint_type_key ON import_checkpoint(import_type, resume_key);
+
+COMMENT ON COLUMN import_checkpoint.last_row IS 'Last Excel row (1-based) of the last committed chunk; a resumed run skips rows up to here.';
@@ -0,0 +1,25 @@
+-- Background Excel import jobs: upload returns the job id, a worker runs the import and records progress here.
+-- Progress columns are rewritten after every committed chunk; result_json holds the final ImportResultDto.
+
+CREATE TABLE IF NOT EXISTS import_job (
+    id BIGSERIAL PRIMARY KEY,
+    import_type VARCHAR(64) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    file_name VARCHAR(255),
+    rows_read INT NOT NULL DEFAULT 0,
+    success_count INT NOT NULL DEFAULT 0,
+    failure_count INT NOT NULL DEFAULT 0,
+    conflict_count INT NOT NULL DEFAULT 0,
+    cancel_requested BOOLEAN NOT NULL DEFAULT FALSE,
+    result_json TEXT,
+    error_message VARCHAR(1000),
+    created_by BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_import_job_status ON import_job(status);
+
+COMMENT ON COLUMN import_job.status IS 'QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED.';
+COMMENT ON COLUMN import_job.rows_read IS 'Data rows read up to the last committed chunk (includes blank rows and rows skipped on resume).';
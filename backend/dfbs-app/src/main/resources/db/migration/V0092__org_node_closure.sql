@@ -0,0 +1,26 @@
+-- V0092__org_node_closure.sql
+-- Closure table for org_node: one row per (ancestor, descendant) pair, including (node, node) at depth 0.
+-- Maintained by OrgNodeService on create and move, so subtree membership, depth and impact counts are single
+-- indexed queries. Rows go away with either node (ON DELETE CASCADE).
+
+CREATE TABLE IF NOT EXISTS org_node_closure (
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth INT NOT NULL,
+    CONSTRAINT pk_org_node_closure PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT fk_onc_ancestor FOREIGN KEY (ancestor_id) REFERENCES org_node(id) ON DELETE CASCADE,
+    CONSTRAINT fk_onc_descendant FOREIGN KEY (descendant_id) REFERENCES org_node(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS ix_org_node_closure_descendant ON org_node_closure(descendant_id, depth);
+
+INSERT INTO org_node_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0 FROM org_node
+    UNION ALL
+    SELECT p.ancestor_id, n.id, p.depth + 1
+    FROM paths p
+    JOIN org_node n ON n.parent_id = p.descendant_id
+)
+SELECT ancestor_id, descendant_id, depth FROM paths
+ON CONFLICT (ancestor_id, descendant_id) DO NOTHING;
@@ -0,0 +1,19 @@
+-- Deferred notification fan-out: one row per batch send, written in the sender's transaction and expanded into
+-- notification rows after commit (or by the periodic sweep if the after-commit delivery did not run).
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    recipient_ids TEXT NOT NULL,
+    title VARCHAR(200) NOT NULL,
+    content TEXT,
+    target_url VARCHAR(500),
+    type VARCHAR(32),
+    related_id BIGINT,
+    priority VARCHAR(16) NOT NULL,
+    is_action_required BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_created_at ON notification_outbox(created_at);
+
+COMMENT ON COLUMN notification_outbox.recipient_ids IS 'Comma-separated app_user ids.';
@@ -0,0 +1,24 @@
+-- Retention engine: expired rows are deleted in bounded batches, each batch in its own short transaction,
+-- and each run records its progress here (advanced in the same transaction as every batch).
+
+CREATE TABLE IF NOT EXISTS retention_run (
+    id BIGSERIAL PRIMARY KEY,
+    policy VARCHAR(64) NOT NULL,
+    table_name VARCHAR(64) NOT NULL,
+    cutoff TIMESTAMP NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    deleted_rows BIGINT NOT NULL DEFAULT 0,
+    batches INT NOT NULL DEFAULT 0,
+    dropped_partitions INT NOT NULL DEFAULT 0,
+    error VARCHAR(1000),
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS ix_retention_run_policy_started ON retention_run(policy, started_at DESC);
+
+COMMENT ON COLUMN retention_run.status IS 'RUNNING, COMPLETED, PARTIAL (batch limit reached; the next run continues) or FAILED.';
+
+-- Batch selection scans by age (notification also by priority).
+CREATE INDEX IF NOT EXISTS ix_notification_priority_created_at ON notification(priority, created_at);
+CREATE INDEX IF NOT EXISTS ix_inventory_log_created_at ON inventory_log(created_at);
@@ -0,0 +1,94 @@
+-- Latest shipment per machine (highest shipment_id in shipment_machine), kept current by statement-level triggers
+-- on shipment_machine so every writer (services, imports, cleaners) maintains it. ICCID lists read it in one query.
+
+CREATE TABLE IF NOT EXISTS machine_latest_shipment (
+    machine_no VARCHAR(128) PRIMARY KEY,
+    shipment_id BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_machine_latest_shipment_shipment_id ON machine_latest_shipment(shipment_id);
+
+COMMENT ON TABLE machine_latest_shipment IS 'Derived from shipment_machine (max shipment_id per machine_no); do not write directly.';
+
+-- Recompute the given machines from shipment_machine (drop those with no shipment left).
+CREATE OR REPLACE FUNCTION machine_latest_shipment_refresh(machine_nos VARCHAR[]) RETURNS VOID AS $$
+BEGIN
+    DELETE FROM machine_latest_shipment mls
+    WHERE mls.machine_no = ANY (machine_nos)
+      AND NOT EXISTS (SELECT 1 FROM shipment_machine sm WHERE sm.machine_no = mls.machine_no);
+    INSERT INTO machine_latest_shipment (machine_no, shipment_id)
+    SELECT sm.machine_no, max(sm.shipment_id)
+    FROM shipment_machine sm
+    WHERE sm.machine_no = ANY (machine_nos)
+    GROUP BY sm.machine_no
+    ON CONFLICT (machine_no) DO UPDATE SET shipment_id = excluded.shipment_id;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION machine_latest_shipment_on_insert() RETURNS TRIGGER AS $$
+BEGIN
+    -- Inserts can only raise the latest shipment: no need to rescan shipment_machine.
+    INSERT INTO machine_latest_shipment (machine_no, shipment_id)
+    SELECT machine_no, max(shipment_id) FROM new_rows GROUP BY machine_no
+    ON CONFLICT (machine_no) DO UPDATE SET shipment_id = GREATEST(machine_latest_shipment.shipment_id, excluded.shipment_id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION machine_latest_shipment_on_delete() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM machine_latest_shipment_refresh(ARRAY(SELECT DISTINCT machine_no FROM old_rows));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION machine_latest_shipment_on_update() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM machine_latest_shipment_refresh(ARRAY(
+        SELECT machine_no FROM old_rows UNION SELECT machine_no FROM new_rows));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_machine_latest_shipment_insert ON shipment_machine;
+CREATE TRIGGER trg_machine_latest_shipment_insert AFTER INSERT ON shipment_machine
+    REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION machine_latest_shipment_on_insert();
+
+DROP TRIGGER IF EXISTS trg_machine_latest_shipment_delete ON shipment_machine;
+CREATE TRIGGER trg_machine_latest_shipment_delete AFTER DELETE ON shipment_machine
+    REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION machine_latest_shipment_on_delete();
+
+DROP TRIGGER IF EXISTS trg_machine_latest_shipment_update ON shipment_machine;
+CREATE TRIGGER trg_machine_latest_shipment_update AFTER UPDATE ON shipment_machine
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION machine_latest_shipment_on_update();
+
+CREATE OR REPLACE FUNCTION machine_latest_shipment_on_truncate() RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM machine_latest_shipment;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_machine_latest_shipment_truncate ON shipment_machine;
+CREATE TRIGGER trg_machine_latest_shipment_truncate AFTER TRUNCATE ON shipment_machine
+    FOR EACH STATEMENT EXECUTE FUNCTION machine_latest_shipment_on_truncate();
+
+CREATE INDEX IF NOT EXISTS ix_shipment_machine_machine_no ON shipment_machine(machine_no);
+
+INSERT INTO machine_latest_shipment (machine_no, shipment_id)
+SELECT machine_no, max(shipment_id) FROM shipment_machine GROUP BY machine_no
+ON CONFLICT (machine_no) DO UPDATE SET shipment_id = excluded.shipment_id;
+
+-- Substring search on ICCID numbers (upper(iccid_no) LIKE '%...%', as the ContainingIgnoreCase queries emit) via a
+-- trigram index. pg_trgm is a trusted extension (PostgreSQL 13+); without it the search keeps scanning.
+DO $$
+BEGIN
+    BEGIN
+        CREATE EXTENSION IF NOT EXISTS pg_trgm;
+    EXCEPTION WHEN insufficient_privilege OR undefined_file THEN
+        RAISE NOTICE 'pg_trgm not available; md_iccid keyword search stays unindexed';
+    END;
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        EXECUTE 'CREATE INDEX IF NOT EXISTS ix_md_iccid_iccid_no_trgm ON md_iccid USING gin (upper(iccid_no) gin_trgm_ops)';
+    END IF;
+END $$;
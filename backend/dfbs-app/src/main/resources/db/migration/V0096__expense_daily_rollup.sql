@@ -0,0 +1,127 @@
+-- Daily pre-aggregate of non-VOID expenses for the stats dashboard, one row per
+-- (day, creator, quote, work order, trip, currency, type, claim status). Kept current by row triggers on expense
+-- (create / edit / void / claim link) and on claim status changes, so every writer maintains it.
+-- Customer is resolved at query time (quote, or work order -> quote), never copied here.
+
+CREATE TABLE IF NOT EXISTS expense_daily_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    expense_date DATE NOT NULL,
+    created_by BIGINT NOT NULL,
+    quote_id BIGINT,
+    work_order_id BIGINT,
+    trip_request_id BIGINT,
+    currency VARCHAR(8) NOT NULL,
+    expense_type VARCHAR(32),
+    claim_status VARCHAR(32),
+    amount DECIMAL(19,2) NOT NULL,
+    expense_count INT NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_expense_daily_rollup_key ON expense_daily_rollup
+    (expense_date, created_by, quote_id, work_order_id, trip_request_id, currency, expense_type, claim_status) NULLS NOT DISTINCT;
+
+COMMENT ON TABLE expense_daily_rollup IS 'Derived from expense + claim.status (non-VOID only); do not write directly.';
+
+-- Add delta to one key; a bucket whose count drops to zero is removed.
+CREATE OR REPLACE FUNCTION expense_daily_rollup_add(p_date DATE, p_created_by BIGINT, p_quote_id BIGINT,
+        p_work_order_id BIGINT, p_trip_request_id BIGINT, p_currency VARCHAR, p_expense_type VARCHAR,
+        p_claim_status VARCHAR, p_amount DECIMAL, p_count INT) RETURNS VOID AS $$
+DECLARE
+    v_id BIGINT;
+    v_count INT;
+BEGIN
+    INSERT INTO expense_daily_rollup AS r (expense_date, created_by, quote_id, work_order_id, trip_request_id,
+                                           currency, expense_type, claim_status, amount, expense_count)
+    VALUES (p_date, p_created_by, p_quote_id, p_work_order_id, p_trip_request_id,
+            p_currency, p_expense_type, p_claim_status, p_amount, p_count)
+    ON CONFLICT (expense_date, created_by, quote_id, work_order_id, trip_request_id, currency, expense_type, claim_status)
+    DO UPDATE SET amount = r.amount + excluded.amount, expense_count = r.expense_count + excluded.expense_count
+    RETURNING id, expense_count INTO v_id, v_count;
+    IF v_count <= 0 THEN
+        DELETE FROM expense_daily_rollup WHERE id = v_id;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- The rollup always holds an expense under its claim's current status, so the claim row is read as it is now.
+CREATE OR REPLACE FUNCTION expense_daily_rollup_on_expense() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' AND OLD.status <> 'VOID' THEN
+        PERFORM expense_daily_rollup_add(OLD.expense_date, OLD.created_by, OLD.quote_id, OLD.work_order_id,
+                OLD.trip_request_id, OLD.currency, OLD.expense_type,
+                (SELECT c.status FROM claim c WHERE c.id = OLD.claim_id), -OLD.amount, -1);
+    END IF;
+    IF TG_OP <> 'DELETE' AND NEW.status <> 'VOID' THEN
+        PERFORM expense_daily_rollup_add(NEW.expense_date, NEW.created_by, NEW.quote_id, NEW.work_order_id,
+                NEW.trip_request_id, NEW.currency, NEW.expense_type,
+                (SELECT c.status FROM claim c WHERE c.id = NEW.claim_id), NEW.amount, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Move the claim's expenses from the old status bucket to the new one.
+CREATE OR REPLACE FUNCTION expense_daily_rollup_on_claim_status() RETURNS TRIGGER AS $$
+DECLARE
+    g RECORD;
+BEGIN
+    FOR g IN
+        SELECT e.expense_date, e.created_by, e.quote_id, e.work_order_id, e.trip_request_id, e.currency,
+               e.expense_type, sum(e.amount) AS amount, count(*)::INT AS cnt
+        FROM expense e
+        WHERE e.claim_id = NEW.id AND e.status <> 'VOID'
+        GROUP BY e.expense_date, e.created_by, e.quote_id, e.work_order_id, e.trip_request_id, e.currency, e.expense_type
+    LOOP
+        PERFORM expense_daily_rollup_add(g.expense_date, g.created_by, g.quote_id, g.work_order_id,
+                g.trip_request_id, g.currency, g.expense_type, OLD.status, -g.amount, -g.cnt);
+        PERFORM expense_daily_rollup_add(g.expense_date, g.created_by, g.quote_id, g.work_order_id,
+                g.trip_request_id, g.currency, g.expense_type, NEW.status, g.amount, g.cnt);
+    END LOOP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_expense_daily_rollup_insert ON expense;
+CREATE TRIGGER trg_expense_daily_rollup_insert AFTER INSERT ON expense
+    FOR EACH ROW EXECUTE FUNCTION expense_daily_rollup_on_expense();
+
+DROP TRIGGER IF EXISTS trg_expense_daily_rollup_delete ON expense;
+CREATE TRIGGER trg_expense_daily_rollup_delete AFTER DELETE ON expense
+    FOR EACH ROW EXECUTE FUNCTION expense_daily_rollup_on_expense();
+
+-- JPA rewrites every column on update: only fire when a rolled-up column actually changed.
+DROP TRIGGER IF EXISTS trg_expense_daily_rollup_update ON expense;
+CREATE TRIGGER trg_expense_daily_rollup_update AFTER UPDATE ON expense
+    FOR EACH ROW
+    WHEN ((OLD.expense_date, OLD.created_by, OLD.quote_id, OLD.work_order_id, OLD.trip_request_id, OLD.currency,
+           OLD.expense_type, OLD.status = 'VOID', OLD.amount, OLD.claim_id)
+          IS DISTINCT FROM
+          (NEW.expense_date, NEW.created_by, NEW.quote_id, NEW.work_order_id, NEW.trip_request_id, NEW.currency,
+           NEW.expense_type, NEW.status = 'VOID', NEW.amount, NEW.claim_id))
+    EXECUTE FUNCTION expense_daily_rollup_on_expense();
+
+DROP TRIGGER IF EXISTS trg_expense_daily_rollup_claim_status ON claim;
+CREATE TRIGGER trg_expense_daily_rollup_claim_status AFTER UPDATE OF status ON claim
+    FOR EACH ROW WHEN (OLD.status IS DISTINCT FROM NEW.status)
+    EXECUTE FUNCTION expense_daily_rollup_on_claim_status();
+
+CREATE OR REPLACE FUNCTION expense_daily_rollup_on_truncate() RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM expense_daily_rollup;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_expense_daily_rollup_truncate ON expense;
+CREATE TRIGGER trg_expense_daily_rollup_truncate AFTER TRUNCATE ON expense
+    FOR EACH STATEMENT EXECUTE FUNCTION expense_daily_rollup_on_truncate();
+
+INSERT INTO expense_daily_rollup (expense_date, created_by, quote_id, work_order_id, trip_request_id,
+                                  currency, expense_type, claim_status, amount, expense_count)
+SELECT e.expense_date, e.created_by, e.quote_id, e.work_order_id, e.trip_request_id, e.currency, e.expense_type,
+       c.status, sum(e.amount), count(*)
+FROM expense e
+LEFT JOIN claim c ON c.id = e.claim_id
+WHERE e.status <> 'VOID'
+GROUP BY e.expense_date, e.created_by, e.quote_id, e.work_order_id, e.trip_request_id, e.currency, e.expense_type, c.status
+ON CONFLICT DO NOTHING;
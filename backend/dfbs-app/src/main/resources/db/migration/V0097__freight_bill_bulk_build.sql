@@ -0,0 +1,9 @@
+-- Freight bill build inserts one item per (shipment, model) in JDBC batches: pooled-lo ids as in V0089.
+ALTER SEQUENCE freight_bill_item_id_seq INCREMENT BY 50;
+SELECT setval('freight_bill_item_id_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM freight_bill_item),
+                       (SELECT last_value FROM freight_bill_item_id_seq)) + 1, false);
+
+-- Unbilled shipments of a carrier in a period (createBill); billed shipments drop out of the index.
+CREATE INDEX IF NOT EXISTS ix_shipment_unbilled_carrier_created
+    ON shipment(carrier_id, created_at) WHERE freight_bill_id IS NULL;
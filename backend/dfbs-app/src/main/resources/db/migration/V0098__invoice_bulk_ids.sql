@@ -0,0 +1,10 @@
+-- Invoice application create inserts records and item refs in JDBC batches: pooled-lo ids as in V0089.
+ALTER SEQUENCE invoice_record_id_seq INCREMENT BY 50;
+SELECT setval('invoice_record_id_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM invoice_record),
+                       (SELECT last_value FROM invoice_record_id_seq)) + 1, false);
+
+ALTER SEQUENCE invoice_item_ref_id_seq INCREMENT BY 50;
+SELECT setval('invoice_item_ref_id_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM invoice_item_ref),
+                       (SELECT last_value FROM invoice_item_ref_id_seq)) + 1, false);
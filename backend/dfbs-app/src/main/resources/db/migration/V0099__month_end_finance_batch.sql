@@ -0,0 +1,39 @@
+-- Month-end finance batch: statements for many customers per run and batch payments over hundreds of quotes.
+
+-- Statement headers / items and payments are inserted in JDBC batches: pooled-lo ids as in V0089.
+DO $$
+DECLARE
+    t TEXT;
+    seq TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['account_statement', 'account_statement_item', 'quote_payment']
+    LOOP
+        seq := t || '_id_seq';
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', seq);
+        EXECUTE format('SELECT setval(%L, GREATEST((SELECT COALESCE(MAX(id), 0) FROM %I), (SELECT last_value FROM %I)) + 1, false)',
+                       seq, t, seq);
+    END LOOP;
+END $$;
+
+-- Background statement runs: one row per run, progress advanced after every committed customer chunk.
+CREATE TABLE IF NOT EXISTS statement_run (
+    id BIGSERIAL PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    customer_total INT NOT NULL DEFAULT 0,
+    customer_done INT NOT NULL DEFAULT 0,
+    statement_count INT NOT NULL DEFAULT 0,
+    item_count INT NOT NULL DEFAULT 0,
+    error_message VARCHAR(1000),
+    created_by BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS ix_statement_run_created_at ON statement_run(created_at DESC);
+
+COMMENT ON COLUMN statement_run.status IS 'QUEUED, RUNNING, SUCCEEDED or FAILED (committed chunks are kept; a new run skips their quotes).';
+
+-- Open quotes of a customer (statement run selection); paid and draft quotes drop out of the index.
+CREATE INDEX IF NOT EXISTS ix_quote_open_customer ON quote(customer_id, id)
+    WHERE status IN ('CONFIRMED', 'PARTIAL_PAID');
@@ -0,0 +1,7 @@
+-- Statement runs execute on the node that accepted them; a restarted node fails its own runs left QUEUED / RUNNING.
+ALTER TABLE statement_run ADD COLUMN IF NOT EXISTS worker_node VARCHAR(128);
+
+CREATE INDEX IF NOT EXISTS ix_statement_run_unfinished ON statement_run(worker_node)
+    WHERE status IN ('QUEUED', 'RUNNING');
+
+COMMENT ON COLUMN statement_run.worker_node IS 'dfbs.node-id (default host name) of the node running the run.';
@@ -0,0 +1,6 @@
+-- Import jobs run on the node that accepted the upload, from a spool file on that node. A restarted node fails its
+-- own jobs left QUEUED / RUNNING and deletes their spool files.
+ALTER TABLE import_job ADD COLUMN IF NOT EXISTS worker_node VARCHAR(128);
+ALTER TABLE import_job ADD COLUMN IF NOT EXISTS spool_path VARCHAR(512);
+
+COMMENT ON COLUMN import_job.worker_node IS 'dfbs.node-id (default host name) of the node running the job.';
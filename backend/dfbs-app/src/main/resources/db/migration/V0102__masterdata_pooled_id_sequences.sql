@@ -0,0 +1,20 @@
+-- Import target tables (BaseMasterEntity subclasses): move entity ids from IDENTITY to pooled-lo sequences
+-- (allocationSize = 50), as V0089 did for the other hot tables, so chunked import saveAll batches its INSERTs.
+-- Column defaults stay on the same sequences, so raw SQL inserts still work and never overlap a reserved block.
+
+DO $$
+DECLARE
+    t TEXT;
+    seq TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'machines', 'contracts', 'spare_parts', 'machine_models', 'model_part_lists', 'sim_cards'
+    ]
+    LOOP
+        seq := t || '_id_seq';
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', seq);
+        -- Sequences can lag behind ids inserted explicitly (seeds); never hand out an id already in use.
+        EXECUTE format('SELECT setval(%L, GREATEST((SELECT COALESCE(MAX(id), 0) FROM %I), (SELECT last_value FROM %I)) + 1, false)',
+                       seq, t, seq);
+    END LOOP;
+END $$;
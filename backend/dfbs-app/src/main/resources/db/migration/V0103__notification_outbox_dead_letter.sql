@@ -0,0 +1,11 @@
+-- Outbox rows that keep failing are given up on after a bounded number of deliveries instead of being retried on
+-- every sweep forever. Dead rows stay in the table (with their last error) for inspection and manual replay.
+
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS attempts INT NOT NULL DEFAULT 0;
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS last_error VARCHAR(1000);
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS dead_at TIMESTAMP;
+
+DROP INDEX IF EXISTS idx_notification_outbox_created_at;
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_live_created_at ON notification_outbox(created_at) WHERE dead_at IS NULL;
+
+COMMENT ON COLUMN notification_outbox.dead_at IS 'Set when delivery failed outbox-max-attempts times; the sweep skips the row from then on.';
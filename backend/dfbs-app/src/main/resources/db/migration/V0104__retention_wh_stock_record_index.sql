@@ -0,0 +1,5 @@
+-- Retention batch selection on wh_stock_record scans by age, like inventory_log (V0094). V0042 created this index
+-- with the warehouse tables; it is declared again here, under the same name, so the retention indexes stand together
+-- and a database that lost it gets it back.
+
+CREATE INDEX IF NOT EXISTS ix_wh_stock_record_created_at ON wh_stock_record(created_at);
@@ -70,6 +70,32 @@ class BomServiceTest {
         assertThat(p.getDrawingNo()).isEqualTo("DRW-001");
     }
 
+    /** Part import: new parts get distinct numbers from one block; a repeated row updates the part created above it. */
+    @Test
+    void partImport_numbersNewPartsFromOneBlock_repeatedRowUpdates() {
+        PartImportExcelRow a = partRow("Part A", "S1", "10", null);
+        PartImportExcelRow b = partRow("Part B", "S2", "20", "DRW-B");
+        PartImportExcelRow aAgain = partRow("Part A", "S1", "11", null);
+
+        PartImportResult result = partBomService.importParts(new ByteArrayInputStream(partExcel(a, b, aAgain)));
+
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.updated()).isEqualTo(1);
+        List<PartEntity> parts = partRepo.findAll();
+        assertThat(parts).extracting(PartEntity::getSystemNo).doesNotHaveDuplicates().allMatch(n -> n.matches("PT-\\d{8}-\\d{3}"));
+        assertThat(parts).filteredOn(p -> "Part A".equals(p.getName())).singleElement()
+                .satisfies(p -> assertThat(p.getSalesPrice()).isEqualByComparingTo("11"));
+    }
+
+    private static PartImportExcelRow partRow(String name, String spec, String price, String drawingNo) {
+        PartImportExcelRow row = new PartImportExcelRow();
+        row.setName(name);
+        row.setSpec(spec);
+        row.setPrice(price);
+        row.setDrawingNo(drawingNo);
+        return row;
+    }
+
     /** Test 2 (BOM Versioning): Import BOM v1 then v2 for Machine A -> v2 is active, v1 in history. */
     @Test
     void bomVersioning_v2Active_v1InHistory() {
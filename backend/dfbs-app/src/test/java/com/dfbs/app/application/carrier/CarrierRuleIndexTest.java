@@ -0,0 +1,74 @@
+package com.dfbs.app.application.carrier;
+
+import com.dfbs.app.modules.carrier.CarrierEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The shared rule automaton: matches are served from it (a rule written behind its back is not seen), and a
+ * committed rule change drops it so the next match sees the change.
+ * Not @Transactional: the automaton is only stored and dropped outside a changing transaction.
+ */
+@SpringBootTest
+class CarrierRuleIndexTest {
+
+    @Autowired
+    private CarrierService carrierService;
+
+    @Autowired
+    private CarrierRuleIndex ruleIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String keyword = "KW-" + UUID.randomUUID().toString().substring(0, 8);
+    private final List<Long> carrierIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        for (Long id : carrierIds) {
+            jdbcTemplate.update("delete from md_carrier_rule where carrier_id = ?", id);
+            jdbcTemplate.update("delete from md_carrier where id = ?", id);
+        }
+        // Rows removed behind the index's back: drop the automaton so later tests rebuild it.
+        ruleIndex.onRulesChanged(new CarrierRulesChangedEvent());
+    }
+
+    @Test
+    void committedRuleChange_isSeenThroughCache() {
+        CarrierEntity first = carrier("Cached First");
+        CarrierEntity second = carrier("Cached Second");
+        carrierService.addRule(first.getId(), keyword, 5);
+        String address = "Road " + keyword + " 1";
+        assertThat(carrierService.recommendCarrier(address).name()).isEqualTo(first.getName());
+
+        // Written without an event: the cached automaton does not see it.
+        jdbcTemplate.update("insert into md_carrier_rule (id, carrier_id, match_keyword, priority) "
+                + "values (nextval('md_carrier_rule_id_seq'), ?, ?, 50)", second.getId(), keyword);
+        assertThat(carrierService.recommendCarrier(address).name()).isEqualTo(first.getName());
+
+        // A committed change through the service drops the automaton; the rebuild sees both rules.
+        CarrierRuleDto higher = carrierService.addRule(first.getId(), keyword + " 1", 10);
+        assertThat(carrierService.recommendCarrier(address).name()).isEqualTo(second.getName());
+
+        carrierService.update(second.getId(), null, false);
+        CarrierRecommendation afterDeactivate = carrierService.recommendCarrier(address);
+        assertThat(afterDeactivate.name()).isEqualTo(first.getName());
+        assertThat(afterDeactivate.ruleId()).isEqualTo(higher.id());
+    }
+
+    private CarrierEntity carrier(String name) {
+        CarrierEntity c = carrierService.create(name + " " + keyword, true);
+        carrierIds.add(c.getId());
+        return c;
+    }
+}
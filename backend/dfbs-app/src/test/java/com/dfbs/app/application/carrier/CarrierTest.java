@@ -1,9 +1,6 @@
 package com.dfbs.app.application.carrier;
 
 import com.dfbs.app.modules.carrier.CarrierEntity;
-import com.dfbs.app.modules.carrier.CarrierRepo;
-import com.dfbs.app.modules.carrier.CarrierRuleEntity;
-import com.dfbs.app.modules.carrier.CarrierRuleRepo;
 import com.dfbs.app.modules.shipment.ShipmentType;
 import com.dfbs.app.application.shipment.ShipmentTypeService;
 import org.junit.jupiter.api.Test;
@@ -11,6 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
@@ -23,44 +22,46 @@ class CarrierTest {
     @Autowired
     private ShipmentTypeService shipmentTypeService;
 
-    @Autowired
-    private CarrierRepo carrierRepo;
-
-    @Autowired
-    private CarrierRuleRepo carrierRuleRepo;
-
     /** Test 1 (Carrier Rec): Rule "Beijing" -> Carrier A, "Shanghai" -> Carrier B. "Beijing Chaoyang" -> A, "Shenzhen" -> null. */
     @Test
     void test1_carrierRecommend_byAddress() {
-        CarrierEntity carrierA = new CarrierEntity();
-        carrierA.setName("Carrier A");
-        carrierA.setIsActive(true);
-        carrierA = carrierRepo.save(carrierA);
-
-        CarrierEntity carrierB = new CarrierEntity();
-        carrierB.setName("Carrier B");
-        carrierB.setIsActive(true);
-        carrierB = carrierRepo.save(carrierB);
-
-        CarrierRuleEntity ruleA = new CarrierRuleEntity();
-        ruleA.setCarrier(carrierA);
-        ruleA.setMatchKeyword("Beijing");
-        ruleA.setPriority(10);
-        carrierRuleRepo.save(ruleA);
-
-        CarrierRuleEntity ruleB = new CarrierRuleEntity();
-        ruleB.setCarrier(carrierB);
-        ruleB.setMatchKeyword("Shanghai");
-        ruleB.setPriority(10);
-        carrierRuleRepo.save(ruleB);
-
-        CarrierEntity recommended = carrierService.recommendCarrier("Beijing Chaoyang");
+        CarrierEntity carrierA = carrierService.create("Carrier A", true);
+        CarrierEntity carrierB = carrierService.create("Carrier B", true);
+        carrierService.addRule(carrierA.getId(), "Beijing", 10);
+        carrierService.addRule(carrierB.getId(), "Shanghai", 10);
+
+        CarrierRecommendation recommended = carrierService.recommendCarrier("Beijing Chaoyang");
         assertThat(recommended).isNotNull();
-        assertThat(recommended.getName()).isEqualTo("Carrier A");
+        assertThat(recommended.name()).isEqualTo("Carrier A");
 
         assertThat(carrierService.recommendCarrier("Shenzhen")).isNull();
     }
 
+    /** Overlapping keywords: highest priority wins wherever it occurs; batch keeps order; rule and carrier changes apply. */
+    @Test
+    void carrierRecommend_overlappingKeywords_batch_andRuleChanges() {
+        CarrierEntity city = carrierService.create("Carrier City", true);
+        CarrierEntity district = carrierService.create("Carrier District", true);
+        carrierService.addRule(city.getId(), "Hangzhou", 5);
+        CarrierRuleDto districtRule = carrierService.addRule(district.getId(), "zhou Xihu", 20);
+        carrierService.addRule(district.getId(), "Xi", 1);
+
+        assertThat(carrierService.recommendCarrier("Zhejiang Hangzhou Xihu Road").name()).isEqualTo("Carrier District");
+        assertThat(carrierService.recommendCarrier("Zhejiang Hangzhou Binjiang").name()).isEqualTo("Carrier City");
+        assertThat(carrierService.recommendCarrier("Xian").ruleId()).isNotNull();
+        assertThat(carrierService.recommendCarrier("Xian").matchKeyword()).isEqualTo("Xi");
+
+        assertThat(carrierService.recommendCarriers(Arrays.asList("Hangzhou Xihu", null, "Nowhere")))
+                .extracting(r -> r != null ? r.name() : null)
+                .containsExactly("Carrier District", null, null);
+
+        carrierService.deleteRule(districtRule.id());
+        assertThat(carrierService.recommendCarrier("Zhejiang Hangzhou Xihu Road").name()).isEqualTo("Carrier City");
+
+        carrierService.update(city.getId(), null, false);
+        assertThat(carrierService.recommendCarrier("Zhejiang Hangzhou Xihu Road").name()).isEqualTo("Carrier District");
+    }
+
     /** Test 2 (Type Inference): Text with "借用" -> SALES_DELEGATE. Random text -> null. */
     @Test
     void test2_typeInference_keywords() {
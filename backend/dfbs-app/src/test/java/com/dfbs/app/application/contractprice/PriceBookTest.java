@@ -134,6 +134,47 @@ class PriceBookTest {
         assertThat(item2.getPriceSourceInfo()).isNull();
     }
 
+    /** Index lookup on the date boundaries of overlapping contracts; bulk lookup; deactivation seen in the same transaction. */
+    @Test
+    void index_winnerFollowsDateRanges_bulkAndDeactivate() {
+        Long a = createContract("A", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 6, 30), 1,
+                entry(QuoteExpenseType.REPAIR, new BigDecimal("100")), entry(QuoteExpenseType.PLATFORM, new BigDecimal("30")));
+        Long b = createContract("B", LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 30), 5,
+                entry(QuoteExpenseType.REPAIR, new BigDecimal("80")), entry(QuoteExpenseType.PLATFORM, new BigDecimal("40")));
+
+        assertThat(suggest(LocalDate.of(2025, 12, 31), QuoteExpenseType.REPAIR)).isNull();
+        assertThat(suggest(LocalDate.of(2026, 2, 28), QuoteExpenseType.REPAIR).getPrice()).isEqualByComparingTo("100");
+        assertThat(suggest(LocalDate.of(2026, 3, 1), QuoteExpenseType.REPAIR).getPrice()).isEqualByComparingTo("80");
+        assertThat(suggest(LocalDate.of(2026, 4, 30), QuoteExpenseType.REPAIR).getSourceInfo()).contains("\"contractId\":" + b);
+        assertThat(suggest(LocalDate.of(2026, 5, 1), QuoteExpenseType.REPAIR).getSourceInfo()).contains("\"contractId\":" + a);
+        assertThat(suggest(LocalDate.of(2026, 7, 1), QuoteExpenseType.REPAIR)).isNull();
+
+        var bulk = contractPriceService.calculateSuggestedPrices(customerId, LocalDate.of(2026, 3, 15),
+                List.of(QuoteExpenseType.REPAIR, QuoteExpenseType.PLATFORM, QuoteExpenseType.SHIPPING));
+        assertThat(bulk).containsOnlyKeys(QuoteExpenseType.REPAIR, QuoteExpenseType.PLATFORM);
+        assertThat(bulk.get(QuoteExpenseType.PLATFORM).getPrice()).isEqualByComparingTo("30");
+        assertThat(bulk.get(QuoteExpenseType.PLATFORM).getSourceInfo()).contains("LOWEST_PRICE");
+
+        contractPriceService.deactivate(b);
+        assertThat(suggest(LocalDate.of(2026, 3, 15), QuoteExpenseType.REPAIR).getPrice()).isEqualByComparingTo("100");
+    }
+
+    private PriceSuggestionDto suggest(LocalDate docDate, QuoteExpenseType type) {
+        return contractPriceService.calculateSuggestedPrice(customerId, docDate, type);
+    }
+
+    private Long createContract(String nameSuffix, LocalDate from, LocalDate to, int priority,
+                                ContractPriceService.CreateContractCommand.ItemEntry... items) {
+        var cmd = new ContractPriceService.CreateContractCommand();
+        cmd.setContractName("Contract-" + nameSuffix);
+        cmd.setCustomerId(customerId);
+        cmd.setEffectiveDate(from);
+        cmd.setExpirationDate(to);
+        cmd.setPriority(priority);
+        cmd.setItems(List.of(items));
+        return contractPriceService.create(cmd).getId();
+    }
+
     private void createContract(String nameSuffix, BigDecimal unitPrice, int priority, QuoteExpenseType itemType) {
         var cmd = new ContractPriceService.CreateContractCommand();
         cmd.setContractName("Contract-" + nameSuffix);
@@ -0,0 +1,108 @@
+package com.dfbs.app.application.dicttype;
+
+import com.dfbs.app.interfaces.dicttype.dto.DictionaryItemOptionDto;
+import com.dfbs.app.modules.dicttype.DictItemEntity;
+import com.dfbs.app.modules.dicttype.DictItemRepo;
+import com.dfbs.app.modules.dicttype.DictTypeEntity;
+import com.dfbs.app.modules.dicttype.DictTypeRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Dictionary reads from the cached snapshot: parent/keyword/disabled filters, single and bulk label resolution, and
+ * refresh after item and type changes commit. Not @Transactional: eviction runs after commit.
+ */
+@SpringBootTest
+class DictionaryReadServiceTest {
+
+    @Autowired
+    private DictionaryReadService readService;
+
+    @Autowired
+    private DictTypeService typeService;
+
+    @Autowired
+    private DictItemService itemService;
+
+    @Autowired
+    private DictTypeRepo typeRepo;
+
+    @Autowired
+    private DictItemRepo itemRepo;
+
+    private final String typeCode = "T_CACHE_" + UUID.randomUUID().toString().substring(0, 8);
+    private DictTypeEntity type;
+    private DictItemEntity parent;
+
+    @BeforeEach
+    void setUp() {
+        type = typeService.create(typeCode, "Cache Test", null, "D", true);
+        parent = itemService.create(type.getId(), "east", "East Region", 2, true, null, null);
+        itemService.create(type.getId(), "shanghai", "Shanghai", 1, true, null, parent.getId());
+        itemService.create(type.getId(), "hangzhou", "Hangzhou", 2, false, null, parent.getId());
+        itemService.create(type.getId(), "west", "West Region", 1, true, null, null);
+    }
+
+    @AfterEach
+    void cleanup() {
+        itemRepo.deleteAll(itemRepo.findByTypeId(type.getId()).stream().filter(i -> i.getParentId() != null).toList());
+        itemRepo.deleteAll(itemRepo.findByTypeId(type.getId()));
+        typeRepo.deleteById(type.getId());
+    }
+
+    @Test
+    void items_filteredInMemory() {
+        assertThat(readService.getItemsByTypeCode(typeCode, false, null, null).items())
+                .extracting(DictionaryItemOptionDto::value)
+                .containsExactly("shanghai", "west", "east");
+        assertThat(readService.getItemsByTypeCode(typeCode, true, "east", null).items())
+                .extracting(DictionaryItemOptionDto::value, DictionaryItemOptionDto::parentValue)
+                .containsExactly(tuple("shanghai", "east"), tuple("hangzhou", "east"));
+        assertThat(readService.getItemsByTypeCode(typeCode, true, null, "REGION").items())
+                .extracting(DictionaryItemOptionDto::value)
+                .containsExactly("west", "east");
+        assertThat(readService.getItemsByTypeCode(typeCode, true, "nope", null).items()).isEmpty();
+        assertThatThrownBy(() -> readService.getItemsByTypeCode(typeCode + "_missing", true, null, null))
+                .isInstanceOf(DictTypeNotFoundException.class);
+    }
+
+    @Test
+    void resolveLabel_refreshesAfterCommittedChanges() {
+        assertThat(readService.resolveLabel(typeCode, "west")).isEqualTo("West Region");
+        assertThat(readService.resolveLabel(typeCode, "unknown")).isEqualTo("unknown");
+
+        DictItemEntity west = itemRepo.findByTypeIdAndItemValue(type.getId(), "west").orElseThrow();
+        itemService.update(west.getId(), "Western Region", null, null, null, null);
+        assertThat(readService.resolveLabel(typeCode, "west")).isEqualTo("Western Region");
+
+        assertThat(readService.getTypes(false, typeCode.toLowerCase()).items()).hasSize(1);
+        typeService.setEnabled(type.getId(), false);
+        assertThat(readService.getTypes(false, typeCode).items()).isEmpty();
+        assertThat(readService.getTypes(true, typeCode).items()).hasSize(1);
+    }
+
+    @Test
+    void resolveLabels_bulk_singleAndMultiType() {
+        assertThat(readService.resolveLabels(typeCode, Arrays.asList("west", "shanghai", null, "west", "unknown")))
+                .containsExactly(entry("west", "West Region"), entry("shanghai", "Shanghai"), entry("unknown", "unknown"));
+
+        Map<String, Map<String, String>> byType = readService.resolveLabels(Map.of(
+                typeCode, List.of("hangzhou"),
+                typeCode + "_missing", List.of("x")));
+        assertThat(byType.get(typeCode)).containsExactly(entry("hangzhou", "Hangzhou"));
+        assertThat(byType.get(typeCode + "_missing")).containsExactly(entry("x", "x"));
+    }
+}
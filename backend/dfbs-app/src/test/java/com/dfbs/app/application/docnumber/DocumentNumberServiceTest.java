@@ -0,0 +1,108 @@
+package com.dfbs.app.application.docnumber;
+
+import com.dfbs.app.modules.docnumber.DocumentNumberCounterRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DocumentNumberService against the real counter table. Uses a random far-future day as the period so runs never
+ * collide with real numbers. Not @Transactional: allocations must commit so threads really contend on the row.
+ */
+@SpringBootTest
+class DocumentNumberServiceTest {
+
+    @Autowired
+    private DocumentNumberCounterRepo counterRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDate day = LocalDate.of(2100, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(300_000));
+    private final String period = DocumentType.STATEMENT.period(day);
+
+    private DocumentNumberService service() {
+        ZoneId zone = ZoneId.systemDefault();
+        return new DocumentNumberService(counterRepo, Clock.fixed(day.atStartOfDay(zone).toInstant(), zone));
+    }
+
+    @AfterEach
+    void cleanup() {
+        for (DocumentType type : DocumentType.values()) {
+            counterRepo.findByDocTypeAndPeriod(type.name(), period).ifPresent(counterRepo::delete);
+        }
+    }
+
+    @Test
+    void concurrentNext_isUniqueAndGapFree() throws Exception {
+        DocumentNumberService service = service();
+        int threads = 12;
+        int perThread = 25;
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        assertThat(issued.add(service.next(DocumentType.STATEMENT))).isTrue();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Set<String> expected = IntStream.rangeClosed(1, threads * perThread)
+                .mapToObj(i -> DocumentType.STATEMENT.format(period, i))
+                .collect(Collectors.toSet());
+        assertThat(issued).isEqualTo(expected);
+    }
+
+    @Test
+    void nextBlock_isConsecutive_andTypesHaveIndependentCounters() {
+        DocumentNumberService service = service();
+        assertThat(service.next(DocumentType.PART)).isEqualTo("PT-" + period + "-001");
+        assertThat(service.nextBlock(DocumentType.PART, 3))
+                .containsExactly("PT-" + period + "-002", "PT-" + period + "-003", "PT-" + period + "-004");
+        assertThat(service.next(DocumentType.WORK_ORDER)).isEqualTo("WO-" + period + "-0001");
+    }
+
+    @Test
+    void rolledBackAllocation_isReissued() {
+        DocumentNumberService service = service();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        String first = tx.execute(status -> {
+            String no = service.next(DocumentType.FREIGHT_BILL);
+            status.setRollbackOnly();
+            return no;
+        });
+        assertThat(service.next(DocumentType.FREIGHT_BILL)).isEqualTo(first);
+    }
+}
@@ -1,6 +1,8 @@
 package com.dfbs.app.application.expense;
 
+import com.alibaba.excel.EasyExcel;
 import com.dfbs.app.config.ForceFlywayCleanConfig;
+import com.dfbs.app.modules.expense.ExpenseDailyRollupRepo;
 import com.dfbs.app.modules.expense.ExpenseEntity;
 import com.dfbs.app.modules.expense.ExpenseRepo;
 import com.dfbs.app.modules.expense.ExpenseType;
@@ -26,9 +28,11 @@ import org.springframework.context.annotation.Import;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
@@ -68,6 +72,9 @@ class ExpenseStatsTest {
     @Autowired
     private UserRepo userRepo;
 
+    @Autowired
+    private ExpenseDailyRollupRepo rollupRepo;
+
     @MockitoBean
     private com.dfbs.app.config.CurrentUserProvider currentUserProvider;
 
@@ -203,6 +210,67 @@ class ExpenseStatsTest {
         assertThat(tripGroup.getTotalRmb()).isEqualByComparingTo(new BigDecimal("800.00"));
     }
 
+    @Test
+    void rollup_followsVoidAndClaimStatus_inOneRowPerDay() {
+        LocalDate day = LocalDate.now().minusDays(400);
+        ExpenseEntity a = createCny(day, "30.00");
+        createCny(day, "20.00");
+        ExpenseEntity voided = createCny(day, "99.00");
+        expenseService.voidExpense(voided.getId());
+
+        var req = new ExpenseStatsRequest();
+        req.setStartDate(day);
+        req.setEndDate(day);
+        req.setGroupBy(GroupBy.USER);
+        assertThat(userGroup(req).getTotalAmount().get(Currency.CNY)).isEqualByComparingTo("50.00");
+        assertThat(rollupRepo.findAll()).filteredOn(r -> day.equals(r.getExpenseDate()) && user1Id.equals(r.getCreatedBy()))
+                .singleElement().satisfies(r -> assertThat(r.getExpenseCount()).isEqualTo(2));
+
+        var claim = claimService.create(List.of(a.getId()));
+        claimService.submit(claim.getId());
+        assertThat(userGroup(req).getSubmittedAmount().get(Currency.CNY)).isEqualByComparingTo("30.00");
+
+        when(currentUserProvider.getCurrentUser()).thenReturn(String.valueOf(financeUserId));
+        claimService.reject(claim.getId());
+        ExpenseStatsItemDto rejected = userGroup(req);
+        assertThat(rejected.getSubmittedAmount()).doesNotContainKey(Currency.CNY);
+        assertThat(rejected.getRejectedAmount().get(Currency.CNY)).isEqualByComparingTo("30.00");
+        assertThat(rejected.getTotalAmount().get(Currency.CNY)).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void export_detailsStreamedInPages_allRowsOnce() throws Exception {
+        LocalDate day = LocalDate.now().minusDays(800);
+        for (int i = 1; i <= 5; i++) createCny(day, i + ".00");
+        expenseService.voidExpense(createCny(day, "9.00").getId());
+
+        var req = new ExpenseStatsRequest();
+        req.setStartDate(day);
+        req.setEndDate(day);
+        req.setGroupBy(GroupBy.USER);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new ExpenseExportService(expenseStatsService, expenseRepo, 2).exportStats(req, response);
+
+        List<Map<Integer, String>> details = EasyExcel.read(new ByteArrayInputStream(response.getContentAsByteArray()))
+                .sheet("Details").doReadSync();
+        assertThat(details).hasSize(5);
+        assertThat(details).extracting(r -> r.get(4)).containsExactly("1", "2", "3", "4", "5");
+    }
+
+    private ExpenseEntity createCny(LocalDate day, String amount) {
+        var cmd = new ExpenseService.CreateExpenseCommand();
+        cmd.setExpenseDate(day);
+        cmd.setAmount(new BigDecimal(amount));
+        cmd.setCurrency(Currency.CNY);
+        return expenseService.create(cmd);
+    }
+
+    private ExpenseStatsItemDto userGroup(ExpenseStatsRequest req) {
+        return expenseStatsService.getStats(req).stream()
+                .filter(s -> ("User:" + user1Id).equals(s.getGroupKey()))
+                .findFirst().orElseThrow();
+    }
+
     @Test
     void export_returnsExcelContentTypeAndNonEmptyBody() throws Exception {
         var req = new ExpenseStatsRequest();
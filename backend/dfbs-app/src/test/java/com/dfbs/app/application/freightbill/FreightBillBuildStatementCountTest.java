@@ -0,0 +1,128 @@
+package com.dfbs.app.application.freightbill;
+
+import com.dfbs.app.modules.freightbill.FreightBillEntity;
+import com.dfbs.app.modules.freightbill.FreightBillItemEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Monthly bill for a busy carrier: every shipment has two machine models. The build runs a fixed number of
+ * statements (carrier, shipments, bill insert; grouped machine counts and a link UPDATE per 1000 shipments) plus
+ * one id block and one insert batch per 50 items, counted with Hibernate statistics. Also asserts items per
+ * (shipment, model), the fallback item for shipments without machines, and that every shipment is locked.
+ * The 10k-shipment case is tagged "benchmark" and excluded from the default test run.
+ */
+@SpringBootTest
+@Transactional
+class FreightBillBuildStatementCountTest {
+
+    private static final String PERIOD = "2001-03";
+    /** Statements that do not depend on the item count, for up to 1000 shipments per chunked query. */
+    private static final long BUILD_STATEMENTS = 10;
+
+    @Autowired
+    private FreightBillService freightBillService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void createBill_statementCountDoesNotGrowPerShipment() {
+        assertBuild(100);
+        assertBuild(1000);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void createBill_tenThousandShipments() {
+        assertBuild(10_000);
+    }
+
+    private void assertBuild(int shipmentCount) {
+        Long carrierId = newCarrier();
+        List<Long> shipmentIds = insertShipments(carrierId, shipmentCount);
+        int itemCount = 2 * (shipmentCount - 1) + 1;
+        long chunks = (shipmentCount + 999) / 1000;
+
+        statistics.clear();
+        FreightBillEntity bill = freightBillService.createBill(carrierId, PERIOD, 1L);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(statements).isLessThanOrEqualTo(BUILD_STATEMENTS + 2 * chunks + 2L * ((itemCount + 49) / 50));
+        List<FreightBillItemEntity> items = freightBillService.getItems(bill.getId());
+        assertThat(items).hasSize(itemCount);
+        assertThat(items).filteredOn(i -> "Model-A".equals(i.getMachineModel())).allMatch(i -> i.getQuantity() == 2);
+        assertThat(items).filteredOn(i -> i.getShipmentId().equals(shipmentIds.get(shipmentCount - 1)))
+                .singleElement()
+                .satisfies(i -> {
+                    assertThat(i.getMachineModel()).isEqualTo("Fallback-" + (shipmentCount - 1));
+                    assertThat(i.getQuantity()).isEqualTo(1);
+                });
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from shipment where carrier_id = ? and freight_bill_id = ?", Long.class, carrierId, bill.getId()))
+                .isEqualTo(shipmentCount);
+    }
+
+    private Long newCarrier() {
+        return jdbcTemplate.queryForObject("insert into md_carrier (name, is_active) values (?, true) returning id",
+                Long.class, "Bill Carrier " + UUID.randomUUID());
+    }
+
+    /** count SHIPPED shipments in PERIOD with 2x Model-A + 1x Model-B each, except the last which has no machines. */
+    private List<Long> insertShipments(Long carrierId, int count) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.of(2001, 3, 15, 10, 0));
+        List<Object[]> shipmentRows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            shipmentRows.add(new Object[]{carrierId, createdAt, "Fallback-" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into shipment (initiator_id, type, approval_status, status, carrier_id, created_at, model) "
+                + "values (1, 'NORMAL', 'APPROVED', 'SHIPPED', ?, ?, ?)", shipmentRows);
+        List<Long> shipmentIds = jdbcTemplate.queryForList(
+                "select id from shipment where carrier_id = ? order by id", Long.class, carrierId);
+
+        List<Object[]> machineRows = new ArrayList<>();
+        for (Long sid : shipmentIds.subList(0, count - 1)) {
+            machineRows.add(new Object[]{sid, "BM-" + sid + "-1", "Model-A"});
+            machineRows.add(new Object[]{sid, "BM-" + sid + "-2", "Model-A"});
+            machineRows.add(new Object[]{sid, "BM-" + sid + "-3", "Model-B"});
+        }
+        jdbcTemplate.batchUpdate("insert into shipment_machine (shipment_id, machine_no, model) values (?, ?, ?)", machineRows);
+        // Rows of this uncommitted transaction are invisible to autovacuum: refresh stats so FK checks use the pk index.
+        jdbcTemplate.execute("analyze shipment");
+        jdbcTemplate.execute("analyze shipment_machine");
+        return shipmentIds;
+    }
+}
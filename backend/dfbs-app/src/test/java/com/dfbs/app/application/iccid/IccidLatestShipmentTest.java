@@ -0,0 +1,110 @@
+package com.dfbs.app.application.iccid;
+
+import com.dfbs.app.application.iccid.dto.IccidListDto;
+import com.dfbs.app.modules.iccid.IccidEntity;
+import com.dfbs.app.modules.iccid.IccidRepo;
+import com.dfbs.app.modules.shipment.ApprovalStatus;
+import com.dfbs.app.modules.shipment.MachineLatestShipmentRepo;
+import com.dfbs.app.modules.shipment.ShipmentEntity;
+import com.dfbs.app.modules.shipment.ShipmentMachineEntity;
+import com.dfbs.app.modules.shipment.ShipmentMachineRepo;
+import com.dfbs.app.modules.shipment.ShipmentRepo;
+import com.dfbs.app.modules.shipment.ShipmentStatus;
+import com.dfbs.app.modules.shipment.ShipmentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** machine_latest_shipment follows shipment_machine inserts / deletes; ICCID search reads it for the page. */
+@SpringBootTest
+@Transactional
+class IccidLatestShipmentTest {
+
+    @Autowired
+    private IccidMasterDataService iccidMasterDataService;
+
+    @Autowired
+    private IccidRepo iccidRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShipmentRepo shipmentRepo;
+
+    @Autowired
+    private ShipmentMachineRepo shipmentMachineRepo;
+
+    @Autowired
+    private MachineLatestShipmentRepo latestShipmentRepo;
+
+    private final String tag = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+
+    @Test
+    void search_usesLatestShipment_andProjectionFollowsDeletes() {
+        String sn = "SN-LS-" + tag;
+        // md_iccid.machine_sn references the legacy md_machine table (customer -> contract / product -> machine)
+        jdbcTemplate.update("INSERT INTO md_customer (customer_code, name) VALUES (?, ?)", tag, tag);
+        jdbcTemplate.update("INSERT INTO md_contract (id, contract_no, customer_code) VALUES (?, ?, ?)", UUID.randomUUID(), tag, tag);
+        jdbcTemplate.update("INSERT INTO md_product (id, product_code, name) VALUES (?, ?, ?)", UUID.randomUUID(), tag, tag);
+        jdbcTemplate.update("INSERT INTO md_machine (id, machine_sn, contract_no, product_code) VALUES (?, ?, ?, ?)",
+                UUID.randomUUID(), sn, tag, tag);
+
+        ShipmentEntity older = shipment("Old Customer", "CON-OLD");
+        ShipmentEntity newer = shipment("New Customer", "CON-NEW");
+        shipmentMachineRepo.saveAllAndFlush(List.of(shipmentMachine(older, sn), shipmentMachine(newer, sn)));
+
+        IccidEntity iccid = new IccidEntity();
+        iccid.setId(UUID.randomUUID());
+        iccid.setIccidNo("8986" + tag);
+        iccid.setMachineSn(sn);
+        iccid.setStatus("ACTIVE");
+        iccid.setCreatedAt(OffsetDateTime.now());
+        iccid.setUpdatedAt(OffsetDateTime.now());
+        iccidRepo.saveAndFlush(iccid);
+
+        IccidListDto dto = iccidMasterDataService.searchIccids(tag.toLowerCase(), true, PageRequest.of(0, 10))
+                .getContent().get(0);
+        assertThat(dto.customerName()).isEqualTo("New Customer");
+        assertThat(dto.contractNo()).isEqualTo("CON-NEW");
+
+        shipmentMachineRepo.deleteByShipmentId(newer.getId());
+        shipmentMachineRepo.flush();
+        assertThat(latestShipmentRepo.findById(sn)).hasValueSatisfying(l ->
+                assertThat(l.getShipmentId()).isEqualTo(older.getId()));
+
+        shipmentMachineRepo.deleteByShipmentId(older.getId());
+        shipmentMachineRepo.flush();
+        assertThat(latestShipmentRepo.existsById(sn)).isFalse();
+        assertThat(iccidMasterDataService.searchIccids(tag, null, PageRequest.of(0, 10)).getContent())
+                .singleElement().satisfies(d -> assertThat(d.customerName()).isNull());
+    }
+
+    private ShipmentEntity shipment(String receiver, String contractNo) {
+        ShipmentEntity s = new ShipmentEntity();
+        s.setInitiatorId(1L);
+        s.setType(ShipmentType.CUSTOMER_DELEGATE);
+        s.setApprovalStatus(ApprovalStatus.APPROVED);
+        s.setStatus(ShipmentStatus.CREATED);
+        s.setReceiverName(receiver);
+        s.setContractNo(contractNo);
+        return shipmentRepo.saveAndFlush(s);
+    }
+
+    private static ShipmentMachineEntity shipmentMachine(ShipmentEntity shipment, String machineNo) {
+        ShipmentMachineEntity sm = new ShipmentMachineEntity();
+        sm.setShipmentId(shipment.getId());
+        sm.setMachineNo(machineNo);
+        sm.setModel("M1");
+        return sm;
+    }
+}
@@ -0,0 +1,113 @@
+package com.dfbs.app.application.importdata;
+
+import com.dfbs.app.modules.masterdata.SparePartEntity;
+import com.dfbs.app.modules.masterdata.SparePartRepo;
+import com.dfbs.app.modules.notification.NotificationEntity;
+import com.dfbs.app.modules.notification.NotificationRepo;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk saveAll on pooled-lo sequence tables (V0089 hot tables, V0102 import targets) batches its INSERTs:
+ * prepared statements per call stay near 2 per 50 rows (one id block + one insert batch), not one per row
+ * as IDENTITY forces. Counted with Hibernate statistics, enabled for the duration of each test.
+ */
+@SpringBootTest
+class BatchInsertStatementCountTest {
+
+    private static final int ROWS = 500;
+    /** One sequence call and one insert batch per 50 rows, plus slack for a partially used id block. */
+    private static final long MAX_STATEMENTS = 2L * ROWS / 50 + 4;
+
+    @Autowired
+    private SparePartRepo sparePartRepo;
+
+    @Autowired
+    private NotificationRepo notificationRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final String partPrefix = "BATCH-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+    private final long userId = -ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void cleanup() {
+        statistics.setStatisticsEnabled(false);
+        jdbcTemplate.update("delete from spare_parts where part_no like ?", partPrefix + "%");
+        jdbcTemplate.update("delete from notification where user_id = ?", userId);
+    }
+
+    @Test
+    void importTargetSaveAll_batchesInserts() {
+        List<SparePartEntity> parts = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            SparePartEntity p = new SparePartEntity();
+            p.setPartNo(partPrefix + i);
+            p.setName("batch part " + i);
+            parts.add(p);
+        }
+
+        long statements = countStatements(() -> sparePartRepo.saveAll(parts));
+
+        assertThat(new HashSet<>(parts.stream().map(SparePartEntity::getId).toList())).hasSize(ROWS);
+        assertThat(statements).isLessThanOrEqualTo(MAX_STATEMENTS);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from spare_parts where part_no like ?",
+                Long.class, partPrefix + "%")).isEqualTo(ROWS);
+    }
+
+    @Test
+    void notificationSaveAll_batchesInserts() {
+        List<NotificationEntity> notifications = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            NotificationEntity n = new NotificationEntity();
+            n.setUserId(userId);
+            n.setTitle("batch " + i);
+            n.setCreatedAt(LocalDateTime.now());
+            notifications.add(n);
+        }
+
+        long statements = countStatements(() -> notificationRepo.saveAll(notifications));
+
+        assertThat(statements).isLessThanOrEqualTo(MAX_STATEMENTS);
+        assertThat(notificationRepo.countByUserIdAndIsReadFalse(userId)).isEqualTo(ROWS);
+    }
+
+    /** Statements prepared while action runs in its own committed transaction. */
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+        return statistics.getPrepareStatementCount();
+    }
+}
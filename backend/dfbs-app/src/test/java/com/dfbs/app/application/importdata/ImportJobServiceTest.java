@@ -0,0 +1,209 @@
+package com.dfbs.app.application.importdata;
+
+import com.alibaba.excel.EasyExcel;
+import com.dfbs.app.application.importdata.dto.ImportResultDto;
+import com.dfbs.app.application.perm.PermForbiddenException;
+import com.dfbs.app.config.NodeIdentity;
+import com.dfbs.app.modules.customer.CustomerRepo;
+import com.dfbs.app.modules.importdata.ImportJobEntity;
+import com.dfbs.app.modules.importdata.ImportJobRepo;
+import com.dfbs.app.modules.importdata.ImportJobStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Background import jobs: submit returns a queued job, the worker records progress and the final result;
+ * a queued job can be cancelled, a finished one cannot. Only the submitter (or an admin) sees or cancels a job;
+ * jobs a node left unfinished are failed when it starts again, and any node fails jobs left unfinished too long.
+ */
+@SpringBootTest
+class ImportJobServiceTest {
+
+    private static final int ROWS = 120;
+    private static final Long OWNER_ID = 9_001L;
+    private static final Long OTHER_USER_ID = 9_002L;
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private ImportJobRepo jobRepo;
+
+    @Autowired
+    private CustomerRepo customerRepo;
+
+    @Autowired
+    private NodeIdentity node;
+
+    private final String prefix = "IJS-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+    private final List<Long> jobIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) codes.add(prefix + i);
+        customerRepo.deleteAll(customerRepo.findByCustomerCodeIn(codes));
+        jobRepo.deleteAllById(jobIds);
+    }
+
+    @Test
+    void submit_runsInBackground_andRecordsResult() throws Exception {
+        ImportJobEntity job = importJobService.submit(CustomerImportService.IMPORT_TYPE, "customers.xlsx",
+                new ByteArrayInputStream(customersXlsx()), OWNER_ID);
+        jobIds.add(job.getId());
+        assertThat(job.getStatus()).isEqualTo(ImportJobStatus.QUEUED);
+
+        ImportJobEntity done = awaitFinished(job.getId());
+
+        assertThat(done.getStatus()).isEqualTo(ImportJobStatus.SUCCEEDED);
+        assertThat(done.getRowsRead()).isEqualTo(ROWS);
+        assertThat(done.getSuccessCount()).isEqualTo(ROWS);
+        assertThat(done.getStartedAt()).isNotNull();
+        ImportResultDto result = importJobService.result(done);
+        assertThat(result.getSuccessCount()).isEqualTo(ROWS);
+        assertThat(customerRepo.findByCustomerCodeIn(List.of(prefix + 0, prefix + (ROWS - 1)))).hasSize(2);
+
+        assertThatThrownBy(() -> importJobService.cancel(done.getId(), OWNER_ID, false))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void cancel_queuedJob_isCancelledAtOnce() {
+        ImportJobEntity job = new ImportJobEntity();
+        job.setImportType(CustomerImportService.IMPORT_TYPE);
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setCreatedBy(OWNER_ID);
+        job.setCreatedAt(LocalDateTime.now());
+        job = jobRepo.save(job);
+        jobIds.add(job.getId());
+
+        ImportJobEntity cancelled = importJobService.cancel(job.getId(), OWNER_ID, false);
+
+        assertThat(cancelled.getStatus()).isEqualTo(ImportJobStatus.CANCELLED);
+        assertThat(cancelled.getFinishedAt()).isNotNull();
+        assertThat(jobRepo.markRunning(job.getId(), LocalDateTime.now())).isZero();
+    }
+
+    @Test
+    void getAndCancel_otherUsersJob_forbiddenUnlessAdmin() {
+        ImportJobEntity job = new ImportJobEntity();
+        job.setImportType(CustomerImportService.IMPORT_TYPE);
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setCreatedBy(OWNER_ID);
+        job.setCreatedAt(LocalDateTime.now());
+        job = jobRepo.save(job);
+        jobIds.add(job.getId());
+        Long id = job.getId();
+
+        assertThatThrownBy(() -> importJobService.get(id, OTHER_USER_ID, false))
+                .isInstanceOf(PermForbiddenException.class);
+        assertThatThrownBy(() -> importJobService.cancel(id, OTHER_USER_ID, false))
+                .isInstanceOf(PermForbiddenException.class);
+        assertThat(importJobService.get(id, OWNER_ID, false).getStatus()).isEqualTo(ImportJobStatus.QUEUED);
+
+        assertThat(importJobService.cancel(id, OTHER_USER_ID, true).getStatus()).isEqualTo(ImportJobStatus.CANCELLED);
+    }
+
+    @Test
+    void startup_failsInterruptedJobs_andDeletesSpoolFiles() throws Exception {
+        Path spool = Files.createTempFile("import-job-", ".xlsx");
+        ImportJobEntity interrupted = new ImportJobEntity();
+        interrupted.setImportType(CustomerImportService.IMPORT_TYPE);
+        interrupted.setStatus(ImportJobStatus.RUNNING);
+        interrupted.setWorkerNode(node.nodeId());
+        interrupted.setSpoolPath(spool.toString());
+        interrupted.setCreatedBy(OWNER_ID);
+        interrupted.setCreatedAt(node.startedAt().minusMinutes(5));
+        interrupted = jobRepo.save(interrupted);
+        jobIds.add(interrupted.getId());
+
+        ImportJobEntity otherNode = new ImportJobEntity();
+        otherNode.setImportType(CustomerImportService.IMPORT_TYPE);
+        otherNode.setStatus(ImportJobStatus.RUNNING);
+        otherNode.setWorkerNode(node.nodeId() + "-other");
+        otherNode.setCreatedBy(OWNER_ID);
+        otherNode.setCreatedAt(node.startedAt().minusMinutes(5));
+        otherNode = jobRepo.save(otherNode);
+        jobIds.add(otherNode.getId());
+
+        importJobService.failInterruptedJobs();
+
+        ImportJobEntity failed = importJobService.get(interrupted.getId(), OWNER_ID, false);
+        assertThat(failed.getStatus()).isEqualTo(ImportJobStatus.FAILED);
+        assertThat(failed.getErrorMessage()).contains("服务重启");
+        assertThat(failed.getFinishedAt()).isNotNull();
+        assertThat(Files.exists(spool)).isFalse();
+        assertThat(importJobService.get(otherNode.getId(), OWNER_ID, false).getStatus())
+                .isEqualTo(ImportJobStatus.RUNNING);
+    }
+
+    @Test
+    void staleSweep_failsOldUnfinishedJobsOfAnyNode() {
+        ImportJobEntity stale = new ImportJobEntity();
+        stale.setImportType(CustomerImportService.IMPORT_TYPE);
+        stale.setStatus(ImportJobStatus.QUEUED);
+        stale.setWorkerNode(node.nodeId() + "-dead");
+        stale.setCreatedBy(OWNER_ID);
+        stale.setCreatedAt(LocalDateTime.now().minusDays(2));
+        stale = jobRepo.save(stale);
+        jobIds.add(stale.getId());
+
+        ImportJobEntity fresh = new ImportJobEntity();
+        fresh.setImportType(CustomerImportService.IMPORT_TYPE);
+        fresh.setStatus(ImportJobStatus.QUEUED);
+        fresh.setWorkerNode(node.nodeId() + "-dead");
+        fresh.setCreatedBy(OWNER_ID);
+        fresh.setCreatedAt(LocalDateTime.now());
+        fresh = jobRepo.save(fresh);
+        jobIds.add(fresh.getId());
+
+        importJobService.failStaleJobs();
+
+        ImportJobEntity failed = importJobService.get(stale.getId(), OWNER_ID, false);
+        assertThat(failed.getStatus()).isEqualTo(ImportJobStatus.FAILED);
+        assertThat(failed.getErrorMessage()).contains("超时");
+        assertThat(importJobService.get(fresh.getId(), OWNER_ID, false).getStatus()).isEqualTo(ImportJobStatus.QUEUED);
+    }
+
+    @Test
+    void submit_unknownType_rejected() {
+        assertThatThrownBy(() -> importJobService.submit("NOPE", "x.xlsx", new ByteArrayInputStream(new byte[0]), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ImportJobEntity awaitFinished(Long id) throws InterruptedException {
+        for (int i = 0; i < 300; i++) {
+            ImportJobEntity job = importJobService.get(id, OWNER_ID, false);
+            if (job.getStatus().isFinished()) return job;
+            Thread.sleep(100);
+        }
+        throw new AssertionError("import job " + id + " did not finish");
+    }
+
+    private byte[] customersXlsx() {
+        List<CustomerImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            CustomerImportRow row = new CustomerImportRow();
+            row.setName("Job Customer " + prefix + i);
+            row.setCode(prefix + i);
+            rows.add(row);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EasyExcel.write(out, CustomerImportRow.class).sheet("customers").doWrite(rows);
+        return out.toByteArray();
+    }
+}
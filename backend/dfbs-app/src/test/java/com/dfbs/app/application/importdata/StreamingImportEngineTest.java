@@ -0,0 +1,220 @@
+package com.dfbs.app.application.importdata;
+
+import com.alibaba.excel.EasyExcel;
+import com.dfbs.app.application.importdata.dto.ImportFailureDto;
+import com.dfbs.app.application.masterdata.ModelPartListBomService;
+import com.dfbs.app.application.importdata.dto.ImportResultDto;
+import com.dfbs.app.modules.customer.CustomerRepo;
+import com.dfbs.app.modules.importdata.ImportCheckpointRepo;
+import com.dfbs.app.modules.masterdata.MachineModelRepo;
+import com.dfbs.app.modules.masterdata.ModelPartListRepo;
+import com.dfbs.app.modules.masterdata.SparePartRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Chunked import: per-chunk conflict lookup / save, resume from the checkpoint of a run that failed mid-file,
+ * cancellation between chunks, the cap on listed failures, and BOM group contiguity independent of chunking.
+ * Not @Transactional: chunks commit on their own.
+ */
+@SpringBootTest
+class StreamingImportEngineTest {
+
+    private static final int ROWS = 250;
+    private static final int CHUNK = 100;
+    private static final int MAX_REPORTED = 150;
+
+    @Autowired
+    private CustomerRepo customerRepo;
+
+    @Autowired
+    private ImportCheckpointRepo checkpointRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ModelPartListRepo modelPartListRepo;
+
+    @Autowired
+    private ModelPartListBomService bomService;
+
+    @Autowired
+    private MachineModelRepo machineModelRepo;
+
+    @Autowired
+    private SparePartRepo sparePartRepo;
+
+    private final String prefix = "SIE-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+    private final String resumeKey = UUID.randomUUID().toString();
+
+    @AfterEach
+    void cleanup() {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) codes.add(prefix + i);
+        customerRepo.deleteAll(customerRepo.findByCustomerCodeIn(codes));
+        checkpointRepo.findByImportTypeAndResumeKey("TEST", resumeKey).ifPresent(checkpointRepo::delete);
+    }
+
+    @Test
+    void customerImport_chunked_reportsInFileConflictAndFailure() {
+        List<CustomerImportRow> rows = customerRows();
+        rows.get(9).setCode(prefix + 2);   // Excel row 11 repeats the code of row 4
+        rows.get(19).setName(null);        // Excel row 21: name missing
+        CustomerImportService service = new CustomerImportService(customerRepo, objectMapper, engine());
+
+        ImportResultDto result = service.importFromExcel(xlsx(rows));
+
+        assertThat(result.getSuccessCount()).isEqualTo(ROWS - 2);
+        assertThat(result.getConflicts()).singleElement().satisfies(c -> {
+            assertThat(c.getRowNum()).isEqualTo(11);
+            assertThat(c.getUniqueKey()).isEqualTo(prefix + 2);
+        });
+        assertThat(result.getFailures()).singleElement().satisfies(f -> assertThat(f.getRowNum()).isEqualTo(21));
+        assertThat(customerRepo.findByCustomerCodeIn(List.of(prefix + 0, prefix + 249))).hasSize(2);
+    }
+
+    @Test
+    void failedRun_resumesAfterLastCommittedChunk() {
+        StreamingImportEngine engine = engine();
+        byte[] file = xlsxBytes(customerRows());
+        AtomicBoolean failSecondChunk = new AtomicBoolean(true);
+        List<Integer> firstRowOfChunk = new ArrayList<>();
+
+        StreamingImportEngine.ChunkHandler<CustomerImportRow> handler = chunk -> {
+            firstRowOfChunk.add(chunk.get(0).rowNum());
+            if (firstRowOfChunk.size() == 2 && failSecondChunk.get()) {
+                throw new IllegalStateException("boom");
+            }
+            return ImportResultDto.builder().successCount(chunk.size()).build();
+        };
+
+        assertThatThrownBy(() -> engine.run("TEST", resumeKey, new ByteArrayInputStream(file), CustomerImportRow.class, handler))
+                .hasMessageContaining("boom");
+        assertThat(checkpointRepo.findByImportTypeAndResumeKey("TEST", resumeKey))
+                .hasValueSatisfying(cp -> {
+                    assertThat(cp.getLastRow()).isEqualTo(CHUNK + 1);
+                    assertThat(cp.getSuccessCount()).isEqualTo(CHUNK);
+                });
+
+        failSecondChunk.set(false);
+        firstRowOfChunk.clear();
+        ImportResultDto resumed = engine.run("TEST", resumeKey, new ByteArrayInputStream(file), CustomerImportRow.class, handler);
+
+        assertThat(firstRowOfChunk).containsExactly(CHUNK + 2, 2 * CHUNK + 2);
+        assertThat(resumed.getSuccessCount()).isEqualTo(ROWS);
+        assertThat(checkpointRepo.findByImportTypeAndResumeKey("TEST", resumeKey)).isEmpty();
+    }
+
+    @Test
+    void cancelledRun_stopsBetweenChunks_keepingCheckpoint() {
+        List<Integer> progress = new ArrayList<>();
+        ImportProgress cancelAfterFirstChunk = new ImportProgress() {
+            @Override
+            public void onChunkCommitted(int rowsRead, ImportResultDto totals) {
+                progress.add(rowsRead);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return !progress.isEmpty();
+            }
+        };
+        StreamingImportEngine.ChunkHandler<CustomerImportRow> handler =
+                chunk -> ImportResultDto.builder().successCount(chunk.size()).build();
+
+        assertThatThrownBy(() -> engine().run("TEST", resumeKey, xlsx(customerRows()), CustomerImportRow.class,
+                null, cancelAfterFirstChunk, handler))
+                .isInstanceOf(StreamingImportEngine.ImportCancelledException.class);
+        assertThat(progress).containsExactly(CHUNK);
+        assertThat(checkpointRepo.findByImportTypeAndResumeKey("TEST", resumeKey))
+                .hasValueSatisfying(cp -> assertThat(cp.getLastRow()).isEqualTo(CHUNK + 1));
+    }
+
+    @Test
+    void failures_countedInFull_listedUpToCap() {
+        StreamingImportEngine.ChunkHandler<CustomerImportRow> failEveryRow = chunk -> ImportResultDto.builder()
+                .failureCount(chunk.size())
+                .failures(chunk.stream().map(r -> ImportFailureDto.builder().rowNum(r.rowNum()).reason("bad").build()).toList())
+                .build();
+
+        ImportResultDto result = engine().run("TEST", null, xlsx(customerRows()), CustomerImportRow.class, failEveryRow);
+
+        assertThat(result.getFailureCount()).isEqualTo(ROWS);
+        assertThat(result.getFailures()).hasSize(MAX_REPORTED);
+        assertThat(result.getFailures().get(MAX_REPORTED - 1).getRowNum()).isEqualTo(MAX_REPORTED + 1);
+    }
+
+    /** A group may not come back after another group, whether inside one chunk or past a chunk boundary. */
+    @Test
+    void bomImport_rejectsGroupRepeatedLater_regardlessOfChunks() {
+        List<ModelPartListImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < CHUNK - 1; i++) rows.add(bomRow(prefix + "filler-" + i));
+        for (int i = 0; i < 3; i++) rows.add(bomRow(prefix + "A"));   // rows 101-103: one run, spans the chunk boundary
+        rows.add(bomRow(prefix + "B"));
+        rows.add(bomRow(prefix + "A"));                                 // row 105: A again after B
+        rows.add(bomRow(prefix + "B"));                                 // row 106: B again after A
+        ModelPartListImportService service = new ModelPartListImportService(modelPartListRepo, bomService,
+                machineModelRepo, sparePartRepo, objectMapper, engine());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EasyExcel.write(out, ModelPartListImportRow.class).sheet("bom").doWrite(rows);
+        ImportResultDto result = service.importFromExcel(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(result.getFailures())
+                .filteredOn(f -> "同一型号版本的清单行须连续".equals(f.getReason()))
+                .extracting(ImportFailureDto::getRowNum)
+                .containsExactly(105, 106);
+    }
+
+    private static ModelPartListImportRow bomRow(String modelName) {
+        ModelPartListImportRow row = new ModelPartListImportRow();
+        row.setModelName(modelName);
+        row.setVersion("v1");
+        row.setPartNo("P-1");
+        row.setQuantity(1);
+        return row;
+    }
+
+    private StreamingImportEngine engine() {
+        return new StreamingImportEngine(checkpointRepo, transactionManager, CHUNK, MAX_REPORTED);
+    }
+
+    private List<CustomerImportRow> customerRows() {
+        List<CustomerImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            CustomerImportRow row = new CustomerImportRow();
+            row.setName("Import Customer " + prefix + i);
+            row.setCode(prefix + i);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static ByteArrayInputStream xlsx(List<CustomerImportRow> rows) {
+        return new ByteArrayInputStream(xlsxBytes(rows));
+    }
+
+    private static byte[] xlsxBytes(List<CustomerImportRow> rows) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EasyExcel.write(out, CustomerImportRow.class).sheet("customers").doWrite(rows);
+        return out.toByteArray();
+    }
+}
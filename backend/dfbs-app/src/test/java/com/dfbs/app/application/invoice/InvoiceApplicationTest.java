@@ -24,6 +24,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -210,4 +211,46 @@ class InvoiceApplicationTest {
         InvoiceApplicationEntity appReloaded = applicationRepo.findById(app.getId()).orElseThrow();
         assertThat(appReloaded.getStatus()).isEqualTo(InvoiceApplicationStatus.REJECTED);
     }
+
+    @Test
+    void test5_consolidated_manyQuotes_approveSetsPerQuoteStatus() {
+        Long collectorId = 20L;
+        int quotes = 30;
+        List<Long> quoteIds = new ArrayList<>();
+        List<QuoteItemSelection> service = new ArrayList<>();
+        List<QuoteItemSelection> hardware = new ArrayList<>();
+        for (int i = 0; i < quotes; i++) {
+            Long quoteId = createConfirmedQuote(BigDecimal.valueOf(100), 1L, collectorId);
+            quoteIds.add(quoteId);
+            QuoteItemSelection sel = new QuoteItemSelection();
+            sel.setQuoteItemId(getFirstQuoteItemId(quoteId));
+            sel.setAmount(BigDecimal.valueOf(i % 2 == 0 ? 100 : 40)); // odd quotes only partly invoiced
+            (i < quotes / 2 ? service : hardware).add(sel);
+        }
+        InvoiceGroupRequest groupService = new InvoiceGroupRequest();
+        groupService.setItems(service);
+        InvoiceGroupRequest groupHardware = new InvoiceGroupRequest();
+        groupHardware.setItems(hardware);
+        InvoiceApplicationCreateRequest req = new InvoiceApplicationCreateRequest();
+        req.setGroups(List.of(groupService, groupHardware));
+
+        InvoiceApplicationEntity app = invoiceApplicationService.create(req, collectorId);
+        assertThat(app.getTotalAmount()).isEqualByComparingTo(BigDecimal.valueOf(15 * 100 + 15 * 40));
+        List<InvoiceRecordEntity> records = recordRepo.findByApplicationId(app.getId());
+        assertThat(records).hasSize(2);
+        assertThat(itemRefRepo.findByInvoiceRecordIdIn(records.stream().map(InvoiceRecordEntity::getId).toList()))
+                .hasSize(quotes)
+                .allSatisfy(ref -> assertThat(quoteIds).contains(ref.getQuoteId()));
+        assertThat(quoteRepo.findAllById(quoteIds))
+                .allMatch(q -> q.getInvoiceStatus() == QuoteInvoiceStatus.IN_PROCESS);
+
+        invoiceApplicationService.audit(app.getId(), "APPROVE", 2L, null);
+
+        for (int i = 0; i < quotes; i++) {
+            QuoteEntity quote = quoteRepo.findById(quoteIds.get(i)).orElseThrow();
+            assertThat(quote.getInvoiceStatus())
+                    .isEqualTo(i % 2 == 0 ? QuoteInvoiceStatus.FULLY_INVOICED : QuoteInvoiceStatus.PARTIAL);
+            assertThat(quote.getInvoicedAmount()).isEqualByComparingTo(BigDecimal.valueOf(i % 2 == 0 ? 100 : 40));
+        }
+    }
 }
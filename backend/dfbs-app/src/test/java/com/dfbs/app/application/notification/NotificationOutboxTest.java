@@ -0,0 +1,128 @@
+package com.dfbs.app.application.notification;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * sendBatch with dfbs.notification.outbox-enabled: the sender's transaction writes one outbox row, notifications
+ * appear after commit (off the committing thread), a rollback delivers nothing, the sweep delivers rows whose
+ * after-commit delivery was lost, and a row that keeps failing is marked dead after outbox-max-attempts.
+ * Not @Transactional: delivery happens after commit.
+ */
+@SpringBootTest(properties = {"dfbs.notification.outbox-enabled=true", "dfbs.notification.outbox-max-attempts=2"})
+class NotificationOutboxTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationOutboxRelay relay;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final long userA = -ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+    private final long userB = userA + 1;
+    private final String title = "outbox " + UUID.randomUUID();
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("delete from notification where user_id in (?, ?)", userA, userB);
+        jdbcTemplate.update("delete from notification_outbox where title = ?", title);
+    }
+
+    @Test
+    void commit_deliversNotificationsAndDeletesOutboxRow() throws InterruptedException {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            notificationService.sendBatch(List.of(userA, userB, userA), title, "C", "/x");
+            assertThat(outboxRows()).isEqualTo(1);
+            assertThat(notifications(userA)).isZero();
+        });
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (outboxRows() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(notifications(userA)).isEqualTo(1);
+        assertThat(notifications(userB)).isEqualTo(1);
+        assertThat(outboxRows()).isZero();
+    }
+
+    @Test
+    void rollback_deliversNothing() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            notificationService.sendBatch(List.of(userA, userB), title, "C", "/x");
+            status.setRollbackOnly();
+        });
+
+        assertThat(notifications(userA)).isZero();
+        assertThat(notifications(userB)).isZero();
+        assertThat(outboxRows()).isZero();
+    }
+
+    @Test
+    void sweep_deliversRowWhoseAfterCommitDeliveryWasLost() {
+        jdbcTemplate.update("insert into notification_outbox (recipient_ids, title, content, target_url, type, priority, "
+                        + "is_action_required, created_at) values (?, ?, 'C', '/x', 'SYSTEM', 'NORMAL', false, ?)",
+                userA + "," + userB, title, Timestamp.valueOf(LocalDateTime.now().minusMinutes(10)));
+
+        relay.sweep();
+
+        assertThat(notifications(userA)).isEqualTo(1);
+        assertThat(notifications(userB)).isEqualTo(1);
+        assertThat(outboxRows()).isZero();
+    }
+
+    @Test
+    void sweep_marksRowDeadAfterMaxAttemptsAndSkipsIt() {
+        jdbcTemplate.update("insert into notification_outbox (recipient_ids, title, content, target_url, type, priority, "
+                        + "is_action_required, created_at) values ('not-a-user-id', ?, 'C', '/x', 'SYSTEM', 'NORMAL', false, ?)",
+                title, Timestamp.valueOf(LocalDateTime.now().minusMinutes(10)));
+
+        relay.sweep();
+        assertThat(outboxAttempts()).isEqualTo(1);
+        assertThat(outboxDead()).isFalse();
+
+        relay.sweep();
+        assertThat(outboxAttempts()).isEqualTo(2);
+        assertThat(outboxDead()).isTrue();
+
+        relay.sweep();
+        assertThat(outboxAttempts()).isEqualTo(2);
+        assertThat(outboxRows()).isEqualTo(1);
+    }
+
+    private int outboxAttempts() {
+        return jdbcTemplate.queryForObject("select attempts from notification_outbox where title = ?", Integer.class, title);
+    }
+
+    private boolean outboxDead() {
+        return jdbcTemplate.queryForObject("select dead_at is not null from notification_outbox where title = ?",
+                Boolean.class, title);
+    }
+
+    private long notifications(long userId) {
+        return jdbcTemplate.queryForObject("select count(*) from notification where user_id = ? and title = ?",
+                Long.class, userId, title);
+    }
+
+    private long outboxRows() {
+        return jdbcTemplate.queryForObject("select count(*) from notification_outbox where title = ?", Long.class, title);
+    }
+}
@@ -0,0 +1,71 @@
+package com.dfbs.app.application.notification;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Per-stream delivery: a client blocked in a write delays only its own stream and is dropped after the send timeout. */
+class NotificationStreamHubTest {
+
+    private final NotificationStreamHub hub = new NotificationStreamHub(60_000, 50);
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        hub.shutdown();
+    }
+
+    /** Records every event; blocks each write while blocked is set. */
+    private final class RecordingEmitter extends SseEmitter {
+        final LinkedBlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+        final boolean blocked;
+
+        RecordingEmitter(boolean blocked) {
+            this.blocked = blocked;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (blocked) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(builder);
+        }
+    }
+
+    @Test
+    void blockedClient_doesNotDelayOtherUsers() throws Exception {
+        RecordingEmitter slow = new RecordingEmitter(true);
+        RecordingEmitter fast = new RecordingEmitter(false);
+        hub.subscribe(1L, 0, slow);
+        hub.subscribe(2L, 0, fast);
+
+        hub.push(1L, NotificationStreamHub.EVENT_UNREAD, new NotificationStreamHub.UnreadPush(1));
+        hub.push(2L, NotificationStreamHub.EVENT_UNREAD, new NotificationStreamHub.UnreadPush(1));
+
+        assertThat(fast.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(fast.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(slow.sent).isEmpty();
+    }
+
+    @Test
+    void writeBlockedPastSendTimeout_dropsStreamAtHeartbeat() throws Exception {
+        hub.subscribe(1L, 0, new RecordingEmitter(true));
+        Thread.sleep(200);
+
+        hub.heartbeat();
+
+        assertThat(hub.isConnected(1L)).isFalse();
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -138,4 +139,27 @@ class NotificationTest {
         assertThat(notificationRepo.findById(normalOld.getId())).isEmpty();
         assertThat(notificationRepo.findById(urgentOld.getId())).isEmpty();
     }
+
+    /**
+     * Test 5 (Batch): opted-out user skipped for Normal only; duplicate / null ids dropped; targetUrl kept.
+     */
+    @Test
+    void test5_sendBatch_respectsPreferences_andDropsDuplicates() {
+        UserEntity other = new UserEntity();
+        other.setUsername("notif-user-off");
+        other.setCanRequestPermission(false);
+        other.setAuthorities("[]");
+        other.setAllowNormalNotification(false);
+        Long offId = userRepo.save(other).getId();
+
+        notificationService.sendBatch(Arrays.asList(userId, offId, userId, null), "Batch", "C", "/quotes/1");
+
+        assertThat(notificationRepo.findByUserIdOrderByCreatedAtDesc(userId)).singleElement()
+                .satisfies(n -> assertThat(n.getTargetUrl()).isEqualTo("/quotes/1"));
+        assertThat(notificationRepo.findByUserIdOrderByCreatedAtDesc(offId)).isEmpty();
+
+        List<NotificationEntity> urgent = notificationService.sendBatch(List.of(userId, offId), "Urgent", "C",
+                NotificationType.SYSTEM, null, NotificationPriority.URGENT, true);
+        assertThat(urgent).extracting(NotificationEntity::getUserId).containsExactly(userId, offId);
+    }
 }
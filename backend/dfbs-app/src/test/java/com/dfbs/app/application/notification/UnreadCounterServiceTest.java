@@ -0,0 +1,130 @@
+package com.dfbs.app.application.notification;
+
+import com.dfbs.app.modules.notification.NotificationEntity;
+import com.dfbs.app.modules.notification.NotificationPriority;
+import com.dfbs.app.modules.notification.NotificationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unread counters follow committed sends / reads without re-counting; rolled-back sends never reach them.
+ * Not @Transactional: counters change after commit.
+ */
+@SpringBootTest
+class UnreadCounterServiceTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UnreadCounterStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final long userId = -ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("delete from notification where user_id = ?", userId);
+    }
+
+    @Test
+    void counter_tracksSendReadAndRollback() {
+        assertThat(notificationService.getUnreadCount(userId)).isZero();
+        assertThat(store.get(userId)).isZero();
+
+        NotificationEntity first = notificationService.send(userId, "A", "C", NotificationType.SYSTEM, null,
+                NotificationPriority.URGENT, false);
+        notificationService.sendBatch(List.of(userId), "B", "C", NotificationType.SYSTEM, null,
+                NotificationPriority.URGENT, false);
+        assertThat(store.get(userId)).isEqualTo(2);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            notificationService.send(userId, "Rolled back", "C", "/x");
+            // The sending transaction sees its own insert
+            assertThat(notificationService.getUnreadCount(userId)).isEqualTo(3);
+            status.setRollbackOnly();
+        });
+        assertThat(notificationService.getUnreadCount(userId)).isEqualTo(2);
+
+        notificationService.markAsRead(first.getId(), userId);
+        notificationService.markAsRead(first.getId(), userId);
+        assertThat(store.get(userId)).isEqualTo(1);
+
+        notificationService.markAllAsRead(userId);
+        assertThat(store.get(userId)).isNull();
+        assertThat(notificationService.getUnreadCount(userId)).isZero();
+        assertThat(store.get(userId)).isZero();
+    }
+
+    /**
+     * A seed from another request between commit and the after-commit delta (row already visible, delta not yet
+     * applied) must not be stored, or the delta would count the row twice (send) or once too few (read).
+     */
+    @Test
+    void seedBetweenCommitAndDelta_isDiscarded() throws Exception {
+        assertThat(store.get(userId)).isNull();
+        ExecutorService otherRequest = Executors.newSingleThreadExecutor();
+        try {
+            List<Long> seen = new ArrayList<>();
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+            NotificationEntity first = tx.execute(status -> {
+                seedAfterCommit(otherRequest, seen);
+                NotificationEntity n = notificationService.send(userId, "A", "C", "/x");
+                notificationService.send(userId, "B", "C", "/x");
+                return n;
+            });
+            assertThat(seen).containsExactly(2L);
+            assertThat(notificationService.getUnreadCount(userId)).isEqualTo(2);
+            assertThat(store.get(userId)).isEqualTo(2);
+
+            tx.executeWithoutResult(status -> {
+                seedAfterCommit(otherRequest, seen);
+                notificationService.markAsRead(first.getId(), userId);
+            });
+            assertThat(seen).containsExactly(2L, 1L);
+            assertThat(store.get(userId)).isEqualTo(1);
+            assertThat(notificationService.getUnreadCount(userId)).isEqualTo(1);
+        } finally {
+            otherRequest.shutdownNow();
+        }
+    }
+
+    /**
+     * Registered before the change, so its afterCommit runs ahead of the delta listener (registered on publish).
+     * The store is cleared first so the other request has to seed.
+     */
+    private void seedAfterCommit(ExecutorService otherRequest, List<Long> seen) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                store.clear();
+                try {
+                    seen.add(otherRequest.submit(() -> notificationService.getUnreadCount(userId)).get());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package com.dfbs.app.application.orgstructure;
+
+import com.dfbs.app.application.orgstructure.dto.OrgPersonResponse;
+import com.dfbs.app.config.CurrentUserIdResolver;
+import com.dfbs.app.modules.orgstructure.*;
+import com.dfbs.app.modules.user.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+/**
+ * org_node_closure kept in step with create/move: subtree ids, depth, cycle check, impact counts and
+ * the people-directory subtree search all read it.
+ */
+@SpringBootTest
+@Transactional
+class OrgNodeClosureTest {
+
+    @Autowired
+    private OrgNodeService nodeService;
+    @Autowired
+    private OrgPersonService personService;
+    @Autowired
+    private OrgLevelRepo levelRepo;
+    @Autowired
+    private JobLevelRepo jobLevelRepo;
+    @Autowired
+    private OrgPersonRepo personRepo;
+    @Autowired
+    private PersonAffiliationRepo affiliationRepo;
+
+    @MockitoBean
+    private CurrentUserIdResolver userIdResolver;
+
+    private Long levelId;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity user = new UserEntity();
+        user.setNickname("closure-test");
+        when(userIdResolver.getCurrentUserId()).thenReturn(1L);
+        when(userIdResolver.getCurrentUserEntity()).thenReturn(user);
+        OrgLevelEntity level = new OrgLevelEntity();
+        level.setDisplayName("closure-level");
+        levelId = levelRepo.save(level).getId();
+    }
+
+    @Test
+    void createAndMove_keepSubtreeDepthAndPeopleSearchInStep() {
+        Long a = node(null, "A");
+        Long b = node(a, "B");
+        Long c = node(b, "C");
+        Long d = node(a, "D");
+        Long person = person("closure-person", c);
+
+        assertThat(nodeService.getDescendantIds(a)).containsExactly(b, d, c);
+        assertThat(nodeService.getDepth(c)).isEqualTo(2);
+        assertThat(nodeService.getImpactSummary(b)).isEqualTo(new OrgNodeService.ImpactSummary(1, 1));
+
+        assertThatThrownBy(() -> nodeService.move(a, c)).isInstanceOf(ResponseStatusException.class);
+
+        nodeService.move(b, d);
+        assertThat(nodeService.getDescendantIds(d)).containsExactly(b, c);
+        assertThat(nodeService.getDepth(c)).isEqualTo(3);
+        assertThat(nodeService.getImpactSummary(d)).isEqualTo(new OrgNodeService.ImpactSummary(2, 1));
+
+        nodeService.move(b, null);
+        assertThat(nodeService.getDescendantIds(a)).containsExactly(d);
+        assertThat(nodeService.getDepth(c)).isEqualTo(1);
+        assertThat(search(a)).isEmpty();
+        assertThat(search(b)).containsExactly(person);
+    }
+
+    private List<Long> search(Long rootId) {
+        return personService.searchByOrgSubtree(rootId, true, false, false, null, PageRequest.of(0, 20))
+                .getContent().stream().map(OrgPersonResponse::id).toList();
+    }
+
+    private Long node(Long parentId, String name) {
+        return nodeService.create(levelId, parentId, "closure-" + name, null, true).id();
+    }
+
+    private Long person(String name, Long orgNodeId) {
+        JobLevelEntity jobLevel = new JobLevelEntity();
+        jobLevel.setDisplayName("closure-job-level");
+        OrgPersonEntity p = new OrgPersonEntity();
+        p.setName(name);
+        p.setPhone("13800000000");
+        p.setJobLevelId(jobLevelRepo.save(jobLevel).getId());
+        p = personRepo.save(p);
+        PersonAffiliationEntity pa = new PersonAffiliationEntity();
+        pa.setPersonId(p.getId());
+        pa.setOrgNodeId(orgNodeId);
+        pa.setIsPrimary(true);
+        affiliationRepo.save(pa);
+        return p.getId();
+    }
+}
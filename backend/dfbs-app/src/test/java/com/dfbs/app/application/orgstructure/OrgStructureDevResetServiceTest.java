@@ -3,6 +3,7 @@ package com.dfbs.app.application.orgstructure;
 import com.dfbs.app.modules.orgstructure.*;
 import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Map;
@@ -41,7 +42,7 @@ class OrgStructureDevResetServiceTest {
 
         OrgStructureDevResetService service = new OrgStructureDevResetService(
                 changeLogRepo, affiliationRepo, personRepo, nodeRepo, levelService,
-                bindingRepo, enabledRepo, levelPositionTemplateRepo, nodeService);
+                bindingRepo, enabledRepo, levelPositionTemplateRepo, nodeService, mock(ApplicationEventPublisher.class));
 
         Map<String, Object> result = service.resetAll();
 
@@ -0,0 +1,49 @@
+package com.dfbs.app.application.orgstructure;
+
+import com.dfbs.app.modules.orgstructure.OrgNodeEntity;
+import com.dfbs.app.modules.orgstructure.OrgNodeRepo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Paths and ancestor chains from one load; committed node changes are applied in place, a bulk change reloads.
+ */
+class OrgTreeSnapshotTest {
+
+    @Test
+    void resolvesFromOneLoad_andAppliesCommittedChangesIncrementally() {
+        OrgNodeRepo nodeRepo = mock(OrgNodeRepo.class);
+        when(nodeRepo.findAll()).thenReturn(List.of(node(1L, null, "公司"), node(2L, 1L, "本部"), node(3L, 2L, "研发部")));
+        OrgTreeSnapshot snapshot = new OrgTreeSnapshot(nodeRepo);
+
+        assertThat(snapshot.resolvePath(3L)).isEqualTo("公司 / 本部 / 研发部");
+        assertThat(snapshot.ancestorIds(3L)).containsExactly(1L, 2L);
+        assertThat(snapshot.resolvePaths(Arrays.asList(2L, null, 99L)))
+                .containsExactly(Map.entry(2L, "公司 / 本部"), Map.entry(99L, ""));
+
+        snapshot.onCommitted(new OrgNodeChangedEvent(2L, 1L, "总部"));
+        snapshot.onCommitted(new OrgNodeChangedEvent(4L, 1L, "销售部"));
+        snapshot.onCommitted(new OrgNodeChangedEvent(3L, 4L, "研发部"));
+        assertThat(snapshot.resolvePath(2L)).isEqualTo("公司 / 总部");
+        assertThat(snapshot.resolvePath(3L)).isEqualTo("公司 / 销售部 / 研发部");
+        verify(nodeRepo, times(1)).findAll();
+
+        snapshot.onCommitted(OrgNodeChangedEvent.all());
+        snapshot.resolvePath(3L);
+        verify(nodeRepo, times(2)).findAll();
+    }
+
+    private static OrgNodeEntity node(Long id, Long parentId, String name) {
+        OrgNodeEntity e = new OrgNodeEntity();
+        e.setId(id);
+        e.setParentId(parentId);
+        e.setName(name);
+        return e;
+    }
+}
@@ -0,0 +1,197 @@
+package com.dfbs.app.application.perm;
+
+import com.dfbs.app.modules.perm.PermRolePermissionEntity;
+import com.dfbs.app.modules.perm.PermRolePermissionRepo;
+import com.dfbs.app.modules.perm.PermUserPermissionOverrideEntity;
+import com.dfbs.app.modules.perm.PermUserPermissionOverrideRepo;
+import com.dfbs.app.modules.perm.PermUserRoleTemplateEntity;
+import com.dfbs.app.modules.perm.PermUserRoleTemplateRepo;
+import com.dfbs.app.modules.user.UserEntity;
+import com.dfbs.app.modules.user.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Effective-permission cache: masks compile (template | add) &amp; ~remove; warm checks skip the DB;
+ * user/role evictions reload only affected entries; a transaction that published an eviction bypasses the cache.
+ */
+class PermEffectiveCacheTest {
+
+    private UserRepo userRepo;
+    private PermUserRoleTemplateRepo templateRepo;
+    private PermRolePermissionRepo rolePermissionRepo;
+    private PermUserPermissionOverrideRepo overrideRepo;
+    private PermPermissionTreeService treeService;
+    private PermKeyRegistry keyRegistry;
+    private PermEffectiveCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        userRepo = mock(UserRepo.class);
+        templateRepo = mock(PermUserRoleTemplateRepo.class);
+        rolePermissionRepo = mock(PermRolePermissionRepo.class);
+        overrideRepo = mock(PermUserPermissionOverrideRepo.class);
+        treeService = mock(PermPermissionTreeService.class);
+        when(treeService.getAllPermissionKeys()).thenReturn(Set.of("work_order:VIEW", "work_order:EDIT"));
+        when(rolePermissionRepo.findDistinctPermissionKeys()).thenReturn(List.of("shipment.shipments:VIEW"));
+        keyRegistry = new PermKeyRegistry(treeService, rolePermissionRepo, overrideRepo);
+        cache = new PermEffectiveCache(userRepo, templateRepo, rolePermissionRepo, overrideRepo, keyRegistry,
+                mock(ObjectProvider.class));
+        givenRole(10L, "work_order:VIEW", "work_order:EDIT");
+        givenRole(20L, "shipment.shipments:VIEW");
+        givenUser(1L, "[\"ROLE_ADMIN\"]", 10L);
+        givenUser(2L, "[\"ROLE_USER\"]", 20L);
+    }
+
+    private void givenRole(Long roleId, String... keys) {
+        when(rolePermissionRepo.findByRoleId(roleId)).thenReturn(Arrays.stream(keys).map(k -> {
+            PermRolePermissionEntity p = new PermRolePermissionEntity();
+            p.setRoleId(roleId);
+            p.setPermissionKey(k);
+            return p;
+        }).toList());
+    }
+
+    private static PermUserPermissionOverrideEntity override(Long userId, String key, String op) {
+        PermUserPermissionOverrideEntity o = new PermUserPermissionOverrideEntity();
+        o.setUserId(userId);
+        o.setPermissionKey(key);
+        o.setOp(op);
+        return o;
+    }
+
+    private void givenUser(Long id, String authorities, Long roleId) {
+        UserEntity u = new UserEntity();
+        u.setId(id);
+        u.setAuthorities(authorities);
+        when(userRepo.findById(id)).thenReturn(Optional.of(u));
+        PermUserRoleTemplateEntity t = new PermUserRoleTemplateEntity();
+        t.setUserId(id);
+        t.setRoleId(roleId);
+        when(templateRepo.findByUserId(id)).thenReturn(Optional.of(t));
+        when(overrideRepo.findByUserId(id)).thenReturn(List.of());
+    }
+
+    @Test
+    void mask_isTemplateUnionAddMinusRemove() {
+        when(overrideRepo.findByUserId(1L)).thenReturn(List.of(
+                override(1L, "shipment.shipments:VIEW", "ADD"),
+                override(1L, "work_order:EDIT", "REMOVE")));
+
+        PermEffectiveCache.Snapshot s = cache.get(1L);
+
+        assertThat(s.effectiveKeys()).containsExactlyInAnyOrder("work_order:VIEW", "shipment.shipments:VIEW");
+        assertThat(s.has("work_order:VIEW")).isTrue();
+        assertThat(s.has("work_order:EDIT")).isFalse();
+        assertThat(s.has("unknown:VIEW")).isFalse();
+    }
+
+    @Test
+    void secondLookup_isServedFromCache() {
+        PermEffectiveCache.Snapshot first = cache.get(1L);
+        PermEffectiveCache.Snapshot second = cache.get(1L);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.adminOrSuperAdmin()).isTrue();
+        assertThat(second.has("work_order:VIEW")).isTrue();
+        verify(userRepo, times(1)).findById(1L);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void userEviction_reloadsOnlyThatUser() {
+        cache.get(1L);
+        cache.get(2L);
+
+        cache.onEvict(PermCacheEvictEvent.forUser(2L));
+        cache.get(1L);
+        cache.get(2L);
+
+        verify(userRepo, times(1)).findById(1L);
+        verify(userRepo, times(2)).findById(2L);
+    }
+
+    @Test
+    void roleEviction_reloadsUsersOnThatTemplate() {
+        cache.get(1L);
+        cache.get(2L);
+
+        cache.onEvict(PermCacheEvictEvent.forRole(10L));
+        cache.get(1L);
+
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+        verify(rolePermissionRepo, times(2)).findByRoleId(10L);
+        verify(rolePermissionRepo, times(1)).findByRoleId(20L);
+    }
+
+    @Test
+    void layoutChange_reloadsCachedSnapshotOnNewIds() {
+        PermEffectiveCache.Snapshot before = cache.get(1L);
+        when(treeService.getAllPermissionKeys()).thenReturn(Set.of("alarm:VIEW", "work_order:VIEW", "work_order:EDIT"));
+
+        PermEffectiveCache.Snapshot after = cache.get(1L);
+
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.version()).isNotEqualTo(before.version());
+        assertThat(after.has("work_order:VIEW")).isTrue();
+        assertThat(after.has("alarm:VIEW")).isFalse();
+        verify(userRepo, times(2)).findById(1L);
+    }
+
+    @Test
+    void keyOutsideStoredSet_extendsLayout() {
+        givenRole(30L, "report:EXPORT");
+        givenUser(3L, "[\"ROLE_USER\"]", 30L);
+
+        PermEffectiveCache.Snapshot s = cache.get(3L);
+
+        assertThat(s.has("report:EXPORT")).isTrue();
+        assertThat(s.layout().keys()).contains("report:EXPORT");
+    }
+
+    @Test
+    void transactionThatChangedPermissions_bypassesCache() {
+        PermEffectiveCache.Snapshot cached = cache.get(1L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.onChanged(PermCacheEvictEvent.forUser(1L));
+            when(overrideRepo.findByUserId(1L)).thenReturn(List.of(override(1L, "work_order:EDIT", "REMOVE")));
+
+            PermEffectiveCache.Snapshot inTx = cache.get(1L);
+
+            assertThat(inTx.has("work_order:EDIT")).isFalse();
+            assertThat(cache.get(1L)).isNotSameAs(cached);
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(0));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(cache.get(1L)).isSameAs(cached);
+        verify(userRepo, times(3)).findById(1L);
+    }
+
+    @Test
+    void unknownUser_isNotCached() {
+        when(userRepo.findById(99L)).thenReturn(Optional.empty());
+
+        PermEffectiveCache.Snapshot s = cache.get(99L);
+
+        assertThat(s.effectiveKeys()).isEmpty();
+        assertThat(s.adminOrSuperAdmin()).isFalse();
+        assertThat(cache.stats().size()).isZero();
+    }
+}
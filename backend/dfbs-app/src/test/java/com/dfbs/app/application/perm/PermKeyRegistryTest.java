@@ -0,0 +1,69 @@
+package com.dfbs.app.application.perm;
+
+import com.dfbs.app.modules.perm.PermRolePermissionRepo;
+import com.dfbs.app.modules.perm.PermUserPermissionOverrideRepo;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Key registry: ids are positions in the sorted full key set (tree + stored grants), independent of the order keys
+ * are first seen; the version is a content hash, so equal versions mean equal ids.
+ */
+class PermKeyRegistryTest {
+
+    private static PermKeyRegistry registry(Set<String> treeKeys, List<String> roleKeys, List<String> overrideKeys) {
+        PermPermissionTreeService treeService = mock(PermPermissionTreeService.class);
+        when(treeService.getAllPermissionKeys()).thenReturn(treeKeys);
+        PermRolePermissionRepo rolePermissionRepo = mock(PermRolePermissionRepo.class);
+        when(rolePermissionRepo.findDistinctPermissionKeys()).thenReturn(roleKeys);
+        PermUserPermissionOverrideRepo overrideRepo = mock(PermUserPermissionOverrideRepo.class);
+        when(overrideRepo.findDistinctPermissionKeys()).thenReturn(overrideKeys);
+        return new PermKeyRegistry(treeService, rolePermissionRepo, overrideRepo);
+    }
+
+    @Test
+    void ids_areSortedFullKeySet_regardlessOfFirstSeenOrder() {
+        Set<String> tree = Set.of("work_order:VIEW", "alarm:VIEW");
+        PermKeyRegistry a = registry(tree, List.of("shipment.shipments:VIEW"), List.of("legacy:EXPORT"));
+        PermKeyRegistry b = registry(tree, List.of("shipment.shipments:VIEW"), List.of("legacy:EXPORT"));
+
+        a.covering(List.of("legacy:EXPORT"));
+        b.covering(List.of("shipment.shipments:VIEW"));
+
+        assertThat(a.keys()).containsExactly("alarm:VIEW", "legacy:EXPORT", "shipment.shipments:VIEW", "work_order:VIEW");
+        assertThat(b.keys()).isEqualTo(a.keys());
+        assertThat(b.version()).isEqualTo(a.version());
+    }
+
+    @Test
+    void version_changesWithContentNotJustSize() {
+        PermKeyRegistry a = registry(Set.of("alarm:VIEW", "work_order:VIEW"), List.of(), List.of());
+        PermKeyRegistry b = registry(Set.of("alarm:EDIT", "work_order:VIEW"), List.of(), List.of());
+
+        assertThat(a.keys()).hasSameSizeAs(b.keys());
+        assertThat(a.version()).isNotEqualTo(b.version());
+    }
+
+    @Test
+    void covering_rebuildsOnlyWhenAKeyIsMissing() {
+        PermKeyRegistry registry = registry(Set.of("work_order:VIEW"), List.of(), List.of());
+        PermKeyRegistry.Layout first = registry.current();
+
+        assertThat(registry.covering(List.of("work_order:VIEW"))).isSameAs(first);
+
+        PermKeyRegistry.Layout extended = registry.covering(List.of(" report:EXPORT "));
+        assertThat(extended).isNotSameAs(first);
+        assertThat(extended.keys()).containsExactly("report:EXPORT", "work_order:VIEW");
+
+        BitSet mask = extended.compile(List.of("report:EXPORT"));
+        assertThat(extended.keysOf(mask)).containsExactly("report:EXPORT");
+        assertThat(first.indexOf("report:EXPORT")).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,92 @@
+package com.dfbs.app.application.perm;
+
+import com.dfbs.app.interfaces.perm.PermissionTreeDto;
+import com.dfbs.app.modules.perm.PermActionEntity;
+import com.dfbs.app.modules.perm.PermActionRepo;
+import com.dfbs.app.modules.perm.PermModuleActionEntity;
+import com.dfbs.app.modules.perm.PermModuleActionRepo;
+import com.dfbs.app.modules.perm.PermModuleEntity;
+import com.dfbs.app.modules.perm.PermModuleRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Permission tree loader: whole tree from three queries, cached until a module mutation invalidates it.
+ */
+class PermPermissionTreeServiceTest {
+
+    private PermModuleRepo moduleRepo;
+    private PermModuleActionRepo moduleActionRepo;
+    private PermPermissionTreeService service;
+
+    @BeforeEach
+    void setUp() {
+        PermActionRepo actionRepo = mock(PermActionRepo.class);
+        moduleRepo = mock(PermModuleRepo.class);
+        moduleActionRepo = mock(PermModuleActionRepo.class);
+        service = new PermPermissionTreeService(actionRepo, moduleRepo, moduleActionRepo);
+
+        when(actionRepo.findAllByOrderByIdAsc()).thenReturn(List.of(action("VIEW"), action("EDIT")));
+        when(moduleRepo.findAllByOrderByIdAsc()).thenReturn(List.of(
+                module(1L, "shipment", null),
+                module(2L, "shipment.shipments", 1L),
+                module(3L, "work_order", null)));
+        when(moduleActionRepo.findAllByOrderByIdAsc()).thenReturn(List.of(
+                moduleAction(2L, "VIEW"),
+                moduleAction(2L, "EDIT"),
+                moduleAction(3L, "VIEW")));
+    }
+
+    private static PermActionEntity action(String key) {
+        PermActionEntity a = new PermActionEntity();
+        a.setActionKey(key);
+        a.setLabel(key);
+        return a;
+    }
+
+    private static PermModuleEntity module(Long id, String key, Long parentId) {
+        PermModuleEntity m = new PermModuleEntity();
+        m.setId(id);
+        m.setModuleKey(key);
+        m.setLabel(key);
+        m.setParentId(parentId);
+        return m;
+    }
+
+    private static PermModuleActionEntity moduleAction(Long moduleId, String actionKey) {
+        PermModuleActionEntity ma = new PermModuleActionEntity();
+        ma.setModuleId(moduleId);
+        ma.setActionKey(actionKey);
+        return ma;
+    }
+
+    @Test
+    void tree_isAssembledInMemory() {
+        PermissionTreeDto.PermissionTreeResponse tree = service.getPermissionTree();
+
+        assertThat(tree.modules()).extracting(PermissionTreeDto.ModuleNode::key).containsExactly("shipment", "work_order");
+        assertThat(tree.modules().get(0).children()).extracting(PermissionTreeDto.ModuleNode::key).containsExactly("shipment.shipments");
+        assertThat(service.getAllPermissionKeys()).containsExactlyInAnyOrder(
+                "shipment.shipments:VIEW", "shipment.shipments:EDIT", "work_order:VIEW");
+        verify(moduleRepo, times(1)).findAllByOrderByIdAsc();
+        verify(moduleActionRepo, times(1)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void moduleChange_rebuildsSnapshot() {
+        long before = service.getSnapshot().version();
+
+        service.onModuleTreeChanged(new PermModuleTreeChangedEvent(3L));
+
+        assertThat(service.getSnapshot().version()).isGreaterThan(before);
+        verify(moduleRepo, times(2)).findAllByOrderByIdAsc();
+    }
+}
@@ -0,0 +1,94 @@
+package com.dfbs.app.application.quote;
+
+import com.dfbs.app.modules.quote.QuoteItemEntity;
+import com.dfbs.app.modules.quote.QuoteItemRepo;
+import com.dfbs.app.modules.quote.enums.QuoteExpenseType;
+import com.dfbs.app.modules.quote.enums.QuoteItemWarehouse;
+import com.dfbs.app.modules.quote.enums.QuoteSourceType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Content-hash result cache: a CONFIRMED quote is rendered once and re-exports return the cached bytes without
+ * opening the template; a content change renders again. DRAFT quotes are never cached.
+ */
+@SpringBootTest
+@Transactional
+class QuoteExportCacheTest {
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuoteItemService itemService;
+
+    @Autowired
+    private QuoteExportService exportService;
+
+    @Autowired
+    private QuoteItemRepo quoteItemRepo;
+
+    @MockitoSpyBean
+    private QuoteExportTemplate template;
+
+    @Test
+    void confirmedExport_isRenderedOnceUntilContentChanges() throws Exception {
+        Long confirmedId = createQuoteWithItems(12);
+        quoteService.confirm(confirmedId);
+        clearInvocations(template);
+
+        byte[] first = exportService.export(confirmedId, "xlsx").bytes();
+        byte[] second = exportService.export(confirmedId, "xlsx").bytes();
+        byte[] third = exportService.export(confirmedId, "xlsx").bytes();
+
+        assertThat(second).isSameAs(first);
+        assertThat(third).isSameAs(first);
+        verify(template, times(1)).open();
+
+        QuoteItemEntity item = quoteItemRepo.findByQuoteIdOrderByLineOrderAsc(confirmedId).get(0);
+        item.setRemark("changed after confirm");
+        quoteItemRepo.saveAndFlush(item);
+
+        assertThat(exportService.export(confirmedId, "xlsx").bytes()).isNotSameAs(first);
+        verify(template, times(2)).open();
+    }
+
+    @Test
+    void draftExport_rendersEveryTime() throws Exception {
+        Long draftId = createQuoteWithItems(3);
+        clearInvocations(template);
+
+        byte[] first = exportService.export(draftId, "xlsx").bytes();
+        byte[] second = exportService.export(draftId, "xlsx").bytes();
+
+        assertThat(second).isNotSameAs(first);
+        verify(template, times(2)).open();
+    }
+
+    private Long createQuoteWithItems(int itemCount) {
+        var createCmd = new QuoteService.CreateQuoteCommand();
+        createCmd.setSourceType(QuoteSourceType.MANUAL);
+        createCmd.setCustomerId(1L);
+        Long quoteId = quoteService.createDraft(createCmd, "test-user").getId();
+        for (int i = 0; i < itemCount; i++) {
+            var addCmd = new QuoteItemService.CreateItemCommand();
+            addCmd.setExpenseType(QuoteExpenseType.PARTS);
+            addCmd.setQuantity(i + 1);
+            addCmd.setUnitPrice(new BigDecimal("10.00"));
+            addCmd.setDescription("Item " + (i + 1));
+            addCmd.setWarehouse(QuoteItemWarehouse.HEADQUARTERS);
+            itemService.addItem(quoteId, addCmd);
+        }
+        return quoteId;
+    }
+}
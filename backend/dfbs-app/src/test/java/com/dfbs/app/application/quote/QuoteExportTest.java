@@ -11,7 +11,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -29,6 +36,9 @@ class QuoteExportTest {
     @Autowired
     private QuoteExportService exportService;
 
+    @Autowired
+    private QuoteBatchExportService batchExportService;
+
     private Long createQuoteWithItems(int itemCount) {
         var createCmd = new QuoteService.CreateQuoteCommand();
         createCmd.setSourceType(QuoteSourceType.MANUAL);
@@ -89,5 +99,32 @@ class QuoteExportTest {
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("DRAFT");
     }
-}
 
+    @Test
+    void exportBatch_zipsQuotesInOrder_andListsSkippedOnes() throws Exception {
+        Long first = createQuoteWithItems(2);
+        Long second = createQuoteWithItems(12);
+        Long cancelled = createQuoteWithItems(1);
+        quoteService.cancel(cancelled);
+        var request = new com.dfbs.app.application.quote.dto.QuoteBatchExportRequest();
+        request.setQuoteIds(List.of(second, first, cancelled, -1L));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchExportService.writeZip(batchExportService.prepare(request), out);
+
+        List<String> names = new ArrayList<>();
+        String errors = null;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry e = zip.getNextEntry(); e != null; e = zip.getNextEntry()) {
+                names.add(e.getName());
+                byte[] content = zip.readAllBytes();
+                if (e.getName().equals("errors.txt")) errors = new String(content, StandardCharsets.UTF_8);
+                else assertThat(content).isNotEmpty();
+            }
+        }
+        String secondNo = quoteService.findById(second).orElseThrow().getQuoteNo().replaceAll("[^a-zA-Z0-9_-]", "_");
+        assertThat(names).hasSize(3).last().isEqualTo("errors.txt");
+        assertThat(names.get(0)).isEqualTo("quote_" + secondNo + ".xlsx");
+        assertThat(errors).contains("quote " + cancelled + ":").contains("quote -1: not found");
+    }
+}
@@ -0,0 +1,98 @@
+package com.dfbs.app.application.quote;
+
+import com.dfbs.app.modules.quote.QuoteSequenceRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrency harness for QuoteNumberAllocator: several allocator instances (simulated app nodes, mixed block sizes)
+ * share one DB sequence row and are hammered from many threads. Every committed number must be unique.
+ * Not @Transactional: each allocation must commit so nodes really contend on the row.
+ */
+@SpringBootTest
+class QuoteNumberConcurrencyTest {
+
+    private static final String YEAR_MONTH = "2601";
+
+    @Autowired
+    private QuoteSequenceRepo sequenceRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final String user = "cc" + UUID.randomUUID().toString().substring(0, 8);
+
+    @AfterEach
+    void cleanup() {
+        sequenceRepo.findByUserInitialsAndYearMonth(user, YEAR_MONTH).ifPresent(sequenceRepo::delete);
+    }
+
+    @Test
+    void multipleNodes_highParallelism_noDuplicates() throws Exception {
+        List<QuoteNumberAllocator> nodes = List.of(
+                new QuoteNumberAllocator(sequenceRepo, transactionManager, 1),
+                new QuoteNumberAllocator(sequenceRepo, transactionManager, 1),
+                new QuoteNumberAllocator(sequenceRepo, transactionManager, 5),
+                new QuoteNumberAllocator(sequenceRepo, transactionManager, 20));
+        int threads = 16;
+        int perThread = 40;
+        Set<Integer> issued = ConcurrentHashMap.newKeySet();
+        List<Integer> duplicates = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                QuoteNumberAllocator node = nodes.get(t % nodes.size());
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        int seq = node.next(user, YEAR_MONTH);
+                        if (!issued.add(seq)) {
+                            synchronized (duplicates) {
+                                duplicates.add(seq);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(duplicates).isEmpty();
+        assertThat(issued).hasSize(threads * perThread);
+        int reserved = sequenceRepo.findByUserInitialsAndYearMonth(user, YEAR_MONTH).orElseThrow().getCurrentSeq();
+        assertThat(issued).allMatch(seq -> seq >= 1 && seq <= reserved);
+    }
+
+    @Test
+    void blockSizeOne_isGapFree() {
+        QuoteNumberAllocator node = new QuoteNumberAllocator(sequenceRepo, transactionManager, 1);
+
+        assertThat(node.next(user, YEAR_MONTH)).isEqualTo(1);
+        assertThat(node.next(user, YEAR_MONTH)).isEqualTo(2);
+        assertThat(node.next(user, YEAR_MONTH)).isEqualTo(3);
+    }
+}
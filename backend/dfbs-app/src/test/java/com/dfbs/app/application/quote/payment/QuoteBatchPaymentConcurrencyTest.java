@@ -0,0 +1,142 @@
+package com.dfbs.app.application.quote.payment;
+
+import com.dfbs.app.application.quote.QuoteItemService;
+import com.dfbs.app.application.quote.QuoteService;
+import com.dfbs.app.application.quote.dto.BatchPaymentRequest;
+import com.dfbs.app.application.quote.workflow.QuoteWorkflowService;
+import com.dfbs.app.modules.quote.QuoteEntity;
+import com.dfbs.app.modules.quote.payment.PaymentMethodRepo;
+import com.dfbs.app.modules.quote.payment.QuotePaymentEntity;
+import com.dfbs.app.modules.quote.payment.QuotePaymentRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two collectors submit the same batch payment at once: the quote locks serialize them and the second one sees the
+ * first one's SUBMITTED payments, so it is rejected instead of allocating the same unpaid amount again.
+ * Not @Transactional: each submission must commit so the two really contend.
+ */
+@SpringBootTest
+class QuoteBatchPaymentConcurrencyTest {
+
+    private static final Long COLLECTOR_ID = 20L;
+
+    @Autowired
+    private QuoteService quoteService;
+    @Autowired
+    private QuoteItemService itemService;
+    @Autowired
+    private QuoteWorkflowService workflowService;
+    @Autowired
+    private QuotePaymentService paymentService;
+    @Autowired
+    private QuotePaymentRepo paymentRepo;
+    @Autowired
+    private PaymentMethodRepo methodRepo;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private com.dfbs.app.modules.quote.dictionary.FeeTypeRepo feeTypeRepo;
+
+    private final List<Long> quoteIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        for (Long quoteId : quoteIds) {
+            jdbcTemplate.update("delete from quote_payment where quote_id = ?", quoteId);
+            jdbcTemplate.update("delete from quote_collector_history where quote_id = ?", quoteId);
+            jdbcTemplate.update("delete from quote_workflow_history where quote_id = ?", quoteId);
+            jdbcTemplate.update("delete from quote_item where quote_id = ?", quoteId);
+            jdbcTemplate.update("delete from quote where id = ?", quoteId);
+        }
+    }
+
+    private Long createQuoteViaWorkflow(BigDecimal totalAmount) {
+        Long id = new TransactionTemplate(transactionManager).execute(status -> {
+            var cmd = new QuoteService.CreateQuoteCommand();
+            cmd.setSourceType(com.dfbs.app.modules.quote.enums.QuoteSourceType.MANUAL);
+            cmd.setCustomerId(1L);
+            QuoteEntity quote = quoteService.createDraft(cmd, "u1");
+            var itemCmd = new QuoteItemService.CreateItemCommand();
+            itemCmd.setExpenseType(com.dfbs.app.modules.quote.enums.QuoteExpenseType.REPAIR);
+            itemCmd.setQuantity(1);
+            itemCmd.setUnitPrice(totalAmount);
+            itemCmd.setDescription("Test");
+            itemCmd.setUnit("?");
+            if (!feeTypeRepo.findByIsActiveTrue().isEmpty()) {
+                itemCmd.setFeeTypeId(feeTypeRepo.findByIsActiveTrue().get(0).getId());
+            }
+            itemService.addItem(quote.getId(), itemCmd);
+            workflowService.submit(quote.getId(), 10L);
+            workflowService.financeAudit(quote.getId(), "PASS", COLLECTOR_ID, 2L, "OK");
+            return quote.getId();
+        });
+        quoteIds.add(id);
+        return id;
+    }
+
+    @Test
+    void twoConcurrentBatches_sameQuotes_secondIsRejected() throws Exception {
+        Long quoteA = createQuoteViaWorkflow(BigDecimal.valueOf(100));
+        Long quoteB = createQuoteViaWorkflow(BigDecimal.valueOf(50));
+
+        BatchPaymentRequest req = new BatchPaymentRequest();
+        req.setQuoteIds(List.of(quoteA, quoteB));
+        req.setTotalPaymentAmount(BigDecimal.valueOf(150));
+        req.setPaymentTime(LocalDateTime.now());
+        req.setPaymentMethodId(methodRepo.findByIsActiveTrue().get(0).getId());
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        int succeeded = 0;
+        List<Throwable> failures = new ArrayList<>();
+        try {
+            List<Future<List<QuotePaymentEntity>>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return paymentService.createBatchPayment(req, COLLECTOR_ID);
+                }));
+            }
+            start.countDown();
+            for (Future<List<QuotePaymentEntity>> f : futures) {
+                try {
+                    f.get(1, TimeUnit.MINUTES);
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(failures).singleElement()
+                .isInstanceOf(IllegalArgumentException.class)
+                .extracting(Throwable::getMessage).asString().contains("待财务确认");
+        assertThat(paymentRepo.findByQuoteId(quoteA)).hasSize(1);
+        assertThat(paymentRepo.findByQuoteId(quoteB)).hasSize(1);
+    }
+}
@@ -0,0 +1,110 @@
+package com.dfbs.app.application.retention;
+
+import com.dfbs.app.modules.retention.RetentionRunEntity;
+import com.dfbs.app.modules.retention.RetentionRunRepo;
+import com.dfbs.app.modules.retention.RetentionRunStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Batched deletes with progress and the per-run batch limit; whole-partition drops on a monthly partitioned table.
+ * Not @Transactional: every batch commits on its own. Uses scratch tables.
+ */
+@SpringBootTest
+class RetentionEngineTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RetentionRunRepo runRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final String suffix = UUID.randomUUID().toString().substring(0, 8);
+    private final String plain = "retention_test_plain_" + suffix;
+    private final String parted = "retention_test_part_" + suffix;
+    private final LocalDateTime now = LocalDateTime.of(2026, 6, 15, 12, 0);
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + plain);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + parted);
+        runRepo.findTop20ByPolicyOrderByStartedAtDesc(plain).forEach(runRepo::delete);
+        runRepo.findTop20ByPolicyOrderByStartedAtDesc(parted).forEach(runRepo::delete);
+    }
+
+    @Test
+    void batchedDelete_recordsProgress_andStopsAtBatchLimit() {
+        jdbcTemplate.execute("CREATE TABLE " + plain + " (id BIGSERIAL PRIMARY KEY, kind VARCHAR(8), created_at TIMESTAMP NOT NULL)");
+        insert(plain, "A", now.minusDays(40), 25);
+        insert(plain, "B", now.minusDays(40), 5);
+        insert(plain, "A", now.minusDays(5), 3);
+        RetentionPolicy policy = new RetentionPolicy(plain, plain, "created_at", "kind = 'A'", 30, false);
+
+        RetentionRunEntity partial = engine(10, 2).run(policy, now);
+        assertThat(partial.getStatus()).isEqualTo(RetentionRunStatus.PARTIAL);
+        assertThat(partial.getDeletedRows()).isEqualTo(20L);
+        assertThat(partial.getBatches()).isEqualTo(2);
+
+        RetentionRunEntity done = engine(10, 0).run(policy, now);
+        assertThat(done.getStatus()).isEqualTo(RetentionRunStatus.COMPLETED);
+        assertThat(done.getDeletedRows()).isEqualTo(5L);
+        assertThat(runRepo.findById(done.getId())).hasValueSatisfying(r -> assertThat(r.getFinishedAt()).isNotNull());
+        // Other kinds and recent rows are kept
+        assertThat(count(plain)).isEqualTo(8);
+    }
+
+    @Test
+    void partitionedTable_dropsWholeExpiredMonths_thenDeletesBoundaryRows() {
+        jdbcTemplate.execute("CREATE TABLE " + parted + " (id BIGSERIAL, created_at TIMESTAMP NOT NULL) PARTITION BY RANGE (created_at)");
+        RetentionEngine engine = engine(100, 0);
+        LocalDate from = LocalDate.of(2026, 3, 1);
+        for (int i = 0; i < 4; i++) {
+            LocalDate month = from.plusMonths(i);
+            jdbcTemplate.execute(String.format("CREATE TABLE %s_m%d PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    parted, i, parted, month, month.plusMonths(1)));
+        }
+        assertThat(engine.ensureMonthlyPartitions(parted, now.toLocalDate(), 1)).isEqualTo(1);   // July
+        insert(parted, null, LocalDateTime.of(2026, 3, 10, 0, 0), 4);
+        insert(parted, null, LocalDateTime.of(2026, 4, 10, 0, 0), 4);
+        insert(parted, null, LocalDateTime.of(2026, 5, 10, 0, 0), 3);   // before cutoff (May 16), same month as it
+        insert(parted, null, LocalDateTime.of(2026, 5, 20, 0, 0), 2);
+
+        RetentionRunEntity run = engine.run(RetentionPolicy.wholeTable(parted, parted, "created_at", 30), now);
+
+        assertThat(run.getDroppedPartitions()).isEqualTo(2);
+        assertThat(run.getDeletedRows()).isEqualTo(3L);
+        assertThat(engine.listPartitions(parted)).hasSize(3);
+        assertThat(count(parted)).isEqualTo(2);
+    }
+
+    private RetentionEngine engine(int batchSize, int maxBatches) {
+        return new RetentionEngine(jdbcTemplate, runRepo, transactionManager, batchSize, 0, maxBatches);
+    }
+
+    private void insert(String table, String kind, LocalDateTime createdAt, int rows) {
+        for (int i = 0; i < rows; i++) {
+            if (kind != null) {
+                jdbcTemplate.update("INSERT INTO " + table + " (kind, created_at) VALUES (?, ?)", kind, createdAt);
+            } else {
+                jdbcTemplate.update("INSERT INTO " + table + " (created_at) VALUES (?)", createdAt);
+            }
+        }
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Integer.class);
+    }
+}
@@ -24,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -183,4 +184,58 @@ class AccountStatementTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("到账金额必须等于对账单合计");
     }
+
+    /**
+     * Test 4 (Month-end run): one statement per (customer, currency) over open quotes; paid quotes and quotes
+     * already on a pending statement are skipped, so a re-run only picks up new quotes. A run statement can be paid.
+     */
+    @Test
+    void test4_generateForCustomers_perCustomerAndCurrency_rerunSkipsPending() {
+        Long customerA = 900_000_000L + new Random().nextInt(1_000_000);
+        Long customerB = customerA + 1;
+        Long a1 = createQuoteViaWorkflow(BigDecimal.valueOf(100), customerA, collectorId, Currency.USD);
+        Long a2 = createQuoteViaWorkflow(BigDecimal.valueOf(50), customerA, collectorId, Currency.USD);
+        Long aCny = createQuoteViaWorkflow(BigDecimal.valueOf(30), customerA, collectorId, Currency.CNY);
+        Long b1 = createQuoteViaWorkflow(BigDecimal.valueOf(70), customerB, collectorId, Currency.USD);
+        Long bPaid = createQuoteViaWorkflow(BigDecimal.valueOf(20), customerB, collectorId, Currency.USD);
+        paymentService.submit(bPaid, BigDecimal.valueOf(20), methodRepo.findByIsActiveTrue().get(0).getId(),
+                LocalDateTime.now().minusMinutes(1), 2L, true, null);
+
+        AccountStatementService.StatementBatch batch =
+                statementService.generateForCustomers(List.of(customerA, customerB), creatorId);
+
+        assertThat(batch.statements()).hasSize(3);
+        assertThat(batch.itemCount()).isEqualTo(4);
+        AccountStatementEntity aUsd = batch.statements().stream()
+                .filter(s -> s.getCustomerId().equals(customerA) && s.getCurrency() == Currency.USD)
+                .findFirst().orElseThrow();
+        assertThat(aUsd.getTotalAmount()).isEqualByComparingTo(BigDecimal.valueOf(150));
+        assertThat(statementItemRepo.findByStatementIdOrderByIdAsc(aUsd.getId()))
+                .extracting(i -> i.getQuoteId())
+                .containsExactly(a1, a2);
+        assertThat(batch.statements()).extracting(AccountStatementEntity::getStatementNo).doesNotHaveDuplicates();
+        assertThat(batch.statements().stream().flatMap(s -> statementItemRepo.findByStatementIdOrderByIdAsc(s.getId()).stream())
+                .map(i -> i.getQuoteId()).toList())
+                .containsExactlyInAnyOrder(a1, a2, aCny, b1);
+
+        assertThat(statementService.generateForCustomers(List.of(customerA, customerB), creatorId).statements()).isEmpty();
+        Long b2 = createQuoteViaWorkflow(BigDecimal.valueOf(40), customerB, collectorId, Currency.USD);
+        AccountStatementService.StatementBatch rerun =
+                statementService.generateForCustomers(List.of(customerA, customerB), creatorId);
+        assertThat(rerun.statements()).singleElement()
+                .satisfies(s -> assertThat(s.getTotalAmount()).isEqualByComparingTo(BigDecimal.valueOf(40)));
+        assertThat(rerun.itemCount()).isEqualTo(1);
+
+        BatchPaymentRequest req = new BatchPaymentRequest();
+        req.setStatementId(aUsd.getId());
+        req.setCustomerId(customerA);
+        req.setTotalPaymentAmount(BigDecimal.valueOf(150));
+        req.setPaymentTime(LocalDateTime.now());
+        req.setPaymentMethodId(methodRepo.findByIsActiveTrue().get(0).getId());
+        List<QuotePaymentEntity> created = paymentService.createBatchPayment(req, collectorId);
+        assertThat(created).extracting(QuotePaymentEntity::getAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(BigDecimal.valueOf(100), BigDecimal.valueOf(50));
+        assertThat(statementService.getById(aUsd.getId()).getStatus()).isEqualTo(StatementStatus.RECONCILED);
+    }
 }
@@ -0,0 +1,177 @@
+package com.dfbs.app.application.statement;
+
+import com.dfbs.app.application.quote.QuoteItemService;
+import com.dfbs.app.application.quote.QuoteService;
+import com.dfbs.app.application.quote.workflow.QuoteWorkflowService;
+import com.dfbs.app.config.NodeIdentity;
+import com.dfbs.app.modules.quote.QuoteEntity;
+import com.dfbs.app.modules.quote.QuoteRepo;
+import com.dfbs.app.modules.quote.enums.Currency;
+import com.dfbs.app.modules.statement.AccountStatementItemRepo;
+import com.dfbs.app.modules.statement.AccountStatementRepo;
+import com.dfbs.app.modules.statement.StatementRunEntity;
+import com.dfbs.app.modules.statement.StatementRunRepo;
+import com.dfbs.app.modules.statement.StatementRunStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement runs across restarts and nodes: a restarted node fails the runs it left unfinished (only its own, only
+ * older than its start), and concurrent runs over one customer never put a quote on two PENDING statements.
+ * Not @Transactional: both need committed rows.
+ */
+@SpringBootTest
+class StatementRunServiceTest {
+
+    private static final Long CREATOR_ID = 1L;
+
+    @Autowired
+    private StatementRunService runService;
+    @Autowired
+    private StatementRunRepo runRepo;
+    @Autowired
+    private AccountStatementService statementService;
+    @Autowired
+    private NodeIdentity node;
+    @Autowired
+    private QuoteService quoteService;
+    @Autowired
+    private QuoteItemService itemService;
+    @Autowired
+    private QuoteWorkflowService workflowService;
+    @Autowired
+    private QuoteRepo quoteRepo;
+    @Autowired
+    private AccountStatementRepo statementRepo;
+    @Autowired
+    private AccountStatementItemRepo statementItemRepo;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private com.dfbs.app.modules.quote.dictionary.FeeTypeRepo feeTypeRepo;
+
+    private final Long customerId = 920_000_000L + new Random().nextInt(1_000_000);
+    private final List<Long> quoteIds = new ArrayList<>();
+    private final List<Long> runIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("delete from account_statement_item where statement_id in "
+                + "(select id from account_statement where customer_id = ?)", customerId);
+        jdbcTemplate.update("delete from account_statement where customer_id = ?", customerId);
+        for (Long quoteId : quoteIds) {
+            jdbcTemplate.update("delete from quote_collector_history where quote_id = ?", quoteId);
+            jdbcTemplate.update("delete from quote_workflow_history where quote_id = ?", quoteId);
+            jdbcTemplate.update("delete from quote_item where quote_id = ?", quoteId);
+            jdbcTemplate.update("delete from quote where id = ?", quoteId);
+        }
+        runRepo.deleteAllById(runIds);
+    }
+
+    private Long createQuoteViaWorkflow(BigDecimal totalAmount) {
+        Long id = new TransactionTemplate(transactionManager).execute(status -> {
+            var cmd = new QuoteService.CreateQuoteCommand();
+            cmd.setSourceType(com.dfbs.app.modules.quote.enums.QuoteSourceType.MANUAL);
+            cmd.setCustomerId(customerId);
+            QuoteEntity quote = quoteService.createDraft(cmd, "u1");
+            quote.setCurrency(Currency.USD);
+            quoteRepo.save(quote);
+            var itemCmd = new QuoteItemService.CreateItemCommand();
+            itemCmd.setExpenseType(com.dfbs.app.modules.quote.enums.QuoteExpenseType.REPAIR);
+            itemCmd.setQuantity(1);
+            itemCmd.setUnitPrice(totalAmount);
+            itemCmd.setDescription("Test");
+            itemCmd.setUnit("?");
+            if (!feeTypeRepo.findByIsActiveTrue().isEmpty()) {
+                itemCmd.setFeeTypeId(feeTypeRepo.findByIsActiveTrue().get(0).getId());
+            }
+            itemService.addItem(quote.getId(), itemCmd);
+            workflowService.submit(quote.getId(), 10L);
+            workflowService.financeAudit(quote.getId(), "PASS", 20L, 2L, "OK");
+            return quote.getId();
+        });
+        quoteIds.add(id);
+        return id;
+    }
+
+    private StatementRunEntity saveRun(StatementRunStatus status, String workerNode, boolean beforeStart) {
+        StatementRunEntity run = new StatementRunEntity();
+        run.setStatus(status);
+        run.setWorkerNode(workerNode);
+        run.setCreatedBy(CREATOR_ID);
+        run.setCreatedAt(beforeStart ? node.startedAt().minusMinutes(5) : node.startedAt().plusSeconds(1));
+        run = runRepo.save(run);
+        runIds.add(run.getId());
+        return run;
+    }
+
+    @Test
+    void startup_failsOnlyThisNodesRunsFromBeforeStart() {
+        StatementRunEntity interruptedRunning = saveRun(StatementRunStatus.RUNNING, node.nodeId(), true);
+        StatementRunEntity interruptedQueued = saveRun(StatementRunStatus.QUEUED, node.nodeId(), true);
+        StatementRunEntity otherNode = saveRun(StatementRunStatus.RUNNING, node.nodeId() + "-other", true);
+        StatementRunEntity current = saveRun(StatementRunStatus.QUEUED, node.nodeId(), false);
+
+        runService.failInterruptedRuns();
+
+        StatementRunEntity failed = runService.get(interruptedRunning.getId());
+        assertThat(failed.getStatus()).isEqualTo(StatementRunStatus.FAILED);
+        assertThat(failed.getErrorMessage()).contains("服务重启");
+        assertThat(failed.getFinishedAt()).isNotNull();
+        assertThat(runService.get(interruptedQueued.getId()).getStatus()).isEqualTo(StatementRunStatus.FAILED);
+        assertThat(runService.get(otherNode.getId()).getStatus()).isEqualTo(StatementRunStatus.RUNNING);
+        assertThat(runService.get(current.getId()).getStatus()).isEqualTo(StatementRunStatus.QUEUED);
+    }
+
+    @Test
+    void concurrentRuns_sameCustomer_eachQuoteOnOnePendingStatement() throws Exception {
+        Long q1 = createQuoteViaWorkflow(BigDecimal.valueOf(100));
+        Long q2 = createQuoteViaWorkflow(BigDecimal.valueOf(50));
+
+        int runs = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(runs);
+        try {
+            List<Future<AccountStatementService.StatementBatch>> futures = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return statementService.generateForCustomers(List.of(customerId), CREATOR_ID);
+                }));
+            }
+            start.countDown();
+            int statements = 0;
+            for (Future<AccountStatementService.StatementBatch> f : futures) {
+                statements += f.get(1, TimeUnit.MINUTES).statements().size();
+            }
+            assertThat(statements).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(statementRepo.findByCustomerIdOrderByCreatedAtDesc(customerId)).singleElement()
+                .satisfies(s -> assertThat(statementItemRepo.findByStatementIdOrderByIdAsc(s.getId()))
+                        .extracting(i -> i.getQuoteId())
+                        .containsExactly(q1, q2));
+    }
+}
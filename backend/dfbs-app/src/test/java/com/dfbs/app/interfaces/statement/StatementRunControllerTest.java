@@ -0,0 +1,180 @@
+package com.dfbs.app.interfaces.statement;
+
+import com.dfbs.app.application.quote.QuoteItemService;
+import com.dfbs.app.application.quote.QuoteService;
+import com.dfbs.app.application.quote.workflow.QuoteWorkflowService;
+import com.dfbs.app.modules.quote.QuoteEntity;
+import com.dfbs.app.modules.quote.QuoteRepo;
+import com.dfbs.app.modules.quote.enums.Currency;
+import com.dfbs.app.modules.statement.AccountStatementItemRepo;
+import com.dfbs.app.modules.statement.AccountStatementRepo;
+import com.dfbs.app.modules.user.UserEntity;
+import com.dfbs.app.modules.user.UserRepo;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * POST /api/v1/statements/runs queues a run and returns at once; GET /{id} reports progress until the background
+ * worker finishes. Not @Transactional: the worker reads committed quotes and commits its own chunks.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatementRunControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private QuoteService quoteService;
+    @Autowired
+    private QuoteItemService itemService;
+    @Autowired
+    private QuoteWorkflowService workflowService;
+    @Autowired
+    private QuoteRepo quoteRepo;
+    @Autowired
+    private AccountStatementRepo statementRepo;
+    @Autowired
+    private AccountStatementItemRepo statementItemRepo;
+    @Autowired
+    private UserRepo userRepo;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private com.dfbs.app.modules.quote.dictionary.FeeTypeRepo feeTypeRepo;
+
+    private final Long customerId = 910_000_000L + new Random().nextInt(1_000_000);
+    private final List<Long> quoteIds = new ArrayList<>();
+    private final List<Long> runIds = new ArrayList<>();
+    private Long managerId;
+    private Long otherUserId;
+
+    @BeforeEach
+    void setUp() {
+        managerId = saveUser("run-manager-" + customerId, true);
+        otherUserId = saveUser("run-other-" + customerId, false);
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("delete from account_statement_item where statement_id in "
+                + "(select id from account_statement where customer_id = ?)", customerId);
+        jdbcTemplate.update("delete from account_statement where customer_id = ?", customerId);
+        for (Long quoteId : quoteIds) {
+            jdbcTemplate.update("delete from quote_collector_history where quote_id = ?", quoteId);
+            jdbcTemplate.update("delete from quote_workflow_history where quote_id = ?", quoteId);
+            jdbcTemplate.update("delete from quote_item where quote_id = ?", quoteId);
+            jdbcTemplate.update("delete from quote where id = ?", quoteId);
+        }
+        for (Long runId : runIds) {
+            jdbcTemplate.update("delete from statement_run where id = ?", runId);
+        }
+        userRepo.deleteAllById(List.of(managerId, otherUserId));
+    }
+
+    private Long saveUser(String username, boolean canManageStatements) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setCanRequestPermission(false);
+        user.setAllowNormalNotification(true);
+        user.setCanManageStatements(canManageStatements);
+        return userRepo.save(user).getId();
+    }
+
+    private Long createQuoteViaWorkflow(BigDecimal totalAmount) {
+        Long id = new TransactionTemplate(transactionManager).execute(status -> {
+            var cmd = new QuoteService.CreateQuoteCommand();
+            cmd.setSourceType(com.dfbs.app.modules.quote.enums.QuoteSourceType.MANUAL);
+            cmd.setCustomerId(customerId);
+            QuoteEntity quote = quoteService.createDraft(cmd, "u1");
+            quote.setCurrency(Currency.USD);
+            quoteRepo.save(quote);
+            var itemCmd = new QuoteItemService.CreateItemCommand();
+            itemCmd.setExpenseType(com.dfbs.app.modules.quote.enums.QuoteExpenseType.REPAIR);
+            itemCmd.setQuantity(1);
+            itemCmd.setUnitPrice(totalAmount);
+            itemCmd.setDescription("Test");
+            itemCmd.setUnit("?");
+            if (!feeTypeRepo.findByIsActiveTrue().isEmpty()) {
+                itemCmd.setFeeTypeId(feeTypeRepo.findByIsActiveTrue().get(0).getId());
+            }
+            itemService.addItem(quote.getId(), itemCmd);
+            workflowService.submit(quote.getId(), 10L);
+            workflowService.financeAudit(quote.getId(), "PASS", 20L, 2L, "OK");
+            return quote.getId();
+        });
+        quoteIds.add(id);
+        return id;
+    }
+
+    @Test
+    void submit_thenPollUntilSucceeded() throws Exception {
+        Long q1 = createQuoteViaWorkflow(BigDecimal.valueOf(100));
+        Long q2 = createQuoteViaWorkflow(BigDecimal.valueOf(50));
+
+        String submitted = mvc.perform(post("/api/v1/statements/runs")
+                        .param("creatorId", managerId.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "customerIds": [%d] }
+                                """.formatted(customerId)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andReturn().getResponse().getContentAsString();
+        Long runId = ((Number) JsonPath.read(submitted, "$.id")).longValue();
+        runIds.add(runId);
+
+        String status = null;
+        String body = null;
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            body = mvc.perform(get("/api/v1/statements/runs/{id}", runId).param("userId", managerId.toString()))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            status = JsonPath.read(body, "$.status");
+            if ("SUCCEEDED".equals(status) || "FAILED".equals(status)) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+
+        assertThat(status).as(body).isEqualTo("SUCCEEDED");
+        assertThat((Integer) JsonPath.read(body, "$.customerTotal")).isEqualTo(1);
+        assertThat((Integer) JsonPath.read(body, "$.customerDone")).isEqualTo(1);
+        assertThat((Integer) JsonPath.read(body, "$.statementCount")).isEqualTo(1);
+        assertThat((Integer) JsonPath.read(body, "$.itemCount")).isEqualTo(2);
+        assertThat(statementRepo.findByCustomerIdOrderByCreatedAtDesc(customerId).stream()
+                .flatMap(s -> statementItemRepo.findByStatementIdOrderByIdAsc(s.getId()).stream())
+                .map(i -> i.getQuoteId()).toList())
+                .containsExactlyInAnyOrder(q1, q2);
+    }
+
+    @Test
+    void submitAndGet_withoutPermission_forbidden() throws Exception {
+        mvc.perform(post("/api/v1/statements/runs").param("creatorId", otherUserId.toString()))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/api/v1/statements/runs/{id}", 1L).param("userId", otherUserId.toString()))
+                .andExpect(status().isForbidden());
+    }
+}